@@ -12,6 +12,7 @@
  * own identifying information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.forgerock.openicf.csvfile;
 
@@ -66,6 +67,12 @@ public class CSVFileConfiguration extends AbstractConfiguration {
      */
     private int syncFileRetentionCount = 3;
 
+    /**
+     * The number of update and delete records the journal holds before it is compacted into the CSV, 0 rewrites the
+     * CSV on every update and delete.
+     */
+    private int journalCompactionThreshold = 0;
+
 
 
     @ConfigurationProperty(displayMessageKey = "csv_filepath.display",
@@ -139,6 +146,16 @@ public class CSVFileConfiguration extends AbstractConfiguration {
         this.syncFileRetentionCount = syncFileRetentionCount;
     }
 
+    @ConfigurationProperty(displayMessageKey = "journal_compaction_threshold.display",
+            helpMessageKey = "journal_compaction_threshold.help")
+    public int getJournalCompactionThreshold() {
+        return journalCompactionThreshold;
+    }
+
+    public void setJournalCompactionThreshold(int journalCompactionThreshold) {
+        this.journalCompactionThreshold = journalCompactionThreshold;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -162,6 +179,9 @@ public class CSVFileConfiguration extends AbstractConfiguration {
         if (!csvFile.canWrite()) {
             throw new ConfigurationException("Can't write to file '" + csvFile.getAbsolutePath() + "'.");
         }
+        if (journalCompactionThreshold < 0) {
+            throw new ConfigurationException("Journal compaction threshold must not be negative.");
+        }
 
         log.ok("end");
     }
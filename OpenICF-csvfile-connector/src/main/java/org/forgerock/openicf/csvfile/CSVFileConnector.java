@@ -14,16 +14,23 @@
  * Copyright 2015-2016 ForgeRock AS
  * Portions Copyright 2011 Viliam Repan
  * Portions Copyright 2011 Radovan Semancik
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.forgerock.openicf.csvfile;
 
-import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -45,7 +52,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.identityconnectors.common.Base64;
-import org.apache.commons.io.FileUtils;
 import org.identityconnectors.common.logging.Log;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.common.security.SecurityUtil;
@@ -89,6 +95,7 @@ import org.identityconnectors.framework.common.objects.SyncDeltaType;
 import org.identityconnectors.framework.common.objects.SyncResultsHandler;
 import org.identityconnectors.framework.common.objects.SyncToken;
 import org.identityconnectors.framework.common.objects.Uid;
+import org.identityconnectors.framework.common.objects.filter.EqualsFilter;
 import org.identityconnectors.framework.common.objects.filter.Filter;
 import org.identityconnectors.framework.common.objects.filter.FilterTranslator;
 import org.identityconnectors.framework.spi.Configuration;
@@ -168,9 +175,17 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
     private CsvPreference csvPreference = CsvPreference.STANDARD_PREFERENCE;
 
     /**
-     * Records the number of rows in the CSV file.
+     * CSV file-name to row {@link CSVFileIndex} lookup map, the index of a file is built when first used and rebuilt
+     * when the file was modified outside of the connector.
      */
-    private static final Map<String, Integer> totalRowCount = new ConcurrentHashMap<String, Integer>();
+    private static final ConcurrentHashMap<String, CSVFileIndex> fileNameToIndexMap =
+            new ConcurrentHashMap<String, CSVFileIndex>();
+
+    /**
+     * CSV file-name to update and delete {@link CSVFileJournal} lookup map.
+     */
+    private static final ConcurrentHashMap<String, CSVFileJournal> fileNameToJournalMap =
+            new ConcurrentHashMap<String, CSVFileJournal>();
 
     /**
      * Gets the Configuration context for this connector.
@@ -217,7 +232,14 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
             fileNameToHeaderSetMap.put(csvFilePath,
                     Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(header))));
 
-            totalRowCount.put(csvFilePath, -1);
+            try {
+                fileNameToJournalMap.put(csvFilePath, CSVFileJournal.load(csvFile, header,
+                        ((CSVFileConfiguration) config).getHeaderUid(), csvPreference));
+            } catch (IOException e) {
+                log.error(e, "Error reading from {0}!", CSVFileJournal.getFile(csvFile).toString());
+                throw new ConnectorIOException(
+                        "Error reading from file " + CSVFileJournal.getFile(csvFile).toString(), e);
+            }
 
             // this line must be last within this if-block, to preserve concurrency semantics
             fileNameToLockMap.putIfAbsent(csvFilePath, new ReentrantReadWriteLock());
@@ -230,6 +252,7 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
      * @see org.identityconnectors.framework.spi.Connector#dispose()
      */
     public void dispose() {
+        // the journal outlives the connector, which is disposed after every operation
         config = null;
     }
 
@@ -340,35 +363,12 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
         final ReadLock lock = fileNameToLockMap.get(csvFilePath).readLock();
         lock.lock();
         try {
-            if (handler instanceof SearchResultsHandler && totalRowCount.get(csvFilePath) == -1) {
-                BufferedReader rowReader = null;
-                try {
-                    rowReader = new BufferedReader(new FileReader(csvFilePath));
-                    while (rowReader.readLine() != null) {
-                        totalRowCount.put(csvFilePath, totalRowCount.get(csvFilePath) + 1);
-                    }
-                } catch (Exception e) {
-                    // just leave count at -1
-                } finally {
-                    if (rowReader != null) {
-                        try {
-                            rowReader.close();
-                        } catch (IOException e) {
-                            log.error(e, "Failed to close file {0}", csvFilePath);
-                        }
-                    }
-                }
-            }
-
-            reader = new CsvMapReader(new FileReader(config.getCsvFile()), csvPreference);
-
+            final CSVFileIndex index = getIndex();
             final CellProcessor[] processors = getProcessors(header);
 
-            Map<String, Object> entry;
-            reader.read(header, processors); // consume the header
-
             int pageSize = options == null || options.getPageSize() == null ? 0 : options.getPageSize();
             int rowOffset = 0;
+            int matchOffset = 0;
             if (options != null) {
                 if (options.getPagedResultsCookie() != null) {
                     try {
@@ -376,37 +376,70 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
                     } catch (Exception e) {
                         throw new ConnectorException("PagedResultsCookie is invalid", e);
                     }
+                    if (rowOffset < 0) {
+                        throw new ConnectorException("PagedResultsCookie is invalid");
+                    }
                 } else if (options.getPagedResultsOffset() != null) {
-                    rowOffset = options.getPagedResultsOffset();
+                    // the offset counts the matching rows, without a filter every row matches
+                    if (query == null) {
+                        rowOffset = Math.max(0, options.getPagedResultsOffset());
+                    } else {
+                        matchOffset = options.getPagedResultsOffset();
+                    }
                 }
             }
-            int nextRowOffset = (pageSize > 0)
-                    ? rowOffset + pageSize
-                    : 0;
-            int resultsHandled = pageSize;
+            // the cookie is the number of the row following the last row read
+            int nextRowOffset = Math.min(rowOffset, index.size());
 
-            while ((entry = reader.read(header, processors)) != null) {
-                ConnectorObject object = newConnectorObject(entry);
-                if (query == null || query.accept(object)) {
-                    if (rowOffset-- <= 0) {
-                        if (!handler.handle(newConnectorObject(entry))) {
-                            break;
+            Map<String, Object> entry;
+            final String uid = getIndexedUid(query);
+            if (uid != null) {
+                // exact match on the uid column, read the only candidate row
+                Integer row = index.getRow(uid);
+                if (row != null && row >= rowOffset && matchOffset <= 0) {
+                    entry = readRow(uid);
+                    if (entry != null) {
+                        ConnectorObject object = newConnectorObject(entry);
+                        if (query.accept(object)) {
+                            handler.handle(object);
                         }
-                        if (pageSize > 0 && --resultsHandled <= 0) {
-                            break;
+                    }
+                }
+                nextRowOffset = index.size();
+            } else if (nextRowOffset < index.size()) {
+                reader = getReader(index.getOffset(nextRowOffset));
+                int resultsHandled = pageSize;
+
+                while ((entry = reader.read(header, processors)) != null) {
+                    nextRowOffset++;
+                    entry = applyJournal(entry);
+                    if (entry == null) {
+                        continue;
+                    }
+                    ConnectorObject object = newConnectorObject(entry);
+                    if (query == null || query.accept(object)) {
+                        if (matchOffset-- <= 0) {
+                            if (!handler.handle(object)) {
+                                break;
+                            }
+                            if (pageSize > 0 && --resultsHandled <= 0) {
+                                break;
+                            }
                         }
                     }
                 }
             }
 
-            if (handler instanceof SearchResultsHandler && totalRowCount.get(csvFilePath) > -1) {
+            if (handler instanceof SearchResultsHandler) {
+                // the rows deleted in the journal are still in the index
+                final int deleted = getJournal().getDeletedCount();
                 SearchResult searchResult = new SearchResult(
-                        nextRowOffset > totalRowCount.get(csvFilePath)
+                        pageSize <= 0 || nextRowOffset >= index.size()
                                 ? null
                                 : Base64.encode(String.valueOf(nextRowOffset).getBytes()),
-                        SearchResult.CountPolicy.EXACT,
-                        totalRowCount.get(csvFilePath),
-                        Math.max(0, totalRowCount.get(csvFilePath) - nextRowOffset));
+                        deleted > 0 ? SearchResult.CountPolicy.ESTIMATE : SearchResult.CountPolicy.EXACT,
+                        index.size() - deleted,
+                        Math.max(0, index.size() - deleted - nextRowOffset));
                 ((SearchResultsHandler) handler).handleResult(searchResult);
             }
         } catch (FileNotFoundException e) {
@@ -444,6 +477,9 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
         final ReentrantReadWriteLock rwLock = fileNameToLockMap.get(csvFilePath);
         rwLock.writeLock().lock();
         try {
+            // the snapshot and the diff read the CSV file only
+            compactJournal();
+
             if (token != null && token.getValue() != null) {
                 syncOrigin = new File(config.getCsvFile().getParentFile(),
                         config.getCsvFile().getName() + "." + token.getValue());
@@ -469,7 +505,10 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
 
         // we now have a read-lock unless the above block threw an Exception
         try {
-            // Sync deletes
+            // Index the current rows by uid, the origin and the current file are then read once each
+            final Map<String, byte[]> currentRows = indexRows(config.getCsvFile(), header);
+
+            // Sync deletes, and mark the current rows as unchanged (removed from the index) or updated (null digest)
             ICsvMapReader reader = null;
             try {
                 reader = new CsvMapReader(new FileReader(syncOrigin), csvPreference);
@@ -477,19 +516,25 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
                 compareHeaders(originHeader);
 
                 final CellProcessor[] processors = getProcessors(originHeader);
+                final MessageDigest digest = getRowDigest();
 
                 Map<String, Object> entry;
+                boolean handleDeletes = true;
                 while ((entry = reader.read(originHeader, processors)) != null) {
-                    ConnectorObject originObject = newConnectorObject(entry);
-                    ConnectorObject currentObject = findObjectInFile(null, originObject.getUid());
-                    if (currentObject == null) {
-                        SyncDelta delta = generateSyncDelta(originObject, null, token);
-                        if (delta != null) {
-                            if (!handler.handle(delta)) {
-                                break;
+                    String uid = (String) entry.get(config.getHeaderUid());
+                    if (!currentRows.containsKey(uid)) {
+                        if (handleDeletes) {
+                            ConnectorObject originObject = newConnectorObject(entry);
+                            if (handler.handle(generateSyncDelta(SyncDeltaType.DELETE, originObject, token))) {
+                                changesProcessed = true;
+                            } else {
+                                handleDeletes = false;
                             }
-                            changesProcessed = true;
                         }
+                    } else if (Arrays.equals(currentRows.get(uid), digestRow(digest, entry, header))) {
+                        currentRows.remove(uid);
+                    } else {
+                        currentRows.put(uid, null);
                     }
                 }
             } catch (FileNotFoundException e) {
@@ -518,15 +563,18 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
                 Map<String, Object> entry;
                 reader.read(header, processors); //consume header
                 while ((entry = reader.read(header, processors)) != null) {
-                    ConnectorObject currentObject = newConnectorObject(entry);
-                    ConnectorObject originObject = findObjectInFile(syncOrigin, currentObject.getUid());
-                    SyncDelta delta = generateSyncDelta(originObject, currentObject, token);
-                    if (delta != null) {
-                        if (!handler.handle(delta)) {
-                            break;
-                        }
-                        changesProcessed = true;
+                    String uid = (String) entry.get(config.getHeaderUid());
+                    if (!currentRows.containsKey(uid)) {
+                        // unchanged since the origin
+                        continue;
+                    }
+                    SyncDelta delta = generateSyncDelta(currentRows.get(uid) == null
+                            ? SyncDeltaType.UPDATE
+                            : SyncDeltaType.CREATE, newConnectorObject(entry), token);
+                    if (!handler.handle(delta)) {
+                        break;
                     }
+                    changesProcessed = true;
                 }
             } catch (FileNotFoundException e) {
                 log.error(e, "File {0} does not exist!", config.getCsvFile().toString());
@@ -642,15 +690,39 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
         if (observer == null) {
             throw new ConnectorException("BatchResult Observer cannot be null");
         }
-        BatchTaskExecutorImpl executor = new BatchTaskExecutorImpl();
+        // the tasks change the rows in memory, the file is rewritten once for the whole batch
+        final List<Object> results = new ArrayList<Object>(batchTasks.size());
+        final Map<Integer, Exception> errors = new HashMap<Integer, Exception>();
+        final WriteLock lock = fileNameToLockMap.get(csvFilePath).writeLock();
+        lock.lock();
+        try {
+            BatchTaskExecutorImpl executor = new BatchTaskExecutorImpl();
+            for (int i = 0; i < batchTasks.size(); i++) {
+                try {
+                    results.add(batchTasks.get(i).execute(executor));
+                } catch (Exception e) {
+                    results.add(null);
+                    errors.put(i, e);
+                }
+            }
+            if (!executor.changes.isEmpty()) {
+                rewriteFile(executor.changes);
+            }
+        } catch (IOException e) {
+            log.error(e, "Error writing to {0}!", config.getCsvFile().toString());
+            observer.onError(new ConnectorIOException("Error writing to file " + config.getCsvFile().toString(), e));
+            results.clear();
+        } finally {
+            lock.unlock();
+        }
+
         int taskId = 0;
-        for (int i = 0; i < batchTasks.size(); i++) {
-            BatchTask task = batchTasks.get(i);
-            try {
-                observer.onNext(new BatchResult(task.execute(executor), null, String.valueOf(taskId++),
+        for (int i = 0; i < results.size(); i++) {
+            if (errors.containsKey(i)) {
+                observer.onError(errors.get(i));
+            } else {
+                observer.onNext(new BatchResult(results.get(i), null, String.valueOf(taskId++),
                         i == batchTasks.size() - 1, false));
-            } catch (Exception e) {
-                observer.onError(e);
             }
         }
         observer.onCompleted();
@@ -667,18 +739,80 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
         };
     }
 
+    /**
+     * Applies the batch tasks to the rows in memory, the changes are written by
+     * {@link CSVFileConnector#rewriteFile(Map)}.
+     */
     private class BatchTaskExecutorImpl implements BatchTaskExecutor {
+
+        /**
+         * The uid of a row of the file, or a new key for a created row, to the changed row, {@code null} for a deleted
+         * row.
+         */
+        private final Map<Object, Map<String, Object>> changes = new LinkedHashMap<Object, Map<String, Object>>();
+
+        /**
+         * The current uid of a changed row to its key in {@link #changes}, an update may change the uid.
+         */
+        private final Map<String, Object> keys = new HashMap<String, Object>();
+
+        private Map<String, Object> getRow(String uid) {
+            final Object key = keys.get(uid);
+            if (key != null) {
+                return new HashMap<String, Object>(changes.get(key));
+            }
+            // deleted, or the uid was changed by an update
+            return changes.containsKey(uid) ? null : readRow(uid);
+        }
+
+        private void putRow(String uid, Map<String, Object> row) {
+            Object key = keys.remove(uid);
+            if (key == null) {
+                key = changes.containsKey(uid) ? new Object() : uid;
+            }
+            changes.put(key, row);
+            if (row != null) {
+                keys.put((String) row.get(config.getHeaderUid()), key);
+            }
+        }
+
         public Uid execute(CreateBatchTask task) {
-            return doCreate(task.getCreateAttributes(), task.getOptions());
+            final Map<String, Object> row = newRow(task.getCreateAttributes());
+            final String uid = (String) row.get(config.getHeaderUid());
+            if (getRow(uid) != null) {
+                throw new AlreadyExistsException(String.format("Account %s already exists.", uid));
+            }
+            putRow(uid, row);
+            return new Uid(uid);
         }
 
         public BatchEmptyResult execute(DeleteBatchTask task) {
-            doDelete(task.getUid(), task.getOptions());
+            final Uid uid = task.getUid();
+            if (uid == null) {
+                throw new IllegalArgumentException("Uid cannot be null");
+            }
+            if (getRow(uid.getUidValue()) == null) {
+                throw new UnknownUidException("Object for uid " + uid.toString() + " does not exist");
+            }
+            putRow(uid.getUidValue(), null);
             return null;
         }
 
         public Uid execute(UpdateBatchTask task) {
-            return doUpdate(task.getUpdateType(), task.getUid(), task.getAttributes(), task.getOptions());
+            final Uid uid = task.getUid();
+            if (uid == null) {
+                throw new IllegalArgumentException("Uid may not be null");
+            }
+            if (task.getAttributes() == null) {
+                throw new IllegalArgumentException("Attribute set may not be null");
+            }
+            final Map<String, Object> row = getRow(uid.getUidValue());
+            if (row == null) {
+                throw new UnknownUidException("Uid " + uid.getUidValue() + " does not exist");
+            }
+            applyAttributes(task.getUpdateType(), row, task.getAttributes());
+            putRow(uid.getUidValue(), row);
+            return new Uid((String) row.get(config.getHeaderUid()));
         }
     }
 
@@ -706,53 +840,31 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
             return null;
         }
 
-        final String[] header = getHeader();
         final Set<String> headerSet = fileNameToHeaderSetMap.get(csvFilePath);
-        ICsvMapReader reader = null;
 
         final ReadLock lock = fileNameToLockMap.get(csvFilePath).readLock();
         lock.lock();
         try {
-            reader = new CsvMapReader(new FileReader(config.getCsvFile()), csvPreference);
-
             if (password != null && !headerSet.contains(config.getHeaderPassword())) {
                 throw new ConfigurationException("Password column must be defined and exist in the CSV.");
             }
 
-            final CellProcessor[] processors = getProcessors(header);
-
-            Map<String, Object> entry;
-            while ((entry = reader.read(header, processors)) != null) {
-                if (uid != null && uid.getUidValue().equals(entry.get(config.getHeaderUid()))) {
-                    Uid foundUid = new Uid((String) entry.get(config.getHeaderUid()));
-                    if (password == null) {
-                        return foundUid;
-                    }
-                    final Map<String, Object> finalEntry = entry;
-                    password.access(new GuardedString.Accessor() {
-                        public void access(char[] chars) {
-                            if (!new String(chars).equals(finalEntry.get(config.getHeaderPassword()))) {
-                                throw new InvalidPasswordException("Invalid username and/or password.");
-                            }
-                        }
-                    });
+            final Map<String, Object> entry = uid != null ? readRow(uid.getUidValue()) : null;
+            if (entry != null) {
+                Uid foundUid = new Uid((String) entry.get(config.getHeaderUid()));
+                if (password == null) {
                     return foundUid;
                 }
+                password.access(new GuardedString.Accessor() {
+                    public void access(char[] chars) {
+                        if (!new String(chars).equals(entry.get(config.getHeaderPassword()))) {
+                            throw new InvalidPasswordException("Invalid username and/or password.");
+                        }
+                    }
+                });
+                return foundUid;
             }
-        } catch (FileNotFoundException e) {
-            log.error(e, "File {0} does not exist!", config.getCsvFile().toString());
-            throw new ConnectorIOException("File " + config.getCsvFile().toString() + " does not exist", e);
-        } catch (IOException e) {
-            log.error(e, "Error reading from {0}!", config.getCsvFile().toString());
-            throw new ConnectorIOException("Error reading from file " + config.getCsvFile().toString(), e);
         } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (Exception e) {
-                    log.error(e, "Error closing file reader");
-                }
-            }
             lock.unlock();
         }
         return null;
@@ -793,6 +905,102 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
         }
     }
 
+    /**
+     * Opens a reader positioned at the given byte offset of the CSV file.
+     */
+    private ICsvMapReader getReader(long offset) throws IOException {
+        final FileInputStream in = new FileInputStream(config.getCsvFile());
+        try {
+            in.getChannel().position(offset);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new CsvMapReader(new InputStreamReader(in), csvPreference);
+    }
+
+    /**
+     * Returns the row index of the CSV file, rebuilt if the file was modified since it was built. The read or the
+     * write lock of the file must be held.
+     */
+    private CSVFileIndex getIndex() {
+        CSVFileIndex index = fileNameToIndexMap.get(csvFilePath);
+        if (index == null || !index.isCurrent(config.getCsvFile())) {
+            try {
+                index = CSVFileIndex.build(config.getCsvFile(), config.getQuoteCharacter().charAt(0),
+                        config.getFieldDelimiter().charAt(0), Arrays.asList(getHeader()).indexOf(config.getHeaderUid()));
+            } catch (FileNotFoundException e) {
+                log.error(e, "File {0} does not exist!", config.getCsvFile().toString());
+                throw new ConnectorIOException("File " + config.getCsvFile().toString() + " does not exist", e);
+            } catch (IOException e) {
+                log.error(e, "Error reading from {0}!", config.getCsvFile().toString());
+                throw new ConnectorIOException("Error reading from file " + config.getCsvFile().toString(), e);
+            }
+            fileNameToIndexMap.put(csvFilePath, index);
+        }
+        return index;
+    }
+
+    private CSVFileJournal getJournal() {
+        return fileNameToJournalMap.get(csvFilePath);
+    }
+
+    /**
+     * Replaces a row read from the CSV file with its journal record, {@code null} if the row was deleted.
+     */
+    private Map<String, Object> applyJournal(Map<String, Object> entry) {
+        final String uid = (String) entry.get(config.getHeaderUid());
+        return getJournal().contains(uid) ? getJournal().get(uid) : entry;
+    }
+
+    /**
+     * Reads the row with the given uid through the journal and the row index, {@code null} if there is no such row.
+     * The read or the write lock of the file must be held.
+     */
+    private Map<String, Object> readRow(String uid) {
+        if (getJournal().contains(uid)) {
+            return getJournal().get(uid);
+        }
+        final CSVFileIndex index = getIndex();
+        final Integer row = index.getRow(uid);
+        if (row == null) {
+            return null;
+        }
+        ICsvMapReader reader = null;
+        try {
+            reader = getReader(index.getOffset(row));
+            final Map<String, Object> entry = reader.read(getHeader(), getProcessors(getHeader()));
+            return entry != null && uid.equals(entry.get(config.getHeaderUid())) ? entry : null;
+        } catch (IOException e) {
+            log.error(e, "Error reading from {0}!", config.getCsvFile().toString());
+            throw new ConnectorIOException("Error reading from file " + config.getCsvFile().toString(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (Exception e) {
+                    log.error(e, "Error closing file reader");
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the uid of an exact match query on the uid column, which can be looked up in the row index, or
+     * {@code null} for any other query.
+     */
+    private String getIndexedUid(Filter query) {
+        if (query instanceof EqualsFilter) {
+            Attribute attr = ((EqualsFilter) query).getAttribute();
+            if (getHeaderNameForAttrName(attr.getName()).equals(config.getHeaderUid())
+                    && attr.getValue() != null && attr.getValue().size() == 1
+                    && attr.getValue().get(0) instanceof String) {
+                return (String) attr.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
     private List<AttributeInfo> createAttributeInfo(String[] names) {
         List<AttributeInfo> infos = new ArrayList<AttributeInfo>();
         for (String name : names) {
@@ -836,35 +1044,30 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
         return builder.build();
     }
 
-    private ConnectorObject findObjectInFile(File file, Uid uid) {
+    /**
+     * Reads the rows of the given file into a uid to row digest lookup map, the memory used is bounded by the number
+     * of rows and not by their size.
+     */
+    private Map<String, byte[]> indexRows(File file, String[] header) {
+        final Map<String, byte[]> rows = new HashMap<String, byte[]>();
+        final MessageDigest digest = getRowDigest();
         ICsvMapReader reader = null;
-
-        final ReentrantReadWriteLock rwLock =
-                fileNameToLockMap.get(file == null ? csvFilePath : file.getAbsolutePath());
-        if (rwLock != null) {
-            // CSVFileConnector manages locks for the given file
-            rwLock.readLock().lock();
-        }
         try {
-            reader = new CsvMapReader(new FileReader(file == null ? config.getCsvFile() : file),
-                    csvPreference);
-            final String[] header = rwLock != null ? getHeader() : readHeader(reader);
+            reader = new CsvMapReader(new FileReader(file), csvPreference);
 
             final CellProcessor[] processors = getProcessors(header);
 
             Map<String, Object> entry;
+            reader.read(header, processors); // consume header
             while ((entry = reader.read(header, processors)) != null) {
-                ConnectorObject object = newConnectorObject(entry);
-                if (object.getUid().getUidValue().equals(uid.getUidValue())) {
-                    return object;
-                }
+                rows.put((String) entry.get(config.getHeaderUid()), digestRow(digest, entry, header));
             }
         } catch (FileNotFoundException e) {
-            log.error(e, "File {0} does not exist!", config.getCsvFile().toString());
-            throw new ConnectorIOException("File " + config.getCsvFile().toString() + " does not exist", e);
+            log.error(e, "File {0} does not exist!", file.toString());
+            throw new ConnectorIOException("File " + file.toString() + " does not exist", e);
         } catch (IOException e) {
-            log.error(e, "Error reading from {0}!", config.getCsvFile().toString());
-            throw new ConnectorIOException("Error reading from file " + config.getCsvFile().toString(), e);
+            log.error(e, "Error reading from {0}!", file.toString());
+            throw new ConnectorIOException("Error reading from file " + file.toString(), e);
         } finally {
             if (reader != null) {
                 try {
@@ -873,50 +1076,44 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
                     log.error(e, "Error closing file reader");
                 }
             }
-            if (rwLock != null) {
-                rwLock.readLock().unlock();
-            }
         }
-        return null;
+        return rows;
     }
 
-    private SyncDelta generateSyncDelta(ConnectorObject origin, ConnectorObject current, SyncToken token) {
-        SyncDeltaBuilder builder = new SyncDeltaBuilder();
-        builder.setUid(origin == null ? current.getUid() : origin.getUid());
-        builder.setToken(token);
-
-        if (current == null) {
-            builder.setDeltaType(SyncDeltaType.DELETE);
-            builder.setObject(origin);
-        } else if (origin == null) {
-            builder.setDeltaType(SyncDeltaType.CREATE);
-            builder.setObject(current);
-        } else if (objectsDiffer(origin, current)) {
-            builder.setDeltaType(SyncDeltaType.UPDATE);
-            builder.setObject(current);
-        } else {
-            return null;
+    private MessageDigest getRowDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ConnectorException("Unable to create the row digest for sync operation", e);
         }
-
-        return builder.build();
     }
 
-    private boolean objectsDiffer(ConnectorObject left, ConnectorObject right) {
-        for (Attribute attrL : left.getAttributes()) {
-            Attribute attrR = right.getAttributeByName(attrL.getName());
-            if (attrR == null || !attrR.equals(attrL)) {
-                return true;
-            }
-        }
-        for (Attribute attrR : right.getAttributes()) {
-            Attribute attrL = left.getAttributeByName(attrR.getName());
-            if (attrL == null || !attrL.equals(attrR)) {
-                return true;
+    /**
+     * Digests the values of a row in the column order of the given header, so rows of files with differently ordered
+     * headers compare equal.
+     */
+    private byte[] digestRow(MessageDigest digest, Map<String, Object> entry, String[] header) {
+        for (String col : header) {
+            Object value = entry.get(col);
+            if (value == null) {
+                digest.update((byte) 0);
+            } else {
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                digest.update((byte) 1);
+                digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+                digest.update(bytes);
             }
         }
-        return left.getUid().getUidValue().equals(right.getUid().getUidValue())
-                && left.getObjectClass().equals(right.getObjectClass())
-                && left.getName().getNameValue().equals(right.getName().getNameValue());
+        return digest.digest();
+    }
+
+    private SyncDelta generateSyncDelta(SyncDeltaType type, ConnectorObject object, SyncToken token) {
+        SyncDeltaBuilder builder = new SyncDeltaBuilder();
+        builder.setUid(object.getUid());
+        builder.setToken(token);
+        builder.setDeltaType(type);
+        builder.setObject(object);
+        return builder.build();
     }
 
     private void scrubSyncFiles() {
@@ -954,6 +1151,57 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
     }
 
     private Uid doCreate(Set<Attribute> attributes, OperationOptions options) {
+        final Map<String, Object> colMap = newRow(attributes);
+        final Uid uid = new Uid((String) colMap.get(config.getHeaderUid()));
+        if (findAccount(uid, null, options) != null) {
+            throw new AlreadyExistsException(String.format("Account %s already exists.", uid.getUidValue()));
+        }
+
+        final String[] header = getHeader();
+        ICsvMapWriter mapWriter = null;
+
+        final WriteLock lock = fileNameToLockMap.get(csvFilePath).writeLock();
+        lock.lock();
+        try {
+            if (getJournal().contains(uid.getUidValue())) {
+                // the journal deleted a row with the same uid, which would hide the appended row
+                compactJournal();
+            }
+            // the appended row is added to a current index, any other index is dropped
+            CSVFileIndex index = fileNameToIndexMap.get(csvFilePath);
+            if (index != null && !index.isCurrent(config.getCsvFile())) {
+                fileNameToIndexMap.remove(csvFilePath);
+                index = null;
+            }
+            final long offset = config.getCsvFile().length();
+            mapWriter = new CsvMapWriter(new FileWriter(config.getCsvFile(), true), csvPreference);
+            final CellProcessor[] processors = getProcessors(header);
+            mapWriter.write(colMap, header, processors);
+            mapWriter.flush();
+            if (index != null) {
+                index.append(uid.getUidValue(), offset, config.getCsvFile());
+            }
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to create object", e);
+        } finally {
+            if (mapWriter != null) {
+                try {
+                    mapWriter.close();
+                } catch (IOException e) {
+                    log.error(e, "Failed to close CSV file after create");
+                }
+            }
+            lock.unlock();
+        }
+
+        return uid;
+    }
+
+    /**
+     * Creates the row of a new object, the columns are in the order of the header and the uid column is set to a
+     * random uid if the attributes have none.
+     */
+    private Map<String, Object> newRow(Set<Attribute> attributes) {
         if (attributes == null || attributes.size() == 0) {
             throw new IllegalArgumentException("Attributes may not be null or empty.");
         }
@@ -975,166 +1223,137 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
 
         if (uid == null) {
             uid = new Uid(UUID.randomUUID().toString());
-        } else if (findAccount(uid, null, options) != null) {
-            throw new AlreadyExistsException(String.format("Account %s already exists.", uid.getUidValue()));
         }
 
-        final String[] header = getHeader();
-
         // Order the attributes for insertion
         Map<String, Object> colMap = new LinkedHashMap<String, Object>();
-        for (String col : header) {
+        for (String col : getHeader()) {
             if (col.equals(config.getHeaderUid())) {
                 colMap.put(col, uid.getUidValue());
             } else {
                 colMap.put(col, attrMap.containsKey(col) ? attrMap.get(col) : null);
             }
         }
+        return colMap;
+    }
 
-        ICsvMapWriter mapWriter = null;
+    private void doDelete(Uid uid, OperationOptions options) {
+        if (uid == null) {
+            throw new IllegalArgumentException("Uid cannot be null");
+        }
 
         final WriteLock lock = fileNameToLockMap.get(csvFilePath).writeLock();
         lock.lock();
         try {
-            mapWriter = new CsvMapWriter(new FileWriter(config.getCsvFile(), true), csvPreference);
-            final CellProcessor[] processors = getProcessors(header);
-            mapWriter.write(colMap, header, processors);
-            totalRowCount.put(csvFilePath, totalRowCount.get(csvFilePath) + 1);
-        } catch (IOException e) {
-            throw new ConnectorException("Failed to create object", e);
-        } finally {
-            if (mapWriter != null) {
-                try {
-                    mapWriter.close();
-                } catch (IOException e) {
-                    log.error(e, "Failed to close CSV file after create");
+            if (readRow(uid.getUidValue()) == null) {
+                throw new UnknownUidException("Object for uid " + uid.toString() + " does not exist");
+            }
+            if (config.getJournalCompactionThreshold() > 0) {
+                getJournal().delete(uid.getUidValue());
+                if (getJournal().length() >= config.getJournalCompactionThreshold()) {
+                    rewriteFile(new HashMap<Object, Map<String, Object>>());
                 }
+            } else {
+                rewriteFile(Collections.<Object, Map<String, Object>>singletonMap(uid.getUidValue(), null));
             }
+        } catch (IOException e) {
+            log.error(e, "Error writing to {0}!", config.getCsvFile().toString());
+            throw new ConnectorIOException("Error writing to file " + config.getCsvFile().toString(), e);
+        } finally {
             lock.unlock();
         }
-
-        return uid;
     }
 
-    private void doDelete(Uid uid, OperationOptions options) {
+    private Uid doUpdate(UpdateType type, Uid uid, Set<Attribute> attributes, OperationOptions options) {
         if (uid == null) {
-            throw new IllegalArgumentException("Uid cannot be null");
+            throw new IllegalArgumentException("Uid may not be null");
+        }
+        if (attributes == null) {
+            throw new IllegalArgumentException("Attribute set may not be null");
         }
-
-        final String[] header = getHeader();
-        ICsvMapReader reader = null;
-        ICsvMapWriter writer = null;
-        File tmp = null;
 
         final WriteLock lock = fileNameToLockMap.get(csvFilePath).writeLock();
         lock.lock();
         try {
-            reader = new CsvMapReader(new FileReader(config.getCsvFile()), csvPreference);
-            tmp = File.createTempFile("csvfile", "tmp");
-            writer = new CsvMapWriter(new FileWriter(tmp), csvPreference);
-
-            final CellProcessor[] processors = getProcessors(header);
-
-            Map<String, Object> entry;
-            boolean found = false;
-            while ((entry = reader.read(header, processors)) != null) {
-                String sUid = (String) entry.get(config.getHeaderUid());
-                if (!uid.getUidValue().equals(sUid)) {
-                    writer.write(entry, header, processors);
-                } else {
-                    found = true;
-                }
+            final Map<String, Object> entry = readRow(uid.getUidValue());
+            if (entry == null) {
+                throw new UnknownUidException("Uid " + uid.getUidValue() + " does not exist");
             }
-            if (!found) {
-                tmp.delete();
-                throw new UnknownUidException("Object for uid " + uid.toString() + " does not exist");
+            applyAttributes(type, entry, attributes);
+            final Uid updated = new Uid((String) entry.get(config.getHeaderUid()));
+
+            // the journal replaces rows by uid, a changed uid is written to the file
+            if (config.getJournalCompactionThreshold() > 0 && updated.equals(uid)) {
+                getJournal().update(uid.getUidValue(), entry);
+                if (getJournal().length() >= config.getJournalCompactionThreshold()) {
+                    rewriteFile(new HashMap<Object, Map<String, Object>>());
+                }
+            } else {
+                rewriteFile(Collections.<Object, Map<String, Object>>singletonMap(uid.getUidValue(), entry));
             }
-            totalRowCount.put(csvFilePath, totalRowCount.get(csvFilePath) - 1);
-        } catch (FileNotFoundException e) {
-            log.error(e, "File {0} does not exist!", config.getCsvFile().toString());
-            throw new ConnectorIOException("File " + config.getCsvFile().toString() + " does not exist", e);
+            return updated;
         } catch (IOException e) {
-            log.error(e, "Error reading from {0}!", config.getCsvFile().toString());
-            throw new ConnectorIOException("Error reading from file " + config.getCsvFile().toString(), e);
+            log.error(e, "Error writing to {0}!", config.getCsvFile().toString());
+            throw new ConnectorIOException("Error writing to file " + config.getCsvFile().toString(), e);
         } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (Exception e) {
-                    log.error(e, "Error closing file reader");
-                }
-            }
-            if (writer != null) {
-                try {
-                    writer.close();
-                } catch (Exception e) {
-                    log.error(e, "Error closing file writer");
-                }
-            }
-            if (tmp != null && tmp.exists()) {
-                try {
-                    if (config.getCsvFile().getAbsoluteFile().exists()) {
-                        config.getCsvFile().getAbsoluteFile().delete();
-                    }
-                    FileUtils.moveFile(tmp.getAbsoluteFile(), config.getCsvFile().getAbsoluteFile());
-                } catch (Exception e) {
-                    log.error(e, "Error renaming file");
-                }
-            }
             lock.unlock();
         }
     }
 
-    private Uid doUpdate(UpdateType type, Uid uid, Set<Attribute> attributes, OperationOptions options) {
-        Uid updated = null;
-        if (uid == null) {
-            throw new IllegalArgumentException("Uid may not be null");
-        }
-        if (attributes == null) {
-            throw new IllegalArgumentException("Attribute set may not be null");
+    private void applyAttributes(UpdateType type, Map<String, Object> entry, Set<Attribute> attributes) {
+        for (Attribute attr : attributes) {
+            if (type.equals(UpdateType.REMOVEVALUES)) {
+                entry.remove(getHeaderNameForAttrName(attr.getName()));
+            } else {
+                entry.put(getHeaderNameForAttrName(attr.getName()), getAttributeValue(attr));
+            }
         }
+    }
 
+    /**
+     * Rewrites the CSV file with the journal and the given changes applied, then clears the journal and drops the
+     * row index. The changes map the uid of a row of the file to its new row, or to {@code null} to delete it, the
+     * rows of any other key are appended. The write lock of the file must be held.
+     */
+    private void rewriteFile(Map<Object, Map<String, Object>> changes) throws IOException {
         final String[] header = getHeader();
+        final CellProcessor[] processors = getProcessors(header);
+        final CSVFileJournal journal = getJournal();
+        final File csvFile = config.getCsvFile().getAbsoluteFile();
+        final Set<Object> changed = new HashSet<Object>();
         ICsvMapReader reader = null;
         ICsvMapWriter writer = null;
-        File tmp = null;
-
-        final WriteLock lock = fileNameToLockMap.get(csvFilePath).writeLock();
-        lock.lock();
+        File tmp = File.createTempFile("csvfile", "tmp", csvFile.getParentFile());
         try {
-            reader = new CsvMapReader(new FileReader(config.getCsvFile()), csvPreference);
-            tmp = File.createTempFile("csvfile", "tmp");
+            reader = new CsvMapReader(new FileReader(csvFile), csvPreference);
             writer = new CsvMapWriter(new FileWriter(tmp), csvPreference);
 
             writer.writeHeader(header);
 
-            final CellProcessor[] processors = getProcessors(header);
-
             Map<String, Object> entry;
             reader.read(header, processors); // consume header
             while ((entry = reader.read(header, processors)) != null) {
                 String sUid = (String) entry.get(config.getHeaderUid());
-                if (uid.getUidValue().equals(sUid)) {
-                    for (Attribute attr : attributes) {
-                        if (type.equals(UpdateType.REMOVEVALUES)) {
-                            entry.remove(getHeaderNameForAttrName(attr.getName()));
-                        } else {
-                            entry.put(getHeaderNameForAttrName(attr.getName()), getAttributeValue(attr));
-                        }
-                    }
-                    updated = new Uid((String) entry.get(config.getHeaderUid()));
+                if (changes.containsKey(sUid)) {
+                    entry = changes.get(sUid);
+                    changed.add(sUid);
+                } else if (journal.contains(sUid)) {
+                    entry = journal.get(sUid);
+                }
+                if (entry != null) {
+                    writer.write(entry, header, processors);
                 }
-                writer.write(entry, header, processors);
             }
-            if (updated == null) {
-                throw new UnknownUidException("Uid " + uid.getUidValue() + " does not exist");
+            for (Map.Entry<Object, Map<String, Object>> change : changes.entrySet()) {
+                if (!changed.contains(change.getKey()) && change.getValue() != null) {
+                    writer.write(change.getValue(), header, processors);
+                }
             }
-        } catch (FileNotFoundException e) {
-            log.error(e, "File {0} does not exist!", config.getCsvFile().toString());
-            throw new ConnectorIOException("File " + config.getCsvFile().toString() + " does not exist", e);
-        } catch (IOException e) {
-            log.error(e, "Error reading from {0}!", config.getCsvFile().toString());
-            throw new ConnectorIOException("Error reading from file " + config.getCsvFile().toString(), e);
+            writer.close();
+            writer = null;
+
+            Files.move(tmp.toPath(), csvFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            tmp = null;
         } finally {
             if (reader != null) {
                 try {
@@ -1151,19 +1370,25 @@ public class CSVFileConnector implements Connector, BatchOp, AuthenticateOp, Cre
                 }
             }
             if (tmp != null) {
-                try {
-                    if (config.getCsvFile().getAbsoluteFile().exists()) {
-                        config.getCsvFile().getAbsoluteFile().delete();
-                    }
-                    FileUtils.moveFile(tmp.getAbsoluteFile(), config.getCsvFile().getAbsoluteFile());
-                } catch (Exception e) {
-                    log.error(e, "Error renaming file");
-                }
+                tmp.delete();
             }
-            lock.unlock();
+            fileNameToIndexMap.remove(csvFilePath);
         }
+        journal.clear();
+    }
 
-        return updated;
+    /**
+     * Writes the rows of the journal to the CSV file. The write lock of the file must be held.
+     */
+    private void compactJournal() {
+        if (getJournal().length() > 0) {
+            try {
+                rewriteFile(new HashMap<Object, Map<String, Object>>());
+            } catch (IOException e) {
+                log.error(e, "Error writing to {0}!", config.getCsvFile().toString());
+                throw new ConnectorIOException("Error writing to file " + config.getCsvFile().toString(), e);
+            }
+        }
     }
 
     private String getAttributeValue(Attribute attr) {
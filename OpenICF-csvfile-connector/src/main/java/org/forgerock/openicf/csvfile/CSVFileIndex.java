@@ -0,0 +1,195 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.csvfile;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Byte offsets of the rows of a CSV file, by row number and by uid.
+ * <p/>
+ * The index is built with a single pass over the bytes of the file and lets the connector seek to a row instead of
+ * reading the file from the top. It records the size and the modification time of the file it was built from, an
+ * index which is not {@link #isCurrent(File) current} any more must be rebuilt. The quote and delimiter characters
+ * must be single byte characters of the default charset, the one used by the connector to read the file.
+ */
+final class CSVFileIndex {
+
+    private final Map<String, Integer> uidToRow = new HashMap<String, Integer>();
+
+    private long[] offsets = new long[64];
+
+    private int size = 0;
+
+    private long length;
+
+    private long lastModified;
+
+    private CSVFileIndex() {
+    }
+
+    /**
+     * Builds the index of the given file, the first non-empty row is the header and is not indexed.
+     *
+     * @param file the CSV file
+     * @param quote the quote character
+     * @param delimiter the field delimiter
+     * @param uidColumn the position of the uid column in the header
+     */
+    static CSVFileIndex build(File file, char quote, char delimiter, int uidColumn) throws IOException {
+        final CSVFileIndex index = new CSVFileIndex();
+        index.length = file.length();
+        index.lastModified = file.lastModified();
+
+        final InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            final ByteArrayOutputStream uid = new ByteArrayOutputStream();
+            boolean header = true;
+            boolean quoted = false;
+            boolean uidQuoted = false;
+            boolean emptyRow = true;
+            int column = 0;
+            long rowOffset = 0;
+            long position = 0;
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (quoted) {
+                    if (b == quote) {
+                        in.mark(1);
+                        if (in.read() == quote) {
+                            position++;
+                            if (column == uidColumn) {
+                                uid.write(b);
+                            }
+                        } else {
+                            in.reset();
+                            quoted = false;
+                        }
+                    } else if (column == uidColumn) {
+                        uid.write(b);
+                    }
+                } else if (b == '\n') {
+                    if (!emptyRow) {
+                        if (header) {
+                            header = false;
+                        } else {
+                            index.add(toUid(uid, uidQuoted), rowOffset);
+                        }
+                    }
+                    uid.reset();
+                    uidQuoted = false;
+                    emptyRow = true;
+                    column = 0;
+                    rowOffset = position;
+                } else if (b != '\r') {
+                    emptyRow = false;
+                    if (b == quote) {
+                        quoted = true;
+                        uidQuoted |= column == uidColumn;
+                    } else if (b == delimiter) {
+                        column++;
+                    } else if (column == uidColumn) {
+                        uid.write(b);
+                    }
+                }
+            }
+            if (!emptyRow && !header) {
+                // last row without a line terminator
+                index.add(toUid(uid, uidQuoted), rowOffset);
+            }
+        } finally {
+            in.close();
+        }
+        return index;
+    }
+
+    /**
+     * Decodes the uid column the way the connector reads it, an empty unquoted column is {@code null} and the value
+     * is trimmed.
+     */
+    private static String toUid(ByteArrayOutputStream uid, boolean quoted) {
+        if (uid.size() == 0 && !quoted) {
+            return null;
+        }
+        return new String(uid.toByteArray(), Charset.defaultCharset()).trim();
+    }
+
+    private void add(String uid, long offset) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+        offsets[size] = offset;
+        if (!uidToRow.containsKey(uid)) {
+            // first match wins, as with a scan of the file
+            uidToRow.put(uid, size);
+        }
+        size++;
+    }
+
+    /**
+     * Records a row appended to the end of the file and the new size and modification time of the file.
+     *
+     * @param uid the uid of the appended row
+     * @param offset the size of the file before the row was appended
+     * @param file the CSV file
+     */
+    void append(String uid, long offset, File file) {
+        add(uid, offset);
+        length = file.length();
+        lastModified = file.lastModified();
+    }
+
+    /**
+     * Checks the index against the size and the modification time of the file, both change when the file is
+     * modified outside of the connector.
+     */
+    boolean isCurrent(File file) {
+        return file.length() == length && file.lastModified() == lastModified;
+    }
+
+    /**
+     * Returns the number of rows, without the header.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the byte offset of the row with the given number, starting at 0.
+     */
+    long getOffset(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return offsets[row];
+    }
+
+    /**
+     * Returns the number of the first row with the given uid, or {@code null} if there is no such row.
+     */
+    Integer getRow(String uid) {
+        return uidToRow.get(uid);
+    }
+}
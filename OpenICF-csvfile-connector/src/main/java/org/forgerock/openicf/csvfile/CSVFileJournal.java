@@ -0,0 +1,200 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.csvfile;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.supercsv.io.CsvMapReader;
+import org.supercsv.io.CsvMapWriter;
+import org.supercsv.io.ICsvMapReader;
+import org.supercsv.io.ICsvMapWriter;
+import org.supercsv.prefs.CsvPreference;
+
+/**
+ * Write-ahead journal of the updated and deleted rows of a CSV file.
+ * <p/>
+ * The journal is a CSV file next to the connected file, named after it with a {@code .journal} suffix. Every record
+ * holds the operation and the whole replacement row, or only the uid of a deleted row. The records are kept in
+ * memory by uid, the last record of a uid replaces the row with that uid when the connected file is read, until the
+ * journal is compacted into the connected file and {@link #clear() cleared}.
+ */
+final class CSVFileJournal {
+
+    /**
+     * Name of the journal column which holds the operation of the record.
+     */
+    static final String OPERATION_COLUMN = "__JOURNAL_OPERATION__";
+
+    private static final String UPDATE = "U";
+
+    private static final String DELETE = "D";
+
+    private final File file;
+
+    private final String[] header;
+
+    private final String uidColumn;
+
+    private final CsvPreference csvPreference;
+
+    /**
+     * Uid to replacement row, {@code null} for a deleted row.
+     */
+    private final Map<String, Map<String, Object>> records = new HashMap<String, Map<String, Object>>();
+
+    private int length = 0;
+
+    private int deleted = 0;
+
+    private CSVFileJournal(File csvFile, String[] header, String uidColumn, CsvPreference csvPreference) {
+        this.file = getFile(csvFile);
+        this.header = new String[header.length + 1];
+        this.header[0] = OPERATION_COLUMN;
+        System.arraycopy(header, 0, this.header, 1, header.length);
+        this.uidColumn = uidColumn;
+        this.csvPreference = csvPreference;
+    }
+
+    /**
+     * Returns the journal file of the given CSV file.
+     */
+    static File getFile(File csvFile) {
+        return new File(csvFile.getAbsoluteFile().getParentFile(), csvFile.getName() + ".journal");
+    }
+
+    /**
+     * Loads the journal of the given CSV file, the records of a journal left by a previous run are kept until the
+     * journal is compacted.
+     *
+     * @param csvFile the connected CSV file
+     * @param header the header of the connected CSV file
+     * @param uidColumn the name of the uid column
+     * @param csvPreference the quote, delimiter and newline preferences of the connected CSV file
+     */
+    static CSVFileJournal load(File csvFile, String[] header, String uidColumn, CsvPreference csvPreference)
+            throws IOException {
+        final CSVFileJournal journal = new CSVFileJournal(csvFile, header, uidColumn, csvPreference);
+        if (!journal.file.exists()) {
+            return journal;
+        }
+        final ICsvMapReader reader = new CsvMapReader(new FileReader(journal.file), csvPreference);
+        try {
+            final String[] journalHeader = reader.getHeader(true);
+            Map<String, String> record;
+            while ((record = reader.read(journalHeader)) != null) {
+                final Map<String, Object> row = new HashMap<String, Object>();
+                for (String col : header) {
+                    row.put(col, record.get(col));
+                }
+                journal.put((String) row.get(uidColumn), DELETE.equals(record.get(OPERATION_COLUMN)) ? null : row);
+            }
+        } finally {
+            reader.close();
+        }
+        return journal;
+    }
+
+    private void put(String uid, Map<String, Object> row) {
+        final boolean wasDeleted = records.containsKey(uid) && records.get(uid) == null;
+        records.put(uid, row);
+        if (row == null && !wasDeleted) {
+            deleted++;
+        } else if (row != null && wasDeleted) {
+            deleted--;
+        }
+        length++;
+    }
+
+    /**
+     * Appends the replacement row of an update to the journal.
+     */
+    void update(String uid, Map<String, Object> row) throws IOException {
+        final Map<String, Object> record = new HashMap<String, Object>(row);
+        record.put(OPERATION_COLUMN, UPDATE);
+        write(record);
+        put(uid, new HashMap<String, Object>(row));
+    }
+
+    /**
+     * Appends the deletion of a row to the journal.
+     */
+    void delete(String uid) throws IOException {
+        final Map<String, Object> record = new HashMap<String, Object>();
+        record.put(OPERATION_COLUMN, DELETE);
+        record.put(uidColumn, uid);
+        write(record);
+        put(uid, null);
+    }
+
+    private void write(Map<String, Object> record) throws IOException {
+        final boolean exists = file.exists();
+        final ICsvMapWriter writer = new CsvMapWriter(new FileWriter(file, true), csvPreference);
+        try {
+            if (!exists) {
+                writer.writeHeader(header);
+            }
+            writer.write(record, header);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Checks whether the journal holds a record for the given uid.
+     */
+    boolean contains(String uid) {
+        return records.containsKey(uid);
+    }
+
+    /**
+     * Returns a copy of the replacement row of the given uid, {@code null} if the row was deleted.
+     */
+    Map<String, Object> get(String uid) {
+        final Map<String, Object> row = records.get(uid);
+        return row == null ? null : new HashMap<String, Object>(row);
+    }
+
+    /**
+     * Returns the number of records appended to the journal.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Returns the number of deleted rows.
+     */
+    int getDeletedCount() {
+        return deleted;
+    }
+
+    /**
+     * Drops the records once they have been compacted into the connected file.
+     */
+    void clear() throws IOException {
+        records.clear();
+        length = 0;
+        deleted = 0;
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Unable to delete journal " + file);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.csvfile;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.forgerock.openicf.csvfile.util.TestUtils;
+import org.identityconnectors.common.CollectionUtil;
+import org.identityconnectors.framework.api.Observer;
+import org.identityconnectors.framework.api.operations.batch.BatchTask;
+import org.identityconnectors.framework.api.operations.batch.CreateBatchTask;
+import org.identityconnectors.framework.api.operations.batch.DeleteBatchTask;
+import org.identityconnectors.framework.api.operations.batch.UpdateBatchTask;
+import org.identityconnectors.framework.api.operations.batch.UpdateType;
+import org.identityconnectors.framework.common.exceptions.UnknownUidException;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.BatchResult;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class BatchOpTest {
+
+    private CSVFileConnector connector;
+
+    private File file;
+
+    @BeforeMethod
+    public void before() throws Exception {
+        file = TestUtils.getTestFile("batch.csv");
+        TestUtils.copyAndReplace(TestUtils.getTestFile("thirteen-rows.csv"), file);
+
+        CSVFileConfiguration config = new CSVFileConfiguration();
+        config.setCsvFile(file);
+        config.setHeaderUid("uid");
+        config.setHeaderPassword("password");
+
+        connector = new CSVFileConnector();
+        connector.init(config);
+    }
+
+    @AfterMethod
+    public void after() {
+        connector.dispose();
+        connector = null;
+        file.delete();
+    }
+
+    @Test
+    public void testExecuteBatch() throws Exception {
+        List<BatchTask> tasks = new ArrayList<BatchTask>();
+        tasks.add(new CreateBatchTask(ObjectClass.ACCOUNT, CollectionUtil.newSet(
+                AttributeBuilder.build(Uid.NAME, "created"), AttributeBuilder.build("lastName", "new")), null));
+        tasks.add(new UpdateBatchTask(ObjectClass.ACCOUNT, new Uid("created"), CollectionUtil.newSet(
+                AttributeBuilder.build("lastName", "updated")), null, UpdateType.UPDATE));
+        tasks.add(new UpdateBatchTask(ObjectClass.ACCOUNT, new Uid("jdoe1"), CollectionUtil.newSet(
+                AttributeBuilder.build(Uid.NAME, "renamed")), null, UpdateType.UPDATE));
+        tasks.add(new DeleteBatchTask(ObjectClass.ACCOUNT, new Uid("miso1"), null));
+        tasks.add(new DeleteBatchTask(ObjectClass.ACCOUNT, new Uid("jdoe1"), null));
+
+        final List<BatchResult> results = new ArrayList<BatchResult>();
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        connector.executeBatch(tasks, new Observer<BatchResult>() {
+
+            public void onCompleted() {
+            }
+
+            public void onError(Throwable e) {
+                errors.add(e);
+            }
+
+            public void onNext(BatchResult batchResult) {
+                results.add(batchResult);
+            }
+        }, null);
+
+        assertEquals(results.size(), 4);
+        assertEquals(results.get(0).getResult(), new Uid("created"));
+        assertEquals(results.get(2).getResult(), new Uid("renamed"));
+        assertEquals(errors.size(), 1);
+        assertTrue(errors.get(0) instanceof UnknownUidException);
+
+        final List<ConnectorObject> objects = new ArrayList<ConnectorObject>();
+        connector.executeQuery(ObjectClass.ACCOUNT, null, new ResultsHandler() {
+
+            public boolean handle(ConnectorObject connectorObject) {
+                return objects.add(connectorObject);
+            }
+        }, null);
+        assertEquals(objects.size(), 13);
+        // the renamed row stays in place, the created row is appended
+        assertEquals(objects.get(1).getUid().getUidValue(), "renamed");
+        assertEquals(objects.get(12).getUid().getUidValue(), "created");
+        assertEquals(objects.get(12).getAttributeByName("lastName").getValue().get(0), "updated");
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.csvfile;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.forgerock.openicf.csvfile.util.TestUtils;
+import org.identityconnectors.common.CollectionUtil;
+import org.identityconnectors.framework.api.ConnectorFacade;
+import org.identityconnectors.framework.api.ConnectorFacadeFactory;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.SearchResult;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
+import org.identityconnectors.framework.spi.SearchResultsHandler;
+import org.identityconnectors.test.common.TestHelpers;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class CSVFileJournalTest {
+
+    /**
+     * The journal of a file outlives the connectors, every test uses its own file.
+     */
+    private static final AtomicInteger FILE_COUNT = new AtomicInteger();
+
+    private CSVFileConnector connector;
+
+    private File file;
+
+    @BeforeMethod
+    public void before() throws Exception {
+        file = TestUtils.getTestFile("journal-" + FILE_COUNT.incrementAndGet() + ".csv");
+        TestUtils.copyAndReplace(TestUtils.getTestFile("thirteen-rows.csv"), file);
+    }
+
+    @AfterMethod
+    public void after() throws Exception {
+        if (connector != null) {
+            connector.dispose();
+            connector = null;
+        }
+        file.delete();
+        CSVFileJournal.getFile(file).delete();
+    }
+
+    @Test
+    public void testUpdateAndDelete() throws Exception {
+        connector = createConnector(10);
+
+        connector.update(ObjectClass.ACCOUNT, new Uid("jdoe1"),
+                CollectionUtil.newSet(AttributeBuilder.build("lastName", "journaled")), null);
+        connector.delete(ObjectClass.ACCOUNT, new Uid("miso1"), null);
+
+        // the CSV file is not rewritten
+        assertNull(TestUtils.compareFiles(file, TestUtils.getTestFile("thirteen-rows.csv")));
+        assertTrue(CSVFileJournal.getFile(file).exists());
+
+        final List<ConnectorObject> objects = new ArrayList<ConnectorObject>();
+        final List<SearchResult> results = new ArrayList<SearchResult>();
+        SearchResultsHandler handler = new SearchResultsHandler() {
+
+            public boolean handle(ConnectorObject connectorObject) {
+                return objects.add(connectorObject);
+            }
+
+            public void handleResult(SearchResult result) {
+                results.add(result);
+            }
+        };
+        connector.executeQuery(ObjectClass.ACCOUNT, null, handler, null);
+        assertEquals(objects.size(), 12);
+        assertEquals(results.get(0).getTotalPagedResults(), 12);
+        for (ConnectorObject object : objects) {
+            assertFalse(object.getUid().getUidValue().equals("miso1"));
+        }
+        assertEquals(objects.get(1).getUid().getUidValue(), "jdoe1");
+        assertEquals(objects.get(1).getAttributeByName("lastName").getValue().get(0), "journaled");
+
+        objects.clear();
+        connector.executeQuery(ObjectClass.ACCOUNT, FilterBuilder.equalTo(new Uid("miso1")), handler, null);
+        assertTrue(objects.isEmpty());
+        connector.executeQuery(ObjectClass.ACCOUNT, FilterBuilder.equalTo(new Uid("jdoe1")), handler, null);
+        assertEquals(objects.size(), 1);
+        assertEquals(objects.get(0).getAttributeByName("lastName").getValue().get(0), "journaled");
+
+        // a deleted uid can be created again
+        Uid uid = connector.create(ObjectClass.ACCOUNT,
+                CollectionUtil.newSet(AttributeBuilder.build(Uid.NAME, "miso1")), null);
+        assertEquals(uid.getUidValue(), "miso1");
+        assertNotNull(connector.resolveUsername(ObjectClass.ACCOUNT, "miso1", null));
+
+        // the next connector of the file sees the changes
+        connector.dispose();
+        connector = createConnector(10);
+        objects.clear();
+        connector.executeQuery(ObjectClass.ACCOUNT, FilterBuilder.equalTo(new Uid("jdoe1")), handler, null);
+        assertEquals(objects.get(0).getAttributeByName("lastName").getValue().get(0), "journaled");
+    }
+
+    @Test
+    public void testCompactionThreshold() throws Exception {
+        connector = createConnector(2);
+
+        connector.update(ObjectClass.ACCOUNT, new Uid("jdoe1"),
+                CollectionUtil.newSet(AttributeBuilder.build("lastName", "first")), null);
+        assertNull(TestUtils.compareFiles(file, TestUtils.getTestFile("thirteen-rows.csv")));
+
+        connector.update(ObjectClass.ACCOUNT, new Uid("jdoe1"),
+                CollectionUtil.newSet(AttributeBuilder.build("lastName", "second")), null);
+        assertNotNull(TestUtils.compareFiles(file, TestUtils.getTestFile("thirteen-rows.csv")));
+        assertFalse(CSVFileJournal.getFile(file).exists());
+    }
+
+    @Test
+    public void testFacadeUpdateDoesNotRewriteFile() throws Exception {
+        // the framework disposes the connector after every operation
+        ConnectorFacade facade = ConnectorFacadeFactory.getInstance().newInstance(
+                TestHelpers.createTestConfiguration(CSVFileConnector.class, createConfiguration(10)));
+        long lastModified = file.lastModified();
+
+        facade.update(ObjectClass.ACCOUNT, new Uid("jdoe1"),
+                CollectionUtil.newSet(AttributeBuilder.build("lastName", "journaled")), null);
+
+        assertNull(TestUtils.compareFiles(file, TestUtils.getTestFile("thirteen-rows.csv")));
+        assertEquals(file.lastModified(), lastModified);
+        assertTrue(CSVFileJournal.getFile(file).exists());
+        ConnectorObject object = facade.getObject(ObjectClass.ACCOUNT, new Uid("jdoe1"), null);
+        assertEquals(object.getAttributeByName("lastName").getValue().get(0), "journaled");
+    }
+
+    private CSVFileConnector createConnector(int journalCompactionThreshold) throws Exception {
+        CSVFileConnector connector = new CSVFileConnector();
+        connector.init(createConfiguration(journalCompactionThreshold));
+        return connector;
+    }
+
+    private CSVFileConfiguration createConfiguration(int journalCompactionThreshold) {
+        CSVFileConfiguration config = new CSVFileConfiguration();
+        config.setCsvFile(file);
+        config.setHeaderUid("uid");
+        config.setHeaderPassword("password");
+        config.setJournalCompactionThreshold(journalCompactionThreshold);
+        return config;
+    }
+}
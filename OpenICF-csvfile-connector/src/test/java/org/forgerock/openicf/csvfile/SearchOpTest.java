@@ -29,16 +29,19 @@
 package org.forgerock.openicf.csvfile;
 
 import org.forgerock.openicf.csvfile.util.TestUtils;
+import org.identityconnectors.common.CollectionUtil;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
 import org.identityconnectors.framework.common.exceptions.ConnectorIOException;
 import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.OperationOptions;
 import org.identityconnectors.framework.common.objects.OperationOptionsBuilder;
 import org.identityconnectors.framework.common.objects.ResultsHandler;
 import org.identityconnectors.framework.common.objects.SearchResult;
+import org.identityconnectors.framework.common.objects.Uid;
 import org.identityconnectors.framework.common.objects.filter.Filter;
 import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
 import org.identityconnectors.framework.common.objects.filter.FilterTranslator;
@@ -48,6 +51,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -267,4 +271,117 @@ public class SearchOpTest {
         assertNotNull(result.get(1).getPagedResultsCookie());
         assertNotEquals(result.get(0).getPagedResultsCookie(), result.get(1).getPagedResultsCookie());
     }
+
+    @Test
+    public void testPagingAllPages() throws Exception {
+        CSVFileConnector connector = createConnector("thirteen-rows.csv");
+
+        final List<String> all = new ArrayList<String>();
+        connector.executeQuery(ObjectClass.ACCOUNT, null, new ResultsHandler() {
+
+            public boolean handle(ConnectorObject co) {
+                return all.add(co.getUid().getUidValue());
+            }
+        }, null);
+        assertEquals(all.size(), 13);
+
+        final List<String> paged = new ArrayList<String>();
+        final List<SearchResult> result = new ArrayList<SearchResult>();
+        SearchResultsHandler handler = new SearchResultsHandler() {
+
+            public boolean handle(ConnectorObject co) {
+                return paged.add(co.getUid().getUidValue());
+            }
+
+            public void handleResult(SearchResult res) {
+                result.add(res);
+            }
+        };
+        String cookie = null;
+        do {
+            OperationOptionsBuilder builder = OperationOptionsBuilder.create().setPageSize(5);
+            if (cookie != null) {
+                builder.setPagedResultsCookie(cookie);
+            }
+            connector.executeQuery(ObjectClass.ACCOUNT, null, handler, builder.build());
+            cookie = result.get(result.size() - 1).getPagedResultsCookie();
+        } while (cookie != null);
+
+        assertEquals(result.size(), 3);
+        assertEquals(result.get(2).getRemainingPagedResults(), 0);
+        assertEquals(paged, all);
+    }
+
+    @Test
+    public void testGetByUid() throws Exception {
+        CSVFileConnector connector = createConnector("thirteen-rows.csv");
+
+        final List<ConnectorObject> result = new ArrayList<ConnectorObject>();
+        ResultsHandler handler = new ResultsHandler() {
+
+            public boolean handle(ConnectorObject co) {
+                return result.add(co);
+            }
+        };
+        connector.executeQuery(ObjectClass.ACCOUNT, FilterBuilder.equalTo(new Uid("jdoe1")), handler, null);
+        assertEquals(result.size(), 1);
+        testAttribute(result.get(0), "__UID__", "jdoe1");
+        testAttribute(result.get(0), "firstName", "john1");
+        testAttribute(result.get(0), "lastName", "doe");
+
+        result.clear();
+        connector.executeQuery(ObjectClass.ACCOUNT, FilterBuilder.equalTo(new Uid("unknown")), handler, null);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testModifiedOutsideOfConnector() throws Exception {
+        File file = new File(TestUtils.getTestFile("thirteen-rows.csv").getParentFile(), "search-modified.csv");
+        TestUtils.copyAndReplace(TestUtils.getTestFile("thirteen-rows.csv"), file);
+        try {
+            CSVFileConnector connector = createConnector("search-modified.csv");
+
+            final List<ConnectorObject> result = new ArrayList<ConnectorObject>();
+            ResultsHandler handler = new ResultsHandler() {
+
+                public boolean handle(ConnectorObject co) {
+                    return result.add(co);
+                }
+            };
+            connector.executeQuery(ObjectClass.ACCOUNT, FilterBuilder.equalTo(new Uid("added")), handler, null);
+            assertTrue(result.isEmpty());
+
+            FileWriter writer = new FileWriter(file, true);
+            try {
+                writer.write("\n\"first\",\"added\",\"last\",\"pass\"\n");
+            } finally {
+                writer.close();
+            }
+
+            connector.executeQuery(ObjectClass.ACCOUNT, FilterBuilder.equalTo(new Uid("added")), handler, null);
+            assertEquals(result.size(), 1);
+            assertEquals(result.get(0).getName().getNameValue(), "added");
+
+            // rows created by the connector are added to the index
+            connector.create(ObjectClass.ACCOUNT, CollectionUtil.newSet(AttributeBuilder.build(Uid.NAME, "created"),
+                    AttributeBuilder.build("firstName", "first")), null);
+            result.clear();
+            connector.executeQuery(ObjectClass.ACCOUNT, FilterBuilder.equalTo(new Uid("created")), handler, null);
+            assertEquals(result.size(), 1);
+            testAttribute(result.get(0), "firstName", "first");
+        } finally {
+            file.delete();
+        }
+    }
+
+    private CSVFileConnector createConnector(String fileName) throws Exception {
+        CSVFileConfiguration config = new CSVFileConfiguration();
+        config.setCsvFile(TestUtils.getTestFile(fileName));
+        config.setHeaderUid("uid");
+        config.setHeaderPassword("password");
+
+        CSVFileConnector connector = new CSVFileConnector();
+        connector.init(config);
+        return connector;
+    }
 }
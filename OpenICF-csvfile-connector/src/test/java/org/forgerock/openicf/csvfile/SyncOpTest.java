@@ -174,6 +174,40 @@ public class SyncOpTest {
         assertFalse(oldToken.getValue().equals(newToken.get().getValue()));
     }
 
+    @Test
+    public void syncTestDeltaTypes() throws Exception {
+        initConnector(TestUtils.class.getResource("/files/").getFile() + "sync.csv");
+        TestUtils.remove(new File(TestUtils.class.getResource("/files/").getFile()), "sync.csv[.].*");
+        TestUtils.copyAndReplace(
+                new File(TestUtils.class.getResource("/files/").getFile() + "sync.backup.csv.1300734815289"),
+                new File(TestUtils.class.getResource("/files/").getFile() + "sync.csv.1300734815289"));
+
+        SyncToken oldToken = connector.getLatestSyncToken(ObjectClass.ACCOUNT);
+        final Map<String, SyncDeltaType> deltaTypes = new HashMap<String, SyncDeltaType>();
+        connector.sync(ObjectClass.ACCOUNT, oldToken, new SyncResultsHandler() {
+
+            public boolean handle(SyncDelta sd) {
+                assertNotNull(sd.getObject());
+                deltaTypes.put(sd.getUid().getUidValue(), sd.getDeltaType());
+                return true;
+            }
+        }, null);
+
+        //test cleanup
+        SyncToken token = connector.getLatestSyncToken(ObjectClass.ACCOUNT);
+        if (!oldToken.getValue().equals(token.getValue())) {
+            CSVFileConfiguration config = (CSVFileConfiguration) connector.getConfiguration();
+            File syncFile = new File(config.getCsvFile() + "." + token.getValue());
+            syncFile.delete();
+        }
+
+        // "rado" is unchanged and must not be reported
+        assertEquals(deltaTypes.size(), 3);
+        assertEquals(deltaTypes.get("vilo"), SyncDeltaType.DELETE);
+        assertEquals(deltaTypes.get("miso"), SyncDeltaType.UPDATE);
+        assertEquals(deltaTypes.get("fanfi"), SyncDeltaType.CREATE);
+    }
+
     @Test
     public void syncTestHandlerStopped() throws Exception {
         initConnector(TestUtils.class.getResource("/files/").getFile() + "sync.csv");
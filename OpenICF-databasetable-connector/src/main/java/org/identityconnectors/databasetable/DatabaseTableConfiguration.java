@@ -560,6 +560,35 @@ public class DatabaseTableConfiguration extends AbstractConfiguration {
 	public void setSuppressPassword(boolean suppressPassword) {
 		this.suppressPassword = suppressPassword;
 	}
+
+    // =======================================================================
+    // Fetch size
+    // =======================================================================
+
+    /**
+     * The number of rows the driver fetches from the database at a time, 0
+     * leaves it to the driver.
+     */
+    private int fetchSize = 0;
+
+    /**
+     * Return the fetch size of the search and sync queries
+     * @return fetchSize value
+     */
+    @ConfigurationProperty(order = 23,
+            displayMessageKey = "FETCH_SIZE_DISPLAY",
+            helpMessageKey = "FETCH_SIZE_HELP")
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * @param value the number of rows fetched from the database at a time,
+     * or 0 to use the default of the driver
+     */
+    public void setFetchSize(int value) {
+        this.fetchSize = value;
+    }
     
 	
     // =======================================================================
@@ -588,6 +617,9 @@ public class DatabaseTableConfiguration extends AbstractConfiguration {
                 throw new IllegalArgumentException(getMessage(MSG_KEY_COLUMN_EQ_CHANGE_LOG_COLUMN));               
             }                       
         }
+        if (getFetchSize() < 0) {
+            throw new IllegalArgumentException(getMessage(MSG_FETCH_SIZE_NEGATIVE));
+        }
         // key column, password column
         if (StringUtil.isNotBlank(getPasswordColumn())) {
            if (getPasswordColumn().equalsIgnoreCase(getKeyColumn())) {
@@ -42,6 +42,7 @@ import static org.identityconnectors.databasetable.DatabaseTableConstants.MSG_RE
 import static org.identityconnectors.databasetable.DatabaseTableConstants.MSG_UID_BLANK;
 import static org.identityconnectors.databasetable.DatabaseTableConstants.MSG_USER_BLANK;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -57,6 +58,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.identityconnectors.common.Assertions;
+import org.identityconnectors.common.Base64;
 import org.identityconnectors.common.CollectionUtil;
 import org.identityconnectors.common.StringUtil;
 import org.identityconnectors.common.logging.Log;
@@ -68,6 +70,14 @@ import org.identityconnectors.dbcommon.InsertIntoBuilder;
 import org.identityconnectors.dbcommon.SQLParam;
 import org.identityconnectors.dbcommon.SQLUtil;
 import org.identityconnectors.dbcommon.UpdateSetBuilder;
+import org.identityconnectors.framework.api.Observer;
+import org.identityconnectors.framework.api.operations.batch.BatchEmptyResult;
+import org.identityconnectors.framework.api.operations.batch.BatchTask;
+import org.identityconnectors.framework.api.operations.batch.BatchTaskExecutor;
+import org.identityconnectors.framework.api.operations.batch.CreateBatchTask;
+import org.identityconnectors.framework.api.operations.batch.DeleteBatchTask;
+import org.identityconnectors.framework.api.operations.batch.UpdateBatchTask;
+import org.identityconnectors.framework.api.operations.batch.UpdateType;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
 import org.identityconnectors.framework.common.exceptions.InvalidCredentialException;
 import org.identityconnectors.framework.common.exceptions.UnknownUidException;
@@ -76,6 +86,9 @@ import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.AttributeInfo;
 import org.identityconnectors.framework.common.objects.AttributeInfoBuilder;
 import org.identityconnectors.framework.common.objects.AttributeUtil;
+import org.identityconnectors.framework.common.objects.BatchResult;
+import org.identityconnectors.framework.common.objects.BatchToken;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
 import org.identityconnectors.framework.common.objects.Name;
 import org.identityconnectors.framework.common.objects.ObjectClass;
@@ -86,6 +99,8 @@ import org.identityconnectors.framework.common.objects.OperationalAttributes;
 import org.identityconnectors.framework.common.objects.ResultsHandler;
 import org.identityconnectors.framework.common.objects.Schema;
 import org.identityconnectors.framework.common.objects.SchemaBuilder;
+import org.identityconnectors.framework.common.objects.SearchResult;
+import org.identityconnectors.framework.common.objects.Subscription;
 import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
 import org.identityconnectors.framework.common.objects.SyncDeltaType;
 import org.identityconnectors.framework.common.objects.SyncResultsHandler;
@@ -95,7 +110,9 @@ import org.identityconnectors.framework.common.objects.filter.FilterTranslator;
 import org.identityconnectors.framework.spi.Configuration;
 import org.identityconnectors.framework.spi.ConnectorClass;
 import org.identityconnectors.framework.spi.PoolableConnector;
+import org.identityconnectors.framework.spi.SearchResultsHandler;
 import org.identityconnectors.framework.spi.operations.AuthenticateOp;
+import org.identityconnectors.framework.spi.operations.BatchOp;
 import org.identityconnectors.framework.spi.operations.CreateOp;
 import org.identityconnectors.framework.spi.operations.DeleteOp;
 import org.identityconnectors.framework.spi.operations.ResolveUsernameOp;
@@ -111,7 +128,7 @@ import org.identityconnectors.framework.spi.operations.UpdateOp;
  * The database table {@link DatabaseTableConnector} is a basic, but easy to use
  * {@link DatabaseTableConnector} for accounts in a relational database.
  * <p>
- * It supports create, update, search, and delete operations. It can also be
+ * It supports create, update, search, delete and batch operations. It can also be
  * used for pass-thru authentication, although it assumes the password is in
  * clear text in the database.
  * <p>
@@ -128,7 +145,7 @@ import org.identityconnectors.framework.spi.operations.UpdateOp;
         displayNameKey = "DBTABLE_CONNECTOR",
         configurationClass = DatabaseTableConfiguration.class)
 public class DatabaseTableConnector implements PoolableConnector, CreateOp, SearchOp<FilterWhereBuilder>,
-        DeleteOp, UpdateOp, SchemaOp, TestOp, AuthenticateOp, SyncOp, ResolveUsernameOp {
+        DeleteOp, UpdateOp, SchemaOp, TestOp, AuthenticateOp, SyncOp, ResolveUsernameOp, BatchOp {
 
     /**
      * Setup logging for the {@link DatabaseTableConnector}.
@@ -246,6 +263,40 @@ public class DatabaseTableConnector implements PoolableConnector, CreateOp, Sear
      * {@inheritDoc}
      */
     public Uid create(ObjectClass oclass, Set<Attribute> attrs, OperationOptions options) {
+        final RowChange change = prepareCreate(oclass, attrs);
+        final String accountName = change.name;
+
+        PreparedStatement pstmt = null;
+        try {
+            openConnection();
+            pstmt = change.prepareStatement(getConn());
+            // execute the SQL statement
+            pstmt.execute();
+            log.info("Create account {0} commit", accountName);
+            commit();                    
+        } catch (SQLException e) {
+            log.error(e, "Create account ''{0}'' error", accountName);
+            if (throwIt(e.getErrorCode()) ) {            
+                SQLUtil.rollbackQuietly(getConn());
+                throw new ConnectorException(config.getMessage(MSG_CAN_NOT_CREATE, accountName), e);
+            }            
+        } finally {
+            // clean up...
+            SQLUtil.closeQuietly(pstmt);            
+            closeConnection();
+        }
+        log.ok("Account {0} created", accountName);
+        // create and return the uid..
+        return change.uid;
+    }
+
+    /**
+     * Checks the attributes of a new account and builds the insert statement.
+     * @param oclass the object class
+     * @param attrs the attributes of the account
+     * @return the insert statement
+     */
+    private RowChange prepareCreate(ObjectClass oclass, Set<Attribute> attrs) {
         log.info("create account, check the ObjectClass");        
         if(oclass == null || (!oclass.equals(ObjectClass.ACCOUNT))) {
             throw new IllegalArgumentException(config.getMessage(MSG_ACCOUNT_OBJECT_CLASS_REQUIRED)); 
@@ -306,29 +357,7 @@ public class DatabaseTableConnector implements PoolableConnector, CreateOp, Sear
         final String SQL_INSERT = "INSERT INTO {0} ( {1} ) VALUES ( {2} )";
         // create the prepared statement..
         final String sql = MessageFormat.format(SQL_INSERT, tblname , bld.getInto(), bld.getValues() );
-
-        PreparedStatement pstmt = null;
-        try {
-            openConnection();
-            pstmt = getConn().prepareStatement(sql, bld.getParams());
-            // execute the SQL statement
-            pstmt.execute();
-            log.info("Create account {0} commit", accountName);
-            commit();                    
-        } catch (SQLException e) {
-            log.error(e, "Create account ''{0}'' error", accountName);
-            if (throwIt(e.getErrorCode()) ) {            
-                SQLUtil.rollbackQuietly(getConn());
-                throw new ConnectorException(config.getMessage(MSG_CAN_NOT_CREATE, accountName), e);
-            }            
-        } finally {
-            // clean up...
-            SQLUtil.closeQuietly(pstmt);            
-            closeConnection();
-        }
-        log.ok("Account {0} created", accountName);
-        // create and return the uid..
-        return new Uid(accountName);
+        return new RowChange(sql, bld.getParams(), accountName, new Uid(accountName), MSG_CAN_NOT_CREATE);
     }
 
     /**
@@ -356,33 +385,14 @@ public class DatabaseTableConnector implements PoolableConnector, CreateOp, Sear
      * {@inheritDoc}
      */
     public void delete(final ObjectClass oclass, final Uid uid, final OperationOptions options) {
-        log.info("delete account, check the ObjectClass");        
-
-        final String SQL_DELETE = "DELETE FROM {0} WHERE {1} = ?";
+        final RowChange change = prepareDelete(oclass, uid);
+        final String accountUid = change.name;
         PreparedStatement stmt = null;
-        // create the SQL string..
-
-        if(oclass == null || (!oclass.equals(ObjectClass.ACCOUNT))) {
-            throw new IllegalArgumentException(config.getMessage(MSG_ACCOUNT_OBJECT_CLASS_REQUIRED)); 
-        }
-        log.ok("The ObjectClass is ok");        
-        
-        if(uid == null || (uid.getUidValue() == null)) {
-            throw new IllegalArgumentException(config.getMessage(MSG_UID_BLANK)); 
-        }  
-        final String accountUid = uid.getUidValue();
-        log.ok("The Uid is present");        
-        
-        final String tblname = config.getTable();
-        final String keycol = quoteName(config.getKeyColumn());        
-        final String sql = MessageFormat.format(SQL_DELETE, tblname, keycol);
         try {
-            log.info("delete account SQL {0}", sql);
+            log.info("delete account SQL {0}", change.sql);
             openConnection();
             // create a prepared call..
-            stmt = getConn().getConnection().prepareStatement(sql);
-            // set object to delete..
-            stmt.setString(1, accountUid);
+            stmt = change.prepareStatement(getConn());
             // uid to delete..
             log.info("Deleting account Uid: {0}", accountUid);
             final int dr = stmt.executeUpdate();
@@ -410,11 +420,76 @@ public class DatabaseTableConnector implements PoolableConnector, CreateOp, Sear
         log.ok("Account Uid {0} deleted", accountUid);
     }
 
+    /**
+     * Checks the account to delete and builds the delete statement.
+     * @param oclass the object class
+     * @param uid the uid of the account
+     * @return the delete statement
+     */
+    private RowChange prepareDelete(final ObjectClass oclass, final Uid uid) {
+        log.info("delete account, check the ObjectClass");        
+
+        final String SQL_DELETE = "DELETE FROM {0} WHERE {1} = ?";
+        // create the SQL string..
+
+        if(oclass == null || (!oclass.equals(ObjectClass.ACCOUNT))) {
+            throw new IllegalArgumentException(config.getMessage(MSG_ACCOUNT_OBJECT_CLASS_REQUIRED)); 
+        }
+        log.ok("The ObjectClass is ok");        
+        
+        if(uid == null || (uid.getUidValue() == null)) {
+            throw new IllegalArgumentException(config.getMessage(MSG_UID_BLANK)); 
+        }  
+        final String accountUid = uid.getUidValue();
+        log.ok("The Uid is present");        
+        
+        final String tblname = config.getTable();
+        final String keycol = quoteName(config.getKeyColumn());        
+        final String sql = MessageFormat.format(SQL_DELETE, tblname, keycol);
+        // the uid is bound as a string by RowChange
+        return new RowChange(sql, new ArrayList<SQLParam>(), accountUid, uid, MSG_CAN_NOT_DELETE);
+    }
+
     /**
      * Update the database row with the data provided.
      * {@inheritDoc}
      */
     public Uid update(ObjectClass oclass, Uid uid, Set<Attribute> attrs, OperationOptions options) {
+        final RowChange change = prepareUpdate(oclass, uid, attrs);
+        final String accountName = change.name;
+        PreparedStatement stmt = null;
+        try {
+            openConnection();            
+            // create the prepared statement..
+            stmt = change.prepareStatement(getConn());
+            stmt.executeUpdate();
+            // commit changes
+            log.info("Update account {0} commit", accountName);
+            commit();
+        } catch (SQLException e) {
+            log.error(e, "Update account {0} error", accountName);
+            if (throwIt(e.getErrorCode()) ) {            
+                SQLUtil.rollbackQuietly(getConn());
+                throw new ConnectorException(config.getMessage(MSG_CAN_NOT_UPDATE, accountName), e);                
+            }
+        } finally {
+            // clean up..
+            SQLUtil.closeQuietly(stmt);
+            
+            closeConnection();
+        }
+        log.ok("Account {0} updated", accountName);
+        return change.uid;
+    }
+
+    /**
+     * Checks the attributes to replace and builds the update statement.
+     * @param oclass the object class
+     * @param uid the uid of the account
+     * @param attrs the attributes to replace
+     * @return the update statement
+     */
+    private RowChange prepareUpdate(ObjectClass oclass, Uid uid, Set<Attribute> attrs) {
         log.info("update account, check the ObjectClass");        
 
         final String SQL_TEMPLATE = "UPDATE {0} SET {1} WHERE {2} = ?";
@@ -472,29 +547,7 @@ public class DatabaseTableConnector implements PoolableConnector, CreateOp, Sear
         final String keycol = quoteName(config.getKeyColumn());
         updateSet.addValue(new SQLParam(keycol, accountUid, getColumnType(config.getKeyColumn())));
         final String sql = MessageFormat.format(SQL_TEMPLATE, tblname ,updateSet.getSQL(), keycol );                
-        PreparedStatement stmt = null;
-        try {
-            openConnection();            
-            // create the prepared statement..
-            stmt = getConn().prepareStatement(sql, updateSet.getParams());
-            stmt.executeUpdate();
-            // commit changes
-            log.info("Update account {0} commit", accountName);
-            commit();
-        } catch (SQLException e) {
-            log.error(e, "Update account {0} error", accountName);
-            if (throwIt(e.getErrorCode()) ) {            
-                SQLUtil.rollbackQuietly(getConn());
-                throw new ConnectorException(config.getMessage(MSG_CAN_NOT_UPDATE, accountName), e);                
-            }
-        } finally {
-            // clean up..
-            SQLUtil.closeQuietly(stmt);
-            
-            closeConnection();
-        }
-        log.ok("Account {0} updated", accountName);
-        return ret;
+        return new RowChange(sql, updateSet.getParams(), accountName, ret, MSG_CAN_NOT_UPDATE);
     }    
     
     /**
@@ -512,6 +565,10 @@ public class DatabaseTableConnector implements PoolableConnector, CreateOp, Sear
 
     /**
      * Search for rows 
+     * <p>
+     * Paged results are read in the order of the key column. The cookie holds
+     * the key of the last row returned and the next page starts after it, so
+     * reading a page does not read the rows of the previous pages again.
      * {@inheritDoc}
      */
     public void executeQuery(ObjectClass oclass, FilterWhereBuilder where, ResultsHandler handler,
@@ -533,28 +590,74 @@ public class DatabaseTableConnector implements PoolableConnector, CreateOp, Sear
         log.ok("Column Names {0} To Get", columnNamesToGet);        
         // For all account query there is no need to replace or quote anything
         final DatabaseQueryBuilder query = new DatabaseQueryBuilder(tblname, columnNamesToGet);
-        query.setWhere(where);
+
+        final int pageSize = options != null && options.getPageSize() != null ? options.getPageSize() : 0;
+        int skip = 0;
+        if (pageSize > 0) {
+            final String keyColumnName = quoteName(config.getKeyColumn());
+            final List<OrderBy> orderBy = new ArrayList<OrderBy>();
+            orderBy.add(new OrderBy(keyColumnName, true));
+            query.setOrderBy(orderBy);
+            if (options.getPagedResultsCookie() != null) {
+                final Object lastKey = decodePagedResultsCookie(options.getPagedResultsCookie());
+                log.ok("Paged results after key {0}", lastKey);
+                query.setWhere(andKeyGreaterThan(where, keyColumnName, lastKey));
+            } else {
+                query.setWhere(where);
+                if (options.getPagedResultsOffset() != null && options.getPagedResultsOffset() > 1) {
+                    skip = options.getPagedResultsOffset() - 1;
+                }
+            }
+        } else {
+            query.setWhere(where);
+        }
 
         ResultSet result = null;
         PreparedStatement statement = null;
         try {
             openConnection();
             statement = getConn().prepareStatement(query);
+            setFetchSize(statement);
+            if (pageSize > 0) {
+                // one more row tells whether there is a next page
+                statement.setMaxRows((int) Math.min(Integer.MAX_VALUE, (long) skip + pageSize + 1));
+            }
             result = statement.executeQuery();
             log.ok("executeQuery {0} on {1}", query.getSQL(), oclass);
+            String lastUid = null;
+            int handled = 0;
+            boolean more = false;
             while (result.next()) {
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                if (pageSize > 0 && handled == pageSize) {
+                    more = true;
+                    break;
+                }
                 final Map<String, SQLParam> columnValues = getConn().getColumnValues(result);
                 log.ok("Column values {0} from result set ", columnValues);
                 // create the connector object
                 final ConnectorObjectBuilder bld = buildConnectorObject(columnValues);
-                if (!handler.handle(bld.build())) {
+                final ConnectorObject object = bld.build();
+                lastUid = object.getUid().getUidValue();
+                handled++;
+                if (!handler.handle(object)) {
                     log.ok("Stop processing of the result set");
+                    more = pageSize > 0;
                     break;
                 }
             }
             // commit changes
             log.info("commit executeQuery account");
-            commit();            
+            commit();
+            if (handler instanceof SearchResultsHandler) {
+                final String cookie = more && lastUid != null
+                        ? Base64.encode(lastUid.getBytes(StandardCharsets.UTF_8))
+                        : null;
+                ((SearchResultsHandler) handler).handleResult(new SearchResult(cookie, -1));
+            }
         } catch (SQLException e) {
             log.error(e, "Query {0} on {1} error", query.getSQL(), oclass);    
             SQLUtil.rollbackQuietly(getConn());
@@ -622,6 +725,7 @@ public class DatabaseTableConnector implements PoolableConnector, CreateOp, Sear
             openConnection();
             
             statement = getConn().prepareStatement(query);
+            setFetchSize(statement);
             result = statement.executeQuery();
             log.info("execute sync query {0} on {1}", query.getSQL(), oclass);
             while (result.next()) {
@@ -711,6 +815,266 @@ public class DatabaseTableConnector implements PoolableConnector, CreateOp, Sear
         return ret;
     }
 
+    // =======================================================================
+    // Batch..
+    // =======================================================================
+    /**
+     * Executes the create, update and delete tasks in one transaction.
+     * <p>
+     * The statements of consecutive tasks with the same SQL are sent to the
+     * database together, in the order of the tasks. When a statement fails
+     * the whole batch is rolled back and every task reports an error. With
+     * the failOnError option a task which fails, including a delete of a
+     * missing account, also rolls the batch back.
+     * {@inheritDoc}
+     */
+    public Subscription executeBatch(List<BatchTask> tasks, Observer<BatchResult> observer,
+            OperationOptions options) {
+        if (observer == null) {
+            throw new ConnectorException("BatchResult Observer cannot be null");
+        }
+        final boolean failOnError = options != null && options.getFailOnError();
+        final Object[] results = new Object[tasks.size()];
+        final Exception[] errors = new Exception[tasks.size()];
+        final BatchTaskExecutorImpl executor = new BatchTaskExecutorImpl();
+        for (int i = 0; i < tasks.size(); i++) {
+            executor.task = i;
+            try {
+                results[i] = tasks.get(i).execute(executor);
+            } catch (RuntimeException e) {
+                errors[i] = e;
+                if (failOnError) {
+                    observer.onError(e);
+                    return BATCH_SUBSCRIPTION;
+                }
+            }
+        }
+        if (!executor.changes.isEmpty()) {
+            executeBatch(executor.changes, errors, failOnError);
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            if (errors[i] != null) {
+                observer.onError(errors[i]);
+                if (failOnError) {
+                    return BATCH_SUBSCRIPTION;
+                }
+            } else {
+                observer.onNext(new BatchResult(results[i], null, String.valueOf(i), i == tasks.size() - 1, false));
+            }
+        }
+        observer.onCompleted();
+        return BATCH_SUBSCRIPTION;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Subscription queryBatch(BatchToken token, Observer<BatchResult> observer, OperationOptions options) {
+        return null;
+    }
+
+    /**
+     * The results of a batch are all reported before it returns.
+     */
+    private static final Subscription BATCH_SUBSCRIPTION = new Subscription() {
+        public void close() {
+        }
+
+        public boolean isUnsubscribed() {
+            return true;
+        }
+
+        public Object getReturnValue() {
+            return null;
+        }
+    };
+
+    /**
+     * Executes the statements of a batch and commits them.
+     * @param changes the statements in the order of their tasks
+     * @param errors the errors of the tasks, by task
+     * @param failOnError roll back when a delete does not find its account
+     */
+    private void executeBatch(List<RowChange> changes, Exception[] errors, boolean failOnError) {
+        final List<RowChange> batch = new ArrayList<RowChange>();
+        PreparedStatement stmt = null;
+        RowChange failed = null;
+        try {
+            openConnection();
+            for (RowChange change : changes) {
+                if (!batch.isEmpty() && !batch.get(0).sql.equals(change.sql)) {
+                    failed = executeBatch(stmt, batch, errors, failOnError);
+                    SQLUtil.closeQuietly(stmt);
+                    stmt = null;
+                    batch.clear();
+                    if (failed != null) {
+                        break;
+                    }
+                }
+                if (stmt == null) {
+                    stmt = getConn().getConnection().prepareStatement(change.sql);
+                }
+                change.setParams(getConn(), stmt);
+                stmt.addBatch();
+                batch.add(change);
+            }
+            if (failed == null && !batch.isEmpty()) {
+                failed = executeBatch(stmt, batch, errors, failOnError);
+            }
+            if (failed == null) {
+                log.info("commit batch of {0} statements", changes.size());
+                commit();
+            } else {
+                log.info("rollback batch, account {0} failed", failed.name);
+                SQLUtil.rollbackQuietly(getConn());
+                for (RowChange change : changes) {
+                    if (errors[change.task] == null) {
+                        errors[change.task] = new ConnectorException(
+                                config.getMessage(change.errorKey, change.name), errors[failed.task]);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.error(e, "Batch of {0} statements error", changes.size());
+            SQLUtil.rollbackQuietly(getConn());
+            for (RowChange change : changes) {
+                errors[change.task] = new ConnectorException(config.getMessage(change.errorKey, change.name), e);
+            }
+        } finally {
+            SQLUtil.closeQuietly(stmt);
+            closeConnection();
+        }
+    }
+
+    /**
+     * Sends the statements added to a batch to the database.
+     * @return the failed statement when the batch has to be rolled back, or null
+     */
+    private RowChange executeBatch(PreparedStatement stmt, List<RowChange> batch, Exception[] errors,
+            boolean failOnError) throws SQLException {
+        final int[] counts = stmt.executeBatch();
+        log.ok("Batch of {0} statements {1} executed", batch.size(), batch.get(0).sql);
+        RowChange failed = null;
+        for (int i = 0; i < batch.size(); i++) {
+            final RowChange change = batch.get(i);
+            final int count = i < counts.length ? counts[i] : Statement.SUCCESS_NO_INFO;
+            if (!change.isDelete() || count == Statement.SUCCESS_NO_INFO) {
+                continue;
+            }
+            if (count < 1) {
+                log.error("No account Uid: {0} found", change.name);
+                errors[change.task] = new UnknownUidException();
+                if (failOnError && failed == null) {
+                    failed = change;
+                }
+            } else if (count > 1) {
+                log.error("More then one account Uid: {0} found", change.name);
+                errors[change.task] = new IllegalArgumentException(config.getMessage(MSG_MORE_USERS_DELETED, change.name));
+                if (failed == null) {
+                    failed = change;
+                }
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Builds the statements of the batch tasks, they are executed by
+     * {@link DatabaseTableConnector#executeBatch(List, Exception[], boolean)}.
+     */
+    private class BatchTaskExecutorImpl implements BatchTaskExecutor {
+
+        private final List<RowChange> changes = new ArrayList<RowChange>();
+
+        /**
+         * The index of the task being executed.
+         */
+        private int task;
+
+        public Uid execute(CreateBatchTask task) {
+            return add(prepareCreate(task.getObjectClass(), task.getCreateAttributes())).uid;
+        }
+
+        public BatchEmptyResult execute(DeleteBatchTask task) {
+            add(prepareDelete(task.getObjectClass(), task.getUid()));
+            return new BatchEmptyResult("Delete of " + task.getObjectClass() + " " + task.getUid() + " successful");
+        }
+
+        public Uid execute(UpdateBatchTask task) {
+            if (task.getUpdateType() != UpdateType.UPDATE) {
+                // the columns are single valued, values are replaced by an update
+                throw new UnsupportedOperationException("Update type " + task.getUpdateType() + " is not supported");
+            }
+            return add(prepareUpdate(task.getObjectClass(), task.getUid(), task.getAttributes())).uid;
+        }
+
+        private RowChange add(RowChange change) {
+            change.task = task;
+            changes.add(change);
+            return change;
+        }
+    }
+
+    /**
+     * The statement changing one row, the values are bound through the
+     * mapping strategy of the connection like the single operations do.
+     */
+    private static final class RowChange {
+
+        private final String sql;
+
+        private final List<SQLParam> params;
+
+        /**
+         * The account name for the messages.
+         */
+        private final String name;
+
+        private final Uid uid;
+
+        /**
+         * The message key of the failure.
+         */
+        private final String errorKey;
+
+        /**
+         * The index of the batch task of the statement.
+         */
+        private int task;
+
+        RowChange(String sql, List<SQLParam> params, String name, Uid uid, String errorKey) {
+            this.sql = sql;
+            this.params = params;
+            this.name = name;
+            this.uid = uid;
+            this.errorKey = errorKey;
+        }
+
+        boolean isDelete() {
+            return MSG_CAN_NOT_DELETE.equals(errorKey);
+        }
+
+        PreparedStatement prepareStatement(DatabaseTableConnection conn) throws SQLException {
+            if (!isDelete()) {
+                return conn.prepareStatement(sql, params);
+            }
+            log.ok("prepareStatement {0}", sql);
+            final PreparedStatement stmt = conn.getConnection().prepareStatement(sql);
+            setParams(conn, stmt);
+            return stmt;
+        }
+
+        void setParams(DatabaseTableConnection conn, PreparedStatement stmt) throws SQLException {
+            if (isDelete()) {
+                // set object to delete..
+                stmt.setString(1, name);
+            } else {
+                DatabaseTableSQLUtil.setParams(conn.getSms(), stmt, params);
+            }
+        }
+    }
+
     // =======================================================================
     // Schema..
     // =======================================================================
@@ -756,6 +1120,50 @@ public class DatabaseTableConnector implements PoolableConnector, CreateOp, Sear
         log.ok("connector test ok");
     }
 
+    /**
+     * Applies the configured fetch size, so that the driver can stream the
+     * rows instead of reading the whole result set first.
+     * @param statement the query statement
+     * @throws SQLException the driver refused the fetch size
+     */
+    private void setFetchSize(Statement statement) throws SQLException {
+        if (config.getFetchSize() > 0) {
+            statement.setFetchSize(config.getFetchSize());
+        }
+    }
+
+    /**
+     * Decodes the key of the last row of the previous page.
+     * @param cookie the paged results cookie
+     * @return the key value, converted to the type of the key column
+     */
+    private Object decodePagedResultsCookie(String cookie) {
+        try {
+            final String key = new String(Base64.decode(cookie), StandardCharsets.UTF_8);
+            return SQLUtil.attribute2jdbcValue(key, getColumnType(config.getKeyColumn()));
+        } catch (Exception e) {
+            throw new ConnectorException("PagedResultsCookie is invalid", e);
+        }
+    }
+
+    /**
+     * Restricts the query to the rows following the given key.
+     * @param where the query filter, could be null
+     * @param keyColumnName the quoted key column name
+     * @param lastKey the key of the last row of the previous page
+     * @return the restricted filter
+     */
+    private FilterWhereBuilder andKeyGreaterThan(FilterWhereBuilder where, String keyColumnName, Object lastKey) {
+        final FilterWhereBuilder keyset = new FilterWhereBuilder();
+        keyset.addBind(new SQLParam(keyColumnName, lastKey, getColumnType(config.getKeyColumn())), ">");
+        if (where == null || StringUtil.isBlank(where.getWhereClause())) {
+            return keyset;
+        }
+        final FilterWhereBuilder ret = new FilterWhereBuilder();
+        ret.join("AND", where, keyset);
+        return ret;
+    }
+
     /**
      * 
      */
@@ -19,6 +19,7 @@
  * enclosed by brackets [] replaced by your own identifying information: 
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.databasetable;
 
@@ -43,6 +44,7 @@ public class DatabaseTableConstants {
     static final String MSG_CAN_NOT_READ="can.not.read";
     static final String MSG_CAN_NOT_UPDATE="can.not.update";
     static final String MSG_DATABASE_BLANK = "database.blank";
+    static final String MSG_FETCH_SIZE_NEGATIVE = "fetch.size.negative";
     static final String MSG_HOST_BLANK = "host.blank";
     static final String MSG_CHANGELOG_COLUMN_BLANK="changelog.column.blank";
     static final String MSG_INVALID_ATTRIBUTE_SET="invalid.attribute.set";
@@ -19,6 +19,7 @@
  * enclosed by brackets [] replaced by your own identifying information: 
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.databasetable;
 
@@ -135,6 +136,8 @@ public class DatabaseTableConfigurationTests {
         assertEquals("USR", config.getUser());
         config.setValidConnectionQuery("VALID");
         assertEquals("VALID", config.getValidConnectionQuery());
+        config.setFetchSize(500);
+        assertEquals(500, config.getFetchSize());
     }       
 
     /**
@@ -172,6 +175,18 @@ public class DatabaseTableConfigurationTests {
         AssertJUnit.fail("empty database");
     }   
     
+    /**
+     * test method
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConfigurationNegativeFetchSize() {
+        DatabaseTableConfiguration config = getConfiguration();
+        config.setFetchSize(-1);
+        // check defaults..
+        config.validate();
+        AssertJUnit.fail("testConfigurationNegativeFetchSize");
+    }
+
     /**
      * test method
      */
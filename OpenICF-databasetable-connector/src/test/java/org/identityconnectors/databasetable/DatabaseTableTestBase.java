@@ -20,6 +20,7 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * Portions Copyrighted 2015 ForgeRock AS
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.databasetable;
 
@@ -46,7 +47,13 @@ import org.identityconnectors.common.logging.Log;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.dbcommon.SQLParam;
 import org.identityconnectors.dbcommon.SQLUtil;
+import org.identityconnectors.framework.api.Observer;
 import org.identityconnectors.framework.api.operations.AuthenticationApiOp;
+import org.identityconnectors.framework.api.operations.batch.BatchTask;
+import org.identityconnectors.framework.api.operations.batch.CreateBatchTask;
+import org.identityconnectors.framework.api.operations.batch.DeleteBatchTask;
+import org.identityconnectors.framework.api.operations.batch.UpdateBatchTask;
+import org.identityconnectors.framework.api.operations.batch.UpdateType;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
 import org.identityconnectors.framework.common.exceptions.InvalidCredentialException;
 import org.identityconnectors.framework.common.exceptions.UnknownUidException;
@@ -54,12 +61,15 @@ import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.AttributeInfo;
 import org.identityconnectors.framework.common.objects.AttributeUtil;
+import org.identityconnectors.framework.common.objects.BatchResult;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.Name;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.ObjectClassInfo;
+import org.identityconnectors.framework.common.objects.OperationOptions;
 import org.identityconnectors.framework.common.objects.OperationOptionsBuilder;
 import org.identityconnectors.framework.common.objects.Schema;
+import org.identityconnectors.framework.common.objects.SearchResult;
 import org.identityconnectors.framework.common.objects.SyncDelta;
 import org.identityconnectors.framework.common.objects.SyncDeltaType;
 import org.identityconnectors.framework.common.objects.SyncResultsHandler;
@@ -67,6 +77,7 @@ import org.identityconnectors.framework.common.objects.SyncToken;
 import org.identityconnectors.framework.common.objects.Uid;
 import org.identityconnectors.framework.common.objects.filter.EqualsFilter;
 import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
+import org.identityconnectors.framework.spi.SearchResultsHandler;
 import org.identityconnectors.test.common.TestHelpers;
 
 /**
@@ -462,6 +473,157 @@ public abstract class DatabaseTableTestBase {
         attributeSetsEquals(con.schema(), changeSet, actual);
     }
     
+    /**
+     * Test method, the tasks of a batch are applied in one transaction
+     * @throws Exception
+     */
+    @Test
+    public void testExecuteBatch() throws Exception {
+        log.ok("testExecuteBatch");
+        final DatabaseTableConfiguration cfg = getConfiguration();
+        con = getConnector(cfg);
+        final Uid existing = con.create(ObjectClass.ACCOUNT, getCreateAttributeSet(cfg), null);
+        final Set<Attribute> first = getCreateAttributeSet(cfg);
+        final Set<Attribute> second = getCreateAttributeSet(cfg);
+        final Set<Attribute> changeSet = getModifyAttributeSet(cfg);
+
+        final List<BatchTask> tasks = new ArrayList<BatchTask>();
+        tasks.add(new CreateBatchTask(ObjectClass.ACCOUNT, first, null));
+        tasks.add(new CreateBatchTask(ObjectClass.ACCOUNT, second, null));
+        tasks.add(new UpdateBatchTask(ObjectClass.ACCOUNT, existing, changeSet, null, UpdateType.UPDATE));
+        tasks.add(new DeleteBatchTask(ObjectClass.ACCOUNT,
+                new Uid(AttributeUtil.getNameFromAttributes(second).getNameValue()), null));
+        tasks.add(new DeleteBatchTask(ObjectClass.ACCOUNT, new Uid("missing"), null));
+        final BatchObserver observer = new BatchObserver();
+        con.executeBatch(tasks, observer, null);
+
+        AssertJUnit.assertTrue(observer.completed);
+        AssertJUnit.assertEquals(4, observer.results.size());
+        AssertJUnit.assertEquals(1, observer.errors.size());
+        AssertJUnit.assertTrue(observer.errors.get(0) instanceof UnknownUidException);
+
+        final Uid firstUid = (Uid) observer.results.get(0).getResult();
+        AssertJUnit.assertEquals(1, TestHelpers.searchToList(con, ObjectClass.ACCOUNT, new EqualsFilter(firstUid)).size());
+        final Uid secondUid = (Uid) observer.results.get(1).getResult();
+        AssertJUnit.assertEquals(0, TestHelpers.searchToList(con, ObjectClass.ACCOUNT, new EqualsFilter(secondUid)).size());
+        final Uid updated = (Uid) observer.results.get(2).getResult();
+        final List<ConnectorObject> list = TestHelpers.searchToList(con, ObjectClass.ACCOUNT, new EqualsFilter(updated));
+        AssertJUnit.assertEquals(1, list.size());
+        attributeSetsEquals(con.schema(), changeSet, list.get(0).getAttributes());
+    }
+
+    /**
+     * Test method, a failed task with failOnError rolls the batch back
+     * @throws Exception
+     */
+    @Test
+    public void testExecuteBatchFailOnError() throws Exception {
+        log.ok("testExecuteBatchFailOnError");
+        final DatabaseTableConfiguration cfg = getConfiguration();
+        con = getConnector(cfg);
+        final Set<Attribute> first = getCreateAttributeSet(cfg);
+
+        final List<BatchTask> tasks = new ArrayList<BatchTask>();
+        tasks.add(new CreateBatchTask(ObjectClass.ACCOUNT, first, null));
+        tasks.add(new DeleteBatchTask(ObjectClass.ACCOUNT, new Uid("missing"), null));
+        final BatchObserver observer = new BatchObserver();
+        con.executeBatch(tasks, observer,
+                new OperationOptionsBuilder().setOption(OperationOptions.OP_FAIL_ON_ERROR, true).build());
+
+        AssertJUnit.assertFalse(observer.completed);
+        AssertJUnit.assertEquals(0, observer.results.size());
+        AssertJUnit.assertEquals(1, observer.errors.size());
+        final Uid firstUid = new Uid(AttributeUtil.getNameFromAttributes(first).getNameValue());
+        AssertJUnit.assertEquals(0, TestHelpers.searchToList(con, ObjectClass.ACCOUNT, new EqualsFilter(firstUid)).size());
+    }
+
+    /**
+     * Test method, the batch binds the values through the mapping strategy
+     * like create and update do
+     * @throws Exception
+     */
+    @Test
+    public void testExecuteBatchNotNative() throws Exception {
+        log.ok("testExecuteBatchNotNative");
+        checkSingleAndBatchChanges(false, false);
+    }
+
+    /**
+     * Test method, the batch binds the values through the mapping strategy
+     * like create and update do
+     * @throws Exception
+     */
+    @Test
+    public void testExecuteBatchNative() throws Exception {
+        log.ok("testExecuteBatchNative");
+        checkSingleAndBatchChanges(true, true);
+    }
+
+    /**
+     * Creates and updates an account with the single operations and another
+     * one with a batch, and reads both back.
+     */
+    private void checkSingleAndBatchChanges(boolean nativeTimestamps, boolean allNative) throws Exception {
+        final DatabaseTableConfiguration cfg = getConfiguration();
+        cfg.setNativeTimestamps(nativeTimestamps);
+        cfg.setAllNative(allNative);
+        con = getConnector(cfg);
+
+        // single operations
+        final Set<Attribute> created = getCreateAttributeSet(cfg);
+        Uid uid = con.create(ObjectClass.ACCOUNT, created, null);
+        List<ConnectorObject> list = TestHelpers.searchToList(con, ObjectClass.ACCOUNT, new EqualsFilter(uid));
+        AssertJUnit.assertEquals(1, list.size());
+        attributeSetsEquals(con.schema(), created, list.get(0).getAttributes());
+        final Set<Attribute> changeSet = getModifyAttributeSet(cfg);
+        uid = con.update(ObjectClass.ACCOUNT, uid, changeSet, null);
+        list = TestHelpers.searchToList(con, ObjectClass.ACCOUNT, new EqualsFilter(uid));
+        AssertJUnit.assertEquals(1, list.size());
+        attributeSetsEquals(con.schema(), changeSet, list.get(0).getAttributes());
+
+        // the same changes in a batch
+        final Uid existing = con.create(ObjectClass.ACCOUNT, getCreateAttributeSet(cfg), null);
+        final Set<Attribute> batchCreated = getCreateAttributeSet(cfg);
+        final Set<Attribute> batchChangeSet = getModifyAttributeSet(cfg);
+        final List<BatchTask> tasks = new ArrayList<BatchTask>();
+        tasks.add(new CreateBatchTask(ObjectClass.ACCOUNT, batchCreated, null));
+        tasks.add(new UpdateBatchTask(ObjectClass.ACCOUNT, existing, batchChangeSet, null, UpdateType.UPDATE));
+        final BatchObserver observer = new BatchObserver();
+        con.executeBatch(tasks, observer, null);
+        AssertJUnit.assertTrue(observer.completed);
+        AssertJUnit.assertTrue(observer.errors.isEmpty());
+
+        list = TestHelpers.searchToList(con, ObjectClass.ACCOUNT,
+                new EqualsFilter((Uid) observer.results.get(0).getResult()));
+        AssertJUnit.assertEquals(1, list.size());
+        attributeSetsEquals(con.schema(), batchCreated, list.get(0).getAttributes());
+        list = TestHelpers.searchToList(con, ObjectClass.ACCOUNT,
+                new EqualsFilter((Uid) observer.results.get(1).getResult()));
+        AssertJUnit.assertEquals(1, list.size());
+        attributeSetsEquals(con.schema(), batchChangeSet, list.get(0).getAttributes());
+    }
+
+    /**
+     * Collects the results of a batch
+     */
+    static class BatchObserver implements Observer<BatchResult> {
+        final List<BatchResult> results = new ArrayList<BatchResult>();
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        boolean completed;
+
+        public void onNext(BatchResult result) {
+            results.add(result);
+        }
+
+        public void onError(Throwable e) {
+            errors.add(e);
+        }
+
+        public void onCompleted() {
+            completed = true;
+        }
+    }
+
     /**
      * Test method for
      * Test creating of the connector object, searching using UID and update
@@ -616,6 +778,49 @@ public abstract class DatabaseTableTestBase {
         attributeSetsEquals(con.schema(), expected, actual.getAttributes());
     }
 
+    /**
+     * Test method, the pages are read after the key of the previous page
+     * @throws Exception
+     */
+    @Test
+    public void testSearchPaged() throws Exception {
+        log.ok("testSearchPaged");
+        final DatabaseTableConfiguration cfg = getConfiguration();
+        cfg.setFetchSize(2);
+        con = getConnector(cfg);
+        deleteAllFromAccounts(con.getConn());
+        final Set<Uid> expected = new HashSet<Uid>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(con.create(ObjectClass.ACCOUNT, getCreateAttributeSet(cfg), null));
+        }
+
+        final Set<Uid> actual = new HashSet<Uid>();
+        final SearchResult[] searchResult = new SearchResult[1];
+        String cookie = null;
+        int pages = 0;
+        do {
+            final List<ConnectorObject> page = new ArrayList<ConnectorObject>();
+            con.executeQuery(ObjectClass.ACCOUNT, null, new SearchResultsHandler() {
+                public boolean handle(ConnectorObject obj) {
+                    page.add(obj);
+                    return true;
+                }
+
+                public void handleResult(SearchResult result) {
+                    searchResult[0] = result;
+                }
+            }, new OperationOptionsBuilder().setPageSize(2).setPagedResultsCookie(cookie).build());
+            AssertJUnit.assertTrue(page.size() <= 2);
+            for (ConnectorObject obj : page) {
+                AssertJUnit.assertTrue("duplicate " + obj.getUid(), actual.add(obj.getUid()));
+            }
+            cookie = searchResult[0].getPagedResultsCookie();
+            pages++;
+        } while (cookie != null);
+        AssertJUnit.assertEquals(3, pages);
+        AssertJUnit.assertEquals(expected, actual);
+    }
+
     /**
      * Test method to issue #238
      * @throws Exception
@@ -40,6 +40,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.ImportCustomizer;
@@ -665,7 +669,12 @@ public class ScriptedConfiguration extends AbstractConfiguration implements Stat
                 clone.call();
                 releaseClosure = null;
             }
+            if (null != scriptWatcher) {
+                scriptWatcher.shutdownNow();
+                scriptWatcher = null;
+            }
             groovyScriptEngine = null;
+            scriptCache.clear();
             propertyBag.clear();
             loggerCache.clear();
             logger.ok("Shared state ScriptedConfiguration is successfully released");
@@ -739,9 +748,19 @@ public class ScriptedConfiguration extends AbstractConfiguration implements Stat
 
     private final ConcurrentMap<String, Log> loggerCache = new ConcurrentHashMap<String, Log>(11);
 
+    /**
+     * The compiled script classes by script name. An operation only creates a
+     * new instance of the cached class, the sources are checked for changes by
+     * the {@link #scriptWatcher} when {@link #getRecompileGroovySource()} is
+     * set.
+     */
+    private final ConcurrentMap<String, Class> scriptCache = new ConcurrentHashMap<String, Class>(11);
+
+    private ScheduledExecutorService scriptWatcher = null;
+
     Object evaluate(String scriptName, Binding binding, Object delegate) throws Exception {
         try {
-            Script scr = getGroovyScriptEngine().createScript(scriptName, binding);
+            Script scr = InvokerHelper.createScript(getScriptClass(scriptName), binding);
             binding.setVariable(LOGGER, getLogger(scr.getClass()));
             if (scr instanceof DelegatingScript && null != delegate) {
                 ((DelegatingScript) scr).setDelegate(delegate);
@@ -757,7 +776,7 @@ public class ScriptedConfiguration extends AbstractConfiguration implements Stat
     Class loadScript(String scriptName) {
         if (StringUtil.isNotBlank(scriptName)) {
             try {
-                return getGroovyScriptEngine().loadScriptByName(scriptName);
+                return getScriptClass(scriptName);
             } catch (ResourceException e) {
                 throw ConnectorException.wrap(e);
             } catch (ScriptException e) {
@@ -767,6 +786,75 @@ public class ScriptedConfiguration extends AbstractConfiguration implements Stat
         return null;
     }
 
+    /**
+     * Returns the compiled class of the script, it is loaded and compiled the
+     * first time only.
+     */
+    protected Class getScriptClass(String scriptName) throws ResourceException, ScriptException {
+        Class scriptClass = scriptCache.get(scriptName);
+        if (null == scriptClass) {
+            final GroovyScriptEngine engine = getGroovyScriptEngine();
+            scriptClass = engine.loadScriptByName(scriptName);
+            synchronized (this) {
+                // The class of an engine dropped by release() is not cached
+                if (engine == groovyScriptEngine) {
+                    Class previous = scriptCache.putIfAbsent(scriptName, scriptClass);
+                    if (null != previous) {
+                        scriptClass = previous;
+                    }
+                }
+            }
+        }
+        return scriptClass;
+    }
+
+    /*
+     * Called by the scriptWatcher. The engine recompiles the scripts whose
+     * source or dependencies changed, a script which fails to compile is
+     * dropped so the next operation reports the error.
+     */
+    private void checkScripts() {
+        final GroovyScriptEngine engine = groovyScriptEngine;
+        if (null == engine) {
+            return;
+        }
+        for (Map.Entry<String, Class> entry : scriptCache.entrySet()) {
+            try {
+                Class scriptClass = engine.loadScriptByName(entry.getKey());
+                if (scriptClass != entry.getValue()) {
+                    synchronized (this) {
+                        if (engine == groovyScriptEngine
+                                && scriptCache.replace(entry.getKey(), entry.getValue(), scriptClass)) {
+                            logger.info("Script {0} is recompiled", entry.getKey());
+                        }
+                    }
+                }
+            } catch (Throwable t) {
+                logger.warn(t, "Failed to recompile script: {0}", entry.getKey());
+                scriptCache.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /*
+     * Must be called inside the synchronized which creates the engine.
+     */
+    private void startScriptWatcher() {
+        final int interval = Math.max(getMinimumRecompilationInterval(), 1);
+        scriptWatcher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "ScriptedConfiguration-script-watcher");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        scriptWatcher.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                checkScripts();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
     protected Log getLogger(final Class<?> clazz) {
         final String key = clazz.getName();
         Log logger = loggerCache.get(key);
@@ -780,7 +868,7 @@ public class ScriptedConfiguration extends AbstractConfiguration implements Stat
         return logger;
     }
 
-    private GroovyScriptEngine groovyScriptEngine = null;
+    private volatile GroovyScriptEngine groovyScriptEngine = null;
 
     protected GroovyScriptEngine getGroovyScriptEngine() {
         if (null == groovyScriptEngine) {
@@ -798,6 +886,10 @@ public class ScriptedConfiguration extends AbstractConfiguration implements Stat
                             new GroovyScriptEngine(getRoots(compilerConfiguration, loader), loader);
 
                     initializeCustomizer();
+
+                    if (getRecompileGroovySource()) {
+                        startScriptWatcher();
+                    }
                 }
             }
         }
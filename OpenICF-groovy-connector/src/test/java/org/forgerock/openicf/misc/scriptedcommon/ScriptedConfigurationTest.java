@@ -0,0 +1,102 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.forgerock.openicf.misc.scriptedcommon;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import groovy.lang.Binding;
+
+public class ScriptedConfigurationTest {
+
+    private static final String SCRIPT = "TestScript.groovy";
+
+    private File root;
+
+    private ScriptedConfiguration configuration;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("scripts").toFile();
+        writeScript("return 'first'", System.currentTimeMillis() - 60000L);
+        configuration = new ScriptedConfiguration();
+        configuration.setScriptRoots(new String[] { root.getAbsolutePath() });
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        configuration.release();
+        new File(root, SCRIPT).delete();
+        root.delete();
+    }
+
+    @Test
+    public void testScriptClassIsCached() throws Exception {
+        Class scriptClass = configuration.getScriptClass(SCRIPT);
+        Assert.assertEquals(run(scriptClass), "first");
+
+        // Without recompileGroovySource the changed source is not read
+        writeScript("return 'second'", System.currentTimeMillis());
+        Assert.assertSame(configuration.getScriptClass(SCRIPT), scriptClass);
+    }
+
+    @Test
+    public void testChangedScriptIsRecompiled() throws Exception {
+        configuration.setRecompileGroovySource(true);
+        configuration.setMinimumRecompilationInterval(100);
+        Class scriptClass = configuration.getScriptClass(SCRIPT);
+        Assert.assertSame(configuration.getScriptClass(SCRIPT), scriptClass);
+
+        writeScript("return 'second'", System.currentTimeMillis());
+        Class recompiled = scriptClass;
+        for (int i = 0; i < 100 && recompiled == scriptClass; i++) {
+            Thread.sleep(100);
+            recompiled = configuration.getScriptClass(SCRIPT);
+        }
+        Assert.assertNotSame(recompiled, scriptClass);
+        Assert.assertEquals(run(recompiled), "second");
+    }
+
+    @Test
+    public void testReleaseClearsCache() throws Exception {
+        Class scriptClass = configuration.getScriptClass(SCRIPT);
+        configuration.release();
+
+        writeScript("return 'second'", System.currentTimeMillis());
+        Class reloaded = configuration.getScriptClass(SCRIPT);
+        Assert.assertNotSame(reloaded, scriptClass);
+        Assert.assertEquals(run(reloaded), "second");
+    }
+
+    private void writeScript(String source, long lastModified) throws IOException {
+        File script = new File(root, SCRIPT);
+        Files.write(script.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(script.setLastModified(lastModified));
+    }
+
+    private static Object run(Class scriptClass) {
+        return InvokerHelper.createScript(scriptClass, new Binding()).run();
+    }
+}
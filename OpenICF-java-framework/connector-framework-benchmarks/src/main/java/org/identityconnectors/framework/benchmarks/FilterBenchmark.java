@@ -0,0 +1,96 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.filter.Filter;
+import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
+import org.identityconnectors.framework.common.objects.filter.FilteredResultsHandlerVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluation of the filters with the {@link FilteredResultsHandlerVisitor},
+ * as the {@code FilteredResultsHandler} does for the connectors which can not
+ * translate the filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = TstConnectorSource.NO_LOGGING)
+public class FilterBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean caseIgnore;
+
+    private List<ConnectorObject> objects;
+
+    private Filter equalTo;
+
+    private Filter composite;
+
+    @Setup
+    public void setUp() {
+        objects = TstConnectorSource.objects(100);
+        equalTo =
+                FilteredResultsHandlerVisitor.wrapFilter(FilterBuilder.equalTo(AttributeBuilder
+                        .build("myattribute49", "myvaluevaluevalue49")), caseIgnore);
+        composite =
+                FilteredResultsHandlerVisitor.wrapFilter(FilterBuilder.and(FilterBuilder
+                        .equalTo(AttributeBuilder.build("myattribute1", "MYVALUEVALUEVALUE1")),
+                        FilterBuilder.or(FilterBuilder.startsWith(AttributeBuilder.build(
+                                Name.NAME, "9")), FilterBuilder.not(FilterBuilder
+                                .contains(AttributeBuilder.build("myattribute10", "value1"))))),
+                        caseIgnore);
+    }
+
+    private int count(final Filter filter) {
+        int matched = 0;
+        for (ConnectorObject object : objects) {
+            if (filter.accept(object)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int equalTo() {
+        return count(equalTo);
+    }
+
+    @Benchmark
+    public int composite() {
+        return count(composite);
+    }
+}
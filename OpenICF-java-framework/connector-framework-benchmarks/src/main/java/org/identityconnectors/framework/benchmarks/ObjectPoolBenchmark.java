@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.identityconnectors.common.pooling.ObjectPoolConfiguration;
+import org.identityconnectors.framework.common.serializer.SerializerUtil;
+import org.identityconnectors.framework.impl.api.local.ConcurrentObjectPool;
+import org.identityconnectors.framework.impl.api.local.ObjectPool;
+import org.identityconnectors.framework.impl.api.local.ObjectPoolEntry;
+import org.identityconnectors.framework.impl.api.local.ObjectPoolHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Borrow and return of the connector pool under contention, more threads than
+ * pooled objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = TstConnectorSource.NO_LOGGING)
+@Threads(16)
+public class ObjectPoolBenchmark {
+
+    /**
+     * Selects the {@link ConcurrentObjectPool} instead of the
+     * {@link ObjectPool}.
+     */
+    @Param({ "false", "true" })
+    public boolean lockFree;
+
+    @Param({ "4", "16" })
+    public int maxObjects;
+
+    private ObjectPool<Object> pool;
+
+    private static class PooledObjectHandler implements ObjectPoolHandler<Object> {
+
+        public ObjectPoolConfiguration validate(ObjectPoolConfiguration original) {
+            ObjectPoolConfiguration configuration =
+                    (ObjectPoolConfiguration) SerializerUtil.cloneObject(original);
+            configuration.validate();
+            return configuration;
+        }
+
+        public Object makeObject() {
+            return new Object();
+        }
+
+        public void testObject(Object object) {
+        }
+
+        public void disposeObject(Object object) {
+        }
+
+        public void shutdown() {
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectPoolConfiguration config = new ObjectPoolConfiguration();
+        config.setLockFreePool(lockFree);
+        config.setMaxObjects(maxObjects);
+        config.setMaxIdle(maxObjects);
+        config.setMinIdle(1);
+        config.setMaxWait(60 * 1000);
+        pool =
+                lockFree ? new ConcurrentObjectPool<Object>(new PooledObjectHandler(), config)
+                        : new ObjectPool<Object>(new PooledObjectHandler(), config);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object borrowAndReturn() throws Exception {
+        ObjectPoolEntry<Object> entry = pool.borrowObject();
+        try {
+            return entry.getPooledObject();
+        } finally {
+            entry.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openicf.common.protobuf.ConnectorObjects.ConnectorObjectMessage;
+import org.forgerock.openicf.common.protobuf.FilterMessages.FilterUnionMessage;
+import org.forgerock.openicf.framework.remote.MessagesUtil;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.filter.Filter;
+import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * Conversion of the framework objects to and from the protobuf messages of
+ * the remote connector server, native and legacy (binary serializer in a
+ * {@code bytes} field) encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = TstConnectorSource.NO_LOGGING)
+public class ProtobufBenchmark {
+
+    private ConnectorObject object;
+
+    private byte[] nativeObject;
+
+    private ByteString legacyObject;
+
+    private Filter filter;
+
+    private FilterUnionMessage filterMessage;
+
+    @Setup
+    public void setUp() {
+        object = TstConnectorSource.objects(1).get(0);
+        nativeObject =
+                MessagesUtil.serializeMessage(object, ConnectorObjectMessage.class).toByteArray();
+        legacyObject = MessagesUtil.serializeLegacy(object);
+        filter =
+                FilterBuilder.and(FilterBuilder.equalTo(AttributeBuilder.build("myattribute1",
+                        "myvaluevaluevalue1")), FilterBuilder.or(FilterBuilder
+                        .startsWith(AttributeBuilder.build(Name.NAME, "1")), FilterBuilder
+                        .contains(AttributeBuilder.build("myattribute10", "value10"))));
+        filterMessage = MessagesUtil.fromFilter(filter).build();
+    }
+
+    @Benchmark
+    public byte[] nativeEncode() {
+        return MessagesUtil.serializeMessage(object, ConnectorObjectMessage.class).toByteArray();
+    }
+
+    @Benchmark
+    public ConnectorObject nativeDecode() throws InvalidProtocolBufferException {
+        return MessagesUtil.deserializeMessage(ConnectorObjectMessage.parseFrom(nativeObject),
+                ConnectorObject.class);
+    }
+
+    @Benchmark
+    public ByteString legacyEncode() {
+        return MessagesUtil.serializeLegacy(object);
+    }
+
+    @Benchmark
+    public ConnectorObject legacyDecode() {
+        return MessagesUtil.deserializeLegacy(legacyObject);
+    }
+
+    @Benchmark
+    public FilterUnionMessage filterEncode() {
+        return MessagesUtil.fromFilter(filter).build();
+    }
+
+    @Benchmark
+    public Filter filterDecode() {
+        return MessagesUtil.toFilter(filterMessage);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.identityconnectors.framework.api.ConnectorFacade;
+import org.identityconnectors.framework.api.ConnectorFacadeFactory;
+import org.identityconnectors.framework.api.ResultsHandlerConfiguration;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.OperationOptions;
+import org.identityconnectors.framework.common.objects.OperationOptionsBuilder;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
+import org.identityconnectors.framework.common.objects.SearchResult;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.identityconnectors.framework.common.objects.filter.Filter;
+import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Local search through the {@code SearchImpl} with the results handler chain
+ * ({@code NormalizingResultsHandler}, {@code FilteredResultsHandler} and
+ * {@code AttributesToGetSearchResultsHandler}) enabled as configured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = TstConnectorSource.NO_LOGGING)
+public class SearchBenchmark {
+
+    /**
+     * The enabled results handlers.
+     */
+    @Param({ "none", "filtered", "normalizing", "attributesToGet", "all" })
+    public String chain;
+
+    private ConnectorFacade facade;
+
+    private Filter filter;
+
+    private OperationOptions options;
+
+    @Setup
+    public void setUp() {
+        ResultsHandlerConfiguration configuration = new ResultsHandlerConfiguration();
+        configuration.setEnableNormalizingResultsHandler("normalizing".equals(chain)
+                || "all".equals(chain));
+        configuration.setEnableFilteredResultsHandler("filtered".equals(chain)
+                || "normalizing".equals(chain) || "all".equals(chain));
+        configuration.setEnableAttributesToGetSearchResultsHandler(
+                "attributesToGet".equals(chain) || "all".equals(chain));
+        facade = TstConnectorSource.newFacade(100, configuration);
+        // matches every object, the cost is the evaluation and not the
+        // number of results
+        filter = FilterBuilder.not(FilterBuilder.equalTo(AttributeBuilder.build(Name.NAME, "-1")));
+        options =
+                new OperationOptionsBuilder().setAttributesToGet(Name.NAME, Uid.NAME,
+                        "myattribute1", "myattribute10").build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ConnectorFacadeFactory.getInstance().dispose();
+    }
+
+    @Benchmark
+    public SearchResult search(final Blackhole blackhole) {
+        return facade.search(ObjectClass.ACCOUNT, filter, new ResultsHandler() {
+            public boolean handle(ConnectorObject connectorObject) {
+                blackhole.consume(connectorObject);
+                return true;
+            }
+        }, options);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.serializer.SerializerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of connector objects with the binary
+ * ({@code BinaryObjectEncoder}/{@code BinaryObjectDecoder}) and the XML
+ * ({@code XmlObjectSerializerImpl}) serializers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = TstConnectorSource.NO_LOGGING)
+public class SerializerBenchmark {
+
+    /**
+     * Number of objects in the serialized list.
+     */
+    @Param({ "1", "100" })
+    public int size;
+
+    private List<ConnectorObject> objects;
+
+    private byte[] binary;
+
+    private String xml;
+
+    @Setup
+    public void setUp() {
+        objects = TstConnectorSource.objects(size);
+        binary = SerializerUtil.serializeBinaryObject(objects);
+        xml = SerializerUtil.serializeXmlObject(objects, false);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return SerializerUtil.serializeBinaryObject(objects);
+    }
+
+    @Benchmark
+    public Object binaryDecode() {
+        return SerializerUtil.deserializeBinaryObject(binary);
+    }
+
+    @Benchmark
+    public Object binaryDecodeBuffer() {
+        return SerializerUtil.deserializeBinaryObject(ByteBuffer.wrap(binary));
+    }
+
+    @Benchmark
+    public String xmlEncode() {
+        return SerializerUtil.serializeXmlObject(objects, false);
+    }
+
+    @Benchmark
+    public Object xmlDecode() {
+        return SerializerUtil.deserializeXmlObject(xml, false);
+    }
+}
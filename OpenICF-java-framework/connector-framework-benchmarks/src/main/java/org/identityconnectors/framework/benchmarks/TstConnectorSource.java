@@ -0,0 +1,83 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.identityconnectors.framework.api.APIConfiguration;
+import org.identityconnectors.framework.api.ConnectorFacade;
+import org.identityconnectors.framework.api.ConnectorFacadeFactory;
+import org.identityconnectors.framework.api.ResultsHandlerConfiguration;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
+import org.identityconnectors.test.common.TestHelpers;
+import org.identityconnectors.testconnector.TstConnector;
+import org.identityconnectors.testconnector.TstConnectorConfig;
+
+/**
+ * The {@link TstConnector} of the {@code testbundlev1} is the data source of
+ * the benchmarks, it returns objects with a uid, a name and 50 string
+ * attributes.
+ */
+final class TstConnectorSource {
+
+    /**
+     * The API logging proxy writes every call to the standard output by
+     * default, the forked benchmarks measure the framework without it.
+     */
+    static final String NO_LOGGING =
+            "-Dorg.identityconnectors.common.logging.class="
+                    + "org.identityconnectors.common.logging.impl.NoOpLogger";
+
+    private TstConnectorSource() {
+    }
+
+    /**
+     * Creates a local facade of the {@link TstConnector} returning
+     * {@code numResults} objects.
+     */
+    static ConnectorFacade newFacade(final int numResults,
+            final ResultsHandlerConfiguration handlerConfiguration) {
+        TstConnectorConfig config = new TstConnectorConfig();
+        config.setNumResults(numResults);
+        APIConfiguration apiConfig = TestHelpers.createTestConfiguration(TstConnector.class, config);
+        ResultsHandlerConfiguration target = apiConfig.getResultsHandlerConfiguration();
+        target.setEnableNormalizingResultsHandler(handlerConfiguration
+                .isEnableNormalizingResultsHandler());
+        target.setEnableFilteredResultsHandler(handlerConfiguration.isEnableFilteredResultsHandler());
+        target.setEnableCaseInsensitiveFilter(handlerConfiguration.isEnableCaseInsensitiveFilter());
+        target.setEnableAttributesToGetSearchResultsHandler(handlerConfiguration
+                .isEnableAttributesToGetSearchResultsHandler());
+        return ConnectorFacadeFactory.getInstance().newInstance(apiConfig);
+    }
+
+    /**
+     * Returns the objects of a search without filter.
+     */
+    static List<ConnectorObject> objects(final int numResults) {
+        final List<ConnectorObject> objects = new ArrayList<ConnectorObject>(numResults);
+        newFacade(numResults, new ResultsHandlerConfiguration()).search(ObjectClass.ACCOUNT, null,
+                new ResultsHandler() {
+                    public boolean handle(ConnectorObject connectorObject) {
+                        return objects.add(connectorObject);
+                    }
+                }, null);
+        return objects;
+    }
+}
@@ -20,6 +20,7 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * Portions Copyrighted 2010-2013 ForgeRock AS.
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.framework.impl.api;
 
@@ -79,6 +80,12 @@ public class APIConfigurationImpl implements APIConfiguration {
      */
     private transient ConfigurationPropertyChangeListener configurationChangeListener;
 
+    /**
+     * The key of the connector pool last looked up for this configuration. Not
+     * serialized in this object.
+     */
+    private transient volatile APIConfigurationKey connectorPoolKey;
+
     // =======================================================================
     // Constructors
     // =======================================================================
@@ -241,6 +248,14 @@ public class APIConfigurationImpl implements APIConfiguration {
         configurationChangeListener = changeListener;
     }
 
+    public APIConfigurationKey getConnectorPoolKey() {
+        return connectorPoolKey;
+    }
+
+    public void setConnectorPoolKey(APIConfigurationKey connectorPoolKey) {
+        this.connectorPoolKey = connectorPoolKey;
+    }
+
     public ConfigurationPropertyChangeListener getChangeListener() {
         return configurationChangeListener;
     }
@@ -0,0 +1,33 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.impl.api;
+
+/**
+ * A key made from a snapshot of an {@link APIConfigurationImpl}. It is kept on
+ * the configuration and reused while the configuration still matches it.
+ */
+public interface APIConfigurationKey {
+
+    /**
+     * Checks whether this key still describes the configuration.
+     *
+     * @param configuration
+     *            the configuration the key was made from.
+     * @return false if the configuration has been changed since.
+     */
+    boolean matches(APIConfigurationImpl configuration);
+}
@@ -19,6 +19,7 @@
  * enclosed by brackets [] replaced by your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.framework.impl.api;
 
@@ -36,6 +37,7 @@ import org.identityconnectors.framework.api.RemoteFrameworkConnectionInfo;
 import org.identityconnectors.framework.common.exceptions.ConfigurationException;
 import org.identityconnectors.framework.impl.api.local.LocalConnectorInfoManagerImpl;
 import org.identityconnectors.framework.impl.api.remote.RemoteConnectorInfoManagerImpl;
+import org.identityconnectors.framework.impl.api.remote.RemoteFrameworkConnectionPool;
 
 public class ConnectorInfoManagerFactoryImpl extends ConnectorInfoManagerFactory {
 
@@ -60,6 +62,7 @@ public class ConnectorInfoManagerFactoryImpl extends ConnectorInfoManagerFactory
         synchronized (remoteManagerCache) {
             remoteManagerCache.clear();
         }
+        RemoteFrameworkConnectionPool.getInstance().clear();
     }
 
     @Override
@@ -0,0 +1,491 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.impl.api.local;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.identityconnectors.common.logging.Log;
+import org.identityconnectors.common.pooling.ObjectPoolConfiguration;
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
+
+/**
+ * A lock-free {@link ObjectPool}.
+ * <p>
+ * The idle objects are kept in a non-blocking stack so the most recently
+ * returned (hot) object is borrowed first and the stale objects sink to the
+ * bottom where the background evictor removes them. The borrow and return
+ * paths never walk the idle objects and take a lock only while a borrower
+ * waits for a place taken by the warm-up; the number of borrowed objects is
+ * limited by a {@link Semaphore}.
+ * <p>
+ * The idle objects are tested on borrow only if they were idle for at least
+ * {@link ObjectPoolConfiguration#getValidateIdleTimeMillis()}.
+ *
+ * @since 2.1
+ */
+public class ConcurrentObjectPool<T> extends ObjectPool<T> {
+
+    private static final Log LOG = Log.getLog(ConcurrentObjectPool.class);
+
+    /**
+     * Single daemon thread running the evictor of every pool.
+     */
+    private static final ScheduledExecutorService EVICTOR = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "OpenICF ObjectPool Evictor");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    /**
+     * An object plus the time it was returned to the pool.
+     */
+    private class PooledObject implements ObjectPoolEntry<T> {
+
+        private final T object;
+
+        private final AtomicBoolean active = new AtomicBoolean(false);
+
+        private volatile long lastReturnTimestamp;
+
+        private volatile boolean isNew = true;
+
+        public PooledObject(final T object) {
+            this.object = object;
+            lastReturnTimestamp = System.currentTimeMillis();
+        }
+
+        public T getPooledObject() {
+            return object;
+        }
+
+        public void close() throws IOException {
+            if (active.compareAndSet(true, false)) {
+                returnObject(this);
+            }
+        }
+
+        private long getIdleTime() {
+            return System.currentTimeMillis() - lastReturnTimestamp;
+        }
+    }
+
+    /**
+     * Stack of idle objects, the most recently returned comes first and the
+     * one that has been idle for the longest is the last.
+     */
+    private final ConcurrentLinkedDeque<PooledObject> idleObjects =
+            new ConcurrentLinkedDeque<PooledObject>();
+
+    /**
+     * Number of the objects in {@link #idleObjects}.
+     */
+    private final AtomicInteger idleCount = new AtomicInteger(0);
+
+    /**
+     * Number of the objects made by this pool and not yet disposed.
+     */
+    private final AtomicInteger totalCount = new AtomicInteger(0);
+
+    /**
+     * Limits the number of borrowed objects.
+     */
+    private final Semaphore borrowPermit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when an object was pushed on the idle stack or disposed.
+     */
+    private final Condition objectAvailable = lock.newCondition();
+
+    /**
+     * Number of the borrowers waiting for {@link #objectAvailable}.
+     */
+    private final AtomicInteger waiters = new AtomicInteger(0);
+
+    private final ScheduledFuture<?> evictorFuture;
+
+    private volatile boolean isShutdown = false;
+
+    /**
+     * Create a new ConcurrentObjectPool.
+     *
+     * @param handler
+     *            Handler for objects
+     * @param config
+     *            Configuration for the pool
+     */
+    public ConcurrentObjectPool(final ObjectPoolHandler<T> handler,
+            final ObjectPoolConfiguration config) {
+        super(handler, config);
+        borrowPermit = new Semaphore(getPoolConfiguration().getMaxObjects());
+        long period = getPoolConfiguration().getTimeBetweenEvictionRunsMillis();
+        if (period > 0) {
+            evictorFuture = EVICTOR.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    evict();
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            evictorFuture = null;
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    /**
+     * Borrow an object from the pool.
+     *
+     * @return An object
+     */
+    @Override
+    public ObjectPoolEntry<T> borrowObject() {
+        if (isShutdown()) {
+            throw new IllegalStateException("Object pool already shutdown");
+        }
+        final long start = getMetrics().borrowStarted();
+        try {
+            return borrowObjectNoMetrics();
+        } finally {
+            getMetrics().borrowCompleted(start);
+        }
+    }
+
+    private PooledObject borrowObjectNoMetrics() {
+        try {
+            if (!borrowPermit.tryAcquire()) {
+                final boolean acquired;
+                getMetrics().waitStarted();
+                try {
+                    acquired =
+                            borrowPermit.tryAcquire(getPoolConfiguration().getMaxWait(),
+                                    TimeUnit.MILLISECONDS);
+                } finally {
+                    getMetrics().waitCompleted();
+                }
+                if (!acquired) {
+                    getMetrics().borrowTimedOut();
+                    throw new ConnectorException("TimeOut");
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.error(e, "Failed to borrow object from pool.");
+            Thread.currentThread().interrupt();
+            throw ConnectorException.wrap(e);
+        }
+        boolean borrowed = false;
+        try {
+            PooledObject rv = pollIdleObject();
+            if (null == rv) {
+                rv = makeOrPollIdleObject();
+            }
+            rv.isNew = false;
+            rv.active.set(true);
+            borrowed = true;
+            return rv;
+        } finally {
+            if (!borrowed) {
+                borrowPermit.release();
+            }
+        }
+    }
+
+    /**
+     * Takes the most recently returned idle object which passes the test.
+     *
+     * @return null if there is no idle object.
+     */
+    private PooledObject pollIdleObject() {
+        PooledObject rv = idleObjects.pollFirst();
+        while (null != rv) {
+            idleCount.decrementAndGet();
+            if (testObject(rv)) {
+                return rv;
+            }
+            rv = idleObjects.pollFirst();
+        }
+        return null;
+    }
+
+    /**
+     * Makes a new object for a caller holding a borrow permit.
+     * <p>
+     * The warm-up may have taken the last free places to make idle objects, the
+     * caller then waits for them instead of going over {@code MaxObjects}.
+     */
+    private PooledObject makeOrPollIdleObject() {
+        final long deadline =
+                System.nanoTime()
+                        + TimeUnit.MILLISECONDS.toNanos(getPoolConfiguration().getMaxWait());
+        while (true) {
+            if (reserveObject()) {
+                PooledObject rv = makeObject();
+                // a new object which fails the test is reported to the caller
+                testObject(rv);
+                return rv;
+            }
+            PooledObject rv = pollIdleObject();
+            if (null != rv) {
+                return rv;
+            }
+            awaitObject(deadline);
+        }
+    }
+
+    /**
+     * Waits until the pool has an idle object or a free place.
+     */
+    private void awaitObject(final long deadline) {
+        final int maxObjects = getPoolConfiguration().getMaxObjects();
+        waiters.incrementAndGet();
+        lock.lock();
+        try {
+            while (idleCount.get() <= 0 && totalCount.get() >= maxObjects) {
+                long nanos = deadline - System.nanoTime();
+                if (nanos <= 0) {
+                    getMetrics().borrowTimedOut();
+                    throw new ConnectorException("TimeOut");
+                }
+                objectAvailable.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            LOG.error(e, "Failed to borrow object from pool.");
+            Thread.currentThread().interrupt();
+            throw ConnectorException.wrap(e);
+        } finally {
+            lock.unlock();
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wakes up the borrowers waiting in {@link #awaitObject(long)}.
+     */
+    private void signalObjectAvailable() {
+        if (waiters.get() > 0) {
+            lock.lock();
+            try {
+                objectAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reserves the place of a new object unless the pool already has
+     * {@code MaxObjects} objects.
+     *
+     * @return false if the pool is full.
+     */
+    private boolean reserveObject() {
+        final int maxObjects = getPoolConfiguration().getMaxObjects();
+        int total;
+        do {
+            total = totalCount.get();
+            if (total >= maxObjects) {
+                return false;
+            }
+        } while (!totalCount.compareAndSet(total, total + 1));
+        return true;
+    }
+
+    /**
+     * Test the object if it is new or it was idle long enough.
+     *
+     * @return false if the object failed the test and it was disposed.
+     * @throws ConnectorException
+     *             if a new object failed the test.
+     */
+    private boolean testObject(final PooledObject pooled) {
+        long validateIdleTime = getPoolConfiguration().getValidateIdleTimeMillis();
+        if (!pooled.isNew && validateIdleTime > 0 && pooled.getIdleTime() < validateIdleTime) {
+            return true;
+        }
+        try {
+            getHandler().testObject(pooled.getPooledObject());
+            return true;
+        } catch (Exception e) {
+            dispose(pooled);
+            if (pooled.isNew) {
+                throw ConnectorException.wrap(e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Return an object to the pool.
+     * <p>
+     * The object is disposed if the pool already has {@code MaxIdle} idle
+     * objects.
+     */
+    private void returnObject(final PooledObject pooled) {
+        try {
+            if (isShutdown()) {
+                dispose(pooled);
+                return;
+            }
+            pushIdleObject(pooled);
+        } finally {
+            borrowPermit.release();
+        }
+    }
+
+    /**
+     * Push the object on the top of the idle stack or dispose it if the pool
+     * already has {@code MaxIdle} idle objects.
+     *
+     * @return true if the object was pushed.
+     */
+    private boolean pushIdleObject(final PooledObject pooled) {
+        int maxIdle = getPoolConfiguration().getMaxIdle();
+        int idle;
+        do {
+            idle = idleCount.get();
+            if (idle >= maxIdle) {
+                dispose(pooled);
+                return false;
+            }
+        } while (!idleCount.compareAndSet(idle, idle + 1));
+        pooled.lastReturnTimestamp = System.currentTimeMillis();
+        idleObjects.offerFirst(pooled);
+        // shutdown may have drained the stack before the push
+        if (isShutdown() && idleObjects.removeFirstOccurrence(pooled)) {
+            idleCount.decrementAndGet();
+            dispose(pooled);
+            return false;
+        }
+        signalObjectAvailable();
+        return true;
+    }
+
+    @Override
+    protected boolean addIdleObject() {
+        if (!reserveObject()) {
+            return false;
+        }
+        final PooledObject pooled = makeObject();
+        pooled.isNew = false;
+        return pushIdleObject(pooled);
+    }
+
+    /**
+     * Dispose the idle objects which were idle longer than
+     * {@code MinEvictableIdleTimeMillis} while there are more than
+     * {@code MinIdle} idle objects.
+     */
+    void evict() {
+        if (isShutdown()) {
+            return;
+        }
+        final ObjectPoolConfiguration config = getPoolConfiguration();
+        try {
+            Iterator<PooledObject> iterator = idleObjects.descendingIterator();
+            while (iterator.hasNext() && idleCount.get() > config.getMinIdle()) {
+                PooledObject pooled = iterator.next();
+                if (pooled.getIdleTime() <= config.getMinEvictableIdleTimeMillis()) {
+                    // the rest was returned more recently
+                    break;
+                }
+                if (idleObjects.removeLastOccurrence(pooled)) {
+                    idleCount.decrementAndGet();
+                    dispose(pooled);
+                }
+            }
+        } catch (Throwable t) {
+            LOG.warn(t, "Failed to evict idle objects");
+        }
+    }
+
+    /**
+     * Closes any idle objects in the pool.
+     * <p>
+     * Existing active objects will remain alive and be allowed to shutdown
+     * gracefully, but no more objects will be allocated.
+     */
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+        if (null != evictorFuture) {
+            evictorFuture.cancel(false);
+        }
+        try {
+            for (PooledObject entry = idleObjects.pollFirst(); entry != null; entry =
+                    idleObjects.pollFirst()) {
+                idleCount.decrementAndGet();
+                dispose(entry);
+            }
+        } finally {
+            getHandler().shutdown();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the pool's stats at a point in time.
+     *
+     * @return The statistics
+     */
+    @Override
+    public Statistics getStatistics() {
+        return new Statistics(idleCount.get(), totalCount.get());
+    }
+
+    /**
+     * Makes an object in the place reserved with {@link #reserveObject()}.
+     */
+    private PooledObject makeObject() {
+        try {
+            return new PooledObject(getHandler().makeObject());
+        } catch (RuntimeException e) {
+            totalCount.decrementAndGet();
+            throw ConnectorException.wrap(e);
+        }
+    }
+
+    /**
+     * Dispose of an object, but don't throw any exceptions.
+     */
+    private void dispose(final PooledObject entry) {
+        totalCount.decrementAndGet();
+        try {
+            getHandler().disposeObject(entry.getPooledObject());
+        } catch (Exception e) {
+            LOG.warn(e, "disposeObject() is not supposed to throw");
+        }
+        signalObjectAvailable();
+        warmUp();
+    }
+}
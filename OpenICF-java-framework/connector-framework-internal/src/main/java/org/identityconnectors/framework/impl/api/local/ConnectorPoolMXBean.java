@@ -0,0 +1,87 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.impl.api.local;
+
+/**
+ * JMX view of a connector pool managed by the {@link ConnectorPoolManager}.
+ * <p>
+ * Times are in milliseconds, counters are cumulative since the pool was
+ * created or since the last {@link #resetMetrics()}.
+ *
+ * @see ObjectPoolMetrics
+ * @since 2.1
+ */
+public interface ConnectorPoolMXBean {
+
+    String getBundleName();
+
+    String getBundleVersion();
+
+    String getConnectorName();
+
+    /**
+     * Returns the pool configuration as a string.
+     */
+    String getPoolConfiguration();
+
+    int getNumIdle();
+
+    int getNumActive();
+
+    /**
+     * Returns the number of callers currently waiting for a connector to be
+     * returned to the pool.
+     */
+    int getNumWaiting();
+
+    long getBorrowCount();
+
+    long getBorrowTimeoutCount();
+
+    double getMeanBorrowTime();
+
+    long getMaxBorrowTime();
+
+    /**
+     * Returns the inclusive upper bounds of the borrow time histogram buckets.
+     */
+    long[] getBorrowTimeBounds();
+
+    /**
+     * Returns the borrow time histogram, the last element counts the borrows
+     * which took longer than the last bound.
+     */
+    long[] getBorrowTimeHistogram();
+
+    long getMakeObjectCount();
+
+    long getMakeObjectFailureCount();
+
+    double getMeanMakeObjectTime();
+
+    long getTestObjectCount();
+
+    long getTestObjectFailureCount();
+
+    double getMeanTestObjectTime();
+
+    long getDisposeObjectCount();
+
+    double getMeanDisposeObjectTime();
+
+    void resetMetrics();
+}
@@ -20,14 +20,24 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * Portions Copyrighted 2010-2013 ForgeRock AS.
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 
 package org.identityconnectors.framework.impl.api.local;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.identityconnectors.common.CollectionUtil;
 import org.identityconnectors.common.Pair;
 import org.identityconnectors.common.logging.Log;
 import org.identityconnectors.common.pooling.ObjectPoolConfiguration;
@@ -36,7 +46,9 @@ import org.identityconnectors.framework.api.ConnectorKey;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
 import org.identityconnectors.framework.common.serializer.SerializerUtil;
 import org.identityconnectors.framework.impl.api.APIConfigurationImpl;
+import org.identityconnectors.framework.impl.api.APIConfigurationKey;
 import org.identityconnectors.framework.impl.api.ConfigurationPropertiesImpl;
+import org.identityconnectors.framework.impl.api.ConfigurationPropertyImpl;
 import org.identityconnectors.framework.impl.api.local.operations.OperationalContext;
 import org.identityconnectors.framework.spi.AbstractConfiguration;
 import org.identityconnectors.framework.spi.Configuration;
@@ -45,29 +57,111 @@ import org.identityconnectors.framework.spi.PoolableConnector;
 
 public class ConnectorPoolManager {
 
-    public static class ConnectorPoolKey {
+    /**
+     * Immutable key of a connector pool.
+     * <p>
+     * The key keeps a snapshot of the configuration and a fingerprint computed
+     * once from the connector key, the configuration property values and the
+     * pool configuration, so the pools of the different configurations of the
+     * same connector do not share a hash bucket and the deep comparison is
+     * only done when the fingerprints match.
+     */
+    public static class ConnectorPoolKey implements APIConfigurationKey {
         private final ConnectorKey connectorKey;
         private final ConfigurationPropertiesImpl configProperties;
         private final ObjectPoolConfiguration poolingConfig;
+        private final int fingerprint;
 
         public ConnectorPoolKey(final ConnectorKey connectorKey,
                 final ConfigurationPropertiesImpl configProperties,
                 final ObjectPoolConfiguration poolingConfig) {
 
             this.connectorKey = connectorKey;
-            this.configProperties = configProperties;
-            this.poolingConfig = poolingConfig;
+            this.configProperties = copyOf(configProperties);
+            this.poolingConfig = new ObjectPoolConfiguration(poolingConfig);
+            this.fingerprint = fingerprint(connectorKey, this.configProperties, this.poolingConfig);
+        }
+
+        private static ConfigurationPropertiesImpl copyOf(
+                final ConfigurationPropertiesImpl configProperties) {
+            final List<ConfigurationPropertyImpl> properties =
+                    new ArrayList<ConfigurationPropertyImpl>(configProperties.getProperties()
+                            .size());
+            for (ConfigurationPropertyImpl property : configProperties.getProperties()) {
+                properties.add(new ConfigurationPropertyImpl(property));
+            }
+            final ConfigurationPropertiesImpl copy = new ConfigurationPropertiesImpl();
+            copy.setProperties(properties);
+            return copy;
+        }
+
+        /**
+         * {@link ConfigurationPropertiesImpl#hashCode()} hashes the property
+         * names only, which are the same for every configuration of a
+         * connector, so the values are hashed here. The properties are
+         * compared as a set, so their hashes are summed independently of the
+         * order.
+         */
+        private static int fingerprint(final ConnectorKey connectorKey,
+                final ConfigurationPropertiesImpl configProperties,
+                final ObjectPoolConfiguration poolingConfig) {
+            int propertiesHash = 0;
+            for (ConfigurationPropertyImpl property : configProperties.getProperties()) {
+                propertiesHash +=
+                        property.getName().hashCode()
+                                ^ CollectionUtil.hashCode(property.getValue());
+            }
+            int hash = 31 * connectorKey.hashCode() + propertiesHash;
+            return 31 * hash + poolingConfig.hashCode();
+        }
+
+        /**
+         * Checks whether this key still describes the configuration without
+         * making a snapshot of it.
+         */
+        public boolean matches(final APIConfigurationImpl configuration) {
+            final ConnectorKey connectorKey = configuration.getConnectorInfo().getConnectorKey();
+            final ConfigurationPropertiesImpl configProperties =
+                    configuration.getConfigurationProperties();
+            final ObjectPoolConfiguration poolingConfig =
+                    configuration.getConnectorPoolConfiguration();
+            if (!this.connectorKey.equals(connectorKey)
+                    || !this.poolingConfig.equals(poolingConfig)
+                    || this.configProperties.getProperties().size() != configProperties
+                            .getProperties().size()) {
+                return false;
+            }
+            for (ConfigurationPropertyImpl property : configProperties.getProperties()) {
+                if (!property.equals(this.configProperties.getProperty(property.getName()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public ConnectorKey getConnectorKey() {
+            return connectorKey;
+        }
+
+        public ObjectPoolConfiguration getPoolingConfig() {
+            return poolingConfig;
         }
 
         @Override
         public int hashCode() {
-            return connectorKey.hashCode();
+            return fingerprint;
         }
 
         @Override
         public boolean equals(final Object object) {
+            if (this == object) {
+                return true;
+            }
             if (object instanceof ConnectorPoolKey) {
                 final ConnectorPoolKey other = (ConnectorPoolKey) object;
+                if (fingerprint != other.fingerprint) {
+                    return false;
+                }
                 if (!connectorKey.equals(other.connectorKey)) {
                     return false;
                 }
@@ -206,6 +300,109 @@ public class ConnectorPoolManager {
         }
     }
 
+    private static class ConnectorPool implements ConnectorPoolMXBean {
+        private final ConnectorPoolKey key;
+        private final ObjectPool<PoolableConnector> pool;
+
+        public ConnectorPool(final ConnectorPoolKey key, final ObjectPool<PoolableConnector> pool) {
+            this.key = key;
+            this.pool = pool;
+        }
+
+        public String getBundleName() {
+            return key.getConnectorKey().getBundleName();
+        }
+
+        public String getBundleVersion() {
+            return key.getConnectorKey().getBundleVersion();
+        }
+
+        public String getConnectorName() {
+            return key.getConnectorKey().getConnectorName();
+        }
+
+        public String getPoolConfiguration() {
+            return String.valueOf(key.getPoolingConfig());
+        }
+
+        public int getNumIdle() {
+            return pool.getStatistics().getNumIdle();
+        }
+
+        public int getNumActive() {
+            return pool.getStatistics().getNumActive();
+        }
+
+        public int getNumWaiting() {
+            return pool.getMetrics().getWaitingCount();
+        }
+
+        public long getBorrowCount() {
+            return pool.getMetrics().getBorrowCount();
+        }
+
+        public long getBorrowTimeoutCount() {
+            return pool.getMetrics().getBorrowTimeoutCount();
+        }
+
+        public double getMeanBorrowTime() {
+            return pool.getMetrics().getMeanBorrowTimeMillis();
+        }
+
+        public long getMaxBorrowTime() {
+            return pool.getMetrics().getMaxBorrowTimeMillis();
+        }
+
+        public long[] getBorrowTimeBounds() {
+            return pool.getMetrics().getBorrowTimeBounds();
+        }
+
+        public long[] getBorrowTimeHistogram() {
+            return pool.getMetrics().getBorrowTimeHistogram();
+        }
+
+        public long getMakeObjectCount() {
+            return pool.getMetrics().getMakeObjectCount();
+        }
+
+        public long getMakeObjectFailureCount() {
+            return pool.getMetrics().getMakeObjectFailureCount();
+        }
+
+        public double getMeanMakeObjectTime() {
+            return pool.getMetrics().getMeanMakeObjectTimeMillis();
+        }
+
+        public long getTestObjectCount() {
+            return pool.getMetrics().getTestObjectCount();
+        }
+
+        public long getTestObjectFailureCount() {
+            return pool.getMetrics().getTestObjectFailureCount();
+        }
+
+        public double getMeanTestObjectTime() {
+            return pool.getMetrics().getMeanTestObjectTimeMillis();
+        }
+
+        public long getDisposeObjectCount() {
+            return pool.getMetrics().getDisposeObjectCount();
+        }
+
+        public double getMeanDisposeObjectTime() {
+            return pool.getMetrics().getMeanDisposeObjectTimeMillis();
+        }
+
+        public void resetMetrics() {
+            pool.getMetrics().reset();
+        }
+    }
+
+    /**
+     * JMX domain of the registered {@link ConnectorPoolMXBean}s.
+     */
+    public static final String JMX_DOMAIN = "org.identityconnectors.framework";
+
     /**
      * Cache of the various POOLS..
      */
@@ -214,6 +411,74 @@ public class ConnectorPoolManager {
 
     private static final Log LOG = Log.getLog(ConnectorPoolManager.class);
 
+    /**
+     * The names of the registered {@link ConnectorPoolMXBean}s.
+     */
+    private static final ConcurrentMap<ConnectorPoolKey, ObjectName> MBEAN_NAMES =
+            new ConcurrentHashMap<ConnectorPoolKey, ObjectName>();
+
+    private static final AtomicLong MBEAN_SEQUENCE = new AtomicLong();
+
+    private static volatile MBeanServer mBeanServer = null;
+
+    /**
+     * Exports the metrics of every existing and future pool to the
+     * {@code MBeanServer}.
+     *
+     * @param server
+     *            the server to register the {@link ConnectorPoolMXBean}s with
+     *            or null to unregister all of them.
+     * @since 2.1
+     */
+    public static void setMBeanServer(final MBeanServer server) {
+        synchronized (POOLS) {
+            for (ConnectorPoolKey key : MBEAN_NAMES.keySet()) {
+                unregisterMBean(key);
+            }
+            mBeanServer = server;
+            if (null != server) {
+                for (Map.Entry<ConnectorPoolKey, ObjectPool<PoolableConnector>> entry : POOLS
+                        .entrySet()) {
+                    registerMBean(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private static void registerMBean(final ConnectorPoolKey key,
+            final ObjectPool<PoolableConnector> pool) {
+        final MBeanServer server = mBeanServer;
+        if (null != server) {
+            try {
+                final ObjectName name =
+                        new ObjectName(JMX_DOMAIN + ":type=ConnectorPool,bundleName="
+                                + ObjectName.quote(key.getConnectorKey().getBundleName())
+                                + ",bundleVersion="
+                                + ObjectName.quote(key.getConnectorKey().getBundleVersion())
+                                + ",connectorName="
+                                + ObjectName.quote(key.getConnectorKey().getConnectorName())
+                                + ",id=" + MBEAN_SEQUENCE.incrementAndGet());
+                server.registerMBean(new StandardMBean(new ConnectorPool(key, pool),
+                        ConnectorPoolMXBean.class, true), name);
+                MBEAN_NAMES.put(key, name);
+            } catch (JMException e) {
+                LOG.warn(e, "Failed to register the MBean of pool: {0}", key.getConnectorKey());
+            }
+        }
+    }
+
+    private static void unregisterMBean(final ConnectorPoolKey key) {
+        final ObjectName name = MBEAN_NAMES.remove(key);
+        final MBeanServer server = mBeanServer;
+        if (null != name && null != server) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                LOG.warn(e, "Failed to unregister the MBean: {0}", name);
+            }
+        }
+    }
+
     /**
      * Get a object pool for this connector if it supports connector pooling.
      */
@@ -238,9 +503,7 @@ public class ConnectorPoolManager {
             throws InstantiationException, IllegalAccessException {
         // determine if this connector wants generic connector pooling..
         if (impl.isConnectorPoolingSupported()) {
-            ConnectorPoolKey key =
-                    new ConnectorPoolKey(impl.getConnectorInfo().getConnectorKey(), impl
-                            .getConfigurationProperties(), impl.getConnectorPoolConfiguration());
+            ConnectorPoolKey key = getPoolKey(impl);
 
             // get the pool associated..
             ObjectPool<PoolableConnector> pool = POOLS.get(key);
@@ -248,29 +511,55 @@ public class ConnectorPoolManager {
             if (pool == null) {
                 LOG.info("Creating new pool: {0}", impl.getConnectorInfo().getConnectorKey());
                 // this instance is strictly used for the pool..
-                pool =
-                        new ObjectPool<PoolableConnector>(
-                                new ConnectorPoolHandler(impl, localInfo), impl
-                                        .getConnectorPoolConfiguration());
+                final ConnectorPoolHandler handler = new ConnectorPoolHandler(impl, localInfo);
+                if (impl.getConnectorPoolConfiguration().isLockFreePool()) {
+                    pool =
+                            new ConcurrentObjectPool<PoolableConnector>(handler, impl
+                                    .getConnectorPoolConfiguration());
+                } else {
+                    pool =
+                            new ObjectPool<PoolableConnector>(handler, impl
+                                    .getConnectorPoolConfiguration());
+                }
                 // add back to the map of POOLS..
 
                 ObjectPool<PoolableConnector> previousPool = POOLS.putIfAbsent(key, pool);
                 // Use the pool made by other thread
                 if (previousPool != null) {
+                    pool.shutdown();
                     pool = previousPool;
+                } else {
+                    registerMBean(key, pool);
+                    pool.warmUp();
                 }
             }
             return Pair.of(key, pool);
         } else if (!localInfo.isConfigurationStateless()) {
-            return Pair.of(new ConnectorPoolKey(impl.getConnectorInfo().getConnectorKey(), impl
-                    .getConfigurationProperties(), impl.getConnectorPoolConfiguration()), null);
+            return Pair.of(getPoolKey(impl), null);
         }
         return Pair.of(null, null);
     }
 
+    /**
+     * Returns the key last made for the configuration as long as the
+     * configuration has not been changed since, otherwise makes a new one.
+     */
+    private static ConnectorPoolKey getPoolKey(final APIConfigurationImpl impl) {
+        final APIConfigurationKey cached = impl.getConnectorPoolKey();
+        if (cached instanceof ConnectorPoolKey && cached.matches(impl)) {
+            return (ConnectorPoolKey) cached;
+        }
+        final ConnectorPoolKey key =
+                new ConnectorPoolKey(impl.getConnectorInfo().getConnectorKey(), impl
+                        .getConfigurationProperties(), impl.getConnectorPoolConfiguration());
+        impl.setConnectorPoolKey(key);
+        return key;
+    }
+
     public static void dispose(final ConnectorPoolKey connectorPoolKey) {
         synchronized (POOLS) {
             ObjectPool<PoolableConnector> pool = POOLS.remove(connectorPoolKey);
+            unregisterMBean(connectorPoolKey);
             if (null != pool) {
                 try {
                     pool.shutdown();
@@ -293,6 +582,9 @@ public class ConnectorPoolManager {
             }
             // clear the map of all POOLS..
             POOLS.clear();
+            for (ConnectorPoolKey key : MBEAN_NAMES.keySet()) {
+                unregisterMBean(key);
+            }
         }
     }
 
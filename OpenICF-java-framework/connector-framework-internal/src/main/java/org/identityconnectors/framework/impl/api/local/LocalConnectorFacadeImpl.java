@@ -34,6 +34,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.identityconnectors.common.logging.Log;
 import org.identityconnectors.framework.api.ConfigurationPropertyChangeListener;
 import org.identityconnectors.framework.api.operations.APIOperation;
 import org.identityconnectors.framework.api.operations.AuthenticationApiOp;
@@ -84,6 +85,8 @@ import org.identityconnectors.framework.spi.Connector;
  */
 public class LocalConnectorFacadeImpl extends AbstractConnectorFacade {
 
+    private static final Log LOG = Log.getLog(LocalConnectorFacadeImpl.class);
+
     // =======================================================================
     // Constants
     // =======================================================================
@@ -146,32 +149,53 @@ public class LocalConnectorFacadeImpl extends AbstractConnectorFacade {
             final APIConfigurationImpl apiConfiguration) {
         super(apiConfiguration);
         this.connectorInfo = connectorInfo;
-        if (connectorInfo.isConfigurationStateless()
-                && !connectorInfo.isConnectorPoolingSupported()) {
-            operationalContext = null;
-        } else {
-            operationalContext =
-                    new ConnectorOperationalContext(connectorInfo, getAPIConfiguration());
-        }
+        operationalContext = createOperationalContext(connectorInfo, getAPIConfiguration());
+        warmUpConnectorPool();
     }
 
     public LocalConnectorFacadeImpl(final LocalConnectorInfoImpl connectorInfo, String configuration) {
         super(configuration, connectorInfo);
         this.connectorInfo = connectorInfo;
-        if (connectorInfo.isConfigurationStateless()
-                && !connectorInfo.isConnectorPoolingSupported()) {
-            operationalContext = null;
-        } else {
-            operationalContext =
-                    new ConnectorOperationalContext(connectorInfo, getAPIConfiguration());
-        }
+        operationalContext = createOperationalContext(connectorInfo, getAPIConfiguration());
+        warmUpConnectorPool();
     }
 
 
     public LocalConnectorFacadeImpl(
             LocalConnectorInfoImpl connectorInfo, String config, ConfigurationPropertyChangeListener changeListener) {
-        this(connectorInfo, config);
+        super(config, connectorInfo);
+        this.connectorInfo = connectorInfo;
+        // set before the warm-up makes the first connector
         getAPIConfiguration().setChangeListener(changeListener);
+        operationalContext = createOperationalContext(connectorInfo, getAPIConfiguration());
+        warmUpConnectorPool();
+    }
+
+    private static ConnectorOperationalContext createOperationalContext(
+            final LocalConnectorInfoImpl connectorInfo, final APIConfigurationImpl apiConfiguration) {
+        if (connectorInfo.isConfigurationStateless()
+                && !connectorInfo.isConnectorPoolingSupported()) {
+            return null;
+        } else {
+            return new ConnectorOperationalContext(connectorInfo, apiConfiguration);
+        }
+    }
+
+    /**
+     * Creates the connector pool now instead of at the first operation if the
+     * pool is configured to warm up.
+     */
+    private void warmUpConnectorPool() {
+        if (null != operationalContext
+                && getAPIConfiguration().isConnectorPoolingSupported()
+                && getAPIConfiguration().getConnectorPoolConfiguration().isWarmUp()) {
+            try {
+                operationalContext.getPool();
+            } catch (RuntimeException e) {
+                LOG.warn(e, "Failed to warm up the connector pool of {0}", connectorInfo
+                        .getConnectorKey());
+            }
+        }
     }
 
     public void dispose() {
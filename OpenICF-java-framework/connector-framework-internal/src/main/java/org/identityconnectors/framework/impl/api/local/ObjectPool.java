@@ -29,8 +29,13 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -43,6 +48,29 @@ public class ObjectPool<T> {
 
     private static final Log LOG = Log.getLog(ObjectPool.class);
 
+    /**
+     * Daemon threads making the objects of the warm-up of every pool.
+     */
+    private static final ThreadPoolExecutor WARM_UP_EXECUTOR;
+
+    static {
+        final int threads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        WARM_UP_EXECUTOR =
+                new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                            public Thread newThread(Runnable r) {
+                                Thread t =
+                                        new Thread(r, "OpenICF ObjectPool WarmUp "
+                                                + threadNumber.getAndIncrement());
+                                t.setDaemon(true);
+                                return t;
+                            }
+                        });
+        WARM_UP_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
     /**
      * Statistics bean
      */
@@ -50,7 +78,7 @@ public class ObjectPool<T> {
         private final int numIdle;
         private final int numActive;
 
-        private Statistics(final int numIdle, final int numActive) {
+        Statistics(final int numIdle, final int numActive) {
             this.numIdle = numIdle;
             this.numActive = numActive;
         }
@@ -168,6 +196,11 @@ public class ObjectPool<T> {
      */
     private final ObjectPoolHandler<T> handler;
 
+    /**
+     * Counters and timings of this pool.
+     */
+    private final ObjectPoolMetrics metrics = new ObjectPoolMetrics();
+
     /**
      * Configuration for this pool.
      */
@@ -178,6 +211,11 @@ public class ObjectPool<T> {
      */
     private volatile boolean isShutdown = false;
 
+    /**
+     * Number of objects scheduled but not yet made by the warm-up.
+     */
+    private final AtomicInteger pendingWarmUp = new AtomicInteger(0);
+
     /**
      * Create a new ObjectPool
      *
@@ -191,13 +229,114 @@ public class ObjectPool<T> {
         Assertions.nullCheck(handler, "handler");
         Assertions.nullCheck(config, "config");
 
-        this.handler = handler;
+        this.handler = metrics.instrument(handler);
         // clone it
         poolConfiguration = this.handler.validate(config);
         activeObjects = new HashSet<PooledObject>(poolConfiguration.getMaxObjects());
         totalPermit = new Semaphore(poolConfiguration.getMaxObjects());
     }
 
+    /**
+     * Returns the handler managing the lifecycle of the pooled objects.
+     *
+     * @return the handler of this pool.
+     */
+    protected ObjectPoolHandler<T> getHandler() {
+        return handler;
+    }
+
+    /**
+     * Returns the validated copy of the configuration of this pool.
+     *
+     * @return the configuration of this pool.
+     */
+    protected ObjectPoolConfiguration getPoolConfiguration() {
+        return poolConfiguration;
+    }
+
+    /**
+     * Returns the counters and timings of this pool.
+     *
+     * @return the metrics of this pool.
+     * @since 2.1
+     */
+    public ObjectPoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Fills the pool to {@code MinIdle} idle objects in the background.
+     * <p>
+     * The missing objects are made in parallel. Does nothing unless
+     * {@link ObjectPoolConfiguration#isWarmUp()} is enabled.
+     *
+     * @since 2.1
+     */
+    public void warmUp() {
+        if (!poolConfiguration.isWarmUp() || isShutdown()) {
+            return;
+        }
+        int pending;
+        int missing;
+        do {
+            pending = pendingWarmUp.get();
+            missing = poolConfiguration.getMinIdle() - getStatistics().getNumIdle() - pending;
+            if (missing <= 0) {
+                return;
+            }
+        } while (!pendingWarmUp.compareAndSet(pending, pending + missing));
+
+        for (int i = 0; i < missing; i++) {
+            try {
+                WARM_UP_EXECUTOR.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            if (!isShutdown()) {
+                                addIdleObject();
+                            }
+                        } catch (Throwable t) {
+                            LOG.warn(t, "Failed to warm up the pool");
+                        } finally {
+                            pendingWarmUp.decrementAndGet();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pendingWarmUp.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Makes a new object and adds it to the idle objects if the pool has not
+     * reached {@code MaxObjects}.
+     *
+     * @return true if an idle object was added.
+     * @throws ConnectorException
+     *             if the object could not be made.
+     */
+    protected boolean addIdleObject() throws InterruptedException {
+        if (!totalPermit.tryAcquire()) {
+            return false;
+        }
+        final PooledObject pooled;
+        try {
+            pooled = makeObject();
+        } catch (Throwable t) {
+            totalPermit.release();
+            throw ConnectorException.wrap(t);
+        }
+        pooled.setNew(false);
+        idleObjects.add(pooled);
+        signalNotEmpty();
+        // shutdown may have drained the queue before the add
+        if (isShutdown() && idleObjects.remove(pooled)) {
+            dispose(pooled);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Get the state of the pool.
      *
@@ -240,6 +379,7 @@ public class ObjectPool<T> {
      * @return An object
      */
     public ObjectPoolEntry<T> borrowObject() {
+        final long start = metrics.borrowStarted();
         PooledObject rv = null;
         try {
             do {
@@ -262,6 +402,8 @@ public class ObjectPool<T> {
         } catch (InterruptedException e) {
             LOG.error(e, "Failed to borrow object from pool.");
             throw ConnectorException.wrap(e);
+        } finally {
+            metrics.borrowCompleted(start);
         }
         return rv;
     }
@@ -296,15 +438,19 @@ public class ObjectPool<T> {
                         }
                     } else {
                         // Wait for permit or object to became available
+                        metrics.waitStarted();
                         try {
                             nanos = notEmpty.awaitNanos(nanos);
                         } catch (InterruptedException ie) {
                             notEmpty.signal(); // propagate to non-interrupted
                                                // thread
                             throw ConnectorException.wrap(ie);
+                        } finally {
+                            metrics.waitCompleted();
                         }
 
                         if (nanos <= 0) {
+                            metrics.borrowTimedOut();
                             throw new ConnectorException("TimeOut");
                         }
                         // Try to borrow from the idle pool
@@ -387,13 +533,13 @@ public class ObjectPool<T> {
      *             if something happens.
      */
     private PooledObject makeObject() {
+        // don't hold the lock while the object is made so the warm-up can
+        // make the objects in parallel
+        PooledObject pooledConn = new PooledObject(handler.makeObject());
         synchronized (activeObjects) {
-            PooledObject pooledConn =
-                    new PooledObject((activeObjects.size() > 0) ? handler.makeObject() : handler
-                            .makeObject());
             activeObjects.add(pooledConn);
-            return pooledConn;
         }
+        return pooledConn;
     }
 
     /**
@@ -421,6 +567,7 @@ public class ObjectPool<T> {
             notEmpty.signal();
             lock.unlock();
         }
+        warmUp();
     }
 
     /**
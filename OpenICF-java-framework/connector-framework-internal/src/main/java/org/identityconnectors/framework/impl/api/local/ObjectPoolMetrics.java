@@ -0,0 +1,296 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.impl.api.local;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.identityconnectors.common.pooling.ObjectPoolConfiguration;
+
+/**
+ * Cumulative counters and timings of an {@link ObjectPool}.
+ * <p>
+ * The time a caller spends in {@link ObjectPool#borrowObject()} is recorded in
+ * a histogram with fixed bucket bounds, see {@link #getBorrowTimeBounds()}.
+ * The calls of the {@link ObjectPoolHandler} are counted and timed by the
+ * handler returned from {@link #instrument(ObjectPoolHandler)}.
+ *
+ * @since 2.1
+ */
+public final class ObjectPoolMetrics {
+
+    /**
+     * Inclusive upper bounds in milliseconds of the borrow time histogram
+     * buckets. The last bucket counts everything above the last bound.
+     */
+    private static final long[] BORROW_TIME_BOUNDS = {
+        0, 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000 };
+
+    private final AtomicLongArray borrowTimeHistogram =
+            new AtomicLongArray(BORROW_TIME_BOUNDS.length + 1);
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowTimeNanos = new LongAdder();
+    private final AtomicLong maxBorrowTimeNanos = new AtomicLong();
+    private final LongAdder borrowTimeoutCount = new LongAdder();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+
+    private final LongAdder makeCount = new LongAdder();
+    private final LongAdder makeFailureCount = new LongAdder();
+    private final LongAdder makeTimeNanos = new LongAdder();
+
+    private final LongAdder testCount = new LongAdder();
+    private final LongAdder testFailureCount = new LongAdder();
+    private final LongAdder testTimeNanos = new LongAdder();
+
+    private final LongAdder disposeCount = new LongAdder();
+    private final LongAdder disposeTimeNanos = new LongAdder();
+
+    /**
+     * Marks the start of a borrow.
+     *
+     * @return the start time to pass to {@link #borrowCompleted(long)}
+     */
+    long borrowStarted() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks a borrowing caller which starts to wait for an object to be
+     * returned, the pool has no idle object and may not make a new one.
+     */
+    void waitStarted() {
+        waitingCount.incrementAndGet();
+    }
+
+    /**
+     * Marks the end of the wait started with {@link #waitStarted()}.
+     */
+    void waitCompleted() {
+        waitingCount.decrementAndGet();
+    }
+
+    /**
+     * Records a borrow failed because no object became available within
+     * {@code MaxWait}.
+     */
+    void borrowTimedOut() {
+        borrowTimeoutCount.increment();
+    }
+
+    /**
+     * Records a completed, successful or failed, borrow.
+     *
+     * @param startNanos
+     *            the value returned by {@link #borrowStarted()}
+     */
+    void borrowCompleted(final long startNanos) {
+        final long elapsed = System.nanoTime() - startNanos;
+        borrowCount.increment();
+        borrowTimeNanos.add(elapsed);
+        long max = maxBorrowTimeNanos.get();
+        while (elapsed > max && !maxBorrowTimeNanos.compareAndSet(max, elapsed)) {
+            max = maxBorrowTimeNanos.get();
+        }
+        final long millis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        int bucket = 0;
+        while (bucket < BORROW_TIME_BOUNDS.length && millis > BORROW_TIME_BOUNDS[bucket]) {
+            bucket++;
+        }
+        borrowTimeHistogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * Wraps the handler to count and time the lifecycle calls.
+     *
+     * @param handler
+     *            the handler of the pool
+     * @return the instrumented handler
+     */
+    <T> ObjectPoolHandler<T> instrument(final ObjectPoolHandler<T> handler) {
+        return new ObjectPoolHandler<T>() {
+
+            public ObjectPoolConfiguration validate(ObjectPoolConfiguration original) {
+                return handler.validate(original);
+            }
+
+            public T makeObject() {
+                final long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    T object = handler.makeObject();
+                    success = true;
+                    return object;
+                } finally {
+                    makeCount.increment();
+                    makeTimeNanos.add(System.nanoTime() - start);
+                    if (!success) {
+                        makeFailureCount.increment();
+                    }
+                }
+            }
+
+            public void testObject(T object) {
+                final long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    handler.testObject(object);
+                    success = true;
+                } finally {
+                    testCount.increment();
+                    testTimeNanos.add(System.nanoTime() - start);
+                    if (!success) {
+                        testFailureCount.increment();
+                    }
+                }
+            }
+
+            public void disposeObject(T object) {
+                final long start = System.nanoTime();
+                try {
+                    handler.disposeObject(object);
+                } finally {
+                    disposeCount.increment();
+                    disposeTimeNanos.add(System.nanoTime() - start);
+                }
+            }
+
+            public void shutdown() {
+                handler.shutdown();
+            }
+        };
+    }
+
+    /**
+     * Returns the number of callers currently waiting in
+     * {@link ObjectPool#borrowObject()} for an object to be returned. The
+     * callers making or testing an object are not counted.
+     */
+    public int getWaitingCount() {
+        return waitingCount.get();
+    }
+
+    /**
+     * Returns the number of completed borrows including the failed ones.
+     */
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    /**
+     * Returns the number of borrows failed because no object became available
+     * within {@code MaxWait}.
+     */
+    public long getBorrowTimeoutCount() {
+        return borrowTimeoutCount.sum();
+    }
+
+    /**
+     * Returns the mean borrow time in milliseconds.
+     */
+    public double getMeanBorrowTimeMillis() {
+        return meanMillis(borrowTimeNanos, borrowCount);
+    }
+
+    /**
+     * Returns the longest borrow time in milliseconds.
+     */
+    public long getMaxBorrowTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBorrowTimeNanos.get());
+    }
+
+    /**
+     * Returns the inclusive upper bounds in milliseconds of the borrow time
+     * histogram buckets.
+     */
+    public long[] getBorrowTimeBounds() {
+        return BORROW_TIME_BOUNDS.clone();
+    }
+
+    /**
+     * Returns a snapshot of the borrow time histogram. The length of the array
+     * is one more than the length of {@link #getBorrowTimeBounds()}, the last
+     * element counts the borrows which took longer than the last bound.
+     */
+    public long[] getBorrowTimeHistogram() {
+        final long[] histogram = new long[borrowTimeHistogram.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = borrowTimeHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    public long getMakeObjectCount() {
+        return makeCount.sum();
+    }
+
+    public long getMakeObjectFailureCount() {
+        return makeFailureCount.sum();
+    }
+
+    public double getMeanMakeObjectTimeMillis() {
+        return meanMillis(makeTimeNanos, makeCount);
+    }
+
+    public long getTestObjectCount() {
+        return testCount.sum();
+    }
+
+    public long getTestObjectFailureCount() {
+        return testFailureCount.sum();
+    }
+
+    public double getMeanTestObjectTimeMillis() {
+        return meanMillis(testTimeNanos, testCount);
+    }
+
+    public long getDisposeObjectCount() {
+        return disposeCount.sum();
+    }
+
+    public double getMeanDisposeObjectTimeMillis() {
+        return meanMillis(disposeTimeNanos, disposeCount);
+    }
+
+    /**
+     * Resets the counters and timings, the number of waiting callers is kept.
+     */
+    public void reset() {
+        for (int i = 0; i < borrowTimeHistogram.length(); i++) {
+            borrowTimeHistogram.set(i, 0);
+        }
+        borrowCount.reset();
+        borrowTimeNanos.reset();
+        maxBorrowTimeNanos.set(0);
+        borrowTimeoutCount.reset();
+        makeCount.reset();
+        makeFailureCount.reset();
+        makeTimeNanos.reset();
+        testCount.reset();
+        testFailureCount.reset();
+        testTimeNanos.reset();
+        disposeCount.reset();
+        disposeTimeNanos.reset();
+    }
+
+    private static double meanMillis(final LongAdder nanos, final LongAdder count) {
+        final long n = count.sum();
+        return n == 0 ? 0d : nanos.sum() / (n * 1000000d);
+    }
+}
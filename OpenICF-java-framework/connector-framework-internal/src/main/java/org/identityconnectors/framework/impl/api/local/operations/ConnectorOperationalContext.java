@@ -40,7 +40,13 @@ public class ConnectorOperationalContext extends OperationalContext {
     /**
      * Pool Key for Connectors
      */
-    private ConnectorPoolManager.ConnectorPoolKey connectorPoolKey;
+    private volatile ConnectorPoolManager.ConnectorPoolKey connectorPoolKey;
+
+    /**
+     * The pool resolved for the {@link #connectorPoolKey}, looked up again
+     * only after it was shut down.
+     */
+    private volatile ObjectPool<PoolableConnector> connectorPool;
 
     public ConnectorOperationalContext(final LocalConnectorInfoImpl connectorInfo,
             final APIConfigurationImpl apiConfiguration) {
@@ -49,24 +55,22 @@ public class ConnectorOperationalContext extends OperationalContext {
 
     public ObjectPool<PoolableConnector> getPool() {
         if (apiConfiguration.isConnectorPoolingSupported()) {
-            if (null == connectorPoolKey) {
-                Pair<ConnectorPoolManager.ConnectorPoolKey, ObjectPool<PoolableConnector>> pool =
+            ObjectPool<PoolableConnector> pool = connectorPool;
+            if (null != pool && !pool.isShutdown()) {
+                return pool;
+            }
+            if (null != connectorPoolKey) {
+                pool = ConnectorPoolManager.getPool(connectorPoolKey);
+            }
+            if (null == pool || pool.isShutdown()) {
+                Pair<ConnectorPoolManager.ConnectorPoolKey, ObjectPool<PoolableConnector>> poolPair =
                         ConnectorPoolManager.getPool(apiConfiguration, connectorInfo);
 
-                connectorPoolKey = pool.getKey();
-                return pool.getValue();
-            } else {
-                ObjectPool<PoolableConnector> pool = ConnectorPoolManager.getPool(connectorPoolKey);
-                if (null == pool) {
-                    //
-                    Pair<ConnectorPoolManager.ConnectorPoolKey, ObjectPool<PoolableConnector>> poolPair =
-                            ConnectorPoolManager.getPool(apiConfiguration, connectorInfo);
-
-                    connectorPoolKey = poolPair.getKey();
-                    pool = poolPair.getValue();
-                }
-                return pool;
+                connectorPoolKey = poolPair.getKey();
+                pool = poolPair.getValue();
             }
+            connectorPool = pool;
+            return pool;
         } else {
             return null;
         }
@@ -82,6 +86,7 @@ public class ConnectorOperationalContext extends OperationalContext {
         if (null != connectorPoolKey) {
             ConnectorPoolManager.dispose(connectorPoolKey);
             connectorPoolKey = null;
+            connectorPool = null;
         }
     }
 }
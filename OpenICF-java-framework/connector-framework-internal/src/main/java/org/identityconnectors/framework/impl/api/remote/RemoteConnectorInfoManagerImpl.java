@@ -82,16 +82,18 @@ public class RemoteConnectorInfoManagerImpl implements ConnectorInfoManager,
     }
 
     private void init() {
-        RemoteFrameworkConnection connection =
-                new RemoteFrameworkConnection(frameworkConnectionInfo);
+        RemoteFrameworkConnectionPool pool = RemoteFrameworkConnectionPool.getInstance();
+        RemoteFrameworkConnection connection = pool.borrowConnection(frameworkConnectionInfo);
         HelloResponse response = null;
+        boolean reusable = false;
         try {
             connection.writeObject(CurrentLocale.get());
             connection.writeObject(frameworkConnectionInfo.getKey());
             connection.writeObject(new HelloRequest(HelloRequest.CONNECTOR_INFO));
             response = (HelloResponse) connection.readObject();
+            reusable = true;
         } finally {
-            connection.close();
+            pool.returnConnection(frameworkConnectionInfo, connection, reusable);
         }
         if (null == response) {
             LOG.error("HelloResponse is null from {0}", frameworkConnectionInfo);
@@ -248,13 +250,15 @@ public class RemoteConnectorInfoManagerImpl implements ConnectorInfoManager,
     }
 
     public Map<String, Object> getServerInfo() throws RuntimeException {
-        RemoteFrameworkConnection connection =
-                new RemoteFrameworkConnection(frameworkConnectionInfo);
+        RemoteFrameworkConnectionPool pool = RemoteFrameworkConnectionPool.getInstance();
+        RemoteFrameworkConnection connection = pool.borrowConnection(frameworkConnectionInfo);
+        boolean reusable = false;
         try {
             connection.writeObject(CurrentLocale.get());
             connection.writeObject(frameworkConnectionInfo.getKey());
             connection.writeObject(new HelloRequest(HelloRequest.SERVER_INFO));
             HelloResponse response = (HelloResponse) connection.readObject();
+            reusable = true;
             if (response.getException() instanceof ConnectorException) {
                 throw (ConnectorException) response.getException();
             } else if (response.getException() != null) {
@@ -262,18 +266,20 @@ public class RemoteConnectorInfoManagerImpl implements ConnectorInfoManager,
             }
             return response.getServerInfo();
         } finally {
-            connection.close();
+            pool.returnConnection(frameworkConnectionInfo, connection, reusable);
         }
     }
 
     public List<ConnectorKey> getConnectorKeys() throws RuntimeException {
-        RemoteFrameworkConnection connection =
-                new RemoteFrameworkConnection(frameworkConnectionInfo);
+        RemoteFrameworkConnectionPool pool = RemoteFrameworkConnectionPool.getInstance();
+        RemoteFrameworkConnection connection = pool.borrowConnection(frameworkConnectionInfo);
+        boolean reusable = false;
         try {
             connection.writeObject(CurrentLocale.get());
             connection.writeObject(frameworkConnectionInfo.getKey());
             connection.writeObject(new HelloRequest(HelloRequest.CONNECTOR_KEY_LIST));
             HelloResponse response = (HelloResponse) connection.readObject();
+            reusable = true;
             if (response.getException() instanceof ConnectorException) {
                 throw (ConnectorException) response.getException();
             } else if (response.getException() != null) {
@@ -281,7 +287,7 @@ public class RemoteConnectorInfoManagerImpl implements ConnectorInfoManager,
             }
             return response.getConnectorKeys();
         } finally {
-            connection.close();
+            pool.returnConnection(frameworkConnectionInfo, connection, reusable);
         }
     }
 
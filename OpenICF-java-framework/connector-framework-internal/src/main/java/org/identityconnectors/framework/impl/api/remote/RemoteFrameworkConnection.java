@@ -19,10 +19,13 @@
  * enclosed by brackets [] replaced by your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.framework.impl.api.remote;
 
 import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
@@ -35,6 +38,7 @@ import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
 
+import org.identityconnectors.common.l10n.CurrentLocale;
 import org.identityconnectors.common.logging.Log;
 import org.identityconnectors.framework.api.RemoteFrameworkConnectionInfo;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
@@ -42,14 +46,27 @@ import org.identityconnectors.framework.common.exceptions.ConnectorIOException;
 import org.identityconnectors.framework.common.serializer.BinaryObjectDeserializer;
 import org.identityconnectors.framework.common.serializer.BinaryObjectSerializer;
 import org.identityconnectors.framework.common.serializer.ObjectSerializerFactory;
+import org.identityconnectors.framework.impl.api.remote.messages.EchoMessage;
 
 public class RemoteFrameworkConnection implements Closeable {
 
     private static final Log LOG = Log.getLog(RemoteFrameworkConnection.class);
+    private static final String PING = "ping";
     private Socket socket;
     private BinaryObjectSerializer encoder;
     private BinaryObjectDeserializer decoder;
 
+    /**
+     * Set when the connection is taken from the pool, the server may have
+     * closed it meanwhile.
+     */
+    private boolean reused = false;
+
+    /**
+     * Set once something has been read since the connection was taken.
+     */
+    private boolean received = false;
+
     public RemoteFrameworkConnection(RemoteFrameworkConnectionInfo info) {
         try {
             init(info);
@@ -115,7 +132,19 @@ public class RemoteFrameworkConnection implements Closeable {
 
     private void init(Socket socket) throws Exception {
         this.socket = socket;
-        InputStream inputStream = this.socket.getInputStream();
+        InputStream inputStream = new FilterInputStream(this.socket.getInputStream()) {
+            public int read() throws IOException {
+                int b = super.read();
+                received |= b >= 0;
+                return b;
+            }
+
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                received |= n > 0;
+                return n;
+            }
+        };
         OutputStream outputStream = this.socket.getOutputStream();
         ObjectSerializerFactory factory = ObjectSerializerFactory.getInstance();
         encoder = factory.newBinarySerializer(outputStream);
@@ -139,6 +168,54 @@ public class RemoteFrameworkConnection implements Closeable {
         }
     }
 
+    /**
+     * Sends an {@link EchoMessage} and waits for it to come back, to check an
+     * idle connection before it is used again.
+     *
+     * @param info
+     *            the connection information with the key of the server.
+     * @param timeout
+     *            the time to wait for the response in milliseconds.
+     * @return {@code true} if the server returned the message, {@code false}
+     *         if the connection must not be used any more.
+     */
+    boolean ping(RemoteFrameworkConnectionInfo info, int timeout) {
+        try {
+            int soTimeout = socket.getSoTimeout();
+            socket.setSoTimeout(timeout);
+            try {
+                writeObject(CurrentLocale.get());
+                writeObject(info.getKey());
+                writeObject(new EchoMessage(PING, null));
+                Object response = readObject();
+                return response instanceof EchoMessage
+                        && PING.equals(((EchoMessage) response).getObject());
+            } finally {
+                socket.setSoTimeout(soTimeout);
+            }
+        } catch (Exception e) {
+            LOG.ok(e, "Failed to ping {0}", socket);
+        }
+        return false;
+    }
+
+    /*
+     * Called by the pool when it hands out an idle connection.
+     */
+    void reuse() {
+        reused = true;
+        received = false;
+    }
+
+    /**
+     * Returns {@code true} if the connection was taken from the pool and
+     * nothing has been read from it since, the server may have closed it
+     * while it was idle.
+     */
+    boolean isStale() {
+        return reused && !received;
+    }
+
     public void flush() {
         encoder.flush();
     }
@@ -0,0 +1,305 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.identityconnectors.framework.impl.api.remote;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.identityconnectors.common.logging.Log;
+import org.identityconnectors.framework.api.RemoteFrameworkConnectionInfo;
+
+/**
+ * Keeps the connections to the connector servers between the requests, so a
+ * request does not have to connect and make the SSL handshake again.
+ * <p>
+ * A connection is given back with {@link #returnConnection} once the response
+ * has been read completely, otherwise it is closed. The connections idle for
+ * longer than {@link #getValidationInterval()} are checked with an
+ * {@link org.identityconnectors.framework.impl.api.remote.messages.EchoMessage}
+ * before they are used again, and those idle for longer than
+ * {@link #getMaxIdleTime()} are closed. The connector server runs a worker for
+ * every open connection, so only a few connections are kept for each server.
+ */
+public class RemoteFrameworkConnectionPool {
+
+    private static final Log LOG = Log.getLog(RemoteFrameworkConnectionPool.class);
+
+    private static final RemoteFrameworkConnectionPool INSTANCE =
+            new RemoteFrameworkConnectionPool();
+
+    private final ConcurrentMap<RemoteFrameworkConnectionInfo, Deque<IdleConnection>> idleConnections =
+            new ConcurrentHashMap<RemoteFrameworkConnectionInfo, Deque<IdleConnection>>();
+
+    private volatile int maxIdle = 8;
+    private volatile long maxIdleTime = TimeUnit.MINUTES.toMillis(1);
+    private volatile long validationInterval = TimeUnit.SECONDS.toMillis(10);
+    private volatile int validationTimeout = (int) TimeUnit.SECONDS.toMillis(5);
+
+    // Guarded by this
+    private ScheduledExecutorService evictor = null;
+
+    private static final class IdleConnection {
+
+        private final RemoteFrameworkConnection connection;
+        private final long since = System.currentTimeMillis();
+
+        private IdleConnection(RemoteFrameworkConnection connection) {
+            this.connection = connection;
+        }
+    }
+
+    public static RemoteFrameworkConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns an idle connection to the server or opens a new one.
+     *
+     * @param info
+     *            the connection information.
+     * @return the connection, the locale and key of the request are still to
+     *         be sent.
+     */
+    public RemoteFrameworkConnection borrowConnection(RemoteFrameworkConnectionInfo info) {
+        return borrowConnection(info, false);
+    }
+
+    /**
+     * Returns an idle connection to the server or opens a new one.
+     *
+     * @param info
+     *            the connection information.
+     * @param validate
+     *            {@code true} to check an idle connection whatever its idle
+     *            time, for a request which must not be sent twice.
+     * @return the connection, the locale and key of the request are still to
+     *         be sent.
+     */
+    public RemoteFrameworkConnection borrowConnection(RemoteFrameworkConnectionInfo info,
+            boolean validate) {
+        Deque<IdleConnection> idle = idleConnections.get(info);
+        if (null != idle) {
+            while (true) {
+                IdleConnection entry;
+                synchronized (idle) {
+                    entry = idle.pollFirst();
+                }
+                if (null == entry) {
+                    break;
+                }
+                long idleTime = System.currentTimeMillis() - entry.since;
+                if (idleTime > maxIdleTime) {
+                    closeQuietly(entry.connection);
+                } else if ((validate || idleTime > validationInterval)
+                        && !entry.connection.ping(info, validationTimeout)) {
+                    LOG.ok("Idle connection to {0} is broken", info);
+                    closeQuietly(entry.connection);
+                } else {
+                    entry.connection.reuse();
+                    return entry.connection;
+                }
+            }
+        }
+        return new RemoteFrameworkConnection(info);
+    }
+
+    /**
+     * Gives back a connection taken with {@link #borrowConnection}.
+     *
+     * @param info
+     *            the connection information it was taken for.
+     * @param connection
+     *            the connection.
+     * @param reusable
+     *            {@code true} if the response has been read completely,
+     *            {@code false} if the connection has to be closed.
+     */
+    public void returnConnection(RemoteFrameworkConnectionInfo info,
+            RemoteFrameworkConnection connection, boolean reusable) {
+        if (reusable && maxIdle > 0) {
+            Deque<IdleConnection> idle = idleConnections.get(info);
+            if (null == idle) {
+                idle = new ArrayDeque<IdleConnection>();
+                Deque<IdleConnection> previous = idleConnections.putIfAbsent(info, idle);
+                if (null != previous) {
+                    idle = previous;
+                }
+            }
+            synchronized (idle) {
+                if (idle.size() < maxIdle) {
+                    // The last returned is taken first, the others may expire
+                    idle.addFirst(new IdleConnection(connection));
+                    connection = null;
+                }
+            }
+            startEvictor();
+        }
+        if (null != connection) {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Closes the idle connections.
+     */
+    public void clear() {
+        synchronized (this) {
+            if (null != evictor) {
+                evictor.shutdownNow();
+                evictor = null;
+            }
+        }
+        for (Deque<IdleConnection> idle : idleConnections.values()) {
+            List<IdleConnection> closed;
+            synchronized (idle) {
+                closed = new ArrayList<IdleConnection>(idle);
+                idle.clear();
+            }
+            for (IdleConnection entry : closed) {
+                closeQuietly(entry.connection);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of idle connections to the server.
+     */
+    public int getIdleCount(RemoteFrameworkConnectionInfo info) {
+        Deque<IdleConnection> idle = idleConnections.get(info);
+        if (null == idle) {
+            return 0;
+        }
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * Returns the maximum number of idle connections kept for a server, 0
+     * closes every connection after its request.
+     */
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns the time in milliseconds after which an idle connection is
+     * closed.
+     */
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    /**
+     * Returns the time in milliseconds after which an idle connection is
+     * checked before it is used again.
+     */
+    public long getValidationInterval() {
+        return validationInterval;
+    }
+
+    public void setValidationInterval(long validationInterval) {
+        this.validationInterval = validationInterval;
+    }
+
+    /**
+     * Returns the time in milliseconds to wait for the response of the
+     * server when an idle connection is checked.
+     */
+    public int getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(int validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    private synchronized void startEvictor() {
+        if (null == evictor) {
+            evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "RemoteFrameworkConnectionPool-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            long delay = Math.max(maxIdleTime / 2, 1000L);
+            evictor.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    evict();
+                }
+            }, delay, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /*
+     * Closes the connections idle for too long.
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<RemoteFrameworkConnectionInfo, Deque<IdleConnection>> e : idleConnections
+                .entrySet()) {
+            Deque<IdleConnection> idle = e.getValue();
+            List<IdleConnection> expired = null;
+            synchronized (idle) {
+                // The oldest are at the end
+                Iterator<IdleConnection> iter = idle.descendingIterator();
+                while (iter.hasNext()) {
+                    IdleConnection entry = iter.next();
+                    if (now - entry.since <= maxIdleTime) {
+                        break;
+                    }
+                    iter.remove();
+                    if (null == expired) {
+                        expired = new ArrayList<IdleConnection>();
+                    }
+                    expired.add(entry);
+                }
+            }
+            if (null != expired) {
+                for (IdleConnection entry : expired) {
+                    closeQuietly(entry.connection);
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(RemoteFrameworkConnection connection) {
+        try {
+            connection.close();
+        } catch (RuntimeException e) {
+            LOG.ok(e, "Failed to close connection");
+        }
+    }
+}
@@ -20,18 +20,27 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * Portions Copyrighted 2010-2013 ForgeRock AS.
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.framework.impl.api.remote;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.identityconnectors.common.CollectionUtil;
 import org.identityconnectors.common.l10n.CurrentLocale;
+import org.identityconnectors.common.logging.Log;
 import org.identityconnectors.framework.api.RemoteFrameworkConnectionInfo;
 import org.identityconnectors.framework.api.operations.APIOperation;
+import org.identityconnectors.framework.api.operations.GetApiOp;
+import org.identityconnectors.framework.api.operations.ResolveUsernameApiOp;
+import org.identityconnectors.framework.api.operations.SchemaApiOp;
+import org.identityconnectors.framework.api.operations.SearchApiOp;
+import org.identityconnectors.framework.api.operations.TestApiOp;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
 import org.identityconnectors.framework.impl.api.ObjectStreamHandler;
 import org.identityconnectors.framework.impl.api.StreamHandlerUtil;
@@ -46,6 +55,18 @@ import org.identityconnectors.framework.impl.api.remote.messages.OperationRespon
  * Invocation handler for all of our operations
  */
 public class RemoteOperationInvocationHandler implements InvocationHandler {
+
+    private static final Log LOG = Log.getLog(RemoteOperationInvocationHandler.class);
+
+    /**
+     * The operations which only read, they are sent again when a connection
+     * taken from the pool turns out to be closed.
+     */
+    private static final Set<Class<? extends APIOperation>> IDEMPOTENT_OPERATIONS =
+            CollectionUtil.<Class<? extends APIOperation>>newReadOnlySet(GetApiOp.class,
+                    SearchApiOp.class, SchemaApiOp.class, TestApiOp.class,
+                    ResolveUsernameApiOp.class);
+
     private final RemoteConnectorInfoImpl connectorInfo;
     private final String connectorFacadeKey;
     private final Class<? extends APIOperation> operation;
@@ -75,11 +96,46 @@ public class RemoteOperationInvocationHandler implements InvocationHandler {
                 new OperationRequest(connectorInfo.getConnectorKey(), connectorFacadeKey,
                         operation, method.getName(), simpleMarshallArgs);
 
-        // create the connection
-        RemoteFrameworkConnection connection = null;
+        // take a connection, the others than the idempotent operations must
+        // not be sent again so an idle connection is checked first
+        boolean idempotent = IDEMPOTENT_OPERATIONS.contains(operation);
+        RemoteFrameworkConnectionPool pool = RemoteFrameworkConnectionPool.getInstance();
+        RemoteFrameworkConnection connection = pool.borrowConnection(connectionInfo, !idempotent);
+        try {
+            return invoke(pool, connection, request, streamHandlerArg);
+        } catch (RuntimeException e) {
+            if (!idempotent || !connection.isStale() || isTimeout(e)) {
+                throw e;
+            }
+            // the server closed the idle connection before it answered
+            LOG.ok(e, "Idle connection to {0} failed, send the request again", connectionInfo);
+            return invoke(pool, new RemoteFrameworkConnection(connectionInfo), request,
+                    streamHandlerArg);
+        }
+    }
 
+    /*
+     * A read timeout means the server may still be running the request.
+     */
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable t = e; null != t; t = t.getCause()) {
+            if (t instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sends the request and reads the response, the connection is given back
+     * to the pool.
+     */
+    private Object invoke(final RemoteFrameworkConnectionPool pool,
+            final RemoteFrameworkConnection connection, final OperationRequest request,
+            final ObjectStreamHandler streamHandlerArg) throws Throwable {
+        RemoteFrameworkConnectionInfo connectionInfo = connectorInfo.getRemoteConnectionInfo();
+        boolean reusable = false;
         try {
-            connection = new RemoteFrameworkConnection(connectionInfo);
             connection.writeObject(CurrentLocale.get());
             connection.writeObject(connectionInfo.getKey());
             // send the request
@@ -93,16 +149,15 @@ public class RemoteOperationInvocationHandler implements InvocationHandler {
 
             // finally return the actual return value
             OperationResponsePart response = (OperationResponsePart) connection.readObject();
+            // nothing more is to be read, the connection can take the next request
+            reusable = true;
             if (response.getException() != null) {
                 throw response.getException();
             }
             return response.getResult();
         } finally {
-            if (null != connection) {
-                connection.close();
-            }
+            pool.returnConnection(connectionInfo, connection, reusable);
         }
-
     }
 
     /**
@@ -58,6 +58,12 @@ class APIConfigurationHandlers {
                 rv.setMinEvictableIdleTimeMillis(decoder.readLongField(
                         "minEvictableIdleTimeMillis", rv.getMinEvictableIdleTimeMillis()));
                 rv.setMinIdle(decoder.readIntField("minIdle", rv.getMinIdle()));
+                rv.setLockFreePool(decoder.readBooleanField("lockFreePool", rv.isLockFreePool()));
+                rv.setTimeBetweenEvictionRunsMillis(decoder.readLongField(
+                        "timeBetweenEvictionRunsMillis", rv.getTimeBetweenEvictionRunsMillis()));
+                rv.setValidateIdleTimeMillis(decoder.readLongField("validateIdleTimeMillis", rv
+                        .getValidateIdleTimeMillis()));
+                rv.setWarmUp(decoder.readBooleanField("warmUp", rv.isWarmUp()));
                 return rv;
             }
 
@@ -69,6 +75,11 @@ class APIConfigurationHandlers {
                 encoder.writeLongField("minEvictableIdleTimeMillis", val
                         .getMinEvictableIdleTimeMillis());
                 encoder.writeIntField("minIdle", val.getMinIdle());
+                encoder.writeBooleanField("lockFreePool", val.isLockFreePool());
+                encoder.writeLongField("timeBetweenEvictionRunsMillis", val
+                        .getTimeBetweenEvictionRunsMillis());
+                encoder.writeLongField("validateIdleTimeMillis", val.getValidateIdleTimeMillis());
+                encoder.writeBooleanField("warmUp", val.isWarmUp());
             }
 
         });
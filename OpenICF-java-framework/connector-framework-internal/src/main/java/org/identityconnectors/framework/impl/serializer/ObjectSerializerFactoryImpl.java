@@ -19,12 +19,14 @@
  * enclosed by brackets [] replaced by your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.framework.impl.serializer;
 
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
 import org.identityconnectors.framework.common.serializer.BinaryObjectDeserializer;
 import org.identityconnectors.framework.common.serializer.BinaryObjectSerializer;
@@ -45,6 +47,11 @@ public class ObjectSerializerFactoryImpl extends ObjectSerializerFactory {
         return new BinaryObjectDecoder(is);
     }
 
+    @Override
+    public BinaryObjectDeserializer newBinaryDeserializer(ByteBuffer buffer) {
+        return new BinaryObjectDecoder(buffer);
+    }
+
     @Override
     public BinaryObjectSerializer newBinarySerializer(OutputStream os) {
         return new BinaryObjectEncoder(os);
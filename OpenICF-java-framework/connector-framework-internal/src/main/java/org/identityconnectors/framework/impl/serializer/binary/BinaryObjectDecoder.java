@@ -19,15 +19,19 @@
  * enclosed by brackets [] replaced by your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.framework.impl.serializer.binary;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Array;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -43,21 +47,23 @@ import org.identityconnectors.framework.impl.serializer.ObjectTypeMapper;
 
 public class BinaryObjectDecoder implements ObjectDecoder, BinaryObjectDeserializer {
 
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
     private static class ReadState {
-        public Map<String, byte[]> objectFields = new HashMap<String, byte[]>();
-        public List<byte[]> anonymousFields = new ArrayList<byte[]>();
-        public DataInputStream currentInput;
+        public Map<String, ByteBuffer> objectFields = new HashMap<String, ByteBuffer>();
+        public List<ByteBuffer> anonymousFields = new ArrayList<ByteBuffer>();
+        public ByteBuffer currentInput;
 
         public ReadState() {
         }
 
         public boolean startField(String name) {
             currentInput = null;
-            byte[] content = objectFields.get(name);
+            ByteBuffer content = objectFields.get(name);
             if (content == null) {
                 return false;
             } else {
-                currentInput = new DataInputStream(new ByteArrayInputStream(content));
+                currentInput = content.duplicate();
                 return true;
             }
         }
@@ -66,8 +72,7 @@ public class BinaryObjectDecoder implements ObjectDecoder, BinaryObjectDeseriali
             if (index >= anonymousFields.size()) {
                 throw new ConnectorException("Anonymous content not found");
             }
-            currentInput =
-                    new DataInputStream(new ByteArrayInputStream(anonymousFields.get(index)));
+            currentInput = anonymousFields.get(index).duplicate();
         }
     }
 
@@ -78,10 +83,25 @@ public class BinaryObjectDecoder implements ObjectDecoder, BinaryObjectDeseriali
         private final Map<Integer, String> constantPool = new HashMap<Integer, String>();
 
         private final Stack<ReadState> readStateStack = new Stack<ReadState>();
+
+        /**
+         * The root stream, null if the decoder reads from {@link #rootBuffer}.
+         */
         private final DataInputStream rootInput;
 
+        /**
+         * The root buffer, the fields are read as views of it without copying.
+         */
+        private final ByteBuffer rootBuffer;
+
         public InternalDecoder(DataInputStream input) {
             rootInput = input;
+            rootBuffer = null;
+        }
+
+        public InternalDecoder(ByteBuffer input) {
+            rootInput = null;
+            rootBuffer = input;
         }
 
         public Object readObject(ObjectDecoder decoder) {
@@ -116,12 +136,10 @@ public class BinaryObjectDecoder implements ObjectDecoder, BinaryObjectDeseriali
                 if (type == BinaryObjectEncoder.FIELD_TYPE_END_OBJECT) {
                     break;
                 } else if (type == BinaryObjectEncoder.FIELD_TYPE_ANONYMOUS_FIELD) {
-                    byte[] bytes = readByteArray();
-                    state.anonymousFields.add(bytes);
+                    state.anonymousFields.add(readField());
                 } else if (type == BinaryObjectEncoder.FIELD_TYPE_NAMED_FIELD) {
                     String fieldName = readString(true);
-                    byte[] bytes = readByteArray();
-                    state.objectFields.put(fieldName, bytes);
+                    state.objectFields.put(fieldName, readField());
                 } else {
                     throw new ConnectorException("Unknown type: " + type);
                 }
@@ -194,54 +212,62 @@ public class BinaryObjectDecoder implements ObjectDecoder, BinaryObjectDeseriali
         }
 
         public int readInt() {
+            ByteBuffer input = getCurrentBuffer();
             try {
-                return getCurrentInput().readInt();
+                return null != input ? input.getInt() : rootInput.readInt();
+            } catch (BufferUnderflowException e) {
+                throw ConnectorException.wrap(new EOFException());
             } catch (IOException e) {
                 throw ConnectorException.wrap(e);
             }
         }
 
         public long readLong() {
+            ByteBuffer input = getCurrentBuffer();
             try {
-                return getCurrentInput().readLong();
+                return null != input ? input.getLong() : rootInput.readLong();
+            } catch (BufferUnderflowException e) {
+                throw ConnectorException.wrap(new EOFException());
             } catch (IOException e) {
                 throw ConnectorException.wrap(e);
             }
         }
 
         public double readDouble() {
-            try {
-                return getCurrentInput().readDouble();
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
-            }
+            return Double.longBitsToDouble(readLong());
         }
 
         public byte[] readByteArray() {
-            try {
-                int length = getCurrentInput().readInt();
-                byte[] rv = new byte[length];
-                getCurrentInput().readFully(rv);
-                return rv;
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
+            ByteBuffer input = getCurrentBuffer();
+            if (null == input) {
+                try {
+                    int length = rootInput.readInt();
+                    byte[] rv = new byte[length];
+                    rootInput.readFully(rv);
+                    return rv;
+                } catch (IOException e) {
+                    throw ConnectorException.wrap(e);
+                }
             }
+            ByteBuffer slice = readSlice(input);
+            byte[] rv = new byte[slice.remaining()];
+            slice.get(rv);
+            return rv;
         }
 
         public byte readByte() {
+            ByteBuffer input = getCurrentBuffer();
             try {
-                return getCurrentInput().readByte();
+                return null != input ? input.get() : rootInput.readByte();
+            } catch (BufferUnderflowException e) {
+                throw ConnectorException.wrap(new EOFException());
             } catch (IOException e) {
                 throw ConnectorException.wrap(e);
             }
         }
 
         public boolean readBoolean() {
-            try {
-                return getCurrentInput().readBoolean();
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
-            }
+            return readByte() != 0;
         }
 
         public String readString(boolean interned) {
@@ -254,20 +280,57 @@ public class BinaryObjectDecoder implements ObjectDecoder, BinaryObjectDeseriali
                 return name;
             }
 
+            ByteBuffer input = getCurrentBuffer();
+            if (null != input && input.hasArray()) {
+                // decode in place
+                ByteBuffer slice = readSlice(input);
+                return new String(slice.array(), slice.arrayOffset() + slice.position(), slice
+                        .remaining(), UTF8);
+            }
+            return new String(readByteArray(), UTF8);
+        }
+
+        /**
+         * Reads the content of a field, a view of the current buffer or a
+         * copy if the decoder reads from a stream.
+         */
+        private ByteBuffer readField() {
+            ByteBuffer input = getCurrentBuffer();
+            if (null == input) {
+                return ByteBuffer.wrap(readByteArray());
+            }
+            return readSlice(input);
+        }
+
+        /**
+         * Reads a length prefix and returns the following bytes as a view of
+         * the buffer.
+         */
+        private ByteBuffer readSlice(ByteBuffer input) {
+            int length;
             try {
-                byte[] bytes = readByteArray();
-                return new String(bytes, "UTF8");
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
+                length = input.getInt();
+            } catch (BufferUnderflowException e) {
+                throw ConnectorException.wrap(new EOFException());
+            }
+            if (length < 0 || length > input.remaining()) {
+                throw ConnectorException.wrap(new EOFException());
             }
+            ByteBuffer slice = input.slice();
+            slice.limit(length);
+            input.position(input.position() + length);
+            return slice;
         }
 
-        private DataInputStream getCurrentInput() {
+        /**
+         * Returns the buffer to read from or null if it is the root stream.
+         */
+        private ByteBuffer getCurrentBuffer() {
             if (readStateStack.size() > 0) {
                 ReadState state = readStateStack.get(readStateStack.size() - 1);
                 return state.currentInput;
             } else {
-                return rootInput;
+                return rootBuffer;
             }
         }
     }
@@ -279,7 +342,22 @@ public class BinaryObjectDecoder implements ObjectDecoder, BinaryObjectDeseriali
                 new InternalDecoder(new DataInputStream(new BufferedInputStream(in, 4096)));
     }
 
+    /**
+     * Creates a decoder reading the objects from the remaining bytes of the
+     * buffer, the fields are read in place.
+     *
+     * @param buffer
+     *            the encoded objects
+     * @since 2.1
+     */
+    public BinaryObjectDecoder(ByteBuffer buffer) {
+        internalDecoder = new InternalDecoder(buffer.slice());
+    }
+
     public void close() {
+        if (null == internalDecoder.rootInput) {
+            return;
+        }
         try {
             internalDecoder.rootInput.close();
         } catch (IOException e) {
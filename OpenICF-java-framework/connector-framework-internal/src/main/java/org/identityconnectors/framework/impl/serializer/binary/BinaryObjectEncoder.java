@@ -19,22 +19,22 @@
  * enclosed by brackets [] replaced by your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.framework.impl.serializer.binary;
 
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
 
-import org.identityconnectors.common.Pair;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
 import org.identityconnectors.framework.common.serializer.BinaryObjectSerializer;
 import org.identityconnectors.framework.impl.serializer.ObjectEncoder;
@@ -60,11 +60,18 @@ public class BinaryObjectEncoder implements ObjectEncoder, BinaryObjectSerialize
     public static final byte FIELD_TYPE_NAMED_FIELD = 71;
     public static final byte FIELD_TYPE_END_OBJECT = 72;
 
-    private static class OutputBuffer extends Pair<ByteArrayOutputStream, DataOutputStream> {
-        public OutputBuffer(ByteArrayOutputStream buf, DataOutputStream data) {
-            super(buf, data);
-        }
-    }
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Largest encode buffer kept for reuse by the thread.
+     */
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Encode buffer of the thread, it is removed while an encoder uses it so
+     * nested encoders never share a buffer.
+     */
+    private static final ThreadLocal<byte[]> BUFFER_POOL = new ThreadLocal<byte[]>();
 
     private static class InternalEncoder {
 
@@ -75,7 +82,26 @@ public class BinaryObjectEncoder implements ObjectEncoder, BinaryObjectSerialize
 
         private List<String> constantBuffer = new ArrayList<String>();
 
-        private Stack<OutputBuffer> outputBufferStack = new Stack<OutputBuffer>();
+        /**
+         * A top-level object is encoded into this buffer, nested objects and
+         * fields are written in place and the length of a field is
+         * back-patched when the field ends.
+         */
+        private byte[] buffer;
+        private int position;
+
+        /**
+         * Number of the open objects and fields, the output is the root
+         * stream if it is zero.
+         */
+        private int depth = 0;
+
+        /**
+         * Offsets of the length prefixes of the open fields.
+         */
+        private int[] fieldStart = new int[16];
+        private int fieldDepth = 0;
+
         private DataOutputStream rootOutput;
         private boolean firstObject = true;
 
@@ -92,13 +118,7 @@ public class BinaryObjectEncoder implements ObjectEncoder, BinaryObjectSerialize
             }
 
             // push the stack
-            OutputBuffer objectBuffer;
-            {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                DataOutputStream data = new DataOutputStream(baos);
-                objectBuffer = new OutputBuffer(baos, data);
-                outputBufferStack.push(objectBuffer);
-            }
+            push();
 
             if (object == null) {
                 writeByte(OBJECT_TYPE_NULL);
@@ -140,27 +160,17 @@ public class BinaryObjectEncoder implements ObjectEncoder, BinaryObjectSerialize
             writeByte(FIELD_TYPE_END_OBJECT); // write end-object into the
                                               // current obj buffer
 
-            // pop the stack
-            outputBufferStack.pop();
-
-            // it's a top-level object, flush the constant pool
-            if (outputBufferStack.size() == 0) {
+            // pop the stack, a nested object is already in place
+            if (--depth == 0) {
+                // it's a top-level object, the constant pool goes first
                 writeInt(constantBuffer.size());
                 for (String constant : constantBuffer) {
                     writeString(constant, false);
                     writeInt(constantPool.get(constant));
                 }
                 constantBuffer.clear();
+                flushBuffer();
             }
-
-            // now write the actual object
-            try {
-                objectBuffer.second.close();
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
-            }
-            byte[] bytes = objectBuffer.first.toByteArray();
-            writeBytes(bytes);
         }
 
         public void writeClass(Class<?> clazz) {
@@ -188,77 +198,83 @@ public class BinaryObjectEncoder implements ObjectEncoder, BinaryObjectSerialize
 
         public void startAnonymousField() {
             writeByte(FIELD_TYPE_ANONYMOUS_FIELD);
-            ByteArrayOutputStream buf = new ByteArrayOutputStream();
-            DataOutputStream data = new DataOutputStream(buf);
-            outputBufferStack.push(new OutputBuffer(buf, data));
+            startField();
         }
 
         public void startField(String name) {
             writeByte(FIELD_TYPE_NAMED_FIELD);
             writeString(name, true);
-            ByteArrayOutputStream buf = new ByteArrayOutputStream();
-            DataOutputStream data = new DataOutputStream(buf);
-            outputBufferStack.push(new OutputBuffer(buf, data));
+            startField();
+        }
+
+        private void startField() {
+            push();
+            if (fieldDepth == fieldStart.length) {
+                fieldStart = Arrays.copyOf(fieldStart, fieldDepth * 2);
+            }
+            fieldStart[fieldDepth++] = position;
+            // the length is back-patched by endField()
+            ensureCapacity(4);
+            position += 4;
         }
 
         public void endField() {
-            OutputBuffer buf = outputBufferStack.pop();
-            try {
-                buf.second.close();
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
+            int start = fieldStart[--fieldDepth];
+            int length = position - start - 4;
+            buffer[start] = (byte) (length >>> 24);
+            buffer[start + 1] = (byte) (length >>> 16);
+            buffer[start + 2] = (byte) (length >>> 8);
+            buffer[start + 3] = (byte) length;
+            if (--depth == 0) {
+                flushBuffer();
             }
-            byte[] bytes = buf.first.toByteArray();
-            writeByteArray(bytes);
         }
 
         public void writeInt(int v) {
-            try {
-                getCurrentOutput().writeInt(v);
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
+            if (depth == 0) {
+                try {
+                    rootOutput.writeInt(v);
+                } catch (IOException e) {
+                    throw ConnectorException.wrap(e);
+                }
+            } else {
+                ensureCapacity(4);
+                buffer[position++] = (byte) (v >>> 24);
+                buffer[position++] = (byte) (v >>> 16);
+                buffer[position++] = (byte) (v >>> 8);
+                buffer[position++] = (byte) v;
             }
         }
 
         public void writeLong(long v) {
-            try {
-                getCurrentOutput().writeLong(v);
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
-            }
+            writeInt((int) (v >>> 32));
+            writeInt((int) v);
         }
 
         public void writeDouble(double l) {
-            try {
-                getCurrentOutput().writeDouble(l);
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
-            }
+            writeLong(Double.doubleToLongBits(l));
         }
 
         public void writeByteArray(byte[] v) {
-            try {
-                getCurrentOutput().writeInt(v.length);
-                getCurrentOutput().write(v);
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
-            }
+            writeInt(v.length);
+            writeBytes(v);
         }
 
         public void writeByte(byte b) {
-            try {
-                getCurrentOutput().writeByte(b);
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
+            if (depth == 0) {
+                try {
+                    rootOutput.writeByte(b);
+                } catch (IOException e) {
+                    throw ConnectorException.wrap(e);
+                }
+            } else {
+                ensureCapacity(1);
+                buffer[position++] = b;
             }
         }
 
         public void writeBoolean(boolean b) {
-            try {
-                getCurrentOutput().writeBoolean(b);
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
-            }
+            writeByte(b ? (byte) 1 : (byte) 0);
         }
 
         public void writeString(String str, boolean intern) {
@@ -267,19 +283,20 @@ public class BinaryObjectEncoder implements ObjectEncoder, BinaryObjectSerialize
                 writeInt(code);
                 return;
             }
-            try {
-                byte[] bytes = str.getBytes("UTF8");
-                writeByteArray(bytes);
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
-            }
+            writeByteArray(str.getBytes(UTF8));
         }
 
         private void writeBytes(byte[] v) {
-            try {
-                getCurrentOutput().write(v);
-            } catch (IOException e) {
-                throw ConnectorException.wrap(e);
+            if (depth == 0) {
+                try {
+                    rootOutput.write(v);
+                } catch (IOException e) {
+                    throw ConnectorException.wrap(e);
+                }
+            } else {
+                ensureCapacity(v.length);
+                System.arraycopy(v, 0, buffer, position, v.length);
+                position += v.length;
             }
         }
 
@@ -293,11 +310,43 @@ public class BinaryObjectEncoder implements ObjectEncoder, BinaryObjectSerialize
             return code;
         }
 
-        private DataOutputStream getCurrentOutput() {
-            if (outputBufferStack.size() == 0) {
-                return rootOutput;
-            } else {
-                return outputBufferStack.peek().second;
+        /**
+         * Opens an object or a field, the first one takes the buffer of the
+         * thread.
+         */
+        private void push() {
+            if (depth++ == 0) {
+                buffer = BUFFER_POOL.get();
+                if (null == buffer) {
+                    buffer = new byte[4096];
+                } else {
+                    BUFFER_POOL.set(null);
+                }
+                position = 0;
+            }
+        }
+
+        /**
+         * Writes the encoded top-level object or field to the root stream and
+         * gives the buffer back to the thread.
+         */
+        private void flushBuffer() {
+            try {
+                rootOutput.write(buffer, 0, position);
+            } catch (IOException e) {
+                throw ConnectorException.wrap(e);
+            } finally {
+                if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+                    BUFFER_POOL.set(buffer);
+                }
+                buffer = null;
+                position = 0;
+            }
+        }
+
+        private void ensureCapacity(int length) {
+            if (buffer.length - position < length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
             }
         }
     }
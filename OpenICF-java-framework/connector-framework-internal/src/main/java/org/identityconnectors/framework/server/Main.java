@@ -20,12 +20,14 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * Portions Copyrighted 2010-2014 ForgeRock AS.
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.framework.server;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
 import java.net.InetAddress;
 import java.net.MalformedURLException;
@@ -44,6 +46,7 @@ import org.identityconnectors.common.logging.Log;
 import org.identityconnectors.common.security.SecurityUtil;
 import org.identityconnectors.framework.api.ConnectorInfoManagerFactory;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.identityconnectors.framework.impl.api.local.ConnectorPoolManager;
 
 public final class Main {
 
@@ -55,6 +58,7 @@ public final class Main {
     private static final String PROP_KEY = "connectorserver.key";
     private static final String PROP_FACADE_LIFETIME = "connectorserver.maxFacadeLifeTime";
     private static final String PROP_LOGGER_CLASS = "connectorserver.loggerClass";
+    private static final String PROP_JMX = "connectorserver.jmx";
 
     private static final String DEFAULT_LOG_SPI =
             "org.identityconnectors.common.logging.StdOutLogger";
@@ -249,6 +253,9 @@ public final class Main {
         if (facadeLifeTime != null) {
             connectorServer.setMaxFacadeLifeTime(Long.parseLong(facadeLifeTime));
         }
+        if (Boolean.parseBoolean(properties.getProperty(PROP_JMX))) {
+            ConnectorPoolManager.setMBeanServer(ManagementFactory.getPlatformMBeanServer());
+        }
     }
 
     public static void stop(String[] args) {
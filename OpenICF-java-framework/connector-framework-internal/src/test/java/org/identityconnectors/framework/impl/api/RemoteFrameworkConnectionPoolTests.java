@@ -0,0 +1,369 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.identityconnectors.framework.impl.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.identityconnectors.common.security.GuardedString;
+import org.identityconnectors.common.security.SecurityUtil;
+import org.identityconnectors.framework.api.ConnectorKey;
+import org.identityconnectors.framework.api.RemoteFrameworkConnectionInfo;
+import org.identityconnectors.framework.api.operations.APIOperation;
+import org.identityconnectors.framework.api.operations.DeleteApiOp;
+import org.identityconnectors.framework.api.operations.TestApiOp;
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.OperationOptions;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.identityconnectors.framework.impl.api.remote.RemoteConnectorInfoImpl;
+import org.identityconnectors.framework.impl.api.remote.RemoteConnectorInfoManagerImpl;
+import org.identityconnectors.framework.impl.api.remote.RemoteFrameworkConnection;
+import org.identityconnectors.framework.impl.api.remote.RemoteFrameworkConnectionPool;
+import org.identityconnectors.framework.impl.api.remote.RemoteOperationInvocationHandler;
+import org.identityconnectors.framework.impl.api.remote.messages.EchoMessage;
+import org.identityconnectors.framework.impl.api.remote.messages.HelloResponse;
+import org.identityconnectors.framework.impl.api.remote.messages.OperationRequest;
+import org.identityconnectors.framework.impl.api.remote.messages.OperationResponsePart;
+import org.identityconnectors.framework.server.ConnectorServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class RemoteFrameworkConnectionPoolTests {
+
+    private static final int PORT = 8761;
+
+    private static final int PROXY_PORT = 8762;
+
+    private static final int STALLING_PORT = 8763;
+
+    private final RemoteFrameworkConnectionPool pool = RemoteFrameworkConnectionPool.getInstance();
+
+    private final RemoteFrameworkConnectionInfo info = new RemoteFrameworkConnectionInfo(
+            "127.0.0.1", PORT, new GuardedString("changeit".toCharArray()), false, null, 0);
+
+    private ConnectorServer server;
+
+    @BeforeClass
+    public void startServer() throws Exception {
+        server = ConnectorServer.newInstance();
+        server.setKeyHash(SecurityUtil.computeBase64SHA1Hash("changeit".toCharArray()));
+        server.setBundleURLs(Collections.<URL>emptyList());
+        server.setPort(PORT);
+        server.setIfAddress(InetAddress.getByName("127.0.0.1"));
+        server.start();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop();
+    }
+
+    /**
+     * Forwards the connections to the server, the test closes them to act as
+     * a server which dropped its idle connections.
+     */
+    private static final class Proxy extends Thread {
+
+        private final ServerSocket serverSocket;
+        private final List<Socket> sockets = new ArrayList<Socket>();
+
+        private Proxy() throws IOException {
+            super("RemoteFrameworkConnectionPoolTests-proxy");
+            setDaemon(true);
+            serverSocket = new ServerSocket(PROXY_PORT, 10, InetAddress.getByName("127.0.0.1"));
+        }
+
+        public void run() {
+            try {
+                while (true) {
+                    Socket client = serverSocket.accept();
+                    Socket server = new Socket("127.0.0.1", PORT);
+                    synchronized (sockets) {
+                        sockets.add(client);
+                        sockets.add(server);
+                    }
+                    pipe(client.getInputStream(), server.getOutputStream());
+                    pipe(server.getInputStream(), client.getOutputStream());
+                }
+            } catch (IOException e) {
+                // closed
+            }
+        }
+
+        private static void pipe(final InputStream in, final OutputStream out) {
+            Thread thread = new Thread() {
+                public void run() {
+                    byte[] buffer = new byte[8192];
+                    try {
+                        int n;
+                        while ((n = in.read(buffer)) >= 0) {
+                            out.write(buffer, 0, n);
+                            out.flush();
+                        }
+                    } catch (IOException e) {
+                        // closed
+                    }
+                }
+            };
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void closeConnections() throws IOException {
+            synchronized (sockets) {
+                for (Socket socket : sockets) {
+                    socket.close();
+                }
+                sockets.clear();
+            }
+        }
+
+        private void close() throws IOException {
+            serverSocket.close();
+            closeConnections();
+        }
+    }
+
+    /**
+     * Answers the first operation at once and stalls on the others longer
+     * than the read timeout of the client.
+     */
+    private static final class StallingServer extends Thread {
+
+        private final ServerSocket serverSocket;
+        private final AtomicInteger operations = new AtomicInteger();
+        private final AtomicInteger echoes = new AtomicInteger();
+
+        private StallingServer() throws IOException {
+            super("RemoteFrameworkConnectionPoolTests-server");
+            setDaemon(true);
+            serverSocket = new ServerSocket(STALLING_PORT, 10, InetAddress.getByName("127.0.0.1"));
+        }
+
+        public void run() {
+            try {
+                while (true) {
+                    final Socket socket = serverSocket.accept();
+                    Thread thread = new Thread() {
+                        public void run() {
+                            serve(new RemoteFrameworkConnection(socket));
+                        }
+                    };
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            } catch (IOException e) {
+                // closed
+            }
+        }
+
+        private void serve(RemoteFrameworkConnection connection) {
+            try {
+                while (true) {
+                    // locale and key
+                    connection.readObject();
+                    connection.readObject();
+                    Object request = connection.readObject();
+                    if (request instanceof EchoMessage) {
+                        echoes.incrementAndGet();
+                        connection.writeObject(new EchoMessage(((EchoMessage) request).getObject(), null));
+                    } else if (request instanceof OperationRequest) {
+                        if (operations.incrementAndGet() > 1) {
+                            Thread.sleep(2000);
+                        }
+                        connection.writeObject(new OperationResponsePart(null, null));
+                    }
+                    connection.flush();
+                }
+            } catch (Exception e) {
+                // closed by the client
+            }
+        }
+
+        private void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+
+    @AfterMethod
+    public void clearPool() {
+        pool.clear();
+        pool.setValidationInterval(10000L);
+    }
+
+    @Test
+    public void testConnectionIsReused() {
+        RemoteConnectorInfoManagerImpl manager = new RemoteConnectorInfoManagerImpl(info, false);
+        Assert.assertNotNull(manager.getServerInfo().get(HelloResponse.SERVER_START_TIME));
+        Assert.assertEquals(pool.getIdleCount(info), 1);
+
+        RemoteFrameworkConnection connection = pool.borrowConnection(info);
+        Assert.assertEquals(pool.getIdleCount(info), 0);
+        pool.returnConnection(info, connection, true);
+        Assert.assertSame(pool.borrowConnection(info), connection);
+        pool.returnConnection(info, connection, true);
+
+        // The same connection serves the next requests
+        Assert.assertNotNull(manager.getServerInfo().get(HelloResponse.SERVER_START_TIME));
+        Assert.assertNotNull(manager.getConnectorKeys());
+        Assert.assertEquals(pool.getIdleCount(info), 1);
+    }
+
+    @Test
+    public void testIdleConnectionIsChecked() {
+        pool.setValidationInterval(-1L);
+        RemoteFrameworkConnection connection = pool.borrowConnection(info);
+        pool.returnConnection(info, connection, true);
+        Assert.assertSame(pool.borrowConnection(info), connection);
+
+        // A connection closed meanwhile is replaced
+        connection.close();
+        pool.returnConnection(info, connection, true);
+        RemoteFrameworkConnection other = pool.borrowConnection(info);
+        Assert.assertNotSame(other, connection);
+        pool.returnConnection(info, other, true);
+        Assert.assertNotNull(new RemoteConnectorInfoManagerImpl(info, false).getServerInfo());
+    }
+
+    @Test
+    public void testRequestIsSentAgainWhenIdleConnectionIsClosed() throws Throwable {
+        Proxy proxy = new Proxy();
+        proxy.start();
+        try {
+            RemoteFrameworkConnectionInfo proxyInfo = new RemoteFrameworkConnectionInfo(
+                    "127.0.0.1", PROXY_PORT, new GuardedString("changeit".toCharArray()), false,
+                    null, 0);
+            RemoteConnectorInfoImpl connectorInfo = new RemoteConnectorInfoImpl();
+            connectorInfo.setConnectorKey(new ConnectorKey("bundle", "1.0", "connector"));
+            connectorInfo.setRemoteConnectionInfo(proxyInfo);
+            RemoteOperationInvocationHandler handler =
+                    new RemoteOperationInvocationHandler(connectorInfo, "key", TestApiOp.class);
+
+            assertNoSuchConnector(handler);
+            Assert.assertEquals(pool.getIdleCount(proxyInfo), 1);
+
+            // The server side of the idle connection goes away
+            proxy.closeConnections();
+            assertNoSuchConnector(handler);
+            Assert.assertEquals(pool.getIdleCount(proxyInfo), 1);
+        } finally {
+            proxy.close();
+        }
+    }
+
+    @Test
+    public void testIdempotentRequestIsNotSentAgainAfterTimeout() throws Throwable {
+        StallingServer server = new StallingServer();
+        server.start();
+        try {
+            RemoteOperationInvocationHandler handler =
+                    newStallingHandler(TestApiOp.class);
+            Method test = TestApiOp.class.getMethod("test");
+            handler.invoke(null, test, new Object[0]);
+
+            // The reused connection times out, the server still runs the request
+            assertTimeout(handler, test, new Object[0]);
+            Assert.assertEquals(server.operations.get(), 2);
+            Assert.assertEquals(server.echoes.get(), 0);
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testRequestIsNotSentAgainAfterTimeout() throws Throwable {
+        StallingServer server = new StallingServer();
+        server.start();
+        try {
+            RemoteOperationInvocationHandler handler =
+                    newStallingHandler(DeleteApiOp.class);
+            Method delete = DeleteApiOp.class.getMethod("delete", ObjectClass.class, Uid.class,
+                    OperationOptions.class);
+            Object[] args = new Object[] { ObjectClass.ACCOUNT, new Uid("1"), null };
+            handler.invoke(null, delete, args);
+
+            // The idle connection is checked before the request is sent
+            assertTimeout(handler, delete, args);
+            Assert.assertEquals(server.operations.get(), 2);
+            Assert.assertEquals(server.echoes.get(), 1);
+        } finally {
+            server.close();
+        }
+    }
+
+    private static RemoteOperationInvocationHandler newStallingHandler(
+            Class<? extends APIOperation> operation) {
+        RemoteConnectorInfoImpl connectorInfo = new RemoteConnectorInfoImpl();
+        connectorInfo.setConnectorKey(new ConnectorKey("bundle", "1.0", "connector"));
+        connectorInfo.setRemoteConnectionInfo(new RemoteFrameworkConnectionInfo("127.0.0.1",
+                STALLING_PORT, new GuardedString("changeit".toCharArray()), false, null, 500));
+        return new RemoteOperationInvocationHandler(connectorInfo, "key", operation);
+    }
+
+    private static void assertTimeout(RemoteOperationInvocationHandler handler, Method method,
+            Object[] args) throws Throwable {
+        try {
+            handler.invoke(null, method, args);
+            Assert.fail("The server does not answer in time");
+        } catch (ConnectorException e) {
+            Assert.assertTrue(e.getCause() instanceof SocketTimeoutException, String.valueOf(e
+                    .getCause()));
+        }
+    }
+
+    /*
+     * The server answers with an error, there is no connector on it.
+     */
+    private static void assertNoSuchConnector(RemoteOperationInvocationHandler handler)
+            throws Throwable {
+        try {
+            handler.invoke(null, TestApiOp.class.getMethod("test"), new Object[0]);
+            Assert.fail("The connector is not on the server");
+        } catch (ConnectorException e) {
+            Assert.assertTrue(e.getMessage().startsWith("No such connector"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testUnfinishedConnectionIsClosed() {
+        RemoteFrameworkConnection connection = pool.borrowConnection(info);
+        pool.returnConnection(info, connection, false);
+        Assert.assertEquals(pool.getIdleCount(info), 0);
+
+        pool.setMaxIdle(0);
+        try {
+            pool.returnConnection(info, pool.borrowConnection(info), true);
+            Assert.assertEquals(pool.getIdleCount(info), 0);
+        } finally {
+            pool.setMaxIdle(8);
+        }
+    }
+}
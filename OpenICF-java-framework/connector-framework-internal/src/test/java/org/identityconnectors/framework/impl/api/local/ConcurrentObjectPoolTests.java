@@ -0,0 +1,448 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.impl.api.local;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.identityconnectors.common.pooling.ObjectPoolConfiguration;
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.identityconnectors.framework.common.serializer.SerializerUtil;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ConcurrentObjectPoolTests {
+
+    private static class MyTestConnection {
+
+        private volatile boolean good = true;
+
+        public void test() {
+            if (!good) {
+                throw new ConnectorException("Connection is bad");
+            }
+        }
+
+        public void dispose() {
+            good = false;
+        }
+
+        public boolean isGood() {
+            return good;
+        }
+    }
+
+    private static class MyTestConnectionFactory implements ObjectPoolHandler<MyTestConnection> {
+
+        private final AtomicInteger created = new AtomicInteger(0);
+        private final AtomicInteger tested = new AtomicInteger(0);
+        private volatile boolean createBadConnection = false;
+
+        public ObjectPoolConfiguration validate(ObjectPoolConfiguration original) {
+            ObjectPoolConfiguration configuration =
+                    (ObjectPoolConfiguration) SerializerUtil.cloneObject(original);
+            configuration.validate();
+            return configuration;
+        }
+
+        public MyTestConnection makeObject() {
+            created.incrementAndGet();
+            MyTestConnection rv = new MyTestConnection();
+            if (createBadConnection) {
+                rv.dispose();
+            }
+            return rv;
+        }
+
+        public void testObject(MyTestConnection object) {
+            tested.incrementAndGet();
+            object.test();
+        }
+
+        public void disposeObject(MyTestConnection object) {
+            object.dispose();
+        }
+
+        public void shutdown() {
+        }
+    }
+
+    private static ObjectPoolConfiguration newConfiguration(int maxObjects) {
+        ObjectPoolConfiguration config = new ObjectPoolConfiguration();
+        config.setLockFreePool(true);
+        config.setMaxObjects(maxObjects);
+        config.setMaxIdle(maxObjects);
+        config.setMinIdle(1);
+        config.setMinEvictableIdleTimeMillis(60 * 1000);
+        config.setMaxWait(60 * 1000);
+        return config;
+    }
+
+    @Test
+    public void testWithManyThreads() throws Exception {
+        final int maxConnections = 7;
+        final MyTestConnectionFactory fact = new MyTestConnectionFactory();
+        final ObjectPool<MyTestConnection> pool =
+                new ConcurrentObjectPool<MyTestConnection>(fact, newConfiguration(maxConnections));
+        final AtomicInteger failures = new AtomicInteger(0);
+
+        Thread[] threads = new Thread[10];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < 100; j++) {
+                            ObjectPoolEntry<MyTestConnection> con = pool.borrowObject();
+                            if (!con.getPooledObject().isGood()) {
+                                failures.incrementAndGet();
+                            }
+                            Thread.sleep(1);
+                            con.close();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(failures.get(), 0);
+        Assert.assertTrue(fact.created.get() <= maxConnections);
+        ObjectPool.Statistics stats = pool.getStatistics();
+        Assert.assertEquals(stats.getNumActive(), 0);
+        Assert.assertEquals(stats.getNumIdle(), fact.created.get());
+
+        pool.shutdown();
+        stats = pool.getStatistics();
+        Assert.assertEquals(stats.getNumActive(), 0);
+        Assert.assertEquals(stats.getNumIdle(), 0);
+    }
+
+    @Test
+    public void testBadConnection() throws Exception {
+        MyTestConnectionFactory fact = new MyTestConnectionFactory();
+        ObjectPool<MyTestConnection> pool =
+                new ConcurrentObjectPool<MyTestConnection>(fact, newConfiguration(3));
+
+        ObjectPoolEntry<MyTestConnection> conn = pool.borrowObject();
+        conn.close();
+        conn = pool.borrowObject();
+        Assert.assertEquals(fact.created.get(), 1);
+
+        // dispose and make sure we get a new connection
+        conn.getPooledObject().dispose();
+        conn.close();
+        conn = pool.borrowObject();
+        Assert.assertEquals(fact.created.get(), 2);
+        Assert.assertTrue(conn.getPooledObject().isGood());
+        conn.close();
+        pool.shutdown();
+    }
+
+    @Test
+    public void testValidateIdleTime() throws Exception {
+        MyTestConnectionFactory fact = new MyTestConnectionFactory();
+        ObjectPoolConfiguration config = newConfiguration(3);
+        config.setValidateIdleTimeMillis(60 * 1000);
+        ObjectPool<MyTestConnection> pool = new ConcurrentObjectPool<MyTestConnection>(fact, config);
+
+        for (int i = 0; i < 10; i++) {
+            pool.borrowObject().close();
+        }
+        // the new connection is tested, hot connections are not
+        Assert.assertEquals(fact.tested.get(), 1);
+        Assert.assertEquals(fact.created.get(), 1);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testCreateBadConnectionWithValidateIdleTime() throws Exception {
+        MyTestConnectionFactory fact = new MyTestConnectionFactory();
+        fact.createBadConnection = true;
+        ObjectPoolConfiguration config = newConfiguration(3);
+        config.setValidateIdleTimeMillis(60 * 1000);
+        ObjectPool<MyTestConnection> pool = new ConcurrentObjectPool<MyTestConnection>(fact, config);
+        try {
+            pool.borrowObject();
+            Assert.fail("expected exception");
+        } catch (ConnectorException e) {
+            Assert.assertEquals(e.getMessage(), "Connection is bad");
+        }
+        Assert.assertEquals(pool.getStatistics().getNumActive(), 0);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testBackgroundEviction() throws Exception {
+        MyTestConnectionFactory fact = new MyTestConnectionFactory();
+        ObjectPoolConfiguration config = newConfiguration(3);
+        config.setMinEvictableIdleTimeMillis(500);
+        config.setTimeBetweenEvictionRunsMillis(100);
+        ObjectPool<MyTestConnection> pool = new ConcurrentObjectPool<MyTestConnection>(fact, config);
+
+        ObjectPoolEntry<MyTestConnection> conn1 = pool.borrowObject();
+        ObjectPoolEntry<MyTestConnection> conn2 = pool.borrowObject();
+        ObjectPoolEntry<MyTestConnection> conn3 = pool.borrowObject();
+        conn1.close();
+        conn2.close();
+        conn3.close();
+        Assert.assertEquals(pool.getStatistics().getNumIdle(), 3);
+
+        Thread.sleep(config.getMinEvictableIdleTimeMillis() + 1000);
+        // MinIdle is kept, the most recently returned survives
+        Assert.assertEquals(pool.getStatistics().getNumIdle(), 1);
+        Assert.assertFalse(conn1.getPooledObject().isGood());
+        Assert.assertFalse(conn2.getPooledObject().isGood());
+        Assert.assertTrue(conn3.getPooledObject().isGood());
+        Assert.assertSame(pool.borrowObject().getPooledObject(), conn3.getPooledObject());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testCreateBadConnection() throws Exception {
+        MyTestConnectionFactory fact = new MyTestConnectionFactory();
+        fact.createBadConnection = true;
+        ObjectPool<MyTestConnection> pool =
+                new ConcurrentObjectPool<MyTestConnection>(fact, newConfiguration(3));
+        try {
+            pool.borrowObject();
+            Assert.fail("expected exception");
+        } catch (ConnectorException e) {
+            Assert.assertEquals(e.getMessage(), "Connection is bad");
+        }
+        Assert.assertEquals(pool.getStatistics().getNumActive(), 0);
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        MyTestConnectionFactory fact = new MyTestConnectionFactory();
+        ObjectPoolConfiguration config = newConfiguration(5);
+        config.setMinIdle(3);
+        config.setWarmUp(true);
+        ObjectPool<MyTestConnection> pool = new ConcurrentObjectPool<MyTestConnection>(fact, config);
+        pool.warmUp();
+        for (int i = 0; i < 50 && pool.getStatistics().getNumIdle() < 3; i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(pool.getStatistics().getNumIdle(), 3);
+        Assert.assertEquals(fact.created.get(), 3);
+
+        // warm objects are not new, a failed test disposes them and the
+        // borrow carries on with the next one
+        ObjectPoolEntry<MyTestConnection> conn = pool.borrowObject();
+        conn.getPooledObject().dispose();
+        conn.close();
+        conn = pool.borrowObject();
+        Assert.assertTrue(conn.getPooledObject().isGood());
+        conn.close();
+        for (int i = 0; i < 50 && pool.getStatistics().getNumIdle() < 3; i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(pool.getStatistics().getNumIdle(), 3);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testWarmUpWithBorrowsStaysBelowMaxObjects() throws Exception {
+        final AtomicInteger live = new AtomicInteger(0);
+        final AtomicInteger peak = new AtomicInteger(0);
+        MyTestConnectionFactory fact = new MyTestConnectionFactory() {
+            public MyTestConnection makeObject() {
+                int count = live.incrementAndGet();
+                int max;
+                while (count > (max = peak.get()) && !peak.compareAndSet(max, count)) {
+                    // retry
+                }
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.makeObject();
+            }
+
+            public void disposeObject(MyTestConnection object) {
+                live.decrementAndGet();
+                super.disposeObject(object);
+            }
+        };
+        ObjectPoolConfiguration config = newConfiguration(3);
+        config.setMinIdle(3);
+        config.setWarmUp(true);
+        final ObjectPool<MyTestConnection> pool =
+                new ConcurrentObjectPool<MyTestConnection>(fact, config);
+        final AtomicInteger failures = new AtomicInteger(0);
+        Thread[] threads = new Thread[3];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < 20; j++) {
+                            pool.borrowObject().close();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            };
+        }
+        pool.warmUp();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(30000);
+        }
+        Assert.assertEquals(failures.get(), 0);
+        Assert.assertTrue(peak.get() <= 3, "Objects made: " + peak.get());
+        Assert.assertTrue(pool.getStatistics().getNumActive() <= 3);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testBorrowWaitsForWarmUpObject() throws Exception {
+        final CountDownLatch making = new CountDownLatch(1);
+        MyTestConnectionFactory fact = new MyTestConnectionFactory() {
+            public MyTestConnection makeObject() {
+                making.countDown();
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.makeObject();
+            }
+        };
+        ObjectPoolConfiguration config = newConfiguration(1);
+        config.setWarmUp(true);
+        ObjectPool<MyTestConnection> pool = new ConcurrentObjectPool<MyTestConnection>(fact, config);
+        pool.warmUp();
+        Assert.assertTrue(making.await(5, TimeUnit.SECONDS));
+
+        // the warm-up took the only place, the borrow gets its object
+        ObjectPoolEntry<MyTestConnection> conn = pool.borrowObject();
+        Assert.assertTrue(conn.getPooledObject().isGood());
+        Assert.assertEquals(fact.created.get(), 1);
+        Assert.assertEquals(pool.getStatistics().getNumActive(), 1);
+        conn.close();
+        pool.shutdown();
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        MyTestConnectionFactory fact = new MyTestConnectionFactory();
+        ObjectPoolConfiguration config = newConfiguration(1);
+        config.setMaxWait(100);
+        ObjectPool<MyTestConnection> pool = new ConcurrentObjectPool<MyTestConnection>(fact, config);
+
+        ObjectPoolEntry<MyTestConnection> conn = pool.borrowObject();
+        try {
+            pool.borrowObject();
+            Assert.fail("expected timeout");
+        } catch (ConnectorException e) {
+            Assert.assertEquals(e.getMessage(), "TimeOut");
+        }
+        conn.close();
+        pool.borrowObject().close();
+
+        ObjectPoolMetrics metrics = pool.getMetrics();
+        Assert.assertEquals(metrics.getBorrowCount(), 3);
+        Assert.assertEquals(metrics.getBorrowTimeoutCount(), 1);
+        Assert.assertEquals(metrics.getWaitingCount(), 0);
+        Assert.assertTrue(metrics.getMaxBorrowTimeMillis() >= 100);
+        Assert.assertEquals(metrics.getMakeObjectCount(), 1);
+        Assert.assertEquals(metrics.getTestObjectCount(), 2);
+        long total = 0;
+        for (long count : metrics.getBorrowTimeHistogram()) {
+            total += count;
+        }
+        Assert.assertEquals(total, 3);
+
+        pool.shutdown();
+        Assert.assertEquals(metrics.getDisposeObjectCount(), 1);
+    }
+
+    @Test
+    public void testWaitingCount() throws Exception {
+        final CountDownLatch making = new CountDownLatch(1);
+        final CountDownLatch made = new CountDownLatch(1);
+        MyTestConnectionFactory fact = new MyTestConnectionFactory() {
+            public MyTestConnection makeObject() {
+                making.countDown();
+                try {
+                    made.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.makeObject();
+            }
+        };
+        final ObjectPool<MyTestConnection> pool =
+                new ConcurrentObjectPool<MyTestConnection>(fact, newConfiguration(1));
+        final ObjectPoolMetrics metrics = pool.getMetrics();
+        Thread first = new Thread() {
+            public void run() {
+                try {
+                    pool.borrowObject().close();
+                } catch (Exception e) {
+                    // reported by the assertions below
+                }
+            }
+        };
+        first.start();
+        Assert.assertTrue(making.await(10, TimeUnit.SECONDS));
+        // making an object is not waiting
+        Assert.assertEquals(metrics.getWaitingCount(), 0);
+
+        Thread second = new Thread() {
+            public void run() {
+                try {
+                    pool.borrowObject().close();
+                } catch (Exception e) {
+                    // reported by the assertions below
+                }
+            }
+        };
+        second.start();
+        for (int i = 0; i < 100 && metrics.getWaitingCount() == 0; i++) {
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(metrics.getWaitingCount(), 1);
+
+        made.countDown();
+        first.join(10000);
+        second.join(10000);
+        Assert.assertEquals(metrics.getWaitingCount(), 0);
+        Assert.assertEquals(metrics.getBorrowCount(), 2);
+        pool.shutdown();
+    }
+
+    @Test(expectedExceptions = ConnectorException.class)
+    public void testTimeout() throws Exception {
+        ObjectPoolConfiguration config = newConfiguration(1);
+        config.setMaxWait(100);
+        ObjectPool<MyTestConnection> pool =
+                new ConcurrentObjectPool<MyTestConnection>(new MyTestConnectionFactory(), config);
+        pool.borrowObject();
+        pool.borrowObject();
+    }
+}
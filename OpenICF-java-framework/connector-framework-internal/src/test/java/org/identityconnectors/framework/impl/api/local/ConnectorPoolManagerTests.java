@@ -0,0 +1,159 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.identityconnectors.framework.impl.api.local;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.identityconnectors.common.pooling.ObjectPoolConfiguration;
+import org.identityconnectors.common.security.GuardedString;
+import org.identityconnectors.framework.api.ConnectorKey;
+import org.identityconnectors.framework.impl.api.APIConfigurationImpl;
+import org.identityconnectors.framework.impl.api.ConfigurationPropertiesImpl;
+import org.identityconnectors.framework.impl.api.ConfigurationPropertyImpl;
+import org.identityconnectors.framework.impl.api.local.ConnectorPoolManager.ConnectorPoolKey;
+import org.identityconnectors.framework.spi.AbstractConfiguration;
+import org.identityconnectors.framework.spi.StatefulConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ConnectorPoolManagerTests {
+
+    private static final ConnectorKey CONNECTOR_KEY =
+            new ConnectorKey("org.example.ldap", "1.0", "org.example.LdapConnector");
+
+    public static class StatefulTestConfiguration extends AbstractConfiguration implements
+            StatefulConfiguration {
+
+        public void validate() {
+        }
+
+        public void release() {
+        }
+    }
+
+    private static ConfigurationPropertiesImpl newProperties(String host, String password) {
+        return newProperties(host, password, false);
+    }
+
+    private static ConfigurationPropertiesImpl newProperties(String host, String password,
+            boolean reversed) {
+        List<ConfigurationPropertyImpl> properties = new ArrayList<ConfigurationPropertyImpl>();
+        ConfigurationPropertyImpl property = new ConfigurationPropertyImpl();
+        property.setName("host");
+        property.setType(String.class);
+        property.setValue(host);
+        properties.add(property);
+        property = new ConfigurationPropertyImpl();
+        property.setName("baseContexts");
+        property.setType(String[].class);
+        property.setValue(new String[] { "dc=example,dc=com" });
+        properties.add(property);
+        property = new ConfigurationPropertyImpl();
+        property.setName("password");
+        property.setType(GuardedString.class);
+        property.setValue(new GuardedString(password.toCharArray()));
+        properties.add(property);
+        if (reversed) {
+            Collections.reverse(properties);
+        }
+        ConfigurationPropertiesImpl rv = new ConfigurationPropertiesImpl();
+        rv.setProperties(properties);
+        return rv;
+    }
+
+    @Test
+    public void testPoolKeyFingerprint() {
+        ConnectorPoolKey key1 =
+                new ConnectorPoolKey(CONNECTOR_KEY, newProperties("host1", "secret"),
+                        new ObjectPoolConfiguration());
+        ConnectorPoolKey key2 =
+                new ConnectorPoolKey(CONNECTOR_KEY, newProperties("host1", "secret"),
+                        new ObjectPoolConfiguration());
+        Assert.assertEquals(key1, key2);
+        Assert.assertEquals(key1.hashCode(), key2.hashCode());
+
+        // the configurations of the same connector do not share the hash
+        ConnectorPoolKey key3 =
+                new ConnectorPoolKey(CONNECTOR_KEY, newProperties("host2", "secret"),
+                        new ObjectPoolConfiguration());
+        Assert.assertFalse(key1.equals(key3));
+        Assert.assertFalse(key1.hashCode() == key3.hashCode());
+
+        ConnectorPoolKey key4 =
+                new ConnectorPoolKey(CONNECTOR_KEY, newProperties("host1", "other"),
+                        new ObjectPoolConfiguration());
+        Assert.assertFalse(key1.equals(key4));
+
+        ObjectPoolConfiguration poolConfig = new ObjectPoolConfiguration();
+        poolConfig.setMaxObjects(20);
+        ConnectorPoolKey key5 =
+                new ConnectorPoolKey(CONNECTOR_KEY, newProperties("host1", "secret"), poolConfig);
+        Assert.assertFalse(key1.equals(key5));
+    }
+
+    @Test
+    public void testPoolKeyFingerprintIgnoresPropertyOrder() {
+        ConnectorPoolKey key1 =
+                new ConnectorPoolKey(CONNECTOR_KEY, newProperties("host1", "secret"),
+                        new ObjectPoolConfiguration());
+        ConnectorPoolKey key2 =
+                new ConnectorPoolKey(CONNECTOR_KEY, newProperties("host1", "secret", true),
+                        new ObjectPoolConfiguration());
+        Assert.assertEquals(key1, key2);
+        Assert.assertEquals(key1.hashCode(), key2.hashCode());
+    }
+
+    @Test
+    public void testPoolKeyIsCachedPerConfiguration() {
+        LocalConnectorInfoImpl info = new LocalConnectorInfoImpl();
+        info.setConnectorKey(CONNECTOR_KEY);
+        info.setConnectorConfigurationClass(StatefulTestConfiguration.class);
+        APIConfigurationImpl impl = new APIConfigurationImpl();
+        impl.setConnectorInfo(info);
+        impl.setConfigurationProperties(newProperties("host1", "secret"));
+
+        ConnectorPoolKey key = ConnectorPoolManager.getPool(impl, info).getKey();
+        Assert.assertNotNull(key);
+        Assert.assertSame(ConnectorPoolManager.getPool(impl, info).getKey(), key);
+
+        // A changed configuration gets a new key
+        impl.getConfigurationProperties().setPropertyValue("host", "host2");
+        ConnectorPoolKey other = ConnectorPoolManager.getPool(impl, info).getKey();
+        Assert.assertFalse(key.equals(other));
+        Assert.assertSame(ConnectorPoolManager.getPool(impl, info).getKey(), other);
+
+        impl.getConnectorPoolConfiguration().setMaxObjects(20);
+        Assert.assertFalse(other.equals(ConnectorPoolManager.getPool(impl, info).getKey()));
+    }
+
+    @Test
+    public void testPoolKeyIsSnapshot() {
+        ConfigurationPropertiesImpl properties = newProperties("host1", "secret");
+        ObjectPoolConfiguration poolConfig = new ObjectPoolConfiguration();
+        ConnectorPoolKey key = new ConnectorPoolKey(CONNECTOR_KEY, properties, poolConfig);
+        int hash = key.hashCode();
+
+        properties.setPropertyValue("host", "host2");
+        poolConfig.setMaxObjects(20);
+        Assert.assertEquals(key.hashCode(), hash);
+        Assert.assertEquals(key, new ConnectorPoolKey(CONNECTOR_KEY,
+                newProperties("host1", "secret"), new ObjectPoolConfiguration()));
+        Assert.assertSame(properties.getProperty("host").getValue(), "host2");
+    }
+}
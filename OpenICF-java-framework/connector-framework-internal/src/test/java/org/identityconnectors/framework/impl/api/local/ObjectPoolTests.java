@@ -232,6 +232,32 @@ public class ObjectPoolTests {
         Assert.assertEquals(true, conn4.getPooledObject().isGood());
     }
 
+    @Test
+    public void testWarmUp() throws Exception {
+        ObjectPoolConfiguration config = new ObjectPoolConfiguration();
+        config.setMaxObjects(5);
+        config.setMaxIdle(5);
+        config.setMinIdle(3);
+        config.setMinEvictableIdleTimeMillis(60*1000);
+        config.setMaxWait(60*1000);
+        config.setWarmUp(true);
+        MyTestConnectionFactory fact = new MyTestConnectionFactory();
+
+        ObjectPool<MyTestConnection> pool = new ObjectPool<MyTestConnection>(fact,config);
+        Assert.assertEquals(pool.getStatistics().getNumIdle(), 0);
+        pool.warmUp();
+        for (int i = 0; i < 50 && pool.getStatistics().getNumIdle() < 3; i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(pool.getStatistics().getNumIdle(), 3);
+
+        //the borrow takes a warm connection
+        ObjectPoolEntry<MyTestConnection> conn = pool.borrowObject();
+        Assert.assertEquals(fact.getTotalCreatedConnections(), 3);
+        conn.close();
+        pool.shutdown();
+    }
+
     @Test
     public void testCreateBadConnection()
         throws Exception
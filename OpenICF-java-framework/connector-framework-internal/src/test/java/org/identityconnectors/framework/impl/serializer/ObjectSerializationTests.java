@@ -20,6 +20,7 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * Portions Copyrighted 2010-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 
 package org.identityconnectors.framework.impl.serializer;
@@ -30,11 +31,13 @@ import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
@@ -107,6 +110,9 @@ import org.identityconnectors.framework.common.objects.filter.NotFilter;
 import org.identityconnectors.framework.common.objects.filter.OrFilter;
 import org.identityconnectors.framework.common.objects.filter.PresenceFilter;
 import org.identityconnectors.framework.common.objects.filter.StartsWithFilter;
+import org.identityconnectors.framework.common.serializer.BinaryObjectDeserializer;
+import org.identityconnectors.framework.common.serializer.BinaryObjectSerializer;
+import org.identityconnectors.framework.common.serializer.ObjectSerializerFactory;
 import org.identityconnectors.framework.common.serializer.SerializerUtil;
 import org.identityconnectors.framework.impl.api.APIConfigurationImpl;
 import org.identityconnectors.framework.impl.api.ConfigurationPropertiesImpl;
@@ -424,6 +430,10 @@ public class ObjectSerializationTests {
         v1.setMaxWait(3);
         v1.setMinEvictableIdleTimeMillis(4);
         v1.setMinIdle(5);
+        v1.setLockFreePool(true);
+        v1.setTimeBetweenEvictionRunsMillis(6);
+        v1.setValidateIdleTimeMillis(7);
+        v1.setWarmUp(true);
 
         ObjectPoolConfiguration v2 =
             (ObjectPoolConfiguration)cloneObject(v1);
@@ -435,6 +445,10 @@ public class ObjectSerializationTests {
         assertEquals(3, v2.getMaxWait());
         assertEquals(4, v2.getMinEvictableIdleTimeMillis());
         assertEquals(5, v2.getMinIdle());
+        assertTrue(v2.isLockFreePool());
+        assertEquals(6, v2.getTimeBetweenEvictionRunsMillis());
+        assertEquals(7, v2.getValidateIdleTimeMillis());
+        assertTrue(v2.isWarmUp());
     }
 
     @Test
@@ -1140,6 +1154,44 @@ public class ObjectSerializationTests {
         assertEquals("myuid", v2.getUid().getUidValue());
     }
 
+    @Test
+    public void testBinaryObjectStream() {
+        ConnectorObjectBuilder builder = new ConnectorObjectBuilder();
+        builder.setUid("foo");
+        builder.setName("fooToo");
+        for (int i = 0; i < 50; i++) {
+            builder.addAttribute("attr" + i, "value" + i, i);
+        }
+        ConnectorObject object = builder.build();
+        List<Object> objects = new ArrayList<Object>();
+        objects.add(object);
+        objects.add(null);
+        objects.add(CollectionUtil.newList("a", "b"));
+        objects.add(object);
+
+        ObjectSerializerFactory factory = ObjectSerializerFactory.getInstance();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xFF);
+        BinaryObjectSerializer serializer = factory.newBinarySerializer(out);
+        for (Object o : objects) {
+            serializer.writeObject(o);
+        }
+        serializer.close();
+        byte[] bytes = out.toByteArray();
+
+        // the buffer decoder reads the same objects as the stream decoder
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(1);
+        BinaryObjectDeserializer fromBuffer = factory.newBinaryDeserializer(buffer);
+        BinaryObjectDeserializer fromStream =
+                factory.newBinaryDeserializer(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+        for (Object o : objects) {
+            assertEquals(fromBuffer.readObject(), o);
+            assertEquals(fromStream.readObject(), o);
+        }
+        assertEquals(buffer.position(), 1);
+    }
+
     /**
      * Highly insecure method! Do not do this in production
      * code. This is only for test purposes
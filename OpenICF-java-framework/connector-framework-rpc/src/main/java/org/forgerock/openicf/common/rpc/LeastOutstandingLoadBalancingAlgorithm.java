@@ -0,0 +1,217 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.forgerock.openicf.common.rpc;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.ResultHandler;
+
+/**
+ * A least outstanding load balancing algorithm distributes
+ * {@link org.forgerock.openicf.common.rpc.RemoteRequest}s to the
+ * {@link RequestDistributor} expected to complete them the soonest.
+ * <p>
+ * The algorithm keeps, for every {@link RequestDistributor}, the number of
+ * requests waiting for their result and an average of the response time. For
+ * each request two {@link RequestDistributor}s are picked at random and the one
+ * with the lower product of the two is tried first, so a slow or busy server
+ * gets less new requests than the others while picking between two keeps the
+ * servers with equal load from being chosen all at once.
+ * <p>
+ * A slower response replaces the average at once, a faster one is weighted by
+ * the time since the previous response. Without new responses the average
+ * decays towards zero, so a server which was slow once gets a request again
+ * after a while and its average follows when it has recovered. The response
+ * time is taken when the first response arrives, the duration of a streamed
+ * search depends on the size of its result rather than on the server.
+ * <p>
+ * If a problem occurs that temporarily prevents connections from being obtained
+ * for the chosen {@link RequestDistributor}, then this algorithm automatically
+ * "fails over" to the next operational {@link RequestDistributor} in the list.
+ * If none of the {@link RequestDistributor} are operational then a {@code null}
+ * is returned to the client.
+ *
+ * @see RoundRobinLoadBalancingAlgorithm
+ */
+public class LeastOutstandingLoadBalancingAlgorithm<G extends RemoteConnectionGroup<G, H, P>, H extends RemoteConnectionHolder<G, H, P>, P extends RemoteConnectionContext<G, H, P>>
+        extends AbstractLoadBalancingAlgorithm<G, H, P> {
+
+    /**
+     * The default time in milliseconds in which the average response time of
+     * a {@link RequestDistributor} without new responses decays to {@code 1/e}.
+     */
+    public static final long DEFAULT_DECAY_TIME = 10000L;
+
+    private final Statistics[] statistics;
+
+    private static final class Statistics {
+
+        /**
+         * The time in nanoseconds in which the average response time decays
+         * to {@code 1/e}.
+         */
+        private final double decayTime;
+
+        private final AtomicInteger outstanding = new AtomicInteger(0);
+
+        /**
+         * The average of the response time in nanoseconds at the time of the
+         * last response.
+         */
+        private double responseTime = 0;
+
+        /**
+         * The {@link System#nanoTime()} of the last response, 0 until the
+         * first response.
+         */
+        private long timestamp = 0;
+
+        private Statistics(double decayTime) {
+            this.decayTime = decayTime;
+        }
+
+        private synchronized boolean isTimed() {
+            return 0 != timestamp;
+        }
+
+        private synchronized double getResponseTime(long now) {
+            return responseTime * getWeight(now);
+        }
+
+        private double getCost(boolean timed, long now) {
+            return timed ? (outstanding.get() + 1L) * getResponseTime(now) : outstanding.get();
+        }
+
+        private synchronized void complete(long now, long time) {
+            if (time > responseTime) {
+                responseTime = time;
+            } else {
+                double weight = getWeight(now);
+                responseTime = responseTime * weight + time * (1 - weight);
+            }
+            timestamp = now;
+        }
+
+        private double getWeight(long now) {
+            return Math.exp(-Math.max(now - timestamp, 0L) / decayTime);
+        }
+    }
+
+    public LeastOutstandingLoadBalancingAlgorithm(
+            final List<RequestDistributor<G, H, P>> requestDistributors) {
+        this(requestDistributors, DEFAULT_DECAY_TIME, TimeUnit.MILLISECONDS);
+    }
+
+    public LeastOutstandingLoadBalancingAlgorithm(
+            final List<RequestDistributor<G, H, P>> requestDistributors, long decayTime,
+            TimeUnit unit) {
+        super(requestDistributors);
+        final long decayNanos = Math.max(unit.toNanos(decayTime), 1L);
+        statistics = new Statistics[requestDistributors.size()];
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i] = new Statistics(decayNanos);
+        }
+    }
+
+    /**
+     * Returns the number of requests submitted to the {@link RequestDistributor}
+     * and waiting for their result.
+     */
+    public int getOutstandingRequests(int index) {
+        return statistics[index].outstanding.get();
+    }
+
+    /**
+     * Returns the average of the response time of the
+     * {@link RequestDistributor} in nanoseconds, decayed by the time since its
+     * last response.
+     */
+    public long getResponseTime(int index) {
+        return (long) statistics[index].getResponseTime(System.nanoTime());
+    }
+
+    protected <R extends RemoteRequest<V, E, G, H, P>, V, E extends Exception> R trySubmitRequest(
+            int initialIndex, RemoteRequestFactory<R, V, E, G, H, P> requestFactory) {
+        int index = initialIndex;
+        final int maxIndex = requestDistributors.size();
+        do {
+            final Statistics stats = statistics[index];
+            stats.outstanding.incrementAndGet();
+            final long start = System.nanoTime();
+            R result = null;
+            try {
+                result = requestDistributors.get(index).trySubmitRequest(requestFactory);
+            } finally {
+                final R request = result;
+                final Promise<V, E> promise = null != request ? request.getPromise() : null;
+                if (null == promise) {
+                    stats.outstanding.decrementAndGet();
+                } else {
+                    promise.thenOnResult(new ResultHandler<V>() {
+                        public void handleResult(V value) {
+                            long end = request.getFirstResponseTime();
+                            if (0 == end) {
+                                end = System.nanoTime();
+                            }
+                            stats.complete(end, end - start);
+                        }
+                    }).thenOnResultOrException(new Runnable() {
+                        public void run() {
+                            stats.outstanding.decrementAndGet();
+                        }
+                    });
+                }
+            }
+            if (null != result) {
+                return result;
+            }
+            index = (index + 1) % maxIndex;
+        } while (index != initialIndex);
+
+        /*
+         * All factories are offline so give up.
+         */
+        return null;
+    }
+
+    protected int getInitialConnectionFactoryIndex() {
+        final int maxSize = requestDistributors.size();
+        if (maxSize == 1) {
+            return 0;
+        }
+        final int first = ThreadLocalRandom.current().nextInt(maxSize);
+        int second = ThreadLocalRandom.current().nextInt(maxSize - 1);
+        if (second >= first) {
+            second++;
+        }
+        // Prefer the operational one, the other would only fail over
+        boolean firstOperational = requestDistributors.get(first).isOperational();
+        if (firstOperational != requestDistributors.get(second).isOperational()) {
+            return firstOperational ? first : second;
+        }
+        // Until both have responded only the waiting requests are compared
+        boolean timed = statistics[first].isTimed() && statistics[second].isTimed();
+        final long now = System.nanoTime();
+        return statistics[second].getCost(timed, now) < statistics[first].getCost(timed, now)
+                ? second
+                : first;
+    }
+}
@@ -33,6 +33,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -87,6 +88,13 @@ public abstract class RemoteConnectionGroup<G extends RemoteConnectionGroup<G, H
 
     private final AtomicInteger nextIndex = new AtomicInteger(-1);
 
+    /**
+     * The number of requests sent on a connection and waiting for their
+     * result. The connections without any are not in the map.
+     */
+    private final ConcurrentMap<H, Integer> outstandingRequests =
+            new ConcurrentHashMap<H, Integer>();
+
     public RemoteConnectionGroup(final String remoteSessionId) {
         this.remoteSessionId = remoteSessionId;
     }
@@ -97,10 +105,35 @@ public abstract class RemoteConnectionGroup<G extends RemoteConnectionGroup<G, H
 
     protected abstract P getRemoteConnectionContext();
 
+    /**
+     * Chooses the connection to try first.
+     * <p>
+     * Two connections are picked at random and the one with less requests
+     * waiting for their result is chosen, so a slow connection gets less new
+     * requests than the others. When no request is waiting the connections
+     * are chosen in turn.
+     */
     protected int getInitialConnectionFactoryIndex() {
-        if (webSockets.size() == 1) {
+        final int size = webSockets.size();
+        if (size == 1) {
             return 0;
         }
+        if (size > 1 && !outstandingRequests.isEmpty()) {
+            try {
+                final int first = ThreadLocalRandom.current().nextInt(size);
+                int second = ThreadLocalRandom.current().nextInt(size - 1);
+                if (second >= first) {
+                    second++;
+                }
+                final H firstConnection = webSockets.get(first).getSecond();
+                final H secondConnection = webSockets.get(second).getSecond();
+                return getOutstandingRequests(secondConnection) < getOutstandingRequests(firstConnection)
+                        ? second
+                        : first;
+            } catch (IndexOutOfBoundsException e) {
+                // A connection has been removed meanwhile
+            }
+        }
         int oldNextIndex;
         int newNextIndex;
         do {
@@ -168,6 +201,31 @@ public abstract class RemoteConnectionGroup<G extends RemoteConnectionGroup<G, H
         return result;
     }
 
+    protected int getOutstandingRequests(final H connection) {
+        final Integer count = outstandingRequests.get(connection);
+        return null != count ? count : 0;
+    }
+
+    private void incrementOutstandingRequests(final H connection) {
+        for (;;) {
+            final Integer count = outstandingRequests.putIfAbsent(connection, 1);
+            if (null == count || outstandingRequests.replace(connection, count, count + 1)) {
+                return;
+            }
+        }
+    }
+
+    private void decrementOutstandingRequests(final H connection) {
+        for (;;) {
+            final Integer count = outstandingRequests.get(connection);
+            if (null == count
+                    || (count <= 1 ? outstandingRequests.remove(connection, count)
+                            : outstandingRequests.replace(connection, count, count - 1))) {
+                return;
+            }
+        }
+    }
+
     protected long getNextRequestId() {
         long next = messageId.incrementAndGet();
         while (next == 0) {
@@ -203,7 +261,22 @@ public abstract class RemoteConnectionGroup<G extends RemoteConnectionGroup<G, H
 
         final R remoteRequest = allocateRequest(requestFactory);
         if (null != remoteRequest) {
-            Promise<V, E> result = trySendMessage(remoteRequest.getSendFunction());
+            final Function<H, Promise<V, E>, Exception> sendFunction =
+                    remoteRequest.getSendFunction();
+            Promise<V, E> result = trySendMessage(new Function<H, Promise<V, E>, Exception>() {
+                public Promise<V, E> apply(final H connection) throws Exception {
+                    final Promise<V, E> promise = sendFunction.apply(connection);
+                    if (null != promise) {
+                        incrementOutstandingRequests(connection);
+                        promise.thenOnResultOrException(new Runnable() {
+                            public void run() {
+                                decrementOutstandingRequests(connection);
+                            }
+                        });
+                    }
+                    return promise;
+                }
+            });
             if (null == result) {
                 remoteRequests.remove(remoteRequest.getRequestId());
                 return null;
@@ -295,6 +368,7 @@ public abstract class RemoteConnectionGroup<G extends RemoteConnectionGroup<G, H
             final long messageId, Object message) {
         RemoteRequest<?, ?, G, H, P> tmp = remoteRequests.get(messageId);
         if (null != tmp) {
+            tmp.responseReceived();
             tmp.handleIncomingMessage(sourceConnection, message);
         }
         return tmp;
@@ -50,6 +50,7 @@ public abstract class RemoteRequest<V, E extends Exception, G extends RemoteConn
     private final RemoteRequestFactory.CompletionCallback<V, E, G, H, P> completionCallback;
 
     private Long requestTime = null;
+    private volatile long firstResponseTime = 0;
     private PromiseImpl<V, E> promise = null;
     private final ReentrantLock lock = new ReentrantLock();
 
@@ -89,6 +90,20 @@ public abstract class RemoteRequest<V, E extends Exception, G extends RemoteConn
         return requestTime;
     }
 
+    /**
+     * Returns the {@link System#nanoTime()} when the first response of this
+     * request was received, or 0 if none was received yet.
+     */
+    public long getFirstResponseTime() {
+        return firstResponseTime;
+    }
+
+    void responseReceived() {
+        if (0 == firstResponseTime) {
+            firstResponseTime = System.nanoTime();
+        }
+    }
+
     public Promise<V, E> getPromise() {
         return promise;
     }
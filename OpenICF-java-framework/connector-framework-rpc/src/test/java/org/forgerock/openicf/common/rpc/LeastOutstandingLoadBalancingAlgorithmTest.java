@@ -0,0 +1,208 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.forgerock.openicf.common.rpc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openicf.common.rpc.impl.TestConnectionContext;
+import org.forgerock.openicf.common.rpc.impl.TestConnectionGroup;
+import org.forgerock.openicf.common.rpc.impl.TestMessage;
+import org.forgerock.openicf.common.rpc.impl.TestRequestFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LeastOutstandingLoadBalancingAlgorithmTest {
+
+    /**
+     * A connection which delivers every message at once, the responses are
+     * given to the group by the test.
+     */
+    private static final class Connection implements
+            RemoteConnectionHolder<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>> {
+
+        private final TestConnectionGroup<Connection> group;
+
+        private Connection(TestConnectionGroup<Connection> group) {
+            this.group = group;
+        }
+
+        public TestConnectionContext<Connection> getRemoteConnectionContext() {
+            return group.getRemoteConnectionContext();
+        }
+
+        public Future<?> sendBytes(byte[] data) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        public Future<?> sendString(String data) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        public void sendPing(byte[] applicationData) throws Exception {
+        }
+
+        public void sendPong(byte[] applicationData) throws Exception {
+        }
+
+        public void close() {
+        }
+    }
+
+    private final List<Connection> connections = new ArrayList<Connection>();
+
+    private TestConnectionGroup<Connection> newGroup(String name, boolean connected) {
+        TestConnectionGroup<Connection> group = new TestConnectionGroup<Connection>(name);
+        if (connected) {
+            Connection connection = new Connection(group);
+            connections.add(connection);
+            group.addConnection(connection);
+        }
+        return group;
+    }
+
+    @SafeVarargs
+    private static LeastOutstandingLoadBalancingAlgorithm<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>> newBalancer(
+            TestConnectionGroup<Connection>... groups) {
+        return newBalancer(LeastOutstandingLoadBalancingAlgorithm.DEFAULT_DECAY_TIME, groups);
+    }
+
+    @SafeVarargs
+    private static LeastOutstandingLoadBalancingAlgorithm<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>> newBalancer(
+            long decayTime, TestConnectionGroup<Connection>... groups) {
+        List<RequestDistributor<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>>> distributors =
+                new ArrayList<RequestDistributor<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>>>();
+        for (TestConnectionGroup<Connection> group : groups) {
+            distributors.add(group);
+        }
+        return new LeastOutstandingLoadBalancingAlgorithm<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>>(
+                distributors, decayTime, TimeUnit.MILLISECONDS);
+    }
+
+    private void submit(
+            LeastOutstandingLoadBalancingAlgorithm<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>> balancer,
+            int count) {
+        for (int i = 0; i < count; i++) {
+            Assert.assertNotNull(balancer.trySubmitRequest(new TestRequestFactory<Connection>(0)));
+        }
+    }
+
+    private void complete(TestConnectionGroup<Connection> group) {
+        for (Long requestId : new ArrayList<Long>(group.getRemoteRequests())) {
+            TestMessage message = new TestMessage();
+            message.response = "OK";
+            group.receiveRequestResponse(null, requestId, message);
+        }
+        Assert.assertTrue(group.getRemoteRequests().isEmpty());
+    }
+
+    @Test
+    public void testLeastOutstandingIsPreferred() throws Exception {
+        TestConnectionGroup<Connection> a = newGroup("a", true);
+        TestConnectionGroup<Connection> b = newGroup("b", true);
+        LeastOutstandingLoadBalancingAlgorithm<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>> balancer =
+                newBalancer(a, b);
+
+        submit(balancer, 10);
+        Assert.assertEquals(a.getRemoteRequests().size(), 5);
+        Assert.assertEquals(b.getRemoteRequests().size(), 5);
+        Assert.assertEquals(balancer.getOutstandingRequests(0), 5);
+
+        complete(a);
+        Assert.assertEquals(balancer.getOutstandingRequests(0), 0);
+        Assert.assertEquals(balancer.getOutstandingRequests(1), 5);
+        Assert.assertTrue(balancer.getResponseTime(0) > 0);
+        Assert.assertEquals(balancer.getResponseTime(1), 0);
+
+        // The requests go to a until both have the same number waiting
+        submit(balancer, 5);
+        Assert.assertEquals(a.getRemoteRequests().size(), 5);
+        Assert.assertEquals(b.getRemoteRequests().size(), 5);
+    }
+
+    @Test
+    public void testSlowDistributorGetsRequestsAgain() throws Exception {
+        TestConnectionGroup<Connection> a = newGroup("a", true);
+        TestConnectionGroup<Connection> b = newGroup("b", true);
+        LeastOutstandingLoadBalancingAlgorithm<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>> balancer =
+                newBalancer(100L, a, b);
+
+        submit(balancer, 2);
+        complete(b);
+        Thread.sleep(200);
+        complete(a);
+        Assert.assertTrue(balancer.getResponseTime(0) > balancer.getResponseTime(1));
+
+        submit(balancer, 5);
+        Assert.assertTrue(a.getRemoteRequests().isEmpty());
+        Assert.assertEquals(b.getRemoteRequests().size(), 5);
+        complete(b);
+
+        // Without new responses the response time of a decays until it is
+        // tried again
+        for (int i = 0; i < 100 && a.getRemoteRequests().isEmpty(); i++) {
+            Thread.sleep(50);
+            submit(balancer, 1);
+            complete(b);
+        }
+        Assert.assertEquals(a.getRemoteRequests().size(), 1);
+        complete(a);
+        Assert.assertTrue(balancer.getResponseTime(0) < TimeUnit.MILLISECONDS.toNanos(100));
+
+        // It has recovered so it shares the requests again
+        submit(balancer, 10);
+        Assert.assertFalse(a.getRemoteRequests().isEmpty());
+        Assert.assertFalse(b.getRemoteRequests().isEmpty());
+    }
+
+    @Test
+    public void testStreamedRequestIsTimedByFirstResponse() throws Exception {
+        TestConnectionGroup<Connection> a = newGroup("a", true);
+        LeastOutstandingLoadBalancingAlgorithm<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>> balancer =
+                newBalancer(a);
+
+        submit(balancer, 1);
+        for (Long requestId : a.getRemoteRequests()) {
+            TestMessage message = new TestMessage();
+            message.message = "first";
+            a.receiveRequestResponse(connections.get(0), requestId, message);
+        }
+        Thread.sleep(200);
+        complete(a);
+        Assert.assertTrue(balancer.getResponseTime(0) > 0);
+        Assert.assertTrue(balancer.getResponseTime(0) < TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void testFailover() throws Exception {
+        TestConnectionGroup<Connection> offline = newGroup("offline", false);
+        TestConnectionGroup<Connection> online = newGroup("online", true);
+        LeastOutstandingLoadBalancingAlgorithm<TestConnectionGroup<Connection>, Connection, TestConnectionContext<Connection>> balancer =
+                newBalancer(offline, online);
+
+        submit(balancer, 4);
+        Assert.assertEquals(online.getRemoteRequests().size(), 4);
+        Assert.assertEquals(balancer.getOutstandingRequests(0), 0);
+        Assert.assertEquals(balancer.getOutstandingRequests(1), 4);
+
+        Assert.assertNull(newBalancer(offline).trySubmitRequest(
+                new TestRequestFactory<Connection>(0)));
+    }
+}
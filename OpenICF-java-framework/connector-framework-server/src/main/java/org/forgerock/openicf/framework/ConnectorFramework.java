@@ -26,6 +26,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -82,11 +83,65 @@ public class ConnectorFramework implements Closeable {
 
     private RemoteConnectionInfoManagerFactory remoteConnectionInfoManagerFactory = null;
 
+    public static final int DEFAULT_MAX_CONCURRENT_OPERATIONS = 256;
+
+    public static final int DEFAULT_MAX_CONCURRENT_OPERATIONS_PER_CONNECTOR = 192;
+
+    public static final int DEFAULT_MAX_QUEUED_OPERATIONS = 4096;
+
     private final ExecutorService messageExecutor = Executors.newCachedThreadPool(Utils.newThreadFactory(null,
             "OpenICF ConnectorFramework Message executor %d", false));
 
+    /**
+     * Runs the operations when they run on virtual threads, null otherwise.
+     */
+    private final ExecutorService operationExecutor;
+
+    private final MessageScheduler operationScheduler;
+
     public ConnectorFramework(final ClassLoader defaultConnectorBundleParentClassLoader) {
+        this(defaultConnectorBundleParentClassLoader, DEFAULT_MAX_CONCURRENT_OPERATIONS,
+                DEFAULT_MAX_CONCURRENT_OPERATIONS_PER_CONNECTOR, DEFAULT_MAX_QUEUED_OPERATIONS,
+                false);
+    }
+
+    /**
+     * Creates a ConnectorFramework.
+     *
+     * @param defaultConnectorBundleParentClassLoader
+     *            the parent class loader of the connector bundles.
+     * @param maxConcurrentOperations
+     *            the maximum number of remote operations running at a time.
+     * @param maxConcurrentOperationsPerConnector
+     *            the maximum number of remote operations of one connector
+     *            running at a time.
+     * @param maxQueuedOperations
+     *            the maximum number of remote operations waiting to run, more
+     *            are rejected.
+     * @param virtualThreads
+     *            run the remote operations on virtual threads if the JVM
+     *            supports them.
+     */
+    public ConnectorFramework(final ClassLoader defaultConnectorBundleParentClassLoader,
+            int maxConcurrentOperations, int maxConcurrentOperationsPerConnector,
+            int maxQueuedOperations, boolean virtualThreads) {
         this.defaultConnectorBundleParentClassLoader = defaultConnectorBundleParentClassLoader;
+        operationExecutor = virtualThreads ? newVirtualThreadExecutor() : null;
+        operationScheduler =
+                new MessageScheduler(null != operationExecutor ? operationExecutor
+                        : messageExecutor, maxConcurrentOperations,
+                        maxConcurrentOperationsPerConnector, maxQueuedOperations);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // Java 21+
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (Exception e) {
+            logger.info("Virtual threads are not supported, the operations run on platform threads");
+            return null;
+        }
     }
 
     public ConnectionManagerConfig getConnectionManagerConfig() {
@@ -135,6 +190,9 @@ public class ConnectorFramework implements Closeable {
             scheduler.shutdown();
 
             messageExecutor.shutdown();
+            if (null != operationExecutor) {
+                operationExecutor.shutdown();
+            }
 
             for (ConnectorFacade facade : MANAGED_FACADE_CACHE.values()) {
                 if (facade instanceof LocalConnectorFacadeImpl) {
@@ -313,6 +371,25 @@ public class ConnectorFramework implements Closeable {
         return messageExecutor;
     }
 
+    /**
+     * Runs a remote operation once the operations of the other connectors had
+     * their turn.
+     *
+     * @param connectorName
+     *            the name of the connector of the operation.
+     * @param operation
+     *            the operation.
+     * @throws RejectedExecutionException
+     *             if too many operations are waiting.
+     */
+    public void executeOperation(String connectorName, Runnable operation) {
+        operationScheduler.execute(connectorName, operation);
+    }
+
+    public MessageScheduler getOperationScheduler() {
+        return operationScheduler;
+    }
+
     // ------ LocalConnectorFramework Implementation Start ------
 
     private final ConcurrentMap<ClassLoader, AsyncLocalConnectorInfoManager> localConnectorInfoManagerCache =
@@ -20,12 +20,15 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 
 package org.forgerock.openicf.framework;
 
 import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import org.forgerock.openicf.framework.client.ConnectionManagerConfig;
@@ -51,12 +54,36 @@ public class ConnectorFrameworkFactory extends ReferenceCountedObject<ConnectorF
             "org.forgerock.openicf.framework.client.ConnectionManager";
     protected static final String ERROR_MESSAGE = "ConnectorFramework has been acquired";
 
+    private static final String OPERATION_WEIGHT_PREFIX = "OperationWeight.";
+
     public void initialize(Properties properties) {
         if (isNull()) {
             String connectionManagerFactoryClass = properties.getProperty("ClientConnectionManagerFactoryClass");
             if (StringUtil.isBlank(connectionManagerFactoryClass)){
                 setClientConnectionManagerFactoryClass(connectionManagerFactoryClass);
             }
+            String value = properties.getProperty("MaxConcurrentOperations");
+            if (StringUtil.isNotBlank(value)) {
+                setMaxConcurrentOperations(Integer.parseInt(value.trim()));
+            }
+            value = properties.getProperty("MaxConcurrentOperationsPerConnector");
+            if (StringUtil.isNotBlank(value)) {
+                setMaxConcurrentOperationsPerConnector(Integer.parseInt(value.trim()));
+            }
+            value = properties.getProperty("MaxQueuedOperations");
+            if (StringUtil.isNotBlank(value)) {
+                setMaxQueuedOperations(Integer.parseInt(value.trim()));
+            }
+            value = properties.getProperty("VirtualThreads");
+            if (StringUtil.isNotBlank(value)) {
+                setVirtualThreads(Boolean.parseBoolean(value.trim()));
+            }
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith(OPERATION_WEIGHT_PREFIX)) {
+                    setOperationWeight(name.substring(OPERATION_WEIGHT_PREFIX.length()), Integer
+                            .parseInt(properties.getProperty(name).trim()));
+                }
+            }
         } else {
             throw new IllegalStateException(ERROR_MESSAGE);
         }
@@ -114,6 +141,81 @@ public class ConnectorFrameworkFactory extends ReferenceCountedObject<ConnectorF
                 : clientConnectionManagerFactoryClass;
     }
 
+    private int maxConcurrentOperations = ConnectorFramework.DEFAULT_MAX_CONCURRENT_OPERATIONS;
+
+    private int maxConcurrentOperationsPerConnector =
+            ConnectorFramework.DEFAULT_MAX_CONCURRENT_OPERATIONS_PER_CONNECTOR;
+
+    private int maxQueuedOperations = ConnectorFramework.DEFAULT_MAX_QUEUED_OPERATIONS;
+
+    private boolean virtualThreads = false;
+
+    private final Map<String, Integer> operationWeights = new HashMap<String, Integer>();
+
+    /**
+     * Sets the maximum number of remote operations running at a time.
+     */
+    public ConnectorFrameworkFactory setMaxConcurrentOperations(int maxConcurrentOperations) {
+        if (isNull()) {
+            this.maxConcurrentOperations = maxConcurrentOperations;
+        } else {
+            throw new IllegalStateException(ERROR_MESSAGE);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of remote operations of one connector running at
+     * a time, so the slow operations of a connector do not hold up the others.
+     */
+    public ConnectorFrameworkFactory setMaxConcurrentOperationsPerConnector(
+            int maxConcurrentOperationsPerConnector) {
+        if (isNull()) {
+            this.maxConcurrentOperationsPerConnector = maxConcurrentOperationsPerConnector;
+        } else {
+            throw new IllegalStateException(ERROR_MESSAGE);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of remote operations waiting to run, more are
+     * rejected.
+     */
+    public ConnectorFrameworkFactory setMaxQueuedOperations(int maxQueuedOperations) {
+        if (isNull()) {
+            this.maxQueuedOperations = maxQueuedOperations;
+        } else {
+            throw new IllegalStateException(ERROR_MESSAGE);
+        }
+        return this;
+    }
+
+    /**
+     * Runs the remote operations on virtual threads if the JVM supports them.
+     */
+    public ConnectorFrameworkFactory setVirtualThreads(boolean virtualThreads) {
+        if (isNull()) {
+            this.virtualThreads = virtualThreads;
+        } else {
+            throw new IllegalStateException(ERROR_MESSAGE);
+        }
+        return this;
+    }
+
+    /**
+     * Sets how many waiting operations of the connector start in one turn, 1
+     * by default.
+     */
+    public ConnectorFrameworkFactory setOperationWeight(String connectorName, int weight) {
+        if (isNull()) {
+            operationWeights.put(connectorName, weight);
+        } else {
+            throw new IllegalStateException(ERROR_MESSAGE);
+        }
+        return this;
+    }
+
     protected void destroyInstance(ConnectorFramework instance) {
         try {
             instance.close();
@@ -123,7 +225,14 @@ public class ConnectorFrameworkFactory extends ReferenceCountedObject<ConnectorF
     }
 
     protected ConnectorFramework newInstance() {
-        return new ConnectorFramework(getDefaultConnectorBundleParentClassLoader());
+        ConnectorFramework framework =
+                new ConnectorFramework(getDefaultConnectorBundleParentClassLoader(),
+                        maxConcurrentOperations, maxConcurrentOperationsPerConnector,
+                        maxQueuedOperations, virtualThreads);
+        for (Map.Entry<String, Integer> entry : operationWeights.entrySet()) {
+            framework.getOperationScheduler().setWeight(entry.getKey(), entry.getValue());
+        }
+        return framework;
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,251 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.framework;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.identityconnectors.common.logging.Log;
+
+/**
+ * Runs the tasks of several queues on an {@link Executor} with a bound on the
+ * number of tasks running at a time.
+ * <p>
+ * The queues with waiting tasks take turns, a queue runs as many tasks as its
+ * weight in one turn, so a burst of tasks in one queue does not delay the
+ * tasks of the others by more than a turn. A queue runs at most a given
+ * number of tasks at a time, which keeps some room for the other queues when
+ * its tasks run for long. A task is rejected when the given number of tasks
+ * are already waiting.
+ */
+public class MessageScheduler {
+
+    private static final Log logger = Log.getLog(MessageScheduler.class);
+
+    private final Executor executor;
+    private final int maxConcurrency;
+    private final int maxConcurrencyPerQueue;
+    private final int maxQueued;
+
+    private final ConcurrentMap<Object, Integer> weights = new ConcurrentHashMap<Object, Integer>();
+
+    // Guarded by this
+    private final Map<Object, TaskQueue> queues = new HashMap<Object, TaskQueue>();
+    private final ArrayDeque<TaskQueue> ready = new ArrayDeque<TaskQueue>();
+    private int running = 0;
+    private int queued = 0;
+
+    private final class TaskQueue {
+
+        private final Object key;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<Runnable>();
+        private final int weight;
+        private int credits;
+        private int running = 0;
+        private boolean isReady = false;
+
+        private TaskQueue(Object key, int weight) {
+            this.key = key;
+            this.weight = weight;
+            this.credits = weight;
+        }
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param executor
+     *            the executor running the tasks.
+     * @param maxConcurrency
+     *            the maximum number of tasks running at a time.
+     * @param maxConcurrencyPerQueue
+     *            the maximum number of tasks of one queue running at a time.
+     * @param maxQueued
+     *            the maximum number of tasks waiting to run.
+     */
+    public MessageScheduler(Executor executor, int maxConcurrency, int maxConcurrencyPerQueue,
+            int maxQueued) {
+        if (maxConcurrency < 1 || maxConcurrencyPerQueue < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("Invalid MessageScheduler limits");
+        }
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.maxConcurrencyPerQueue = Math.min(maxConcurrencyPerQueue, maxConcurrency);
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Sets the number of tasks the queue runs in one turn, 1 by default. It
+     * applies to the tasks queued once the queue is empty.
+     */
+    public void setWeight(Object key, int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Weight must be positive");
+        }
+        weights.put(key, weight);
+    }
+
+    /**
+     * Queues a task.
+     *
+     * @param key
+     *            the queue of the task.
+     * @param task
+     *            the task.
+     * @throws RejectedExecutionException
+     *             if too many tasks are waiting.
+     */
+    public void execute(final Object key, final Runnable task) {
+        final List<Runnable> started;
+        boolean rejected = false;
+        synchronized (this) {
+            TaskQueue queue = queues.get(key);
+            if (null == queue) {
+                Integer weight = weights.get(key);
+                queue = new TaskQueue(key, null != weight ? weight : 1);
+                queues.put(key, queue);
+            }
+            queue.tasks.add(task);
+            queued++;
+            if (!queue.isReady && queue.running < maxConcurrencyPerQueue) {
+                queue.isReady = true;
+                ready.add(queue);
+            }
+            started = dispatch();
+            if (queued > maxQueued && queue.tasks.peekLast() == task) {
+                // The task has to wait but the queues are full
+                queue.tasks.pollLast();
+                queued--;
+                if (queue.tasks.isEmpty()) {
+                    if (queue.isReady) {
+                        queue.isReady = false;
+                        ready.remove(queue);
+                    }
+                    if (queue.running == 0) {
+                        queues.remove(key);
+                    }
+                }
+                rejected = true;
+            }
+        }
+        start(started);
+        if (rejected) {
+            throw new RejectedExecutionException("Too many operations are waiting");
+        }
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    /*
+     * Takes the tasks which may start now, in turn from the ready queues.
+     */
+    private List<Runnable> dispatch() {
+        List<Runnable> started = null;
+        while (running < maxConcurrency && !ready.isEmpty()) {
+            final TaskQueue queue = ready.peek();
+            final Runnable task = queue.tasks.poll();
+            queued--;
+            running++;
+            queue.running++;
+            queue.credits--;
+            if (queue.tasks.isEmpty() || queue.running >= maxConcurrencyPerQueue) {
+                ready.poll();
+                queue.isReady = false;
+                queue.credits = queue.weight;
+            } else if (queue.credits <= 0) {
+                // End of the turn
+                ready.add(ready.poll());
+                queue.credits = queue.weight;
+            }
+            if (null == started) {
+                started = new ArrayList<Runnable>();
+            }
+            started.add(new Task(queue, task));
+        }
+        return started;
+    }
+
+    private void start(List<Runnable> started) {
+        if (null != started) {
+            for (Runnable task : started) {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    // The executor is shut down, the waiting tasks are not
+                    // started either.
+                    logger.warn(e, "Failed to start operation");
+                    synchronized (this) {
+                        ((Task) task).release();
+                    }
+                }
+            }
+        }
+    }
+
+    private final class Task implements Runnable {
+
+        private final TaskQueue queue;
+        private final Runnable task;
+
+        private Task(TaskQueue queue, Runnable task) {
+            this.queue = queue;
+            this.task = task;
+        }
+
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                done();
+            }
+        }
+
+        private void done() {
+            final List<Runnable> started;
+            synchronized (MessageScheduler.this) {
+                release();
+                started = dispatch();
+            }
+            start(started);
+        }
+
+        private void release() {
+            running--;
+            queue.running--;
+            if (queue.tasks.isEmpty()) {
+                if (queue.running == 0) {
+                    queues.remove(queue.key);
+                }
+            } else if (!queue.isReady) {
+                queue.isReady = true;
+                ready.add(queue);
+            }
+        }
+    }
+}
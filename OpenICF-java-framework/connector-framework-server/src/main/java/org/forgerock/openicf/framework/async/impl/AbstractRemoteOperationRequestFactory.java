@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 
 package org.forgerock.openicf.framework.async.impl;
@@ -66,10 +67,10 @@ public abstract class AbstractRemoteOperationRequestFactory<V, R extends RemoteO
 
             final OperationMessages.OperationRequest.Builder operationBuilder =
                     createOperationRequest(context);
-            operationBuilder.setConnectorKey(createConnectorKey()).setConnectorFacadeKey(facadeKey)
-                    .setLocale(
-                            MessagesUtil.serializeMessage(CurrentLocale.get(),
-                                    CommonObjectMessages.Locale.class));
+            operationBuilder.setConnectorKey(createConnectorKey()).setLocale(
+                    MessagesUtil.serializeMessage(CurrentLocale.get(),
+                            CommonObjectMessages.Locale.class));
+            context.getRemoteConnectionGroup().setConnectorFacadeKey(operationBuilder, facadeKey);
             return RPCMessages.RPCRequest.newBuilder().setOperationRequest(operationBuilder);
         } else {
             return null;
@@ -93,6 +94,11 @@ public abstract class AbstractRemoteOperationRequestFactory<V, R extends RemoteO
 
         private final RPCMessages.RPCRequest.Builder request;
 
+        /**
+         * Set until the first response tells the state of the configuration id.
+         */
+        private volatile boolean checkConnectorFacadeId;
+
         public AbstractRemoteOperationRequest(
                 RemoteOperationContext context,
                 long requestId,
@@ -100,6 +106,34 @@ public abstract class AbstractRemoteOperationRequestFactory<V, R extends RemoteO
                 RPCMessages.RPCRequest.Builder requestBuilder) {
             super(context, requestId, completionCallback);
             request = requestBuilder;
+            checkConnectorFacadeId =
+                    null != requestBuilder
+                            && requestBuilder.hasOperationRequest()
+                            && !requestBuilder.getOperationRequestOrBuilder()
+                                    .getConnectorFacadeId().isEmpty();
+        }
+
+        public void handleIncomingMessage(WebSocketConnectionHolder sourceConnection,
+                Object message) {
+            if (checkConnectorFacadeId) {
+                checkConnectorFacadeId = false;
+                if (getConnectionContext().getRemoteConnectionGroup()
+                        .receiveConnectorFacadeKeyResponse(request.getOperationRequestBuilder(),
+                                message)) {
+                    // The request now carries the key, its response registers it
+                    checkConnectorFacadeId = true;
+                    try {
+                        trySendBytes(RPCMessages.RemoteMessage.newBuilder().setMessageId(
+                                getRequestId()).setRequest(request).build().toByteArray());
+                        return;
+                    } catch (RuntimeException e) {
+                        logger.ok(e, "Failed to send request {0} with the connectorFacadeKey",
+                                getRequestId());
+                        checkConnectorFacadeId = false;
+                    }
+                }
+            }
+            super.handleIncomingMessage(sourceConnection, message);
         }
 
         protected abstract M getOperationResponseMessages(
@@ -0,0 +1,118 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.forgerock.openicf.framework.async.impl;
+
+import org.forgerock.openicf.framework.remote.rpc.RemoteOperationContext;
+
+/**
+ * Credit based flow control of the results streamed by a remote search or
+ * sync.
+ * <p>
+ * The client grants the initial {@link #WINDOW} with the request and grants
+ * more with {@code CreditOpRequest}s as the application consumes the results.
+ * The server takes one credit for each result and blocks the results handler
+ * of the connector while it has none, so a slow consumer keeps the buffers on
+ * both sides bounded.
+ *
+ * @since 2.1
+ */
+final class ResultCredits {
+
+    /**
+     * Number of results the client accepts before it grants more, flow
+     * control is disabled if it is not positive.
+     */
+    static final int WINDOW = Integer.getInteger("openicf.remote.resultWindow", 1000);
+
+    private final boolean unlimited;
+
+    private long available;
+
+    private boolean closed = false;
+
+    /**
+     * Creates the credits granted by the request.
+     *
+     * @param initial
+     *            the initial credits, no limit if it is not positive.
+     */
+    ResultCredits(long initial) {
+        unlimited = initial <= 0;
+        available = initial;
+    }
+
+    /**
+     * Returns the initial credits to send with a request on the connection,
+     * 0 if the remote peer does not support flow control.
+     */
+    static long initialCredits(final RemoteOperationContext context) {
+        return WINDOW > 0 && context.getRemoteConnectionGroup().isFlowControl() ? WINDOW : 0;
+    }
+
+    /**
+     * Takes a credit if one is available.
+     */
+    synchronized boolean tryAcquire() {
+        if (unlimited) {
+            return true;
+        } else if (available > 0) {
+            available--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes a credit, waits until one is granted.
+     *
+     * @return false if the credits were closed or the thread was interrupted
+     *         while waiting.
+     */
+    synchronized boolean acquire() {
+        if (unlimited) {
+            return !closed;
+        }
+        try {
+            while (available <= 0 && !closed) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (closed) {
+            return false;
+        }
+        available--;
+        return true;
+    }
+
+    synchronized void grant(long credits) {
+        if (credits > 0 && !unlimited) {
+            available += credits;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Releases the waiting thread, called when the operation is cancelled.
+     */
+    synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+}
@@ -20,14 +20,26 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 
 package org.forgerock.openicf.framework.async.impl;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.openicf.common.protobuf.CommonObjectMessages;
+import org.forgerock.openicf.common.protobuf.ConnectorObjects;
+import org.forgerock.openicf.common.protobuf.FilterMessages;
 import org.forgerock.openicf.common.protobuf.OperationMessages;
 import org.forgerock.openicf.common.protobuf.OperationMessages.OperationRequest;
 import org.forgerock.openicf.common.protobuf.OperationMessages.SearchOpRequest;
@@ -60,6 +72,37 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
 
     private static final Log logger = Log.getLog(SearchAsyncApiOpImpl.class);
 
+    /**
+     * Maximum number of results sent in one {@link SearchOpResponse}, batching
+     * is disabled if it is less than 2.
+     */
+    static final int BATCH_MAX_COUNT = Integer.getInteger("openicf.search.batchMaxCount", 100);
+
+    /**
+     * A batch is sent once the encoded results reach this size in bytes.
+     */
+    static final int BATCH_MAX_BYTES = Integer.getInteger("openicf.search.batchMaxBytes",
+            64 * 1024);
+
+    /**
+     * Maximum time in milliseconds a result may wait in a batch, a slow
+     * connector does not hold back the results it already returned.
+     */
+    static final long BATCH_LINGER_MILLIS = Long.getLong("openicf.search.batchLingerMillis", 20);
+
+    /**
+     * Single daemon thread timing the batches which waited too long, the
+     * batches are sent on the executor of the operation.
+     */
+    private static final ScheduledExecutorService LINGER_SCHEDULER = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "OpenICF Search Result Batch");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
     public SearchAsyncApiOpImpl(
             RequestDistributor<WebSocketConnectionGroup, WebSocketConnectionHolder, RemoteOperationContext> remoteConnection,
             org.identityconnectors.framework.api.ConnectorKey connectorKey,
@@ -77,39 +120,75 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
         }
         Assertions.nullCheck(handler, "handler");
 
-        SearchOpRequest.Builder requestBuilder =
-                SearchOpRequest.newBuilder().setObjectClass(objectClass.getObjectClassValue());
-        if (filter != null) {
-            requestBuilder.setFilter(MessagesUtil.serializeLegacy(filter));
-        }
-        if (options != null) {
-            requestBuilder.setOptions(MessagesUtil.serializeLegacy(options));
-        }
-
         InternalRequest request =
                 getRemoteConnection().trySubmitRequest(
                         new InternalRequestFactory(getConnectorKey(), getFacadeKeyFunction(),
-                                OperationRequest.newBuilder().setSearchOpRequest(requestBuilder),
-                                handler, getTimeout()));
+                                objectClass, filter, options, handler, getTimeout()));
         if (null != request) {
             return asyncTimeout(request.process());
         }
         throw FAILED_EXCEPTION;
     }
 
+    /**
+     * Creates the request for the connection it is sent to, the filter and
+     * the options are encoded natively if the remote peer supports it and
+     * they can be encoded natively.
+     */
+    static SearchOpRequest.Builder createSearchOpRequest(final ObjectClass objectClass,
+            final Filter filter, final OperationOptions options, final boolean nativeEncoding) {
+        SearchOpRequest.Builder requestBuilder =
+                SearchOpRequest.newBuilder().setObjectClass(objectClass.getObjectClassValue());
+        if (filter != null) {
+            FilterMessages.FilterUnionMessage.Builder nativeFilter = null;
+            if (nativeEncoding) {
+                try {
+                    nativeFilter = MessagesUtil.fromFilter(filter);
+                } catch (UnsupportedOperationException e) {
+                    logger.ok("Filter is sent with legacy encoding: {0}", e.getMessage());
+                }
+            }
+            if (null != nativeFilter) {
+                requestBuilder.setNativeFilter(nativeFilter);
+            } else {
+                requestBuilder.setFilter(MessagesUtil.serializeLegacy(filter));
+            }
+        }
+        if (options != null) {
+            ConnectorObjects.OperationOptionsMessage.Builder nativeOptions = null;
+            if (nativeEncoding) {
+                try {
+                    nativeOptions = MessagesUtil.fromOperationOptions(options);
+                } catch (UnsupportedOperationException e) {
+                    logger.ok("Options are sent with legacy encoding: {0}", e.getMessage());
+                }
+            }
+            if (null != nativeOptions) {
+                requestBuilder.setNativeOptions(nativeOptions);
+            } else {
+                requestBuilder.setOptions(MessagesUtil.serializeLegacy(options));
+            }
+        }
+        return requestBuilder;
+    }
+
     private static class InternalRequestFactory extends
             AbstractRemoteOperationRequestFactory<SearchResult, InternalRequest> {
-        private final OperationRequest.Builder operationRequest;
+        private final ObjectClass objectClass;
+        private final Filter filter;
+        private final OperationOptions options;
         private final ResultsHandler handler;
         private final long timeout;
 
         public InternalRequestFactory(
                 final org.identityconnectors.framework.api.ConnectorKey connectorKey,
                 final Function<RemoteOperationContext, ByteString, RuntimeException> facadeKeyFunction,
-                final OperationRequest.Builder operationRequest, final ResultsHandler handler,
-                long timeout) {
+                final ObjectClass objectClass, final Filter filter,
+                final OperationOptions options, final ResultsHandler handler, long timeout) {
             super(connectorKey, facadeKeyFunction);
-            this.operationRequest = operationRequest;
+            this.objectClass = objectClass;
+            this.filter = filter;
+            this.options = options;
             this.handler = handler;
             this.timeout = timeout;
         }
@@ -123,7 +202,7 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
             RPCMessages.RPCRequest.Builder builder = createRPCRequest(context);
             if (null != builder) {
                 return new InternalRequest(context, requestId, completionCallback, builder,
-                        handler, timeout);
+                        handler, timeout, ResultCredits.initialCredits(context) > 0);
             } else {
                 return null;
             }
@@ -131,7 +210,10 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
 
         protected OperationRequest.Builder createOperationRequest(
                 RemoteOperationContext remoteContext) {
-            return operationRequest;
+            return OperationRequest.newBuilder().setSearchOpRequest(
+                    createSearchOpRequest(objectClass, filter, options,
+                            remoteContext.getRemoteConnectionGroup().isNativeEncoding())
+                            .setCredits(ResultCredits.initialCredits(remoteContext)));
         }
     }
 
@@ -141,19 +223,23 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
 
         private final ResultBuffer<ConnectorObject, SearchResult> resultBuffer;
         private int remaining = -1;
+        private final boolean flowControl;
+        private int consumed = 0;
 
         public InternalRequest(
                 RemoteOperationContext context,
                 long requestId,
                 RemoteRequestFactory.CompletionCallback<SearchResult, RuntimeException, WebSocketConnectionGroup, WebSocketConnectionHolder, RemoteOperationContext> completionCallback,
                 RPCMessages.RPCRequest.Builder requestBuilder, final ResultsHandler handler,
-                long timeout) {
+                long timeout, boolean flowControl) {
             super(context, requestId, completionCallback, requestBuilder);
+            this.flowControl = flowControl;
             resultBuffer = new ResultBuffer<ConnectorObject, SearchResult>(timeout) {
                 protected boolean handle(Object result) {
                     if (result instanceof ConnectorObject) {
                         try {
                             if (handler.handle((ConnectorObject) result)) {
+                                consumed();
                                 return true;
                             } else {
                                 getPromise().cancel(true);
@@ -182,6 +268,18 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
             };
         }
 
+        /**
+         * Grants the credits of the consumed results once half of the window
+         * is consumed, the server never waits while the application has
+         * results to process.
+         */
+        private void consumed() {
+            if (flowControl && ++consumed >= Math.max(1, ResultCredits.WINDOW / 2)) {
+                tryGrantCredits(consumed);
+                consumed = 0;
+            }
+        }
+
         public Promise<SearchResult, RuntimeException> process() {
             // Use the application thread to process results synchronously
             try {
@@ -238,7 +336,24 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
 
         protected void handleOperationResponseMessages(WebSocketConnectionHolder sourceConnection,
                 SearchOpResponse message) {
-            if (message.hasConnectorObject()) {
+            if (message.getNativeConnectorObjectsCount() > 0) {
+                long sequence = message.getSequence();
+                for (ConnectorObjects.ConnectorObjectMessage object : message
+                        .getNativeConnectorObjectsList()) {
+                    resultBuffer.receiveNext(sequence++, MessagesUtil.deserializeMessage(object,
+                            ConnectorObject.class));
+                }
+            } else if (message.getConnectorObjectsCount() > 0) {
+                long sequence = message.getSequence();
+                for (CommonObjectMessages.ConnectorObject object : message
+                        .getConnectorObjectsList()) {
+                    resultBuffer.receiveNext(sequence++, MessagesUtil.deserializeMessage(object,
+                            ConnectorObject.class));
+                }
+            } else if (message.hasNativeConnectorObject()) {
+                resultBuffer.receiveNext(message.getSequence(), MessagesUtil.deserializeMessage(
+                        message.getNativeConnectorObject(), ConnectorObject.class));
+            } else if (message.hasConnectorObject()) {
                 resultBuffer.receiveNext(message.getSequence(), MessagesUtil.deserializeMessage(
                         message.getConnectorObject(), ConnectorObject.class));
             } else if (message.hasResult()) {
@@ -256,8 +371,8 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
 
     public static AbstractLocalOperationProcessor<SearchOpResponse.Builder, OperationMessages.SearchOpRequest> createProcessor(
             long requestId, WebSocketConnectionHolder socket,
-            OperationMessages.SearchOpRequest message) {
-        return new InternalLocalOperationProcessor(requestId, socket, message);
+            OperationMessages.SearchOpRequest message, Executor executor) {
+        return new InternalLocalOperationProcessor(requestId, socket, message, executor);
     }
 
     private static class InternalLocalOperationProcessor
@@ -266,10 +381,23 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
 
         private final AtomicBoolean doContinue = new AtomicBoolean(Boolean.TRUE);
         final AtomicLong sequence = new AtomicLong(0);
+        private final ResultCredits credits;
+        private final Executor executor;
 
         protected InternalLocalOperationProcessor(long requestId, WebSocketConnectionHolder socket,
-                OperationMessages.SearchOpRequest message) {
+                OperationMessages.SearchOpRequest message, Executor executor) {
             super(requestId, socket, message);
+            credits = new ResultCredits(message.getCredits());
+            this.executor = executor;
+        }
+
+        public void handleIncomingMessage(WebSocketConnectionHolder sourceConnection,
+                Object message) {
+            if (message instanceof RPCMessages.CreditOpRequest) {
+                credits.grant(((RPCMessages.CreditOpRequest) message).getCredits());
+            } else {
+                super.handleIncomingMessage(sourceConnection, message);
+            }
         }
 
         protected RPCMessages.RPCResponse.Builder createOperationResponse(
@@ -283,39 +411,80 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
 
             final ObjectClass objectClass = new ObjectClass(requestMessage.getObjectClass());
             Filter filter = null;
-            if (!requestMessage.getFilter().isEmpty()) {
+            if (requestMessage.hasNativeFilter()) {
+                filter = MessagesUtil.toFilter(requestMessage.getNativeFilter());
+            } else if (!requestMessage.getFilter().isEmpty()) {
                 filter = MessagesUtil.deserializeLegacy(requestMessage.getFilter());
             }
 
             OperationOptions operationOptions = null;
-            if (!requestMessage.getOptions().isEmpty()) {
+            if (requestMessage.hasNativeOptions()) {
+                operationOptions = MessagesUtil.toOperationOptions(requestMessage.getNativeOptions());
+            } else if (!requestMessage.getOptions().isEmpty()) {
                 operationOptions = MessagesUtil.deserializeLegacy(requestMessage.getOptions());
             }
-            final SearchResult result =
-                    connectorFacade.search(objectClass, filter, new ResultsHandler() {
-                        public boolean handle(ConnectorObject connectorObject) {
-
-                            if (doContinue.get() && null != connectorObject) {
-                                SearchOpResponse.Builder result =
-                                        SearchOpResponse
-                                                .newBuilder()
-                                                .setConnectorObject(
-                                                        MessagesUtil
-                                                                .serializeMessage(
-                                                                        connectorObject,
-                                                                        CommonObjectMessages.ConnectorObject.class))
-                                                .setSequence(sequence.incrementAndGet());
-
-                                if (tryHandleResult(result)) {
-                                    logger.ok("SearchResult sent in sequence:{0}", sequence.get());
-                                } else {
-                                    logger.info("Failed to send response {0}", sequence.get());
-                                    doContinue.set(Boolean.FALSE);
+            final WebSocketConnectionGroup remoteConnectionGroup =
+                    getRemoteConnectionContext().getRemoteConnectionGroup();
+            final boolean nativeEncoding = remoteConnectionGroup.isNativeEncoding();
+            final ResultBatch batch;
+            if (remoteConnectionGroup.isBatchedResults() && BATCH_MAX_COUNT > 1) {
+                batch =
+                        new ResultBatch(nativeEncoding, BATCH_MAX_COUNT, BATCH_MAX_BYTES,
+                                BATCH_LINGER_MILLIS, executor) {
+                            protected boolean send(SearchOpResponse.Builder response) {
+                                if (tryHandleResult(response)) {
+                                    logger.ok("SearchResult batch sent in sequence:{0}",
+                                            response.getSequence());
+                                    return true;
                                 }
+                                logger.info("Failed to send response {0}", response
+                                        .getSequence());
+                                doContinue.set(Boolean.FALSE);
+                                return false;
+                            }
+                        };
+            } else {
+                batch = null;
+            }
+            final SearchResult result;
+            try {
+                result = connectorFacade.search(objectClass, filter, new ResultsHandler() {
+                    public boolean handle(ConnectorObject connectorObject) {
+
+                        if (doContinue.get() && null != connectorObject && !credits.tryAcquire()) {
+                            if (null != batch) {
+                                // the client grants credits for the results it received
+                                batch.flush();
+                            }
+                            if (!credits.acquire()) {
+                                return false;
+                            }
+                        }
+                        if (doContinue.get() && null != connectorObject && null != batch) {
+                            sequence.incrementAndGet();
+                            batch.add(connectorObject);
+                        } else if (doContinue.get() && null != connectorObject) {
+                            SearchOpResponse.Builder result =
+                                    setConnectorObject(SearchOpResponse.newBuilder(),
+                                            connectorObject, nativeEncoding).setSequence(
+                                            sequence.incrementAndGet());
+
+                            if (tryHandleResult(result)) {
+                                logger.ok("SearchResult sent in sequence:{0}", sequence.get());
+                            } else {
+                                logger.info("Failed to send response {0}", sequence.get());
+                                doContinue.set(Boolean.FALSE);
                             }
-                            return doContinue.get();
                         }
-                    }, operationOptions);
+                        return doContinue.get();
+                    }
+                }, operationOptions);
+            } finally {
+                if (null != batch) {
+                    // the last response must follow every result
+                    batch.flush();
+                }
+            }
 
             SearchOpResponse.Builder response =
                     SearchOpResponse.newBuilder().setSequence(sequence.get());
@@ -328,7 +497,235 @@ public class SearchAsyncApiOpImpl extends AbstractAPIOperation implements Search
 
         protected boolean tryCancel() {
             doContinue.set(Boolean.FALSE);
+            credits.close();
             return super.tryCancel();
         }
     }
+
+    /**
+     * Coalesces the search results into {@link SearchOpResponse}s carrying
+     * more than one object.
+     * <p>
+     * A batch is sent when it holds {@code maxCount} objects, when the encoded
+     * objects reach {@code maxBytes} or when its first object waited
+     * {@code lingerMillis}, whichever comes first. The objects of a batch use
+     * the same encoding and have consecutive sequence numbers, the sequence of
+     * the response is the sequence of its first object.
+     * <p>
+     * The batches are sent in order by one thread at a time and never while
+     * holding the monitor of the batch, so a slow send does not block the
+     * search adding the next objects. A batch which waited too long is sent on
+     * the {@code executor} instead of the shared timer thread.
+     */
+    abstract static class ResultBatch {
+
+        private final boolean nativeEncoding;
+        private final int maxCount;
+        private final int maxBytes;
+        private final long lingerMillis;
+        private final Executor executor;
+
+        private SearchOpResponse.Builder batch = null;
+        private int batchBytes = 0;
+        private ScheduledFuture<?> lingerFuture = null;
+        private long sequence = 0;
+        private boolean failed = false;
+
+        /**
+         * The complete batches waiting to be sent, in order.
+         */
+        private final Deque<SearchOpResponse.Builder> ready =
+                new ArrayDeque<SearchOpResponse.Builder>();
+        private boolean sending = false;
+
+        ResultBatch(boolean nativeEncoding, int maxCount, int maxBytes, long lingerMillis,
+                Executor executor) {
+            this.nativeEncoding = nativeEncoding;
+            this.maxCount = maxCount;
+            this.maxBytes = maxBytes;
+            this.lingerMillis = lingerMillis;
+            this.executor = executor;
+        }
+
+        /**
+         * Sends the batch to the remote peer.
+         *
+         * @return false if the response could not be sent.
+         */
+        protected abstract boolean send(SearchOpResponse.Builder response);
+
+        /**
+         * Adds the next object to the batch and sends the batch if it is full.
+         *
+         * @return false if a previous batch or this one could not be sent.
+         */
+        boolean add(final ConnectorObject connectorObject) {
+            synchronized (this) {
+                if (failed) {
+                    return false;
+                }
+                append(connectorObject);
+            }
+            // a batch being sent by the executor is followed by this one
+            return sendReady(false);
+        }
+
+        /**
+         * Appends the object to the batch, the caller holds the monitor.
+         */
+        private void append(final ConnectorObject connectorObject) {
+            sequence++;
+            ConnectorObjects.ConnectorObjectMessage nativeObject = null;
+            if (nativeEncoding) {
+                try {
+                    nativeObject =
+                            MessagesUtil.serializeMessage(connectorObject,
+                                    ConnectorObjects.ConnectorObjectMessage.class);
+                } catch (UnsupportedOperationException e) {
+                    logger.ok("ConnectorObject is sent with legacy encoding: {0}", e
+                            .getMessage());
+                }
+            }
+            if (null != batch
+                    && (null != nativeObject) != (batch.getNativeConnectorObjectsCount() > 0)) {
+                complete();
+            }
+            if (null == batch) {
+                batch = SearchOpResponse.newBuilder().setSequence(sequence);
+                batchBytes = 0;
+                if (lingerMillis > 0) {
+                    final SearchOpResponse.Builder pending = batch;
+                    lingerFuture = LINGER_SCHEDULER.schedule(new Runnable() {
+                        public void run() {
+                            lingerExpired(pending);
+                        }
+                    }, lingerMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+            if (null != nativeObject) {
+                batch.addNativeConnectorObjects(nativeObject);
+                batchBytes += nativeObject.getSerializedSize();
+            } else {
+                CommonObjectMessages.ConnectorObject object =
+                        MessagesUtil.serializeMessage(connectorObject,
+                                CommonObjectMessages.ConnectorObject.class);
+                batch.addConnectorObjects(object);
+                batchBytes += object.getSerializedSize();
+            }
+            if (batch.getNativeConnectorObjectsCount() + batch.getConnectorObjectsCount() >= maxCount
+                    || batchBytes >= maxBytes) {
+                complete();
+            }
+        }
+
+        /**
+         * Sends the pending objects and waits for the batches sent by the
+         * executor.
+         *
+         * @return false if a batch could not be sent.
+         */
+        boolean flush() {
+            synchronized (this) {
+                complete();
+            }
+            return sendReady(true);
+        }
+
+        /**
+         * Moves the batch to the ready ones, the caller holds the monitor.
+         */
+        private void complete() {
+            if (null != lingerFuture) {
+                lingerFuture.cancel(false);
+                lingerFuture = null;
+            }
+            if (null != batch) {
+                ready.addLast(batch);
+                batch = null;
+            }
+        }
+
+        /**
+         * Runs on the timer thread, which only hands the batch to the
+         * executor.
+         */
+        private void lingerExpired(final SearchOpResponse.Builder pending) {
+            synchronized (this) {
+                // the batch may have been sent already
+                if (pending != batch) {
+                    return;
+                }
+                complete();
+            }
+            try {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        sendReady(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The next add or the last flush sends it
+                logger.ok(e, "SearchResult batch is sent with the next one");
+            }
+        }
+
+        /**
+         * Sends the ready batches in order, one thread at a time.
+         *
+         * @param wait
+         *            true to wait until the batches taken by another thread
+         *            are sent, false to leave them to that thread.
+         * @return false if a batch could not be sent.
+         */
+        private boolean sendReady(final boolean wait) {
+            while (true) {
+                final SearchOpResponse.Builder response;
+                synchronized (this) {
+                    while (wait && sending) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return !failed;
+                        }
+                    }
+                    if (failed) {
+                        ready.clear();
+                        return false;
+                    }
+                    if (sending || ready.isEmpty()) {
+                        return true;
+                    }
+                    response = ready.pollFirst();
+                    sending = true;
+                }
+                boolean sent = false;
+                try {
+                    sent = send(response);
+                } finally {
+                    synchronized (this) {
+                        sending = false;
+                        if (!sent) {
+                            failed = true;
+                        }
+                        notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    static SearchOpResponse.Builder setConnectorObject(final SearchOpResponse.Builder builder,
+            final ConnectorObject connectorObject, final boolean nativeEncoding) {
+        if (nativeEncoding) {
+            try {
+                return builder.setNativeConnectorObject(MessagesUtil.serializeMessage(
+                        connectorObject, ConnectorObjects.ConnectorObjectMessage.class));
+            } catch (UnsupportedOperationException e) {
+                logger.ok("ConnectorObject is sent with legacy encoding: {0}", e.getMessage());
+            }
+        }
+        return builder.setConnectorObject(MessagesUtil.serializeMessage(connectorObject,
+                CommonObjectMessages.ConnectorObject.class));
+    }
 }
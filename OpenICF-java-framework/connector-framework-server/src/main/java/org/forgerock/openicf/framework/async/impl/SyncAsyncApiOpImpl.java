@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 
 package org.forgerock.openicf.framework.async.impl;
@@ -134,7 +135,7 @@ public class SyncAsyncApiOpImpl extends AbstractAPIOperation implements SyncApiO
             RPCMessages.RPCRequest.Builder builder = createRPCRequest(context);
             if (null != builder) {
                 return new InternalRequest(context, requestId, completionCallback, builder,
-                        handler, timeout);
+                        handler, timeout, ResultCredits.initialCredits(context) > 0);
             } else {
                 return null;
             }
@@ -142,6 +143,12 @@ public class SyncAsyncApiOpImpl extends AbstractAPIOperation implements SyncApiO
 
         protected OperationMessages.OperationRequest.Builder createOperationRequest(
                 final RemoteOperationContext remoteContext) {
+            long credits = ResultCredits.initialCredits(remoteContext);
+            if (credits > 0 && operationRequest.getSyncOpRequest().hasSync()) {
+                OperationMessages.OperationRequest.Builder builder = operationRequest.clone();
+                builder.getSyncOpRequestBuilder().getSyncBuilder().setCredits(credits);
+                return builder;
+            }
             return operationRequest;
         }
     }
@@ -152,19 +159,23 @@ public class SyncAsyncApiOpImpl extends AbstractAPIOperation implements SyncApiO
 
         private final ResultBuffer<SyncDelta, SyncToken> resultBuffer;
         private int remaining = -1;
+        private final boolean flowControl;
+        private int consumed = 0;
 
         public InternalRequest(
                 final RemoteOperationContext context,
                 final long requestId,
                 final RemoteRequestFactory.CompletionCallback<SyncToken, RuntimeException, WebSocketConnectionGroup, WebSocketConnectionHolder, RemoteOperationContext> completionCallback,
                 final RPCMessages.RPCRequest.Builder requestBuilder,
-                final SyncResultsHandler handler, long timeout) {
+                final SyncResultsHandler handler, long timeout, boolean flowControl) {
             super(context, requestId, completionCallback, requestBuilder);
+            this.flowControl = flowControl;
             resultBuffer = new ResultBuffer<SyncDelta, SyncToken>(timeout) {
                 protected boolean handle(Object result) {
                     if (result instanceof SyncDelta) {
                         try {
                             if (handler.handle((SyncDelta) result)) {
+                                consumed();
                                 return true;
                             } else {
                                 getPromise().cancel(true);
@@ -194,6 +205,17 @@ public class SyncAsyncApiOpImpl extends AbstractAPIOperation implements SyncApiO
 
         }
 
+        /**
+         * Grants the credits of the consumed deltas once half of the window
+         * is consumed.
+         */
+        private void consumed() {
+            if (flowControl && ++consumed >= Math.max(1, ResultCredits.WINDOW / 2)) {
+                tryGrantCredits(consumed);
+                consumed = 0;
+            }
+        }
+
         public Promise<SyncToken, RuntimeException> process() {
             // Use the application thread to process results synchronously
             try {
@@ -290,10 +312,21 @@ public class SyncAsyncApiOpImpl extends AbstractAPIOperation implements SyncApiO
 
         private final AtomicBoolean doContinue = new AtomicBoolean(Boolean.TRUE);
         final AtomicLong sequence = new AtomicLong(0);
+        private final ResultCredits credits;
 
         protected InternalLocalOperationProcessor(long requestId, WebSocketConnectionHolder socket,
                 OperationMessages.SyncOpRequest message) {
             super(requestId, socket, message);
+            credits = new ResultCredits(message.getSync().getCredits());
+        }
+
+        public void handleIncomingMessage(WebSocketConnectionHolder sourceConnection,
+                Object message) {
+            if (message instanceof RPCMessages.CreditOpRequest) {
+                credits.grant(((RPCMessages.CreditOpRequest) message).getCredits());
+            } else {
+                super.handleIncomingMessage(sourceConnection, message);
+            }
         }
 
         protected RPCMessages.RPCResponse.Builder createOperationResponse(
@@ -335,6 +368,9 @@ public class SyncAsyncApiOpImpl extends AbstractAPIOperation implements SyncApiO
                         connectorFacade.sync(objectClass, token, new SyncResultsHandler() {
                             public boolean handle(SyncDelta delta) {
 
+                                if (doContinue.get() && null != delta && !credits.acquire()) {
+                                    return false;
+                                }
                                 if (doContinue.get() && null != delta) {
                                     OperationMessages.SyncOpResponse.Builder result =
                                             OperationMessages.SyncOpResponse
@@ -379,6 +415,7 @@ public class SyncAsyncApiOpImpl extends AbstractAPIOperation implements SyncApiO
 
         protected boolean tryCancel() {
             doContinue.set(Boolean.FALSE);
+            credits.close();
             return super.tryCancel();
         }
     }
@@ -0,0 +1,40 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.forgerock.openicf.framework.remote;
+
+import java.util.List;
+
+import org.forgerock.openicf.common.rpc.LeastOutstandingLoadBalancingAlgorithm;
+import org.forgerock.openicf.common.rpc.RequestDistributor;
+import org.forgerock.openicf.framework.remote.rpc.RemoteOperationContext;
+import org.forgerock.openicf.framework.remote.rpc.WebSocketConnectionGroup;
+import org.forgerock.openicf.framework.remote.rpc.WebSocketConnectionHolder;
+
+/**
+ * Sends the requests to the connector server with the least requests waiting
+ * for their result, weighted by its response time.
+ *
+ * @see LeastOutstandingLoadBalancingAlgorithm
+ */
+public class LeastOutstandingLoadBalancingAlgorithmFactory extends LoadBalancingAlgorithmFactory {
+
+    protected RequestDistributor<WebSocketConnectionGroup, WebSocketConnectionHolder, RemoteOperationContext> createLoadBalancer(
+            List<RequestDistributor<WebSocketConnectionGroup, WebSocketConnectionHolder, RemoteOperationContext>> delegates) {
+        return new LeastOutstandingLoadBalancingAlgorithm<WebSocketConnectionGroup, WebSocketConnectionHolder, RemoteOperationContext>(
+                delegates);
+    }
+}
@@ -20,43 +20,75 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 
 package org.forgerock.openicf.framework.remote;
 
+import java.io.File;
+import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.net.URI;
 import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
 import org.forgerock.openicf.common.protobuf.CommonObjectMessages;
 import org.forgerock.openicf.common.protobuf.ConnectorObjects;
+import org.forgerock.openicf.common.protobuf.FilterMessages;
 import org.forgerock.openicf.common.protobuf.OperationMessages;
 import org.forgerock.openicf.common.protobuf.RPCMessages;
 import org.identityconnectors.common.Pair;
 import org.identityconnectors.common.StringUtil;
+import org.identityconnectors.common.script.Script;
+import org.identityconnectors.common.script.ScriptBuilder;
 import org.identityconnectors.common.security.Encryptor;
+import org.identityconnectors.common.security.EncryptorFactory;
 import org.identityconnectors.common.security.GuardedByteArray;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.api.ConnectorKey;
 import org.identityconnectors.framework.api.operations.batch.BatchEmptyResult;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
 import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.OperationOptions;
+import org.identityconnectors.framework.common.objects.QualifiedUid;
 import org.identityconnectors.framework.common.objects.ScriptContext;
 import org.identityconnectors.framework.common.objects.SearchResult;
+import org.identityconnectors.framework.common.objects.SortKey;
 import org.identityconnectors.framework.common.objects.SyncDelta;
 import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
 import org.identityconnectors.framework.common.objects.SyncDeltaType;
 import org.identityconnectors.framework.common.objects.SyncToken;
 import org.identityconnectors.framework.common.objects.Uid;
+import org.identityconnectors.framework.common.objects.filter.AndFilter;
+import org.identityconnectors.framework.common.objects.filter.ContainsAllValuesFilter;
+import org.identityconnectors.framework.common.objects.filter.ContainsFilter;
+import org.identityconnectors.framework.common.objects.filter.EndsWithFilter;
+import org.identityconnectors.framework.common.objects.filter.EqualsFilter;
+import org.identityconnectors.framework.common.objects.filter.Filter;
+import org.identityconnectors.framework.common.objects.filter.GreaterThanFilter;
+import org.identityconnectors.framework.common.objects.filter.GreaterThanOrEqualFilter;
+import org.identityconnectors.framework.common.objects.filter.LessThanFilter;
+import org.identityconnectors.framework.common.objects.filter.LessThanOrEqualFilter;
+import org.identityconnectors.framework.common.objects.filter.NotFilter;
+import org.identityconnectors.framework.common.objects.filter.OrFilter;
+import org.identityconnectors.framework.common.objects.filter.PresenceFilter;
+import org.identityconnectors.framework.common.objects.filter.StartsWithFilter;
+import org.identityconnectors.framework.common.objects.filter.StringFilter;
 import org.identityconnectors.framework.common.serializer.SerializerUtil;
 import org.identityconnectors.framework.impl.api.remote.RemoteWrappedException;
 
@@ -183,97 +215,531 @@ public class MessagesUtil {
                 RPCMessages.HandshakeMessage.newBuilder();
         messageBuilder.setPublicKey(ByteString.copyFrom(publicKey.getEncoded()));
         messageBuilder.setServerType(RPCMessages.HandshakeMessage.ServerType.JAVA);
+        messageBuilder.addFeatures(RPCMessages.HandshakeMessage.Feature.NATIVE_ENCODING);
+        messageBuilder.addFeatures(RPCMessages.HandshakeMessage.Feature.BATCHED_RESULTS);
+        messageBuilder.addFeatures(RPCMessages.HandshakeMessage.Feature.FLOW_CONTROL);
+        messageBuilder.addFeatures(RPCMessages.HandshakeMessage.Feature.CONFIGURATION_ID);
         // Make the fingerprint unique sessionId
         messageBuilder.setSessionId(org.identityconnectors.common.security.SecurityUtil
                 .computeHexSHA1Hash(publicKey.getEncoded(), false));
         return messageBuilder;
     }
 
-    /*
-    This methods meant to help to replace {@link org.identityconnectors.framework.common.serializer.SerializerUtil}.
-    Not used yet.
+    /**
+     * Returns the id of a connectorFacadeKey, the first 128 bits of its SHA-256
+     * digest.
+     */
+    public static ByteString computeConfigurationId(ByteString connectorFacadeKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(connectorFacadeKey.asReadOnlyByteBuffer());
+            return ByteString.copyFrom(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new ConnectorException(e);
+        }
+    }
+
+    /**
+     * Encodes the attribute natively.
+     *
+     * @throws UnsupportedOperationException
+     *             if a value can not be encoded natively, the attribute must be
+     *             sent with the legacy serializer.
      */
     public static ConnectorObjects.AttributeMessage.Builder fromAttribute(
             final Attribute attribute, final Encryptor encryptor) {
         final ConnectorObjects.AttributeMessage.Builder builder =
                 ConnectorObjects.AttributeMessage.newBuilder().setName(attribute.getName());
-        for (Object source : attribute.getValue()) {
-            Class sourceClass = (source == null ? null : source.getClass());
-            if (sourceClass == String.class) {
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setStringValue((String) source));
-            } else if (sourceClass == Long.class || sourceClass == long.class) {
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setLongValue((Long) source));
-            } else if (sourceClass == Character.class || sourceClass == char.class) {
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setCharacterValue(source.toString()));
-            } else if (sourceClass == Double.class || sourceClass == double.class) {
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setDoubleValue((Double) source));
-            } else if (sourceClass == Float.class || sourceClass == float.class) {
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setFloatValue((Float) source));
-            } else if (sourceClass == Integer.class || sourceClass == int.class) {
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setIntegerValue((Integer) source));
-            } else if (sourceClass == Boolean.class || sourceClass == boolean.class) {
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setBooleanValue((Boolean) source));
-            } else if (sourceClass == Byte.class || sourceClass == byte.class) {
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setByteValue(ByteString.copyFrom(new byte[] { (Byte) source })));
-            } else if (sourceClass == byte[].class) {
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setByteArrayValue(ByteString.copyFrom((byte[]) source)));
-            } else if (sourceClass == java.math.BigDecimal.class) {
-                BigDecimal sourceValue = (BigDecimal) source;
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setBigDecimalValue(
-                                CommonObjectMessages.BigDecimal.newBuilder().setScale(
-                                        sourceValue.scale()).setUnscaled(
-                                        sourceValue.unscaledValue().toString())));
-            } else if (sourceClass == BigInteger.class) {
-                builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                        .setBigIntegerValue(source.toString()));
-            } else if (sourceClass == GuardedByteArray.class) {
-                GuardedByteArray sourceValue = (GuardedByteArray) source;
-
-                sourceValue.access(new GuardedByteArray.Accessor() {
-                    public void access(byte[] clearBytes) {
-                        builder.addValue(ConnectorObjects.AttributeUnionValue.newBuilder()
-                                .setGuardedByteArrayValue(
-                                        ByteString.copyFrom(encryptor.encrypt(clearBytes))));
-                    }
-                });
-
-            } else if (sourceClass == GuardedString.class) {
-                GuardedString sourceValue = (GuardedString) source;
-
-                sourceValue.access(new GuardedString.Accessor() {
-                    public void access(char[] clearBytes) {
-                        builder.addValue(ConnectorObjects.AttributeUnionValue
-                                .newBuilder()
-                                .setGuardedByteArrayValue(
-                                        ByteString
-                                                .copyFrom(encryptor
-                                                        .encrypt(org.identityconnectors.common.security.SecurityUtil
-                                                                .charsToBytes(clearBytes)))));
+        if (null == attribute.getValue()) {
+            builder.setNullValue(true);
+        } else {
+            for (Object source : attribute.getValue()) {
+                builder.addValue(fromAttributeValue(source, encryptor));
+            }
+        }
+        return builder;
+    }
+
+    public static Attribute toAttribute(final ConnectorObjects.AttributeMessage message,
+            final Encryptor encryptor) {
+        if (message.getNullValue()) {
+            return AttributeBuilder.build(message.getName());
+        }
+        final List<Object> values = new ArrayList<Object>(message.getValueCount());
+        for (ConnectorObjects.AttributeUnionValue value : message.getValueList()) {
+            values.add(toAttributeValue(value, encryptor));
+        }
+        return AttributeBuilder.build(message.getName(), values);
+    }
+
+    private static ConnectorObjects.AttributeUnionValue.Builder fromAttributeValue(
+            final Object source, final Encryptor encryptor) {
+        final ConnectorObjects.AttributeUnionValue.Builder builder =
+                ConnectorObjects.AttributeUnionValue.newBuilder();
+        final Class<?> sourceClass = (source == null ? null : source.getClass());
+        if (source == null) {
+            // empty payload
+        } else if (sourceClass == String.class) {
+            builder.setStringValue((String) source);
+        } else if (sourceClass == Long.class) {
+            builder.setLongValue((Long) source);
+        } else if (sourceClass == Character.class) {
+            builder.setCharacterValue(source.toString());
+        } else if (sourceClass == Double.class) {
+            builder.setDoubleValue((Double) source);
+        } else if (sourceClass == Float.class) {
+            builder.setFloatValue((Float) source);
+        } else if (sourceClass == Integer.class) {
+            builder.setIntegerValue((Integer) source);
+        } else if (sourceClass == Boolean.class) {
+            builder.setBooleanValue((Boolean) source);
+        } else if (sourceClass == Byte.class) {
+            builder.setByteValue(ByteString.copyFrom(new byte[] { (Byte) source }));
+        } else if (sourceClass == byte[].class) {
+            builder.setByteArrayValue(ByteString.copyFrom((byte[]) source));
+        } else if (sourceClass == BigDecimal.class) {
+            BigDecimal sourceValue = (BigDecimal) source;
+            builder.setBigDecimalValue(CommonObjectMessages.BigDecimal.newBuilder().setScale(
+                    sourceValue.scale()).setUnscaled(sourceValue.unscaledValue().toString()));
+        } else if (sourceClass == BigInteger.class) {
+            builder.setBigIntegerValue(source.toString());
+        } else if (sourceClass == GuardedByteArray.class) {
+            ((GuardedByteArray) source).access(new GuardedByteArray.Accessor() {
+                public void access(byte[] clearBytes) {
+                    builder.setGuardedByteArrayValue(ByteString.copyFrom(encryptor
+                            .encrypt(clearBytes)));
+                }
+            });
+        } else if (sourceClass == GuardedString.class) {
+            ((GuardedString) source).access(new GuardedString.Accessor() {
+                public void access(char[] clearChars) {
+                    byte[] clearBytes = null;
+                    try {
+                        clearBytes =
+                                org.identityconnectors.common.security.SecurityUtil
+                                        .charsToBytes(clearChars);
+                        builder.setGuardedStringValue(ByteString.copyFrom(encryptor
+                                .encrypt(clearBytes)));
+                    } finally {
+                        org.identityconnectors.common.security.SecurityUtil.clear(clearBytes);
                     }
-                });
+                }
+            });
+        } else if (Map.class.isAssignableFrom(sourceClass)) {
+            throw new UnsupportedOperationException("Map serialisation is not yet supported");
+        } else {
+            throw new UnsupportedOperationException("Not supported attribute value type:"
+                    + sourceClass);
+        }
+        return builder;
+    }
+
+    private static Object toAttributeValue(final ConnectorObjects.AttributeUnionValue value,
+            final Encryptor encryptor) {
+        switch (value.getPayloadCase()) {
+        case STRINGVALUE:
+            return value.getStringValue();
+        case LONGVALUE:
+            return value.getLongValue();
+        case CHARACTERVALUE:
+            return value.getCharacterValue().charAt(0);
+        case DOUBLEVALUE:
+            return value.getDoubleValue();
+        case FLOATVALUE:
+            return value.getFloatValue();
+        case INTEGERVALUE:
+            return value.getIntegerValue();
+        case BOOLEANVALUE:
+            return value.getBooleanValue();
+        case BYTEVALUE:
+            return value.getByteValue().byteAt(0);
+        case BYTEARRAYVALUE:
+            return value.getByteArrayValue().toByteArray();
+        case BIGDECIMALVALUE:
+            return new BigDecimal(new BigInteger(value.getBigDecimalValue().getUnscaled()), value
+                    .getBigDecimalValue().getScale());
+        case BIGINTEGERVALUE:
+            return new BigInteger(value.getBigIntegerValue());
+        case GUARDEDBYTEARRAYVALUE: {
+            byte[] clearBytes = null;
+            try {
+                clearBytes = encryptor.decrypt(value.getGuardedByteArrayValue().toByteArray());
+                return new GuardedByteArray(clearBytes);
+            } finally {
+                org.identityconnectors.common.security.SecurityUtil.clear(clearBytes);
+            }
+        }
+        case GUARDEDSTRINGVALUE: {
+            byte[] clearBytes = null;
+            char[] clearChars = null;
+            try {
+                clearBytes = encryptor.decrypt(value.getGuardedStringValue().toByteArray());
+                clearChars = org.identityconnectors.common.security.SecurityUtil.bytesToChars(clearBytes);
+                return new GuardedString(clearChars);
+            } finally {
+                org.identityconnectors.common.security.SecurityUtil.clear(clearBytes);
+                org.identityconnectors.common.security.SecurityUtil.clear(clearChars);
+            }
+        }
+        case PAYLOAD_NOT_SET:
+            return null;
+        default:
+            throw new UnsupportedOperationException("Not supported attribute value:"
+                    + value.getPayloadCase());
+        }
+    }
+
+    /**
+     * Encodes the filter natively.
+     *
+     * @throws UnsupportedOperationException
+     *             if the filter can not be encoded natively, the filter must be
+     *             sent with the legacy serializer.
+     */
+    public static FilterMessages.FilterUnionMessage.Builder fromFilter(final Filter filter) {
+        final Encryptor encryptor = EncryptorFactory.getInstance().getDefaultEncryptor();
+        final FilterMessages.FilterUnionMessage.Builder builder =
+                FilterMessages.FilterUnionMessage.newBuilder();
+        final Class<?> filterClass = filter.getClass();
+        if (filterClass == AndFilter.class) {
+            final FilterMessages.AndFilter.Builder and = FilterMessages.AndFilter.newBuilder();
+            for (Filter subFilter : ((AndFilter) filter).getFilters()) {
+                and.addSubFilters(fromFilter(subFilter));
+            }
+            builder.setAndFilter(and);
+        } else if (filterClass == OrFilter.class) {
+            final FilterMessages.OrFilter.Builder or = FilterMessages.OrFilter.newBuilder();
+            for (Filter subFilter : ((OrFilter) filter).getFilters()) {
+                or.addSubFilters(fromFilter(subFilter));
+            }
+            builder.setOrFilter(or);
+        } else if (filterClass == NotFilter.class) {
+            builder.setNotFilter(FilterMessages.NotFilter.newBuilder().setSubFilter(
+                    fromFilter(((NotFilter) filter).getFilter())));
+        } else if (filterClass == PresenceFilter.class) {
+            builder.setPresenceFilter(FilterMessages.PresenceFilter.newBuilder().setName(
+                    ((PresenceFilter) filter).getName()));
+        } else if (filterClass == EqualsFilter.class) {
+            final Attribute attribute = checkFilterAttribute(((EqualsFilter) filter).getAttribute());
+            builder.setEqualsFilter(FilterMessages.EqualsFilter.newBuilder().setName(
+                    attribute.getName()).setValue(fromAttributeValues(attribute, encryptor)));
+        } else if (filterClass == ContainsAllValuesFilter.class) {
+            final Attribute attribute =
+                    checkFilterAttribute(((ContainsAllValuesFilter) filter).getAttribute());
+            builder.setContainsAllValuesFilter(FilterMessages.ContainsAllValuesFilter.newBuilder()
+                    .setName(attribute.getName()).setValue(
+                            fromAttributeValues(attribute, encryptor)));
+        } else if (filterClass == StartsWithFilter.class) {
+            final StartsWithFilter source = (StartsWithFilter) filter;
+            builder.setStartsWithFilter(FilterMessages.StartsWithFilter.newBuilder().setName(
+                    source.getName()).setValue(checkFilterString(source)));
+        } else if (filterClass == EndsWithFilter.class) {
+            final EndsWithFilter source = (EndsWithFilter) filter;
+            builder.setEndsWithFilter(FilterMessages.EndsWithFilter.newBuilder().setName(
+                    source.getName()).setValue(checkFilterString(source)));
+        } else if (filterClass == ContainsFilter.class) {
+            final ContainsFilter source = (ContainsFilter) filter;
+            builder.setContainsFilter(FilterMessages.ContainsFilter.newBuilder().setName(
+                    source.getName()).setValue(checkFilterString(source)));
+        } else if (filterClass == GreaterThanFilter.class) {
+            final GreaterThanFilter source = (GreaterThanFilter) filter;
+            checkFilterAttribute(source.getAttribute());
+            builder.setGreaterThanFilter(FilterMessages.GreaterThanFilter.newBuilder().setName(
+                    source.getName()).setValue(fromAttributeValue(source.getValue(), encryptor)));
+        } else if (filterClass == GreaterThanOrEqualFilter.class) {
+            final GreaterThanOrEqualFilter source = (GreaterThanOrEqualFilter) filter;
+            checkFilterAttribute(source.getAttribute());
+            builder.setGreaterThanOrEqualFilter(FilterMessages.GreaterThanOrEqualFilter
+                    .newBuilder().setName(source.getName()).setValue(
+                            fromAttributeValue(source.getValue(), encryptor)));
+        } else if (filterClass == LessThanFilter.class) {
+            final LessThanFilter source = (LessThanFilter) filter;
+            checkFilterAttribute(source.getAttribute());
+            builder.setLessThanFilter(FilterMessages.LessThanFilter.newBuilder().setName(
+                    source.getName()).setValue(fromAttributeValue(source.getValue(), encryptor)));
+        } else if (filterClass == LessThanOrEqualFilter.class) {
+            final LessThanOrEqualFilter source = (LessThanOrEqualFilter) filter;
+            checkFilterAttribute(source.getAttribute());
+            builder.setLessThanOrEqualFilter(FilterMessages.LessThanOrEqualFilter.newBuilder()
+                    .setName(source.getName()).setValue(
+                            fromAttributeValue(source.getValue(), encryptor)));
+        } else {
+            throw new UnsupportedOperationException("Not supported filter:" + filterClass);
+        }
+        return builder;
+    }
+
+    public static Filter toFilter(final FilterMessages.FilterUnionMessage message) {
+        final Encryptor encryptor = EncryptorFactory.getInstance().getDefaultEncryptor();
+        switch (message.getFilterCase()) {
+        case ANDFILTER: {
+            final List<Filter> subFilters = new ArrayList<Filter>();
+            for (FilterMessages.FilterUnionMessage subFilter : message.getAndFilter()
+                    .getSubFiltersList()) {
+                subFilters.add(toFilter(subFilter));
+            }
+            return new AndFilter(subFilters);
+        }
+        case ORFILTER: {
+            final List<Filter> subFilters = new ArrayList<Filter>();
+            for (FilterMessages.FilterUnionMessage subFilter : message.getOrFilter()
+                    .getSubFiltersList()) {
+                subFilters.add(toFilter(subFilter));
+            }
+            return new OrFilter(subFilters);
+        }
+        case NOTFILTER:
+            return new NotFilter(toFilter(message.getNotFilter().getSubFilter()));
+        case PRESENCEFILTER:
+            return new PresenceFilter(message.getPresenceFilter().getName());
+        case EQUALSFILTER:
+            return new EqualsFilter(toAttribute(message.getEqualsFilter().getName(), message
+                    .getEqualsFilter().getValue(), encryptor));
+        case CONTAINSALLVALUESFILTER:
+            return new ContainsAllValuesFilter(toAttribute(message.getContainsAllValuesFilter()
+                    .getName(), message.getContainsAllValuesFilter().getValue(), encryptor));
+        case STARTSWITHFILTER:
+            return new StartsWithFilter(AttributeBuilder.build(message.getStartsWithFilter()
+                    .getName(), message.getStartsWithFilter().getValue()));
+        case ENDSWITHFILTER:
+            return new EndsWithFilter(AttributeBuilder.build(message.getEndsWithFilter()
+                    .getName(), message.getEndsWithFilter().getValue()));
+        case CONTAINSFILTER:
+            return new ContainsFilter(AttributeBuilder.build(message.getContainsFilter()
+                    .getName(), message.getContainsFilter().getValue()));
+        case GREATERTHANFILTER:
+            return new GreaterThanFilter(AttributeBuilder.build(message.getGreaterThanFilter()
+                    .getName(), toAttributeValue(message.getGreaterThanFilter().getValue(),
+                    encryptor)));
+        case GREATERTHANOREQUALFILTER:
+            return new GreaterThanOrEqualFilter(AttributeBuilder.build(message
+                    .getGreaterThanOrEqualFilter().getName(), toAttributeValue(message
+                    .getGreaterThanOrEqualFilter().getValue(), encryptor)));
+        case LESSTHANFILTER:
+            return new LessThanFilter(AttributeBuilder.build(message.getLessThanFilter()
+                    .getName(), toAttributeValue(message.getLessThanFilter().getValue(),
+                    encryptor)));
+        case LESSTHANOREQUALFILTER:
+            return new LessThanOrEqualFilter(AttributeBuilder.build(message
+                    .getLessThanOrEqualFilter().getName(), toAttributeValue(message
+                    .getLessThanOrEqualFilter().getValue(), encryptor)));
+        default:
+            throw new UnsupportedOperationException("Not supported filter:"
+                    + message.getFilterCase());
+        }
+    }
 
-            } else if (null != sourceClass && Map.class.isAssignableFrom(sourceClass)) {
-                throw new UnsupportedOperationException("Map serialisation is not yet supported");
-            } else if (source == null) {
-                builder.addValueBuilder();
+    /**
+     * The legacy serializer keeps the revision of an {@link Uid} in a filter.
+     */
+    private static Attribute checkFilterAttribute(final Attribute attribute) {
+        if (attribute instanceof Uid && null != ((Uid) attribute).getRevision()) {
+            throw new UnsupportedOperationException("Uid revision is not supported in filter");
+        }
+        return attribute;
+    }
+
+    private static String checkFilterString(final StringFilter filter) {
+        checkFilterAttribute(filter.getAttribute());
+        final List<Object> value = filter.getAttribute().getValue();
+        if (null == value || value.size() != 1 || !(value.get(0) instanceof String)) {
+            throw new UnsupportedOperationException("Not supported string filter value");
+        }
+        return (String) value.get(0);
+    }
+
+    private static ConnectorObjects.AttributeCollectionValue.Builder fromAttributeValues(
+            final Attribute attribute, final Encryptor encryptor) {
+        if (null == attribute.getValue()) {
+            throw new UnsupportedOperationException("Not supported null filter value");
+        }
+        final ConnectorObjects.AttributeCollectionValue.Builder builder =
+                ConnectorObjects.AttributeCollectionValue.newBuilder();
+        for (Object value : attribute.getValue()) {
+            builder.addAttribute(fromAttributeValue(value, encryptor));
+        }
+        return builder;
+    }
+
+    private static Attribute toAttribute(final String name,
+            final ConnectorObjects.AttributeCollectionValue message, final Encryptor encryptor) {
+        final List<Object> values = new ArrayList<Object>(message.getAttributeCount());
+        for (ConnectorObjects.AttributeUnionValue value : message.getAttributeList()) {
+            values.add(toAttributeValue(value, encryptor));
+        }
+        return AttributeBuilder.build(name, values);
+    }
+
+    /**
+     * Encodes the options natively.
+     *
+     * @throws UnsupportedOperationException
+     *             if an option can not be encoded natively, the options must be
+     *             sent with the legacy serializer.
+     */
+    public static ConnectorObjects.OperationOptionsMessage.Builder fromOperationOptions(
+            final OperationOptions options) {
+        final Encryptor encryptor = EncryptorFactory.getInstance().getDefaultEncryptor();
+        final ConnectorObjects.OperationOptionsMessage.Builder builder =
+                ConnectorObjects.OperationOptionsMessage.newBuilder();
+        for (Map.Entry<String, Object> option : options.getOptions().entrySet()) {
+            final ConnectorObjects.OperationOptionMapFieldEntry.Builder entry =
+                    ConnectorObjects.OperationOptionMapFieldEntry.newBuilder().setKey(
+                            option.getKey());
+            final Object value = option.getValue();
+            if (null == value) {
+                throw new UnsupportedOperationException("Not supported null option value");
+            } else if (value.getClass().isArray()) {
+                final Class<?> componentType = value.getClass().getComponentType();
+                final int length = Array.getLength(value);
+                // the array type is restored from the type of the first value
+                if (length == 0 || componentType.isPrimitive()) {
+                    throw new UnsupportedOperationException("Not supported option array:"
+                            + value.getClass());
+                }
+                for (int i = 0; i < length; i++) {
+                    final Object element = Array.get(value, i);
+                    if (null == element || element.getClass() != componentType) {
+                        throw new UnsupportedOperationException("Not supported option array:"
+                                + value.getClass());
+                    }
+                    entry.addValues(fromOptionValue(element, encryptor));
+                }
+                entry.setIsArray(true);
             } else {
-                throw new UnsupportedOperationException();
+                entry.addValues(fromOptionValue(value, encryptor));
             }
+            builder.addOptions(entry);
         }
+        return builder;
+    }
 
+    public static OperationOptions toOperationOptions(
+            final ConnectorObjects.OperationOptionsMessage message) {
+        final Encryptor encryptor = EncryptorFactory.getInstance().getDefaultEncryptor();
+        final Map<String, Object> options = new HashMap<String, Object>(message.getOptionsCount());
+        for (ConnectorObjects.OperationOptionMapFieldEntry entry : message.getOptionsList()) {
+            if (entry.getIsArray()) {
+                Object array = null;
+                for (int i = 0; i < entry.getValuesCount(); i++) {
+                    final Object element = toOptionValue(entry.getValues(i), encryptor);
+                    if (null == array) {
+                        array = Array.newInstance(element.getClass(), entry.getValuesCount());
+                    }
+                    Array.set(array, i, element);
+                }
+                options.put(entry.getKey(), array);
+            } else if (entry.getValuesCount() > 0) {
+                options.put(entry.getKey(), toOptionValue(entry.getValues(0), encryptor));
+            }
+        }
+        return new OperationOptions(options);
+    }
+
+    private static ConnectorObjects.OperationOptionUnionValue.Builder fromOptionValue(
+            final Object source, final Encryptor encryptor) {
+        final ConnectorObjects.OperationOptionUnionValue.Builder builder =
+                ConnectorObjects.OperationOptionUnionValue.newBuilder();
+        final Class<?> sourceClass = source.getClass();
+        if (sourceClass == String.class) {
+            builder.setStringValue((String) source);
+        } else if (sourceClass == Long.class) {
+            builder.setLongValue((Long) source);
+        } else if (sourceClass == Character.class) {
+            builder.setCharacterValue(source.toString());
+        } else if (sourceClass == Double.class) {
+            builder.setDoubleValue((Double) source);
+        } else if (sourceClass == Float.class) {
+            builder.setFloatValue((Float) source);
+        } else if (sourceClass == Integer.class) {
+            builder.setIntegerValue((Integer) source);
+        } else if (sourceClass == Boolean.class) {
+            builder.setBooleanValue((Boolean) source);
+        } else if (sourceClass == URI.class) {
+            builder.setUriValue(source.toString());
+        } else if (sourceClass == File.class) {
+            builder.setFileValue(((File) source).getPath());
+        } else if (sourceClass == GuardedByteArray.class || sourceClass == GuardedString.class) {
+            ConnectorObjects.AttributeUnionValue.Builder guarded =
+                    fromAttributeValue(source, encryptor);
+            if (sourceClass == GuardedByteArray.class) {
+                builder.setGuardedByteArrayValue(guarded.getGuardedByteArrayValue());
+            } else {
+                builder.setGuardedStringValue(guarded.getGuardedStringValue());
+            }
+        } else if (sourceClass == Script.class) {
+            final Script script = (Script) source;
+            builder.setScriptValue(CommonObjectMessages.Script.newBuilder().setScriptLanguage(
+                    script.getScriptLanguage()).setScriptText(script.getScriptText()));
+        } else if (sourceClass == ObjectClass.class) {
+            builder.setObjectClassValue(((ObjectClass) source).getObjectClassValue());
+        } else if (sourceClass == Uid.class) {
+            builder.setUidValue(serializeMessage((Uid) source, CommonObjectMessages.Uid.class));
+        } else if (sourceClass == QualifiedUid.class) {
+            final QualifiedUid qualifiedUid = (QualifiedUid) source;
+            builder.setQualifiedUidValue(CommonObjectMessages.QualifiedUid.newBuilder()
+                    .setObjectClass(qualifiedUid.getObjectClass().getObjectClassValue()).setUid(
+                            serializeMessage(qualifiedUid.getUid(),
+                                    CommonObjectMessages.Uid.class)));
+        } else if (sourceClass == SortKey.class) {
+            final SortKey sortKey = (SortKey) source;
+            builder.setSortKeyValue(CommonObjectMessages.SortKey.newBuilder().setField(
+                    sortKey.getField()).setIsAscending(sortKey.isAscendingOrder()));
+        } else {
+            throw new UnsupportedOperationException("Not supported option value type:"
+                    + sourceClass);
+        }
         return builder;
     }
 
+    private static Object toOptionValue(final ConnectorObjects.OperationOptionUnionValue value,
+            final Encryptor encryptor) {
+        switch (value.getPayloadCase()) {
+        case STRINGVALUE:
+            return value.getStringValue();
+        case LONGVALUE:
+            return value.getLongValue();
+        case CHARACTERVALUE:
+            return value.getCharacterValue().charAt(0);
+        case DOUBLEVALUE:
+            return value.getDoubleValue();
+        case FLOATVALUE:
+            return value.getFloatValue();
+        case INTEGERVALUE:
+            return value.getIntegerValue();
+        case BOOLEANVALUE:
+            return value.getBooleanValue();
+        case URIVALUE:
+            return URI.create(value.getUriValue());
+        case FILEVALUE:
+            return new File(value.getFileValue());
+        case GUARDEDBYTEARRAYVALUE:
+            return toAttributeValue(ConnectorObjects.AttributeUnionValue.newBuilder()
+                    .setGuardedByteArrayValue(value.getGuardedByteArrayValue()).build(), encryptor);
+        case GUARDEDSTRINGVALUE:
+            return toAttributeValue(ConnectorObjects.AttributeUnionValue.newBuilder()
+                    .setGuardedStringValue(value.getGuardedStringValue()).build(), encryptor);
+        case SCRIPTVALUE:
+            return new ScriptBuilder().setScriptLanguage(
+                    value.getScriptValue().getScriptLanguage()).setScriptText(
+                    value.getScriptValue().getScriptText()).build();
+        case OBJECTCLASSVALUE:
+            return new ObjectClass(value.getObjectClassValue());
+        case UIDVALUE:
+            return deserializeMessage(value.getUidValue(), Uid.class);
+        case QUALIFIEDUIDVALUE:
+            return new QualifiedUid(new ObjectClass(value.getQualifiedUidValue()
+                    .getObjectClass()), deserializeMessage(value.getQualifiedUidValue().getUid(),
+                    Uid.class));
+        case SORTKEYVALUE:
+            return new SortKey(value.getSortKeyValue().getField(), value.getSortKeyValue()
+                    .getIsAscending());
+        default:
+            throw new UnsupportedOperationException("Not supported option value:"
+                    + value.getPayloadCase());
+        }
+    }
+
     public static ByteBuffer writeToByteBuffer(MessageLite source) throws java.io.IOException {
         ByteBuffer buffer = ByteBuffer.allocate(source.getSerializedSize());
         CodedOutputStream outputStream = CodedOutputStream.newInstance(buffer);
@@ -332,7 +798,7 @@ public class MessagesUtil {
         if (byteString.isEmpty()) {
             return null;
         } else {
-            return (T) SerializerUtil.deserializeBinaryObject(byteString.toByteArray());
+            return (T) SerializerUtil.deserializeBinaryObject(byteString.asReadOnlyByteBuffer());
         }
     }
 
@@ -354,6 +820,7 @@ public class MessagesUtil {
         addHandler(new ScriptContextHandler());
         addHandler(new SearchResultHandler());
         addHandler(new ConnectorObjectHandler());
+        addHandler(new ConnectorObjectMessageHandler());
         addHandler(new LocaleHandler());
         addHandler(new SyncTokenHandler());
         addHandler(new SyncDeltaHandler());
@@ -522,6 +989,49 @@ public class MessagesUtil {
         }
     }
 
+    private final static class ConnectorObjectMessageHandler
+            implements
+            ObjectHandler<ConnectorObject, ConnectorObjects.ConnectorObjectMessage, ConnectorObjects.ConnectorObjectMessage.Builder> {
+
+        public ConnectorObject deserialize(ConnectorObjects.ConnectorObjectMessage message) {
+            final Encryptor encryptor = EncryptorFactory.getInstance().getDefaultEncryptor();
+            final Set<Attribute> attributes = new HashSet<Attribute>(message.getAttributesCount());
+            for (ConnectorObjects.AttributeMessage attribute : message.getAttributesList()) {
+                if (StringUtil.isNotBlank(message.getUidRevision())
+                        && Uid.NAME.equals(attribute.getName())) {
+                    attributes.add(new Uid((String) toAttributeValue(attribute.getValue(0),
+                            encryptor), message.getUidRevision()));
+                } else {
+                    attributes.add(toAttribute(attribute, encryptor));
+                }
+            }
+            return new ConnectorObject(new ObjectClass(message.getObjectClass()), attributes);
+        }
+
+        public ConnectorObjects.ConnectorObjectMessage serialize(ConnectorObject source) {
+            return serializeBuilder(source).build();
+        }
+
+        /**
+         * @throws UnsupportedOperationException
+         *             if an attribute can not be encoded natively.
+         */
+        public ConnectorObjects.ConnectorObjectMessage.Builder serializeBuilder(
+                ConnectorObject source) {
+            final Encryptor encryptor = EncryptorFactory.getInstance().getDefaultEncryptor();
+            final ConnectorObjects.ConnectorObjectMessage.Builder builder =
+                    ConnectorObjects.ConnectorObjectMessage.newBuilder().setObjectClass(
+                            source.getObjectClass().getObjectClassValue());
+            for (Attribute attribute : source.getAttributes()) {
+                builder.addAttributes(fromAttribute(attribute, encryptor));
+            }
+            if (null != source.getUid().getRevision()) {
+                builder.setUidRevision(source.getUid().getRevision());
+            }
+            return builder;
+        }
+    }
+
     private final static class LocaleHandler implements
             ObjectHandler<Locale, CommonObjectMessages.Locale, CommonObjectMessages.Locale.Builder> {
 
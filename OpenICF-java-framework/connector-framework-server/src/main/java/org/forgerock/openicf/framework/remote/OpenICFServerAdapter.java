@@ -21,6 +21,7 @@ import java.security.PublicKey;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.forgerock.openicf.common.protobuf.CommonObjectMessages;
 import org.forgerock.openicf.common.protobuf.OperationMessages;
@@ -28,6 +29,7 @@ import org.forgerock.openicf.common.protobuf.OperationMessages.OperationRequest;
 import org.forgerock.openicf.common.protobuf.OperationMessages.OperationResponse;
 import org.forgerock.openicf.common.protobuf.RPCMessages;
 import org.forgerock.openicf.common.protobuf.RPCMessages.CancelOpRequest;
+import org.forgerock.openicf.common.protobuf.RPCMessages.CreditOpRequest;
 import org.forgerock.openicf.common.protobuf.RPCMessages.ControlRequest;
 import org.forgerock.openicf.common.protobuf.RPCMessages.ControlResponse;
 import org.forgerock.openicf.common.protobuf.RPCMessages.ExceptionMessage;
@@ -67,6 +69,7 @@ import org.identityconnectors.framework.api.ConnectorFacade;
 import org.identityconnectors.framework.api.ConnectorInfo;
 import org.identityconnectors.framework.api.ConnectorKey;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.identityconnectors.framework.common.exceptions.RetryableException;
 import org.identityconnectors.framework.impl.api.AbstractConnectorInfo;
 import org.identityconnectors.framework.impl.api.remote.RemoteConnectorInfoImpl;
 
@@ -162,17 +165,36 @@ public class OpenICFServerAdapter implements OperationMessageListener {
                         // long time and several of them multiplex over one
                         // socket. Keeping them out of the serial dispatch
                         // queue preserves their concurrency and keeps later
-                        // messages (e.g. CancelOpRequest) timely.
-                        connectorFramework.executeMessage(new Runnable() {
-                            @Override
-                            public void run() {
-                                processOperationRequest(socket, message.getMessageId(), message
-                                        .getRequest().getOperationRequest());
-                            }
-                        });
+                        // messages (e.g. CancelOpRequest) timely. The
+                        // connectors take turns when the pool is busy.
+                        try {
+                            connectorFramework.executeOperation(message.getRequest()
+                                    .getOperationRequest().getConnectorKey().getConnectorName(),
+                                    new Runnable() {
+                                        @Override
+                                        public void run() {
+                                            processOperationRequest(socket, message
+                                                    .getMessageId(), message.getRequest()
+                                                    .getOperationRequest());
+                                        }
+                                    });
+                        } catch (RejectedExecutionException e) {
+                            logger.info("{0} rejected Request({1}): {2}", loggerName(), message
+                                    .getMessageId(), e.getMessage());
+                            socket.getRemoteConnectionContext().getRemoteConnectionGroup()
+                                    .trySendMessage(
+                                            MessagesUtil.createErrorResponse(
+                                                    message.getMessageId(),
+                                                    RetryableException.wrap(
+                                                            "Connector server is overloaded", e))
+                                                    .build());
+                        }
                     } else if (message.getRequest().hasCancelOpRequest()) {
                         processCancelOpRequest(socket, message.getMessageId(), message.getRequest()
                                 .getCancelOpRequest());
+                    } else if (message.getRequest().hasCreditOpRequest()) {
+                        processCreditOpRequest(socket, message.getMessageId(), message.getRequest()
+                                .getCreditOpRequest());
                     } else if (message.getRequest().hasControlRequest()) {
                         processControlRequest(socket, message.getMessageId(), message.getRequest()
                                 .getControlRequest());
@@ -358,19 +380,31 @@ public class OpenICFServerAdapter implements OperationMessageListener {
         logger.ok("IN Request({0}:{1})", messageId, socket.getRemoteConnectionContext()
                 .getRemotePrincipal().getName());
 
-        final String connectorFacadeKey = message.getConnectorFacadeKey().toStringUtf8();
-
         if (message.hasConfigurationChangeEvent()) {
             List<ConfigurationProperty> changes =
                     MessagesUtil.deserializeLegacy(message.getConfigurationChangeEvent()
                             .getConfigurationPropertyChange());
 
             socket.getRemoteConnectionContext().getRemoteConnectionGroup()
-                    .notifyConfigurationChangeListener(connectorFacadeKey, changes);
+                    .notifyConfigurationChangeListener(
+                            message.getConnectorFacadeKey().toStringUtf8(), changes);
         } else {
 
             final CommonObjectMessages.ConnectorKey connectorKey = message.getConnectorKey();
 
+            // Registers the configuration before anything is answered
+            final String connectorFacadeKey;
+            try {
+                connectorFacadeKey =
+                        socket.getRemoteConnectionContext().getRemoteConnectionGroup()
+                                .resolveConnectorFacadeKey(message);
+            } catch (ConnectorException e) {
+                logger.ok(e, "Failed to resolve connectorFacadeKey {0}", messageId);
+                socket.getRemoteConnectionContext().getRemoteConnectionGroup().trySendMessage(
+                        MessagesUtil.createErrorResponse(messageId, e).build());
+                return;
+            }
+
             ConnectorInfo info = findConnectorInfo(connectorKey);
             if (info == null) {
                 RemoteMessage.Builder response =
@@ -427,7 +461,8 @@ public class OpenICFServerAdapter implements OperationMessageListener {
                                 socket, message.getScriptOnResourceOpRequest());
                     } else if (message.hasSearchOpRequest()) {
                         processor = SearchAsyncApiOpImpl.createProcessor(messageId, socket,
-                                message.getSearchOpRequest());
+                                message.getSearchOpRequest(), connectorFramework
+                                        .getMessageExecutor());
                     } else if (message.hasSyncOpRequest()) {
                         processor = SyncAsyncApiOpImpl.createProcessor(messageId, socket,
                                 message.getSyncOpRequest());
@@ -491,6 +526,12 @@ public class OpenICFServerAdapter implements OperationMessageListener {
                 messageId);
     }
 
+    public void processCreditOpRequest(final WebSocketConnectionHolder socket, long messageId,
+            final CreditOpRequest message) {
+        socket.getRemoteConnectionContext().getRemoteConnectionGroup().receiveRequestUpdate(
+                socket, messageId, message);
+    }
+
     protected Encryptor initialiseEncryptor() {
         HandshakeMessage message = null;
         // Create Encryptor
@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 
 package org.forgerock.openicf.framework.remote.rpc;
@@ -28,6 +29,7 @@ import java.util.concurrent.CancellationException;
 
 import org.forgerock.openicf.common.protobuf.RPCMessages;
 import org.forgerock.openicf.common.protobuf.RPCMessages.CancelOpRequest;
+import org.forgerock.openicf.common.protobuf.RPCMessages.CreditOpRequest;
 import org.forgerock.openicf.common.protobuf.RPCMessages.ExceptionMessage;
 import org.forgerock.openicf.common.protobuf.RPCMessages.RPCRequest;
 import org.forgerock.openicf.common.protobuf.RPCMessages.RemoteMessage;
@@ -107,6 +109,23 @@ public abstract class RemoteOperationRequest<V>
         trySendBytes(cancelMessage);
     }
 
+    /**
+     * Grants the remote operation more results, see
+     * {@link org.forgerock.openicf.common.protobuf.RPCMessages.HandshakeMessage.Feature#FLOW_CONTROL}.
+     */
+    protected void tryGrantCredits(long credits) {
+        final byte[] creditMessage =
+                RemoteMessage.newBuilder().setMessageId(getRequestId()).setRequest(
+                        RPCRequest.newBuilder().setCreditOpRequest(
+                                CreditOpRequest.newBuilder().setCredits(credits))).build()
+                        .toByteArray();
+        try {
+            trySendBytes(creditMessage);
+        } catch (ConnectorIOException e) {
+            logger.ok(e, "Failed to grant credits to request {0}", getRequestId());
+        }
+    }
+
     protected RuntimeException createCancellationException(Throwable cancellationException) {
         if (cancellationException instanceof Exception)
             return (RuntimeException) cancellationException;
@@ -0,0 +1,33 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+
+package org.forgerock.openicf.framework.remote.rpc;
+
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
+
+/**
+ * Thrown when a request carries only the connectorFacadeId of a configuration
+ * which is not registered, the requester sends it again with the
+ * connectorFacadeKey.
+ */
+public class UnknownConnectorFacadeIdException extends ConnectorException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnknownConnectorFacadeIdException() {
+        super("Unknown connectorFacadeId");
+    }
+}
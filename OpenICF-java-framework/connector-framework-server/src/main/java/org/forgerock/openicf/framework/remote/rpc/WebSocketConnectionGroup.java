@@ -20,7 +20,9 @@ package org.forgerock.openicf.framework.remote.rpc;
 import java.io.Closeable;
 import java.security.Principal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -32,6 +34,8 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.forgerock.openicf.common.protobuf.OperationMessages.OperationRequest;
+import org.forgerock.openicf.common.protobuf.OperationMessages.OperationRequestOrBuilder;
 import org.forgerock.openicf.common.protobuf.RPCMessages;
 import org.forgerock.openicf.common.protobuf.RPCMessages.ControlRequest;
 import org.forgerock.openicf.common.protobuf.RPCMessages.ControlRequest.InfoLevel;
@@ -58,6 +62,7 @@ import org.identityconnectors.framework.api.ConnectorInfo;
 import org.identityconnectors.framework.api.ConnectorKey;
 import org.identityconnectors.framework.impl.api.AbstractConnectorInfo;
 
+import com.google.protobuf.ByteString;
 import com.google.protobuf.MessageLite;
 
 public class WebSocketConnectionGroup
@@ -67,12 +72,65 @@ public class WebSocketConnectionGroup
 
     private static final Log logger = Log.getLog(WebSocketConnectionGroup.class);
 
+    /**
+     * The number of configurations kept for the remote peer, the least
+     * recently used is forgotten first and its key is sent again when needed.
+     */
+    static final int MAX_CONFIGURATIONS = 256;
+
     private long lastActivity = System.currentTimeMillis();
     
     private Encryptor encryptor = null;
 
     private RemoteOperationContext operationContext = null;
 
+    // Set from the handshake of the remote peer.
+    private volatile boolean nativeEncoding = false;
+    private volatile boolean batchedResults = false;
+    private volatile boolean flowControl = false;
+    private volatile boolean configurationId = false;
+
+    /**
+     * The configurations sent to the remote peer by connectorFacadeKey.
+     */
+    private final Map<ByteString, ConfigurationId> sentConfigurations = Collections
+            .synchronizedMap(new ConfigurationMap<ConfigurationId>());
+
+    /**
+     * The connectorFacadeKeys registered by the remote peer by id.
+     */
+    private final Map<ByteString, String> receivedConfigurations = Collections
+            .synchronizedMap(new ConfigurationMap<String>());
+
+    private static final class ConfigurationMap<V> extends LinkedHashMap<ByteString, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private ConfigurationMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteString, V> eldest) {
+            return size() > MAX_CONFIGURATIONS;
+        }
+    }
+
+    private static final class ConfigurationId {
+
+        private final ByteString id;
+
+        /**
+         * Set once the remote peer answered a request which carried the
+         * connectorFacadeKey.
+         */
+        private volatile boolean registered = false;
+
+        private ConfigurationId(ByteString id) {
+            this.id = id;
+        }
+    }
+
     private final AtomicBoolean isRunning = new AtomicBoolean(Boolean.TRUE);
     private final Set<String> principals = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
 
@@ -110,6 +168,14 @@ public class WebSocketConnectionGroup
             }
         }
         if (remoteSessionId.equals(message.getSessionId())) {
+            nativeEncoding =
+                    message.getFeaturesList().contains(HandshakeMessage.Feature.NATIVE_ENCODING);
+            batchedResults =
+                    message.getFeaturesList().contains(HandshakeMessage.Feature.BATCHED_RESULTS);
+            flowControl =
+                    message.getFeaturesList().contains(HandshakeMessage.Feature.FLOW_CONTROL);
+            configurationId =
+                    message.getFeaturesList().contains(HandshakeMessage.Feature.CONFIGURATION_ID);
             final Pair<String, WebSocketConnectionHolder> entry =
                     Pair.of(connectionPrincipal.getName(), webSocketConnection);
             webSockets.add(entry);
@@ -169,6 +235,142 @@ public class WebSocketConnectionGroup
         return requestFactory;
     }
 
+    /**
+     * Returns true if the remote peer advertised
+     * {@link HandshakeMessage.Feature#NATIVE_ENCODING} in its handshake so the
+     * search requests and results are encoded with protobuf messages instead of
+     * the legacy binary serializer.
+     */
+    public boolean isNativeEncoding() {
+        return nativeEncoding;
+    }
+
+    /**
+     * Returns true if the remote peer advertised
+     * {@link HandshakeMessage.Feature#BATCHED_RESULTS} in its handshake so more
+     * than one search result may be sent in a single response.
+     */
+    public boolean isBatchedResults() {
+        return batchedResults;
+    }
+
+    /**
+     * Returns true if the remote peer advertised
+     * {@link HandshakeMessage.Feature#FLOW_CONTROL} in its handshake so the
+     * search and sync results are sent only while the receiver has granted
+     * credits.
+     */
+    public boolean isFlowControl() {
+        return flowControl;
+    }
+
+    /**
+     * Returns true if the remote peer advertised
+     * {@link HandshakeMessage.Feature#CONFIGURATION_ID} in its handshake so
+     * the requests carry only the id of a configuration it has registered.
+     */
+    public boolean isConfigurationId() {
+        return configurationId;
+    }
+
+    /**
+     * Sets the connectorFacadeKey of the request. Once the remote peer has
+     * registered the configuration only its id is sent.
+     */
+    public void setConnectorFacadeKey(final OperationRequest.Builder request,
+            final ByteString connectorFacadeKey) {
+        if (!configurationId) {
+            request.setConnectorFacadeKey(connectorFacadeKey);
+            return;
+        }
+        ConfigurationId id = sentConfigurations.get(connectorFacadeKey);
+        if (null == id) {
+            id = new ConfigurationId(MessagesUtil.computeConfigurationId(connectorFacadeKey));
+            ConfigurationId tmp = sentConfigurations.putIfAbsent(connectorFacadeKey, id);
+            if (null != tmp) {
+                id = tmp;
+            }
+        }
+        request.setConnectorFacadeId(id.id);
+        if (!id.registered) {
+            // The requests sent before the first answer may overtake each
+            // other on different sockets, so they all carry the key.
+            request.setConnectorFacadeKey(connectorFacadeKey);
+        }
+    }
+
+    /**
+     * Updates the state of the configuration of the request with the first
+     * response to it. When the remote peer does not know the id any more the
+     * connectorFacadeKey is set on the request, so it can be sent again.
+     *
+     * @return true if the request has to be sent again.
+     */
+    public boolean receiveConnectorFacadeKeyResponse(final OperationRequest.Builder request,
+            final Object response) {
+        if (request.getConnectorFacadeId().isEmpty()) {
+            return false;
+        }
+        if (!request.getConnectorFacadeKey().isEmpty()) {
+            // The remote peer registers the key before it processes the request
+            ConfigurationId id = sentConfigurations.get(request.getConnectorFacadeKey());
+            if (null != id) {
+                id.registered = true;
+            }
+        } else if (response instanceof RPCMessages.ExceptionMessage
+                && UnknownConnectorFacadeIdException.class.getName().equals(
+                        ((RPCMessages.ExceptionMessage) response).getExceptionClass())) {
+            // The remote peer lost the registration, the key is sent again
+            ByteString connectorFacadeKey = null;
+            synchronized (sentConfigurations) {
+                for (Map.Entry<ByteString, ConfigurationId> entry : sentConfigurations.entrySet()) {
+                    if (entry.getValue().id.equals(request.getConnectorFacadeId())) {
+                        entry.getValue().registered = false;
+                        connectorFacadeKey = entry.getKey();
+                    }
+                }
+            }
+            if (null != connectorFacadeKey) {
+                request.setConnectorFacadeKey(connectorFacadeKey);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the connectorFacadeKey of a request received from the remote
+     * peer and registers it when the request carries its id as well.
+     *
+     * @throws UnknownConnectorFacadeIdException
+     *             if the request carries only an id which is not registered.
+     */
+    public String resolveConnectorFacadeKey(final OperationRequestOrBuilder request) {
+        final ByteString facadeKey = request.getConnectorFacadeKey();
+        if (request.getConnectorFacadeId().isEmpty()) {
+            return facadeKey.toStringUtf8();
+        } else if (facadeKey.isEmpty()) {
+            String connectorFacadeKey = receivedConfigurations.get(request.getConnectorFacadeId());
+            if (null == connectorFacadeKey) {
+                throw new UnknownConnectorFacadeIdException();
+            }
+            return connectorFacadeKey;
+        } else {
+            // The id is computed here, a peer can not register a key under
+            // another id.
+            final ByteString id = MessagesUtil.computeConfigurationId(facadeKey);
+            String connectorFacadeKey = receivedConfigurations.get(id);
+            if (null == connectorFacadeKey) {
+                connectorFacadeKey = facadeKey.toStringUtf8();
+                String tmp = receivedConfigurations.putIfAbsent(id, connectorFacadeKey);
+                if (null != tmp) {
+                    connectorFacadeKey = tmp;
+                }
+            }
+            return connectorFacadeKey;
+        }
+    }
+
     public void principalIsShuttingDown(final Principal connectionPrincipal) {
         final String name = connectionPrincipal.getName();
         if (principals.remove(name)) {
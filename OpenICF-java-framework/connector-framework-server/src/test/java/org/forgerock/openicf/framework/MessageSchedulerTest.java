@@ -0,0 +1,149 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.framework;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class MessageSchedulerTest {
+
+    private ExecutorService executor;
+    private CountDownLatch release;
+    private List<String> executed;
+
+    @BeforeMethod
+    public void before() {
+        executor = Executors.newCachedThreadPool();
+        release = new CountDownLatch(1);
+        executed = new ArrayList<String>();
+    }
+
+    @AfterMethod
+    public void after() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private Runnable task(final String name, final CountDownLatch done) {
+        return new Runnable() {
+            public void run() {
+                synchronized (executed) {
+                    executed.add(name);
+                }
+                done.countDown();
+            }
+        };
+    }
+
+    private Runnable blockingTask() {
+        return blockingTask(release);
+    }
+
+    private Runnable blockingTask(final CountDownLatch release) {
+        return new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    /*
+     * Queues the tasks behind a blocking one and lets them run one at a time.
+     */
+    private List<String> runInTurn(MessageScheduler scheduler, String... names)
+            throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(names.length);
+        CountDownLatch start = new CountDownLatch(1);
+        // Holds one of the two slots until the end of the test
+        scheduler.execute("x", blockingTask());
+        scheduler.execute("y", blockingTask(start));
+        for (String name : names) {
+            scheduler.execute(name.substring(0, 1), task(name, done));
+        }
+        start.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        return executed;
+    }
+
+    @Test
+    public void testQueuesTakeTurns() throws Exception {
+        MessageScheduler scheduler = new MessageScheduler(executor, 2, 2, 10);
+        Assert.assertEquals(runInTurn(scheduler, "a1", "a2", "a3", "b1", "b2", "c1"), Arrays
+                .asList("a1", "b1", "c1", "a2", "b2", "a3"));
+    }
+
+    @Test
+    public void testWeight() throws Exception {
+        MessageScheduler scheduler = new MessageScheduler(executor, 2, 2, 10);
+        scheduler.setWeight("a", 2);
+        Assert.assertEquals(runInTurn(scheduler, "a1", "a2", "a3", "b1", "b2"), Arrays.asList(
+                "a1", "a2", "b1", "a3", "b2"));
+    }
+
+    @Test
+    public void testConcurrencyLimits() throws Exception {
+        MessageScheduler scheduler = new MessageScheduler(executor, 3, 2, 10);
+        scheduler.execute("a", blockingTask());
+        scheduler.execute("a", blockingTask());
+        scheduler.execute("a", blockingTask());
+        Assert.assertEquals(scheduler.getRunning(), 2);
+        Assert.assertEquals(scheduler.getQueued(), 1);
+
+        // The other connectors still have room
+        scheduler.execute("b", blockingTask());
+        Assert.assertEquals(scheduler.getRunning(), 3);
+        scheduler.execute("b", blockingTask());
+        Assert.assertEquals(scheduler.getQueued(), 2);
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (scheduler.getRunning() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(scheduler.getRunning(), 0);
+        Assert.assertEquals(scheduler.getQueued(), 0);
+    }
+
+    @Test
+    public void testRejectWhenFull() throws Exception {
+        MessageScheduler scheduler = new MessageScheduler(executor, 1, 1, 1);
+        scheduler.execute("a", blockingTask());
+        scheduler.execute("a", blockingTask());
+        try {
+            scheduler.execute("b", blockingTask());
+            Assert.fail("The task must be rejected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        Assert.assertEquals(scheduler.getRunning(), 1);
+        Assert.assertEquals(scheduler.getQueued(), 1);
+    }
+}
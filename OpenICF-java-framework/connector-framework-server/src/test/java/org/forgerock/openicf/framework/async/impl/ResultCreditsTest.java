@@ -0,0 +1,78 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.framework.async.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ResultCreditsTest {
+
+    @Test
+    public void testUnlimited() {
+        ResultCredits credits = new ResultCredits(0);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(credits.tryAcquire());
+        }
+        Assert.assertTrue(credits.acquire());
+        credits.close();
+        Assert.assertFalse(credits.acquire());
+    }
+
+    @Test
+    public void testGrant() throws Exception {
+        final ResultCredits credits = new ResultCredits(2);
+        Assert.assertTrue(credits.tryAcquire());
+        Assert.assertTrue(credits.tryAcquire());
+        Assert.assertFalse(credits.tryAcquire());
+
+        final CountDownLatch acquired = new CountDownLatch(1);
+        Thread producer = new Thread() {
+            public void run() {
+                if (credits.acquire()) {
+                    acquired.countDown();
+                }
+            }
+        };
+        producer.start();
+        Assert.assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        credits.grant(1);
+        Assert.assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        producer.join();
+        Assert.assertFalse(credits.tryAcquire());
+    }
+
+    @Test
+    public void testCloseReleasesWaitingThread() throws Exception {
+        final ResultCredits credits = new ResultCredits(1);
+        Assert.assertTrue(credits.acquire());
+        final AtomicBoolean result = new AtomicBoolean(true);
+        Thread producer = new Thread() {
+            public void run() {
+                result.set(credits.acquire());
+            }
+        };
+        producer.start();
+        Thread.sleep(100);
+        credits.close();
+        producer.join(5000);
+        Assert.assertFalse(producer.isAlive());
+        Assert.assertFalse(result.get());
+    }
+}
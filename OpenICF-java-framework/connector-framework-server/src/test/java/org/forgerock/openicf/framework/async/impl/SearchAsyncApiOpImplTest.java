@@ -0,0 +1,157 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.framework.async.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openicf.common.protobuf.OperationMessages.SearchOpResponse;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the coalescing of the search results into batched responses.
+ */
+public class SearchAsyncApiOpImplTest {
+
+    private static final Executor EXECUTOR = new Executor() {
+        public void execute(Runnable command) {
+            Thread thread = new Thread(command, "SearchAsyncApiOpImplTest");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    };
+
+    private static class RecordingBatch extends SearchAsyncApiOpImpl.ResultBatch {
+        final List<SearchOpResponse> responses =
+                Collections.synchronizedList(new ArrayList<SearchOpResponse>());
+        final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+        volatile boolean fail = false;
+        volatile CountDownLatch sendLatch = null;
+
+        RecordingBatch(boolean nativeEncoding, int maxCount, int maxBytes, long lingerMillis) {
+            super(nativeEncoding, maxCount, maxBytes, lingerMillis, EXECUTOR);
+        }
+
+        protected boolean send(SearchOpResponse.Builder response) {
+            threads.add(Thread.currentThread().getName());
+            CountDownLatch latch = sendLatch;
+            if (null != latch) {
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            }
+            responses.add(response.build());
+            return !fail;
+        }
+    }
+
+    private static ConnectorObject newObject(int i) {
+        return new ConnectorObjectBuilder().setObjectClass(ObjectClass.ACCOUNT).setUid(
+                "uid" + i).setName("name" + i).build();
+    }
+
+    @Test
+    public void testMaxCount() {
+        RecordingBatch batch = new RecordingBatch(true, 3, Integer.MAX_VALUE, 0);
+        for (int i = 1; i <= 7; i++) {
+            Assert.assertTrue(batch.add(newObject(i)));
+        }
+        Assert.assertEquals(batch.responses.size(), 2);
+        Assert.assertTrue(batch.flush());
+        Assert.assertEquals(batch.responses.size(), 3);
+
+        long sequence = 1;
+        for (SearchOpResponse response : batch.responses) {
+            Assert.assertEquals(response.getSequence(), sequence);
+            Assert.assertEquals(response.getConnectorObjectsCount(), 0);
+            sequence += response.getNativeConnectorObjectsCount();
+        }
+        Assert.assertEquals(sequence, 8);
+        Assert.assertEquals(batch.responses.get(2).getNativeConnectorObjectsCount(), 1);
+    }
+
+    @Test
+    public void testMaxBytes() {
+        RecordingBatch batch = new RecordingBatch(false, 100, 1, 0);
+        Assert.assertTrue(batch.add(newObject(1)));
+        Assert.assertTrue(batch.add(newObject(2)));
+        Assert.assertEquals(batch.responses.size(), 2);
+        Assert.assertEquals(batch.responses.get(1).getSequence(), 2);
+        Assert.assertEquals(batch.responses.get(1).getConnectorObjectsCount(), 1);
+        Assert.assertEquals(batch.responses.get(1).getNativeConnectorObjectsCount(), 0);
+    }
+
+    @Test
+    public void testLinger() throws Exception {
+        RecordingBatch batch = new RecordingBatch(true, 100, Integer.MAX_VALUE, 50);
+        Assert.assertTrue(batch.add(newObject(1)));
+        Assert.assertTrue(batch.add(newObject(2)));
+        for (int i = 0; i < 50 && batch.responses.isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(batch.responses.size(), 1);
+        Assert.assertEquals(batch.responses.get(0).getNativeConnectorObjectsCount(), 2);
+        Assert.assertTrue(batch.flush());
+        Assert.assertEquals(batch.responses.size(), 1);
+        // the timer thread does not send
+        Assert.assertEquals(batch.threads.get(0), "SearchAsyncApiOpImplTest");
+    }
+
+    @Test
+    public void testSlowLingerSendDoesNotBlockAdd() throws Exception {
+        RecordingBatch batch = new RecordingBatch(true, 2, Integer.MAX_VALUE, 20);
+        batch.sendLatch = new CountDownLatch(1);
+        Assert.assertTrue(batch.add(newObject(1)));
+        for (int i = 0; i < 50 && batch.threads.isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(batch.threads.size(), 1);
+
+        // the linger batch is still being sent
+        long start = System.nanoTime();
+        Assert.assertTrue(batch.add(newObject(2)));
+        Assert.assertTrue(batch.add(newObject(3)));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        Assert.assertTrue(batch.responses.isEmpty());
+
+        batch.sendLatch.countDown();
+        Assert.assertTrue(batch.flush());
+        Assert.assertEquals(batch.responses.size(), 2);
+        Assert.assertEquals(batch.responses.get(0).getSequence(), 1);
+        Assert.assertEquals(batch.responses.get(1).getSequence(), 2);
+        Assert.assertEquals(batch.responses.get(1).getNativeConnectorObjectsCount(), 2);
+    }
+
+    @Test
+    public void testSendFailure() {
+        RecordingBatch batch = new RecordingBatch(true, 1, Integer.MAX_VALUE, 0);
+        batch.fail = true;
+        Assert.assertFalse(batch.add(newObject(1)));
+        Assert.assertFalse(batch.add(newObject(2)));
+        Assert.assertFalse(batch.flush());
+        Assert.assertEquals(batch.responses.size(), 1);
+    }
+}
@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 
 package org.forgerock.openicf.framework.remote.protobuf;
@@ -28,17 +29,33 @@ import static org.forgerock.openicf.framework.remote.MessagesUtil.deserializeMes
 import static org.forgerock.openicf.framework.remote.MessagesUtil.serializeMessage;
 import static org.testng.Assert.assertEquals;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
 import org.forgerock.openicf.common.protobuf.CommonObjectMessages;
+import org.forgerock.openicf.common.protobuf.ConnectorObjects;
+import org.forgerock.openicf.common.protobuf.FilterMessages;
+import org.forgerock.openicf.framework.remote.MessagesUtil;
+import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.api.ConnectorKey;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.OperationOptions;
+import org.identityconnectors.framework.common.objects.OperationOptionsBuilder;
+import org.identityconnectors.framework.common.objects.QualifiedUid;
 import org.identityconnectors.framework.common.objects.ScriptContext;
 import org.identityconnectors.framework.common.objects.ScriptContextBuilder;
 import org.identityconnectors.framework.common.objects.SearchResult;
+import org.identityconnectors.framework.common.objects.SortKey;
 import org.identityconnectors.framework.common.objects.SyncDelta;
 import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
 import org.identityconnectors.framework.common.objects.SyncDeltaType;
 import org.identityconnectors.framework.common.objects.SyncToken;
 import org.identityconnectors.framework.common.objects.Uid;
+import org.identityconnectors.framework.common.objects.filter.Filter;
+import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -99,4 +116,74 @@ public class MessagesUtilTest {
         Assert.assertEquals(deserializeMessage(message, SyncDelta.class), source);
     }
 
+    @Test
+    public void testConnectorObjectNativeSerialize() throws Exception {
+        ConnectorObjectBuilder builder =
+                new ConnectorObjectBuilder().setUid(new Uid("0", "rev1")).setName("name");
+        builder.addAttribute("string", "a", "b");
+        builder.addAttribute("long", 1L);
+        builder.addAttribute("integer", 2);
+        builder.addAttribute("boolean", true);
+        builder.addAttribute("character", 'c');
+        builder.addAttribute("byte", (byte) 3);
+        builder.addAttribute("bytes", new byte[] { 1, 2, 3 });
+        builder.addAttribute("bigDecimal", new BigDecimal("12.345"));
+        builder.addAttribute("bigInteger", new BigInteger("1234567890123456789"));
+        builder.addAttribute(AttributeBuilder.buildPassword("secret".toCharArray()));
+        builder.addAttribute(AttributeBuilder.build("null"));
+        builder.addAttribute(AttributeBuilder.build("empty", new Object[0]));
+        ConnectorObject source = builder.build();
+        ConnectorObjects.ConnectorObjectMessage message =
+                serializeMessage(source, ConnectorObjects.ConnectorObjectMessage.class);
+        ConnectorObject target = deserializeMessage(message, ConnectorObject.class);
+        Assert.assertEquals(target, source);
+        Assert.assertEquals(target.getUid().getRevision(), "rev1");
+        Assert.assertNull(target.getAttributeByName("null").getValue());
+        Assert.assertEquals(target.getAttributeByName("empty").getValue().size(), 0);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testConnectorObjectNativeSerializeMap() throws Exception {
+        ConnectorObjectBuilder builder = new ConnectorObjectBuilder().setUid("0").setName("0");
+        builder.addAttribute("map", java.util.Collections.singletonMap("key", "value"));
+        serializeMessage(builder.build(), ConnectorObjects.ConnectorObjectMessage.class);
+    }
+
+    @Test
+    public void testFilterNativeSerialize() throws Exception {
+        Filter source =
+                FilterBuilder.and(FilterBuilder.or(FilterBuilder.equalTo(AttributeBuilder.build(
+                        "a", "x", "y")), FilterBuilder.startsWith(AttributeBuilder.build("b",
+                        "v"))), FilterBuilder.not(FilterBuilder.greaterThanOrEqualTo(AttributeBuilder
+                        .build("c", 10))), FilterBuilder.lessThan(AttributeBuilder.build("d", 1L)),
+                        FilterBuilder.containsAllValues(AttributeBuilder.build("e", "1", "2")),
+                        FilterBuilder.present("f"), FilterBuilder.equalTo(new Uid("1")));
+        FilterMessages.FilterUnionMessage message = MessagesUtil.fromFilter(source).build();
+        Filter target = MessagesUtil.toFilter(message);
+        Assert.assertEquals(target.toString(), source.toString());
+    }
+
+    @Test
+    public void testOperationOptionsNativeSerialize() throws Exception {
+        OperationOptionsBuilder builder = new OperationOptionsBuilder();
+        builder.setAttributesToGet("a", "b");
+        builder.setPageSize(10);
+        builder.setPagedResultsCookie("cookie");
+        builder.setSortKeys(new SortKey("a", true), new SortKey("b", false));
+        builder.setContainer(new QualifiedUid(ObjectClass.GROUP, new Uid("group")));
+        builder.setRunWithPassword(new GuardedString("secret".toCharArray()));
+        OperationOptions source = builder.build();
+        ConnectorObjects.OperationOptionsMessage message =
+                MessagesUtil.fromOperationOptions(source).build();
+        OperationOptions target = MessagesUtil.toOperationOptions(message);
+        Assert.assertEquals(target.getAttributesToGet(), source.getAttributesToGet());
+        Assert.assertEquals(target.getPageSize(), source.getPageSize());
+        Assert.assertEquals(target.getPagedResultsCookie(), "cookie");
+        Assert.assertEquals(target.getSortKeys().length, 2);
+        Assert.assertEquals(target.getSortKeys()[1].getField(), "b");
+        Assert.assertFalse(target.getSortKeys()[1].isAscendingOrder());
+        Assert.assertEquals(target.getContainer(), source.getContainer());
+        Assert.assertEquals(target.getRunWithPassword(), source.getRunWithPassword());
+    }
+
 }
@@ -0,0 +1,204 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.framework.remote.rpc;
+
+import java.security.Principal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import org.forgerock.openicf.common.protobuf.OperationMessages.OperationRequest;
+import org.forgerock.openicf.common.protobuf.OperationMessages.OperationResponse;
+import org.forgerock.openicf.common.protobuf.RPCMessages.HandshakeMessage;
+import org.forgerock.openicf.framework.remote.MessagesUtil;
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Tests the registration of the connectorFacadeKeys by id between the
+ * {@link WebSocketConnectionGroup} of a client and of a server.
+ */
+public class WebSocketConnectionGroupTest {
+
+    private static final String SESSION_ID = "session";
+
+    private static final ByteString FACADE_KEY = ByteString.copyFromUtf8("serialized configuration");
+
+    private static WebSocketConnectionGroup newGroup(boolean configurationId) {
+        WebSocketConnectionGroup group = new WebSocketConnectionGroup(SESSION_ID);
+        HandshakeMessage.Builder message = HandshakeMessage.newBuilder().setSessionId(SESSION_ID);
+        if (configurationId) {
+            message.addFeatures(HandshakeMessage.Feature.CONFIGURATION_ID);
+        }
+        group.handshake(new Principal() {
+            public String getName() {
+                return "principal";
+            }
+        }, newHolder(), message.build());
+        return group;
+    }
+
+    private static WebSocketConnectionHolder newHolder() {
+        return new WebSocketConnectionHolder() {
+
+            protected void handshake(HandshakeMessage message) {
+            }
+
+            protected void tryClose() {
+            }
+
+            public boolean isOperational() {
+                return true;
+            }
+
+            public RemoteOperationContext getRemoteConnectionContext() {
+                return null;
+            }
+
+            public Future<?> sendBytes(byte[] data) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            public Future<?> sendString(String data) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            public void sendPing(byte[] applicationData) throws Exception {
+            }
+
+            public void sendPong(byte[] applicationData) throws Exception {
+            }
+        };
+    }
+
+    private static OperationRequest.Builder newRequest(WebSocketConnectionGroup client) {
+        return newRequest(client, FACADE_KEY);
+    }
+
+    private static OperationRequest.Builder newRequest(WebSocketConnectionGroup client,
+            ByteString facadeKey) {
+        OperationRequest.Builder request = OperationRequest.newBuilder();
+        client.setConnectorFacadeKey(request, facadeKey);
+        return request;
+    }
+
+    @Test
+    public void testKeyIsSentUntilRegistered() {
+        WebSocketConnectionGroup client = newGroup(true);
+        WebSocketConnectionGroup server = newGroup(true);
+
+        OperationRequest.Builder first = newRequest(client);
+        Assert.assertEquals(first.getConnectorFacadeKey(), FACADE_KEY);
+        Assert.assertEquals(first.getConnectorFacadeId().size(), 16);
+        Assert.assertEquals(server.resolveConnectorFacadeKey(first), FACADE_KEY.toStringUtf8());
+
+        // No response yet
+        Assert.assertEquals(newRequest(client).getConnectorFacadeKey(), FACADE_KEY);
+
+        client.receiveConnectorFacadeKeyResponse(first, OperationResponse.getDefaultInstance());
+        OperationRequest.Builder next = newRequest(client);
+        Assert.assertTrue(next.getConnectorFacadeKey().isEmpty());
+        Assert.assertEquals(next.getConnectorFacadeId(), first.getConnectorFacadeId());
+        Assert.assertEquals(server.resolveConnectorFacadeKey(next), FACADE_KEY.toStringUtf8());
+    }
+
+    @Test
+    public void testKeyIsSentAgainWhenIdIsUnknown() {
+        WebSocketConnectionGroup client = newGroup(true);
+        OperationRequest.Builder first = newRequest(client);
+        client.receiveConnectorFacadeKeyResponse(first, OperationResponse.getDefaultInstance());
+
+        OperationRequest.Builder next = newRequest(client);
+        Assert.assertTrue(next.getConnectorFacadeKey().isEmpty());
+        WebSocketConnectionGroup server = newGroup(true);
+        ConnectorException error = null;
+        try {
+            server.resolveConnectorFacadeKey(next);
+            Assert.fail("The id is not registered");
+        } catch (UnknownConnectorFacadeIdException e) {
+            error = e;
+        }
+
+        // The same request is sent again with the key
+        Assert.assertTrue(client.receiveConnectorFacadeKeyResponse(next, MessagesUtil
+                .fromException(error, 4).build()));
+        Assert.assertEquals(next.getConnectorFacadeKey(), FACADE_KEY);
+        Assert.assertEquals(server.resolveConnectorFacadeKey(next), FACADE_KEY.toStringUtf8());
+        Assert.assertEquals(newRequest(client).getConnectorFacadeKey(), FACADE_KEY);
+
+        Assert.assertFalse(client.receiveConnectorFacadeKeyResponse(next, OperationResponse
+                .getDefaultInstance()));
+        Assert.assertTrue(newRequest(client).getConnectorFacadeKey().isEmpty());
+    }
+
+    @Test
+    public void testOtherErrorIsNotSentAgain() {
+        WebSocketConnectionGroup client = newGroup(true);
+        OperationRequest.Builder first = newRequest(client);
+        client.receiveConnectorFacadeKeyResponse(first, OperationResponse.getDefaultInstance());
+
+        OperationRequest.Builder next = newRequest(client);
+        Assert.assertFalse(client.receiveConnectorFacadeKeyResponse(next, MessagesUtil
+                .fromException(new ConnectorException("Unknown connectorFacadeId"), 4).build()));
+        Assert.assertTrue(next.getConnectorFacadeKey().isEmpty());
+    }
+
+    @Test
+    public void testConfigurationsAreBounded() {
+        WebSocketConnectionGroup client = newGroup(true);
+        WebSocketConnectionGroup server = newGroup(true);
+        for (int i = 0; i <= WebSocketConnectionGroup.MAX_CONFIGURATIONS; i++) {
+            OperationRequest.Builder request =
+                    newRequest(client, ByteString.copyFromUtf8("configuration " + i));
+            server.resolveConnectorFacadeKey(request);
+            client.receiveConnectorFacadeKeyResponse(request, OperationResponse.getDefaultInstance());
+        }
+
+        // The least recently used is forgotten on both sides
+        OperationRequest.Builder first =
+                newRequest(client, ByteString.copyFromUtf8("configuration 0"));
+        Assert.assertFalse(first.getConnectorFacadeKey().isEmpty());
+        first.clearConnectorFacadeKey();
+        try {
+            server.resolveConnectorFacadeKey(first);
+            Assert.fail("The id is not registered");
+        } catch (UnknownConnectorFacadeIdException e) {
+            // expected
+        }
+        OperationRequest.Builder last =
+                newRequest(client, ByteString.copyFromUtf8("configuration "
+                        + WebSocketConnectionGroup.MAX_CONFIGURATIONS));
+        Assert.assertTrue(last.getConnectorFacadeKey().isEmpty());
+        Assert.assertEquals(server.resolveConnectorFacadeKey(last), "configuration "
+                + WebSocketConnectionGroup.MAX_CONFIGURATIONS);
+    }
+
+    @Test
+    public void testKeyIsAlwaysSentWithoutFeature() {
+        WebSocketConnectionGroup client = newGroup(false);
+        OperationRequest.Builder first = newRequest(client);
+        Assert.assertTrue(first.getConnectorFacadeId().isEmpty());
+        client.receiveConnectorFacadeKeyResponse(first, OperationResponse.getDefaultInstance());
+
+        OperationRequest.Builder next = newRequest(client);
+        Assert.assertEquals(next.getConnectorFacadeKey(), FACADE_KEY);
+        Assert.assertTrue(next.getConnectorFacadeId().isEmpty());
+        Assert.assertEquals(newGroup(false).resolveConnectorFacadeKey(next), FACADE_KEY
+                .toStringUtf8());
+    }
+}
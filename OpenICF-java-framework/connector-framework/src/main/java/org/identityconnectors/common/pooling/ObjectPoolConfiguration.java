@@ -20,6 +20,7 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * Portions Copyrighted 2010-2013 ForgeRock AS.
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.common.pooling;
 
@@ -40,6 +41,10 @@ public final class ObjectPoolConfiguration {
         this.setMaxWait(other.getMaxWait());
         this.setMinEvictableIdleTimeMillis(other.getMinEvictableIdleTimeMillis());
         this.setMinIdle(other.getMinIdle());
+        this.setLockFreePool(other.isLockFreePool());
+        this.setTimeBetweenEvictionRunsMillis(other.getTimeBetweenEvictionRunsMillis());
+        this.setValidateIdleTimeMillis(other.getValidateIdleTimeMillis());
+        this.setWarmUp(other.isWarmUp());
     }
 
     /**
@@ -69,6 +74,28 @@ public final class ObjectPoolConfiguration {
      */
     private int minIdle = 1;
 
+    /**
+     * Use the lock-free pool implementation with background eviction.
+     */
+    private boolean lockFreePool = false;
+
+    /**
+     * Time between two runs of the background idle object evictor. Zero
+     * means no background eviction. Used only by the lock-free pool.
+     */
+    private long timeBetweenEvictionRunsMillis = 30 * 1000;
+
+    /**
+     * Minimum time an idle object must sit in the pool before it is tested on
+     * borrow. Zero means always test. Used only by the lock-free pool.
+     */
+    private long validateIdleTimeMillis = 0;
+
+    /**
+     * Fill the pool to {@code minIdle} objects in the background.
+     */
+    private boolean warmUp = false;
+
     /**
      * Get the set number of maximum objects (idle+active).
      */
@@ -144,6 +171,87 @@ public final class ObjectPoolConfiguration {
         this.minIdle = minIdle;
     }
 
+    /**
+     * Returns true if the lock-free pool implementation should be used.
+     *
+     * @since 2.1
+     */
+    public boolean isLockFreePool() {
+        return lockFreePool;
+    }
+
+    /**
+     * Selects the lock-free pool implementation which keeps the idle objects
+     * in a non-blocking stack and evicts them from a background thread instead
+     * of on every borrow and return.
+     *
+     * @since 2.1
+     */
+    public void setLockFreePool(boolean lockFreePool) {
+        this.lockFreePool = lockFreePool;
+    }
+
+    /**
+     * Time between two runs of the background idle object evictor. Zero
+     * means no background eviction.
+     *
+     * @since 2.1
+     */
+    public long getTimeBetweenEvictionRunsMillis() {
+        return timeBetweenEvictionRunsMillis;
+    }
+
+    /**
+     * Time between two runs of the background idle object evictor. Zero
+     * means no background eviction.
+     *
+     * @since 2.1
+     */
+    public void setTimeBetweenEvictionRunsMillis(long timeBetweenEvictionRunsMillis) {
+        this.timeBetweenEvictionRunsMillis = timeBetweenEvictionRunsMillis;
+    }
+
+    /**
+     * Minimum time an idle object must sit in the pool before it is tested on
+     * borrow. Zero means always test.
+     *
+     * @since 2.1
+     */
+    public long getValidateIdleTimeMillis() {
+        return validateIdleTimeMillis;
+    }
+
+    /**
+     * Minimum time an idle object must sit in the pool before it is tested on
+     * borrow. Zero means always test.
+     *
+     * @since 2.1
+     */
+    public void setValidateIdleTimeMillis(long validateIdleTimeMillis) {
+        this.validateIdleTimeMillis = validateIdleTimeMillis;
+    }
+
+    /**
+     * Returns true if the pool is filled to {@code minIdle} objects in the
+     * background.
+     *
+     * @since 2.1
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * Fill the pool to {@code minIdle} objects in the background when it is
+     * created and whenever disposing objects drops the number of idle objects
+     * below {@code minIdle}.
+     *
+     * @since 2.1
+     */
+    public void setWarmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+
     public void validate() {
         if (minIdle < 0) {
             throw new IllegalArgumentException("Min idle is less than zero.");
@@ -160,6 +268,12 @@ public final class ObjectPoolConfiguration {
         if (minEvictableIdleTimeMillis < 0) {
             throw new IllegalArgumentException("Min evictable idle time millis less than zero.");
         }
+        if (timeBetweenEvictionRunsMillis < 0) {
+            throw new IllegalArgumentException("Time between eviction runs is less than zero.");
+        }
+        if (validateIdleTimeMillis < 0) {
+            throw new IllegalArgumentException("Validate idle time millis less than zero.");
+        }
         if (minIdle > maxIdle) {
             throw new IllegalArgumentException("Min idle is greater than max idle.");
         }
@@ -171,7 +285,9 @@ public final class ObjectPoolConfiguration {
     @Override
     public int hashCode() {
         return (int) (getMaxObjects() + getMaxIdle() + getMaxWait()
-                + getMinEvictableIdleTimeMillis() + getMinIdle());
+                + getMinEvictableIdleTimeMillis() + getMinIdle()
+                + getTimeBetweenEvictionRunsMillis() + getValidateIdleTimeMillis())
+                + (isLockFreePool() ? 1 : 0) + (isWarmUp() ? 2 : 0);
     }
 
     @Override
@@ -194,6 +310,18 @@ public final class ObjectPoolConfiguration {
             if (getMinIdle() != other.getMinIdle()) {
                 return false;
             }
+            if (isLockFreePool() != other.isLockFreePool()) {
+                return false;
+            }
+            if (getTimeBetweenEvictionRunsMillis() != other.getTimeBetweenEvictionRunsMillis()) {
+                return false;
+            }
+            if (getValidateIdleTimeMillis() != other.getValidateIdleTimeMillis()) {
+                return false;
+            }
+            if (isWarmUp() != other.isWarmUp()) {
+                return false;
+            }
             return true;
         }
         return false;
@@ -208,6 +336,10 @@ public final class ObjectPoolConfiguration {
         bld.put("MaxWait", getMaxWait());
         bld.put("MinEvictableIdleTimeMillis", getMinEvictableIdleTimeMillis());
         bld.put("MinIdle", getMinIdle());
+        bld.put("LockFreePool", isLockFreePool());
+        bld.put("TimeBetweenEvictionRunsMillis", getTimeBetweenEvictionRunsMillis());
+        bld.put("ValidateIdleTimeMillis", getValidateIdleTimeMillis());
+        bld.put("WarmUp", isWarmUp());
         return bld.toString();
     }
 }
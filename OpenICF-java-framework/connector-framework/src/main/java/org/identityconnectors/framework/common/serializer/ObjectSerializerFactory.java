@@ -23,9 +23,11 @@
  */
 package org.identityconnectors.framework.common.serializer;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
 import org.xml.sax.InputSource;
@@ -96,6 +98,22 @@ public abstract class ObjectSerializerFactory {
      */
     public abstract BinaryObjectDeserializer newBinaryDeserializer(InputStream is);
 
+    /**
+     * Creates a <code>BinaryObjectDeserializer</code> for reading objects from
+     * the remaining bytes of the given buffer.
+     *
+     * The position of the buffer is not changed.
+     *
+     * @param buffer The buffer
+     * @return The deserializer
+     * @since 2.1
+     */
+    public BinaryObjectDeserializer newBinaryDeserializer(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return newBinaryDeserializer(new ByteArrayInputStream(bytes));
+    }
+
     /**
      * Creates a <code>BinaryObjectSerializer</code> for writing objects to
      * the given stream.
@@ -20,13 +20,14 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * Portions Copyrighted 2010-2013 ForgeRock AS.
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.framework.common.serializer;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -68,9 +69,22 @@ public final class SerializerUtil {
      * @see ObjectSerializerFactory for a list of supported types
      */
     public static Object deserializeBinaryObject(byte[] bytes) {
+        return deserializeBinaryObject(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Deserializes the given object from the remaining bytes of the buffer
+     * without copying them.
+     *
+     * @param buffer
+     *            The bytes to deserialize
+     * @return The object
+     * @see ObjectSerializerFactory for a list of supported types
+     * @since 2.1
+     */
+    public static Object deserializeBinaryObject(ByteBuffer buffer) {
         ObjectSerializerFactory fact = ObjectSerializerFactory.getInstance();
-        ByteArrayInputStream in = new ByteArrayInputStream(bytes);
-        BinaryObjectDeserializer des = fact.newBinaryDeserializer(in);
+        BinaryObjectDeserializer des = fact.newBinaryDeserializer(buffer);
         return des.readObject();
     }
 
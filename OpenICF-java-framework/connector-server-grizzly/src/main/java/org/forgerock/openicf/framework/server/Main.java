@@ -20,12 +20,14 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * Portions Copyrighted 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.forgerock.openicf.framework.server;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -51,6 +53,7 @@ import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.common.security.SecurityUtil;
 import org.identityconnectors.framework.api.ConnectorInfoManagerFactory;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.identityconnectors.framework.impl.api.local.ConnectorPoolManager;
 
 public final class Main {
 
@@ -62,6 +65,7 @@ public final class Main {
     private static final String PROP_KEY = "connectorserver.key";
     private static final String PROP_FACADE_LIFETIME = "connectorserver.maxFacadeLifeTime";
     private static final String PROP_LOGGER_CLASS = "connectorserver.loggerClass";
+    private static final String PROP_JMX = "connectorserver.jmx";
     private static final String PROP_REMOTE_URL = "connectorserver.url";
     private static final String PROP_REMOTE_PRINCIPAL = "connectorserver.principal";
     private static final String PROP_REMOTE_PASSWORD = "connectorserver.password";
@@ -273,6 +277,10 @@ public final class Main {
         }
         List<URL> bundleUrls = buildBundleURLs(new File(bundleDirStr));
 
+        if (Boolean.parseBoolean(properties.getProperty(PROP_JMX))) {
+            ConnectorPoolManager.setMBeanServer(ManagementFactory.getPlatformMBeanServer());
+        }
+
         if (port > 0) {
             connectorServer = new ConnectorServer();
             connectorServer.setConnectorFrameworkFactory(connectorFrameworkFactory);
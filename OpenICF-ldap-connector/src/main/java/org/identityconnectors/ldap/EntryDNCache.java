@@ -0,0 +1,115 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.identityconnectors.ldap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.Uid;
+
+/**
+ * Remembers the DN of the entries recently seen by the connector, by object
+ * class and Uid, so that a modification does not need a search to find the
+ * entry first.
+ * <p>
+ * The cache holds at most a given number of entries, the least recently used
+ * are dropped first. An entry expires after a given time, which bounds how
+ * long a rename or delete done outside of the connector goes unnoticed. The
+ * cache is shared by all the connector instances of one configuration and is
+ * thread safe.
+ */
+public class EntryDNCache {
+
+    private final int size;
+
+    private final long timeToLive;
+
+    private final LinkedHashMap<String, CachedDN> entries;
+
+    private static final class CachedDN {
+
+        private final String entryDN;
+
+        private final long expires;
+
+        CachedDN(String entryDN, long expires) {
+            this.entryDN = entryDN;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param size the maximum number of entries.
+     * @param timeToLive the time in milliseconds an entry is kept.
+     */
+    public EntryDNCache(int size, long timeToLive) {
+        this.size = size;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<String, CachedDN>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedDN> eldest) {
+                return size() > EntryDNCache.this.size;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached DN of the entry, or {@code null} if the entry is not
+     * cached or has expired.
+     */
+    public synchronized String get(ObjectClass oclass, Uid uid) {
+        String key = getKey(oclass, uid);
+        CachedDN cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expires - System.currentTimeMillis() <= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return cached.entryDN;
+    }
+
+    public synchronized void put(ObjectClass oclass, Uid uid, String entryDN) {
+        entries.put(getKey(oclass, uid), new CachedDN(entryDN, System.currentTimeMillis() + timeToLive));
+    }
+
+    /**
+     * Drops the entry, after it was renamed or deleted.
+     *
+     * @return whether the entry was cached.
+     */
+    public synchronized boolean remove(ObjectClass oclass, Uid uid) {
+        return entries.remove(getKey(oclass, uid)) != null;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static String getKey(ObjectClass oclass, Uid uid) {
+        return oclass.getObjectClassValue() + '\n' + uid.getUidValue();
+    }
+}
@@ -21,6 +21,7 @@
  * ====================
  *
  * Portions Copyrighted 2013-2014 Forgerock
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.ldap;
 
@@ -29,12 +30,18 @@ import static org.identityconnectors.ldap.LdapUtil.escapeAttrValue;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import javax.naming.InvalidNameException;
+import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
 import javax.naming.directory.AttributeInUseException;
 import javax.naming.directory.BasicAttribute;
 import javax.naming.directory.DirContext;
@@ -54,6 +61,18 @@ public class GroupHelper {
 
     private final LdapConnection conn;
 
+    /**
+     * The members of the LDAP groups found by {@link #getLdapGroupsByMember},
+     * kept for the life of this helper.
+     */
+    private GroupMembers<LdapName> ldapGroupMembers;
+
+    /**
+     * The members of the POSIX groups found by {@link #getPosixGroupsByMember},
+     * kept for the life of this helper.
+     */
+    private GroupMembers<String> posixGroupMembers;
+
     public GroupHelper(LdapConnection conn) {
         this.conn = conn;
     }
@@ -84,6 +103,50 @@ public class GroupHelper {
         return handler.getResults();
     }
 
+    /**
+     * Returns the LDAP groups of each of the given entries. All the groups are
+     * retrieved with a single search, so resolving the groups of a page of
+     * search results costs one round-trip instead of one per entry. The
+     * members of a group are read once for the life of this helper, the
+     * groups already met are only matched by their DN.
+     *
+     * @return the DNs of the groups, keyed by the entry DNs as given.
+     */
+    public Map<String, List<String>> getLdapGroupsByMember(Collection<String> entryDNs) {
+        log.ok("Retrieving LDAP groups for {0} entries", entryDNs.size());
+        Map<String, List<String>> result = new LinkedHashMap<String, List<String>>();
+        final Map<LdapName, List<String>> byName = new HashMap<LdapName, List<String>>();
+        for (String entryDN : entryDNs) {
+            List<String> groups = new ArrayList<String>();
+            result.put(entryDN, groups);
+            byName.put(LdapUtil.quietCreateLdapName(entryDN), groups);
+        }
+        if (!entryDNs.isEmpty()) {
+            String memberAttr = getLdapGroupMemberAttribute();
+            if (ldapGroupMembers == null) {
+                ldapGroupMembers = new GroupMembers<LdapName>(memberAttr) {
+                    protected LdapName toMember(String value) {
+                        try {
+                            return new LdapName(value);
+                        } catch (InvalidNameException e) {
+                            // Not one of ours.
+                            return null;
+                        }
+                    }
+                };
+            }
+            String filter = createAttributeFilter(memberAttr, entryDNs);
+            for (Map.Entry<String, Set<LdapName>> group : ldapGroupMembers.findGroups(filter).entrySet()) {
+                for (Map.Entry<LdapName, List<String>> member : byName.entrySet()) {
+                    if (group.getValue().contains(member.getKey())) {
+                        member.getValue().add(group.getKey());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
     public Set<GroupMembership> getLdapGroupMemberships(String entryDN) {
         log.ok("Retrieving LDAP group memberships for {0}", entryDN);
         String filter = createAttributeFilter(getLdapGroupMemberAttribute(), singletonList(entryDN));
@@ -128,6 +191,39 @@ public class GroupHelper {
         return handler.getResults();
     }
 
+    /**
+     * Returns the POSIX groups of each of the given <code>uid</code> values,
+     * retrieved with a single search. The members of a group are read once
+     * for the life of this helper.
+     *
+     * @return the DNs of the groups, keyed by the given values.
+     */
+    public Map<String, List<String>> getPosixGroupsByMember(Collection<String> posixRefAttrs) {
+        log.ok("Retrieving POSIX groups for {0} members", posixRefAttrs.size());
+        final Map<String, List<String>> result = new HashMap<String, List<String>>();
+        for (String posixRefAttr : posixRefAttrs) {
+            result.put(posixRefAttr, new ArrayList<String>());
+        }
+        if (!posixRefAttrs.isEmpty()) {
+            if (posixGroupMembers == null) {
+                posixGroupMembers = new GroupMembers<String>("memberUid") {
+                    protected String toMember(String value) {
+                        return value;
+                    }
+                };
+            }
+            String filter = createAttributeFilter("memberUid", posixRefAttrs);
+            for (Map.Entry<String, Set<String>> group : posixGroupMembers.findGroups(filter).entrySet()) {
+                for (Map.Entry<String, List<String>> member : result.entrySet()) {
+                    if (group.getValue().contains(member.getKey())) {
+                        member.getValue().add(group.getKey());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
     public Set<GroupMembership> getPosixGroupMemberships(Collection<String> posixRefAttrs) {
         log.ok("Retrieving POSIX group memberships for {0}", posixRefAttrs);
         ToGroupMembershipHandler handler = new ToGroupMembershipHandler();
@@ -329,6 +425,91 @@ public class GroupHelper {
         }
     }
 
+    /**
+     * The members of the groups found by the member filters.
+     * <p>
+     * As long as no group is known the groups are searched with their
+     * members. Afterwards the groups are searched by DN only and just the
+     * groups not met before are read, so a large group matching many batches
+     * of entries does not send its members again for each batch.
+     */
+    private abstract class GroupMembers<T> {
+
+        private final String memberAttr;
+        private final Map<String, Set<T>> members = new HashMap<String, Set<T>>();
+
+        GroupMembers(String memberAttr) {
+            this.memberAttr = memberAttr;
+        }
+
+        /**
+         * Returns the member as it is compared, or null if the value does
+         * not refer to a member.
+         */
+        protected abstract T toMember(String value);
+
+        /**
+         * Returns the members of the groups matching the filter, keyed by the
+         * group DNs in the order they were found.
+         */
+        Map<String, Set<T>> findGroups(String filter) {
+            final Map<String, Set<T>> result = new LinkedHashMap<String, Set<T>>();
+            if (members.isEmpty()) {
+                LdapSearches.findEntries(new LdapSearchResultsHandler() {
+                    public boolean handle(String baseDN, SearchResult searchResult) throws NamingException {
+                        LdapEntry entry = LdapEntry.create(baseDN, searchResult);
+                        result.put(entry.getDN().toString(), readMembers(entry));
+                        return true;
+                    }
+                }, conn, filter, memberAttr);
+                members.putAll(result);
+            } else {
+                ToDNHandler handler = new ToDNHandler();
+                LdapSearches.findEntries(handler, conn, filter);
+                for (String groupDN : handler.getResults()) {
+                    Set<T> groupMembers = members.get(groupDN);
+                    if (groupMembers == null) {
+                        try {
+                            groupMembers = readMembers(LdapSearches.getEntry(conn,
+                                    LdapUtil.quietCreateLdapName(groupDN), memberAttr));
+                        } catch (NamingException e) {
+                            throw new ConnectorException(e);
+                        }
+                        members.put(groupDN, groupMembers);
+                    }
+                    result.put(groupDN, groupMembers);
+                }
+            }
+            return result;
+        }
+
+        private Set<T> readMembers(LdapEntry entry) throws NamingException {
+            Set<T> result = new HashSet<T>();
+            Attribute values = entry.getAttributes().get(memberAttr);
+            if (values != null) {
+                NamingEnumeration<?> iter = values.getAll();
+                while (iter.hasMore()) {
+                    addMember(result, iter.next());
+                }
+            } else if (ADLdapUtil.isServerMSADFamily(conn.getServerType())) {
+                // Large AD groups only return a range of their members.
+                for (Object value : ADLdapUtil.fetchGroupMembersByRange(conn, entry)) {
+                    addMember(result, value);
+                }
+            }
+            return result;
+        }
+
+        private void addMember(Set<T> result, Object value) {
+            if (value != null) {
+                T member = toMember(value.toString());
+                if (member != null) {
+                    result.add(member);
+                }
+            }
+        }
+    }
+
     private static final class ToGroupMembershipHandler implements LdapSearchResultsHandler {
 
         private final Set<GroupMembership> results = new HashSet<GroupMembership>();
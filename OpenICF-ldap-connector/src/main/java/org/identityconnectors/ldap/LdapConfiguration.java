@@ -21,6 +21,7 @@
  * ====================
  *
  * Portions Copyrighted 2013-2016 ForgeRock AS
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.ldap;
 
@@ -37,6 +38,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.naming.InvalidNameException;
 import javax.naming.ldap.LdapName;
@@ -164,6 +169,23 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
      */
     private boolean maintainPosixGroupMembership = false;
 
+    /**
+     * The number of search results whose LDAP and POSIX groups are retrieved
+     * with a single search. With 1 the groups are retrieved for each entry.
+     */
+    private int groupMembershipBatchSize = 100;
+
+    /**
+     * The number of entry DNs remembered by Uid, so that updates and deletes
+     * do not need to search for the entry first. With 0 nothing is remembered.
+     */
+    private int entryDNCacheSize = 0;
+
+    /**
+     * The number of seconds an entry DN is remembered.
+     */
+    private int entryDNCacheTimeToLive = 300;
+
     /**
      * If the server stores passwords in clear text, we will hash them with
      * the algorithm specified here.
@@ -192,6 +214,12 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
      */
     private boolean usePagedResultControl = false;
 
+    /**
+     * The number of base contexts searched at the same time. With 1 the base
+     * contexts are searched one after the other.
+     */
+    private int baseContextSearchConcurrency = 1;
+
     /**
      * The attribute used as the sort key for the VLV index.
      */
@@ -233,6 +261,8 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
 
     private int changeLogBlockSize = 100;
 
+    private boolean fetchChangedEntriesByBlock = false;
+
     private String changeNumberAttribute = "changeNumber";
 
     private boolean filterWithOrInsteadOfAnd;
@@ -266,6 +296,11 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
 
     private Set<LdapName> modifiersNamesToFilterOutAsLdapNames;
 
+    // Shared by the connector instances of this configuration, created on first use.
+    private EntryDNCache entryDNCache;
+
+    private ExecutorService searchExecutor;
+
     public LdapConfiguration() {
     }
 
@@ -296,10 +331,26 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
 
         checkNotBlank(groupMemberAttribute, "groupMemberAttribute.notBlank");
 
+        if (groupMembershipBatchSize <= 0) {
+            failValidation("groupMembershipBatchSize.legalValue");
+        }
+
+        if (entryDNCacheSize < 0) {
+            failValidation("entryDNCacheSize.legalValue");
+        }
+
+        if (entryDNCacheTimeToLive <= 0) {
+            failValidation("entryDNCacheTimeToLive.legalValue");
+        }
+
         if (blockSize <= 0) {
             failValidation("blockSize.legalValue");
         }
 
+        if (baseContextSearchConcurrency <= 0) {
+            failValidation("baseContextSearchConcurrency.legalValue");
+        }
+
         checkNotBlank(vlvSortAttribute, "vlvSortAttribute.notBlank");
 
         checkNotBlank(uidAttribute, "uidAttribute.notBlank");
@@ -579,6 +630,30 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
         this.maintainPosixGroupMembership = maintainPosixGroupMembership;
     }
 
+    public int getGroupMembershipBatchSize() {
+        return groupMembershipBatchSize;
+    }
+
+    public void setGroupMembershipBatchSize(int groupMembershipBatchSize) {
+        this.groupMembershipBatchSize = groupMembershipBatchSize;
+    }
+
+    public int getEntryDNCacheSize() {
+        return entryDNCacheSize;
+    }
+
+    public void setEntryDNCacheSize(int entryDNCacheSize) {
+        this.entryDNCacheSize = entryDNCacheSize;
+    }
+
+    public int getEntryDNCacheTimeToLive() {
+        return entryDNCacheTimeToLive;
+    }
+
+    public void setEntryDNCacheTimeToLive(int entryDNCacheTimeToLive) {
+        this.entryDNCacheTimeToLive = entryDNCacheTimeToLive;
+    }
+
     public String getPasswordHashAlgorithm() {
         return passwordHashAlgorithm;
     }
@@ -619,6 +694,14 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
         this.usePagedResultControl = usePagedResultControl;
     }
 
+    public int getBaseContextSearchConcurrency() {
+        return baseContextSearchConcurrency;
+    }
+
+    public void setBaseContextSearchConcurrency(int baseContextSearchConcurrency) {
+        this.baseContextSearchConcurrency = baseContextSearchConcurrency;
+    }
+
     public String getVlvSortAttribute() {
         return vlvSortAttribute;
     }
@@ -720,6 +803,15 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
         this.changeLogBlockSize = changeLogBlockSize;
     }
 
+    @ConfigurationProperty(operations = { SyncOp.class })
+    public boolean isFetchChangedEntriesByBlock() {
+        return fetchChangedEntriesByBlock;
+    }
+
+    public void setFetchChangedEntriesByBlock(boolean fetchChangedEntriesByBlock) {
+        this.fetchChangedEntriesByBlock = fetchChangedEntriesByBlock;
+    }
+
     @ConfigurationProperty(operations = { SyncOp.class }, required = true)
     public String getChangeNumberAttribute() {
         return changeNumberAttribute;
@@ -865,11 +957,15 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
         builder.append(groupMemberAttribute);
         builder.append(maintainLdapGroupMembership);
         builder.append(maintainPosixGroupMembership);
+        builder.append(groupMembershipBatchSize);
+        builder.append(entryDNCacheSize);
+        builder.append(entryDNCacheTimeToLive);
         builder.append(passwordHashAlgorithm);
         builder.append(respectResourcePasswordPolicyChangeAfterReset);
         builder.append(useBlocks);
         builder.append(blockSize);
         builder.append(usePagedResultControl);
+        builder.append(baseContextSearchConcurrency);
         builder.append(vlvSortAttribute);
         builder.append(uidAttribute);
         builder.append(readSchema);
@@ -889,6 +985,7 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
         }
         builder.append(accountSynchronizationFilter);
         builder.append(changeLogBlockSize);
+        builder.append(fetchChangedEntriesByBlock);
         builder.append(changeNumberAttribute);
         builder.append(filterWithOrInsteadOfAnd);
         builder.append(removeLogEntryObjectClassFromFilter);
@@ -927,8 +1024,48 @@ public class LdapConfiguration extends AbstractConfiguration implements Stateful
     public ServerType getServerType() {
         return serverType;
     }
+
+    /**
+     * Returns the cache of entry DNs by Uid shared by the connector instances
+     * of this configuration, or {@code null} if it is disabled.
+     */
+    public synchronized EntryDNCache getEntryDNCache() {
+        if (entryDNCache == null && entryDNCacheSize > 0) {
+            entryDNCache = new EntryDNCache(entryDNCacheSize, entryDNCacheTimeToLive * 1000L);
+        }
+        return entryDNCache;
+    }
+
+    /**
+     * Returns the executor running the searches of the base contexts searched
+     * at the same time, shared by the connector instances of this configuration.
+     */
+    public synchronized ExecutorService getSearchExecutor() {
+        if (searchExecutor == null) {
+            searchExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "LdapConnector-search-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return searchExecutor;
+    }
+
     // =======================================================================
     // Interface Implementation
     // =======================================================================
-    public void release() {}
+    public synchronized void release() {
+        if (entryDNCache != null) {
+            entryDNCache.clear();
+            entryDNCache = null;
+        }
+        if (searchExecutor != null) {
+            searchExecutor.shutdown();
+            searchExecutor = null;
+        }
+    }
 }
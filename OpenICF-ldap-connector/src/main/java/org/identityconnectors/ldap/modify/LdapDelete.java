@@ -20,6 +20,7 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * "Portions Copyrighted 2014 ForgeRock AS"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.ldap.modify;
 
@@ -86,6 +87,7 @@ public class LdapDelete extends LdapModifyOperation {
             else {
                 runAsContext.destroySubcontext(entryDN);
                 }
+            LdapSearches.evictEntryDN(conn, oclass, uid);
         } catch (NamingException e) {
             throw new ConnectorException(e);
         }
@@ -21,6 +21,7 @@
  * ====================
  * 
  * "Portions Copyrighted 2013-2015 Forgerock AS"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.ldap.modify;
 
@@ -140,6 +141,8 @@ public class LdapUpdate extends LdapModifyOperation {
                     runAsContext.rename(oldEntryDN, newEntryDN);
                 }
                 entryDN = newEntryDN;
+                // The next search of the entry caches its new DN.
+                LdapSearches.evictEntryDN(conn, oclass, uid);
             }
             // Update the attributes.
             modifyAttributes(entryDN, attrToModify, DirContext.REPLACE_ATTRIBUTE, runAsContext);
@@ -25,8 +25,11 @@
  */
 package org.identityconnectors.ldap.search;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.naming.NamingException;
@@ -138,14 +141,30 @@ public class LdapSearch {
     public final void execute(final ResultsHandler handler) {
         final String[] attrsToGetOption = options.getAttributesToGet();
         final Set<String> attrsToGet = getAttributesToGet(attrsToGetOption);
-        LdapInternalSearch search = getInternalSearch(attrsToGet);
+        int batchSize = conn.getConfiguration().getGroupMembershipBatchSize();
+        if (batchSize > 1 && containsGroupsAttribute(attrsToGet)) {
+            GroupsBatchHandler batch = new GroupsBatchHandler(handler, attrsToGet, attrsToGetOption != null, batchSize);
+            getInternalSearch(attrsToGet, batch).execute(batch);
+            batch.flush();
+            return;
+        }
+        LdapInternalSearch search = getInternalSearch(attrsToGet, null);
         search.execute(new LdapSearchResultsHandler() {
             public boolean handle(String baseDN, SearchResult result) throws NamingException {
-                return handler.handle(createConnectorObject(baseDN, result, attrsToGet, attrsToGetOption != null));
+                return handler.handle(createConnectorObject(LdapEntry.create(baseDN, result), attrsToGet, attrsToGetOption != null, null, null));
             }
         });
     }
 
+    private static boolean containsGroupsAttribute(Set<String> attrsToGet) {
+        for (String attrName : attrsToGet) {
+            if (LdapConstants.isLdapGroups(attrName) || LdapConstants.isPosixGroups(attrName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Executes the query against all configured base DNs and returns the first
      * {@link ConnectorObject} or {@code null}.
@@ -154,17 +173,17 @@ public class LdapSearch {
         final String[] attrsToGetOption = options.getAttributesToGet();
         final Set<String> attrsToGet = getAttributesToGet(attrsToGetOption);
         final ConnectorObject[] results = new ConnectorObject[]{null};
-        LdapInternalSearch search = getInternalSearch(attrsToGet);
+        LdapInternalSearch search = getInternalSearch(attrsToGet, null);
         search.execute(new LdapSearchResultsHandler() {
             public boolean handle(String baseDN, SearchResult result) throws NamingException {
-                results[0] = createConnectorObject(baseDN, result, attrsToGet, attrsToGetOption != null);
+                results[0] = createConnectorObject(LdapEntry.create(baseDN, result), attrsToGet, attrsToGetOption != null, null, null);
                 return false;
             }
         });
         return results[0];
     }
 
-    private LdapInternalSearch getInternalSearch(Set<String> attrsToGet) {
+    private LdapInternalSearch getInternalSearch(Set<String> attrsToGet, GroupsBatchHandler batch) {
         // This is a bit tricky. If the LdapFilter has an entry DN,
         // we only need to look at that entry and check whether it matches
         // the native filter. Moreover, when looking at the entry DN
@@ -189,7 +208,7 @@ public class LdapSearch {
             baseDNs = singletonList(filterEntryDN);
             searchScope = SearchControls.OBJECT_SCOPE;
         } else {
-            strategy = getSearchStrategy();
+            strategy = getSearchStrategy(batch);
             baseDNs = getBaseDNs();
             searchScope = getLdapSearchScope();
         }
@@ -227,17 +246,18 @@ public class LdapSearch {
     }
 
     /**
-     * Creates a {@link ConnectorObject} based on the given search result. The
-     * search result name is expected to be a relative one, thus the {@code
-     * baseDN} parameter is needed in order to create the whole entry DN, which
-     * is used to compute the connector object's name attribute.
+     * Creates a {@link ConnectorObject} based on the given entry. The LDAP and
+     * POSIX groups are taken from the given maps when they were resolved for a
+     * batch of entries, or searched for this entry when the maps are
+     * {@code null}.
      */
-    private ConnectorObject createConnectorObject(String baseDN, SearchResult result, Set<String> attrsToGet, boolean emptyAttrWhenNotFound) {
-        LdapEntry entry = LdapEntry.create(baseDN, result);
-
+    private ConnectorObject createConnectorObject(LdapEntry entry, Set<String> attrsToGet, boolean emptyAttrWhenNotFound,
+            Map<String, List<String>> ldapGroupsByDN, Map<String, List<String>> posixGroupsByRef) {
         ConnectorObjectBuilder builder = new ConnectorObjectBuilder();
         builder.setObjectClass(oclass);
-        builder.setUid(conn.getSchemaMapping().createUid(oclass, entry));
+        Uid uid = conn.getSchemaMapping().createUid(oclass, entry);
+        builder.setUid(uid);
+        LdapSearches.cacheEntryDN(conn, oclass, uid, entry.getDN().toString());
         builder.setName(conn.getSchemaMapping().createName(oclass, entry));
         
         // Some server type specific account control
@@ -293,11 +313,22 @@ public class LdapSearch {
                 continue;
             }
             if (LdapConstants.isLdapGroups(attrName)) {
-                List<String> ldapGroups = groupHelper.getLdapGroups(entry.getDN().toString());
+                List<String> ldapGroups = ldapGroupsByDN != null
+                        ? ldapGroupsByDN.get(entry.getDN().toString())
+                        : groupHelper.getLdapGroups(entry.getDN().toString());
                 attribute = AttributeBuilder.build(LdapConstants.LDAP_GROUPS_NAME, ldapGroups);
             } else if (LdapConstants.isPosixGroups(attrName)) {
                 Set<String> posixRefAttrs = getStringAttrValues(entry.getAttributes(), GroupHelper.getPosixRefAttribute());
-                List<String> posixGroups = groupHelper.getPosixGroups(posixRefAttrs);
+                List<String> posixGroups;
+                if (posixGroupsByRef != null) {
+                    Set<String> groups = new LinkedHashSet<String>();
+                    for (String posixRefAttr : posixRefAttrs) {
+                        groups.addAll(posixGroupsByRef.get(posixRefAttr));
+                    }
+                    posixGroups = new ArrayList<String>(groups);
+                } else {
+                    posixGroups = groupHelper.getPosixGroups(posixRefAttrs);
+                }
                 attribute = AttributeBuilder.build(LdapConstants.POSIX_GROUPS_NAME, posixGroups);
             } else if (LdapConstants.PASSWORD.is(attrName)) {
                 attribute = AttributeBuilder.build(attrName, new GuardedString());
@@ -418,7 +449,7 @@ public class LdapSearch {
         return result;
     }
 
-    private LdapSearchStrategy getSearchStrategy() {
+    private LdapSearchStrategy getSearchStrategy(GroupsBatchHandler batch) {
         LdapSearchStrategy strategy;
 
         boolean useBlocks = conn.getConfiguration().isUseBlocks();
@@ -433,7 +464,11 @@ public class LdapSearch {
         }
 
         if ((null != options.getPageSize() && options.getPageSize() > 0) && conn.supportsControl(PagedResultsControl.OID)) {
-            strategy = new PagedSearchStrategy(options.getPageSize(), options.getPagedResultsCookie(), options.getPagedResultsOffset(), (SearchResultsHandler) handler, sortKeys);
+            SearchResultsHandler resultsHandler = (SearchResultsHandler) handler;
+            if (batch != null) {
+                resultsHandler = batch.flushingBefore(resultsHandler);
+            }
+            strategy = new PagedSearchStrategy(options.getPageSize(), options.getPagedResultsCookie(), options.getPagedResultsOffset(), resultsHandler, sortKeys);
         } else if (useBlocks && !usePagedResultsControl && conn.supportsControl(VirtualListViewRequestControl.OID)) {
             String vlvSortAttr = conn.getConfiguration().getVlvSortAttribute();
             strategy = new VlvIndexSearchStrategy(vlvSortAttr, pageSize);
@@ -442,6 +477,13 @@ public class LdapSearch {
         } else {
             strategy = new DefaultSearchStrategy(false, sortKeys);
         }
+
+        // Sorted results of several base contexts must not be interleaved.
+        int concurrency = conn.getConfiguration().getBaseContextSearchConcurrency();
+        if (concurrency > 1 && sortKeys == null
+                && (strategy instanceof DefaultSearchStrategy || strategy instanceof SimplePagedSearchStrategy)) {
+            strategy = new ParallelSearchStrategy(strategy, conn.getConfiguration().getSearchExecutor(), concurrency);
+        }
         return strategy;
     }
 
@@ -522,4 +564,96 @@ public class LdapSearch {
             throw new IllegalArgumentException("Invalid search scope " + scope);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Buffers the search results and resolves the LDAP and POSIX groups of a
+     * whole batch of entries with one search each, instead of one search per
+     * entry.
+     */
+    private final class GroupsBatchHandler implements LdapSearchResultsHandler {
+
+        private final ResultsHandler handler;
+        private final Set<String> attrsToGet;
+        private final boolean emptyAttrWhenNotFound;
+        private final int batchSize;
+        private final boolean ldapGroups;
+        private final boolean posixGroups;
+        private final List<LdapEntry> entries = new ArrayList<LdapEntry>();
+        private boolean stopped = false;
+
+        GroupsBatchHandler(ResultsHandler handler, Set<String> attrsToGet, boolean emptyAttrWhenNotFound, int batchSize) {
+            this.handler = handler;
+            this.attrsToGet = attrsToGet;
+            this.emptyAttrWhenNotFound = emptyAttrWhenNotFound;
+            this.batchSize = batchSize;
+            boolean ldap = false;
+            boolean posix = false;
+            for (String attrName : attrsToGet) {
+                ldap |= LdapConstants.isLdapGroups(attrName);
+                posix |= LdapConstants.isPosixGroups(attrName);
+            }
+            ldapGroups = ldap;
+            posixGroups = posix;
+        }
+
+        public boolean handle(String baseDN, SearchResult result) throws NamingException {
+            entries.add(LdapEntry.create(baseDN, result));
+            return entries.size() < batchSize || flush();
+        }
+
+        /**
+         * Passes the buffered entries to the handler.
+         *
+         * @return false if the handler stopped the search.
+         */
+        boolean flush() {
+            if (stopped || entries.isEmpty()) {
+                return !stopped;
+            }
+            Map<String, List<String>> ldapGroupsByDN = null;
+            if (ldapGroups) {
+                List<String> entryDNs = new ArrayList<String>(entries.size());
+                for (LdapEntry entry : entries) {
+                    entryDNs.add(entry.getDN().toString());
+                }
+                ldapGroupsByDN = groupHelper.getLdapGroupsByMember(entryDNs);
+            }
+            Map<String, List<String>> posixGroupsByRef = null;
+            if (posixGroups) {
+                Set<String> posixRefAttrs = new LinkedHashSet<String>();
+                for (LdapEntry entry : entries) {
+                    posixRefAttrs.addAll(getStringAttrValues(entry.getAttributes(), GroupHelper.getPosixRefAttribute()));
+                }
+                posixGroupsByRef = groupHelper.getPosixGroupsByMember(posixRefAttrs);
+            }
+            try {
+                for (LdapEntry entry : entries) {
+                    if (!handler.handle(createConnectorObject(entry, attrsToGet, emptyAttrWhenNotFound, ldapGroupsByDN, posixGroupsByRef))) {
+                        stopped = true;
+                        break;
+                    }
+                }
+            } finally {
+                entries.clear();
+            }
+            return !stopped;
+        }
+
+        /**
+         * The paged search reports the cookie when the page is complete, the
+         * buffered entries of the page must be handled before.
+         */
+        SearchResultsHandler flushingBefore(final SearchResultsHandler target) {
+            return new SearchResultsHandler() {
+                public boolean handle(ConnectorObject connectorObject) {
+                    return target.handle(connectorObject);
+                }
+
+                public void handleResult(org.identityconnectors.framework.common.objects.SearchResult result) {
+                    flush();
+                    target.handleResult(result);
+                }
+            };
+        }
+    }
+}
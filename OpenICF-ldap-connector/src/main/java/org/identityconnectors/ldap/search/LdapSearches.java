@@ -20,6 +20,7 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * "Portions Copyrighted 2014 ForgeRock AS"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.ldap.search;
 
@@ -46,6 +47,7 @@ import org.identityconnectors.framework.common.objects.ResultsHandler;
 import org.identityconnectors.framework.common.objects.Uid;
 import org.identityconnectors.framework.common.objects.filter.EqualsFilter;
 import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
+import org.identityconnectors.ldap.EntryDNCache;
 import org.identityconnectors.ldap.LdapConnection;
 import org.identityconnectors.ldap.LdapEntry;
 
@@ -89,8 +91,25 @@ public class LdapSearches {
      * check that an entry with the returned DN exists. If the <code>check</code> parameter is false,
      * the method will throw a <code>UnknownUidException</code> if the entry identified
      * by the Uid does not exist.
+     * <p>
+     * When the entry DN cache is enabled, a cached DN is checked with a base search for the Uid
+     * under that DN, as the entry may have been renamed, or deleted and another entry created with
+     * the same DN, since. A DN which no longer identifies the entry is evicted.
      */
     private static String findEntryDN(LdapConnection conn, ObjectClass oclass, Uid uid, boolean check) {
+        EntryDNCache cache = getEntryDNCache(conn, oclass);
+        if (cache != null) {
+            String entryDN = cache.get(oclass, uid);
+            if (entryDN != null) {
+                if (isEntryOf(conn, oclass, uid, entryDN)) {
+                    log.ok("Found cached DN {0} of object {1} of class {2}", entryDN, uid.getUidValue(), oclass.getObjectClassValue());
+                    return entryDN;
+                }
+                log.ok("Cached DN {0} no longer identifies object {1} of class {2}", entryDN, uid.getUidValue(), oclass.getObjectClassValue());
+                cache.remove(oclass, uid);
+            }
+        }
+
         log.ok("Searching for object {0} of class {1}", uid.getUidValue(), oclass.getObjectClassValue());
         
         LdapFilter ldapFilter = null;
@@ -118,11 +137,57 @@ public class LdapSearches {
         LdapSearch search = new LdapSearch(conn, oclass, ldapFilter, null, builder.build());
         ConnectorObject object = search.getSingleResult();
         if (object != null) {
+            // The search has put the DN in the cache already.
             return AttributeUtil.getStringValue(object.getAttributeByName("entryDN"));
         }
         throw new UnknownUidException(uid, oclass);
     }
 
+    /**
+     * Returns whether the entry with the given DN is identified by the given Uid,
+     * reading only that entry.
+     */
+    private static boolean isEntryOf(LdapConnection conn, ObjectClass oclass, Uid uid, String entryDN) {
+        EqualsFilter filter = (EqualsFilter) FilterBuilder.equalTo(uid);
+        LdapFilter uidFilter = new LdapFilterTranslator(conn.getSchemaMapping(), oclass).createEqualsExpression(filter, false);
+        LdapFilter ldapFilter = LdapFilter.forEntryDN(entryDN).withNativeFilter(uidFilter.getNativeFilter());
+
+        OperationOptionsBuilder builder = new OperationOptionsBuilder();
+        builder.setAttributesToGet("entryDN");
+
+        return new LdapSearch(conn, oclass, ldapFilter, null, builder.build()).getSingleResult() != null;
+    }
+
+    /**
+     * Remembers the DN of the entry identified by the given Uid, if the entry
+     * DN cache is enabled.
+     */
+    public static void cacheEntryDN(LdapConnection conn, ObjectClass oclass, Uid uid, String entryDN) {
+        EntryDNCache cache = getEntryDNCache(conn, oclass);
+        if (cache != null) {
+            cache.put(oclass, uid, entryDN);
+        }
+    }
+
+    /**
+     * Forgets the DN of the entry identified by the given Uid, after the entry
+     * was renamed or deleted.
+     */
+    public static void evictEntryDN(LdapConnection conn, ObjectClass oclass, Uid uid) {
+        EntryDNCache cache = getEntryDNCache(conn, oclass);
+        if (cache != null) {
+            cache.remove(oclass, uid);
+        }
+    }
+
+    private static EntryDNCache getEntryDNCache(LdapConnection conn, ObjectClass oclass) {
+        // When the Uid is the entry DN there is nothing to remember.
+        if (LdapEntry.isDNAttribute(conn.getSchemaMapping().getLdapUidAttribute(oclass))) {
+            return null;
+        }
+        return conn.getConfiguration().getEntryDNCache();
+    }
+
     public static List<ConnectorObject> findObjects(LdapConnection conn, ObjectClass oclass, String baseDN, Attribute attr, String... attrsToGet) {
         log.ok("Searching for object with attribute {0} of class {1} in {2}", attr, oclass.getObjectClassValue(), baseDN);
 
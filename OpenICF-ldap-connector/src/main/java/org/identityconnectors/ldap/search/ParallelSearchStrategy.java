@@ -0,0 +1,229 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.identityconnectors.ldap.search;
+
+import static java.util.Collections.singletonList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.naming.InterruptedNamingException;
+import javax.naming.NamingException;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.LdapContext;
+
+import org.identityconnectors.common.logging.Log;
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
+
+/**
+ * Searches several base DNs at the same time, each with another strategy.
+ * <p>
+ * Every worker has a context of its own and takes the next base DN to search
+ * once it is done with the previous one, so at most the given number of base
+ * DNs are searched at a time. The searched base DNs keep their own state, such
+ * as the cookie of a simple paged search. The results are handed to the handler
+ * on the calling thread as they arrive, so the results of different base DNs
+ * are interleaved. When the handler returns {@code false}, the workers stop
+ * after their current result.
+ */
+public class ParallelSearchStrategy extends LdapSearchStrategy {
+
+    private static final Log log = Log.getLog(ParallelSearchStrategy.class);
+
+    /**
+     * The number of results waiting for the handler before the workers wait.
+     */
+    private static final int QUEUE_SIZE = 1000;
+
+    private static final Result END = new Result(null, null);
+
+    private final LdapSearchStrategy strategy;
+    private final ExecutorService executor;
+    private final int concurrency;
+
+    private static final class Result {
+
+        private final String baseDN;
+        private final SearchResult result;
+
+        Result(String baseDN, SearchResult result) {
+            this.baseDN = baseDN;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Creates a strategy.
+     *
+     * @param strategy the strategy to search each base DN with.
+     * @param executor the executor running the workers.
+     * @param concurrency the maximum number of base DNs searched at a time.
+     */
+    public ParallelSearchStrategy(LdapSearchStrategy strategy, ExecutorService executor, int concurrency) {
+        this.strategy = strategy;
+        this.executor = executor;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public void doSearch(LdapContext initCtx, List<String> baseDNs, String query, SearchControls searchControls, LdapSearchResultsHandler handler) throws IOException, NamingException {
+        int workers = Math.min(concurrency, baseDNs.size());
+        if (workers < 2) {
+            strategy.doSearch(initCtx, baseDNs, query, searchControls, handler);
+            return;
+        }
+        log.ok("Searching in {0} with {1} workers", baseDNs, workers);
+
+        // The contexts are created here, a context is not meant to be used by several threads.
+        List<LdapContext> contexts = new ArrayList<LdapContext>(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                contexts.add(initCtx.newInstance(null));
+            }
+        } catch (NamingException e) {
+            for (LdapContext ctx : contexts) {
+                quietClose(ctx);
+            }
+            throw e;
+        }
+
+        Search search = new Search(baseDNs, query, searchControls);
+        int submitted = 0;
+        try {
+            for (; submitted < contexts.size(); submitted++) {
+                executor.execute(search.new Worker(contexts.get(submitted)));
+            }
+            int running = submitted;
+            while (running > 0) {
+                Result result = search.results.take();
+                if (result == END) {
+                    running--;
+                } else if (!search.stopped && !handler.handle(result.baseDN, result.result)) {
+                    search.stopped = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedNamingException("Interrupted while searching in " + baseDNs);
+        } finally {
+            // Releases the workers still running if the search failed.
+            search.stopped = true;
+            search.abandoned = true;
+            // The workers close their own contexts.
+            for (int i = submitted; i < contexts.size(); i++) {
+                quietClose(contexts.get(i));
+            }
+        }
+
+        Exception e = search.failure.get();
+        if (e instanceof NamingException) {
+            throw (NamingException) e;
+        } else if (e instanceof IOException) {
+            throw (IOException) e;
+        } else if (e != null) {
+            throw ConnectorException.wrap(e);
+        }
+    }
+
+    private static void quietClose(LdapContext ctx) {
+        try {
+            ctx.close();
+        } catch (NamingException e) {
+            log.warn(e, "Failed to close context");
+        }
+    }
+
+    /**
+     * The state shared by the workers of one search.
+     */
+    private final class Search {
+
+        private final Queue<String> pending;
+        private final String query;
+        private final SearchControls searchControls;
+        private final BlockingQueue<Result> results = new ArrayBlockingQueue<Result>(QUEUE_SIZE);
+        private final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+
+        /**
+         * Set when the handler does not want more results or a worker failed.
+         */
+        private volatile boolean stopped;
+
+        /**
+         * Set when the calling thread does not drain the results any longer.
+         */
+        private volatile boolean abandoned;
+
+        Search(List<String> baseDNs, String query, SearchControls searchControls) {
+            this.pending = new ConcurrentLinkedQueue<String>(baseDNs);
+            this.query = query;
+            this.searchControls = searchControls;
+        }
+
+        /**
+         * Waits for room in the queue until the calling thread is gone.
+         */
+        private boolean put(Result result) {
+            try {
+                while (!abandoned) {
+                    if (results.offer(result, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        private final class Worker implements Runnable, LdapSearchResultsHandler {
+
+            private final LdapContext ctx;
+
+            Worker(LdapContext ctx) {
+                this.ctx = ctx;
+            }
+
+            public void run() {
+                try {
+                    String baseDN;
+                    while (!stopped && (baseDN = pending.poll()) != null) {
+                        strategy.doSearch(ctx, singletonList(baseDN), query, searchControls, this);
+                    }
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                    stopped = true;
+                } finally {
+                    quietClose(ctx);
+                    put(END);
+                }
+            }
+
+            public boolean handle(String baseDN, SearchResult result) {
+                return !stopped && put(new Result(baseDN, result));
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
  * "Portions Copyrighted 2014 ForgeRock AS"
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.ldap.sync.sunds;
 
@@ -31,6 +32,7 @@ import static org.identityconnectors.common.CollectionUtil.newSet;
 import static org.identityconnectors.common.CollectionUtil.nullAsEmpty;
 import static org.identityconnectors.common.StringUtil.isBlank;
 import static org.identityconnectors.ldap.LdapUtil.checkedListByFilter;
+import static org.identityconnectors.ldap.LdapUtil.escapeAttrValue;
 import static org.identityconnectors.ldap.LdapUtil.getStringAttrValue;
 import static org.identityconnectors.ldap.LdapUtil.isUnderContexts;
 import static org.identityconnectors.ldap.LdapUtil.nullAsEmpty;
@@ -39,7 +41,11 @@ import static org.identityconnectors.ldap.LdapUtil.quietCreateLdapName;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -63,6 +69,8 @@ import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.OperationOptions;
 import org.identityconnectors.framework.common.objects.OperationalAttributes;
+import org.identityconnectors.framework.common.objects.OperationOptionsBuilder;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
 import org.identityconnectors.framework.common.objects.SyncDelta;
 import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
 import org.identityconnectors.framework.common.objects.SyncDeltaType;
@@ -72,6 +80,7 @@ import org.identityconnectors.framework.common.objects.Uid;
 import org.identityconnectors.framework.spi.SyncTokenResultsHandler;
 import org.identityconnectors.ldap.LdapConnection;
 import org.identityconnectors.ldap.LdapEntry;
+import org.identityconnectors.ldap.LdapConstants.ServerType;
 import org.identityconnectors.ldap.search.DefaultSearchStrategy;
 import org.identityconnectors.ldap.search.LdapFilter;
 import org.identityconnectors.ldap.search.LdapInternalSearch;
@@ -114,6 +123,44 @@ public class SunDSChangeLogSyncStrategy implements LdapSyncStrategy {
     private Set<String> attrsToSync;
     private PasswordDecryptor passwordDecryptor;
 
+    /**
+     * A change log entry, with what was read from it before the modified
+     * entry is retrieved.
+     */
+    private static final class Change {
+
+        private final int changeNumber;
+        private final String changeType;
+        private final String targetDN;
+        private final String newTargetDN;
+        private final Map<String, List<Object>> attrChanges;
+        private final SyncDelta delta;
+
+        /**
+         * A change of an entry which has to be retrieved to complete the delta.
+         */
+        Change(int changeNumber, String changeType, String targetDN, String newTargetDN, Map<String, List<Object>> attrChanges) {
+            this.changeNumber = changeNumber;
+            this.changeType = changeType;
+            this.targetDN = targetDN;
+            this.newTargetDN = newTargetDN;
+            this.attrChanges = attrChanges;
+            this.delta = null;
+        }
+
+        /**
+         * A change whose delta is complete, as for a deleted entry.
+         */
+        Change(int changeNumber, SyncDelta delta) {
+            this.changeNumber = changeNumber;
+            this.changeType = null;
+            this.targetDN = null;
+            this.newTargetDN = null;
+            this.attrChanges = null;
+            this.delta = delta;
+        }
+    }
+
     static {
         LDIF_MODIFY_OPS = newCaseInsensitiveSet();
         LDIF_MODIFY_OPS.add("add");
@@ -140,9 +187,12 @@ public class SunDSChangeLogSyncStrategy implements LdapSyncStrategy {
         final boolean[] results = new boolean[1];
         final int[] processedChangeNumber = { -1 };
         final int[] currentChangeNumber = { getStartChangeNumber(token, handler) };
+        final boolean byBlock = conn.getConfiguration().isFetchChangedEntriesByBlock();
+        final List<Change> block = new ArrayList<Change>();
 
         do {
             results[0] = false;
+            block.clear();
 
             String filter = getChangeLogSearchFilter(changeNumberAttr, currentChangeNumber[0]);
             LdapInternalSearch search = new LdapInternalSearch(conn, filter, singletonList(context), new DefaultSearchStrategy(false), controls);
@@ -157,6 +207,13 @@ public class SunDSChangeLogSyncStrategy implements LdapSyncStrategy {
                         currentChangeNumber[0] = changeNumber;
                     }
 
+                    if (byBlock) {
+                        // The deltas are created once the whole block has been read.
+                        Change change = readChange(entry, changeNumber);
+                        block.add(change != null ? change : new Change(changeNumber, null));
+                        return true;
+                    }
+
                     SyncDelta delta = createSyncDelta(entry, changeNumber, options.getAttributesToGet());
                     if (delta != null) {
                         boolean handled = handler.handle(delta);
@@ -172,6 +229,10 @@ public class SunDSChangeLogSyncStrategy implements LdapSyncStrategy {
                 }
             });
 
+            if (results[0] && byBlock) {
+                results[0] = handleBlock(block, handler, options.getAttributesToGet(), processedChangeNumber);
+            }
+
             // We have already processed the current change.
             // In the next cycle we want to start with the next change.
             if (results[0]) {
@@ -184,7 +245,118 @@ public class SunDSChangeLogSyncStrategy implements LdapSyncStrategy {
         }
     }
 
+    /**
+     * Creates the deltas of a block of change log entries in change number order.
+     * The entries modified by the changes are retrieved up front, each of them once.
+     *
+     * @return whether the handler accepted all the deltas.
+     */
+    private boolean handleBlock(List<Change> block, SyncResultsHandler handler, String[] attrsToGetOption, int[] processedChangeNumber) {
+        Collections.sort(block, new Comparator<Change>() {
+            public int compare(Change c1, Change c2) {
+                return c1.changeNumber < c2.changeNumber ? -1 : (c1.changeNumber == c2.changeNumber ? 0 : 1);
+            }
+        });
+
+        Set<String> modifiedEntryDNs = new LinkedHashSet<String>();
+        for (Change change : block) {
+            if (change.newTargetDN != null) {
+                modifiedEntryDNs.add(change.newTargetDN);
+            }
+        }
+        Set<String> attrsToGet = getModifiedEntryAttributesToGet(attrsToGetOption);
+        Map<LdapName, ConnectorObject> modifiedEntries = findModifiedEntries(modifiedEntryDNs, attrsToGet);
+
+        for (Change change : block) {
+            SyncDelta delta = change.delta;
+            if (change.newTargetDN != null) {
+                delta = createSyncDelta(change, modifiedEntries.get(quietCreateLdapName(change.newTargetDN)), attrsToGetOption);
+            }
+            if (delta != null && !handler.handle(delta)) {
+                return false;
+            }
+            processedChangeNumber[0] = change.changeNumber;
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the entries modified by the changes of a block. OpenDJ and
+     * the other servers which can search by entryDN are asked for all the
+     * entries at once, others are asked for each entry.
+     *
+     * @return the entries found, keyed by DN.
+     */
+    private Map<LdapName, ConnectorObject> findModifiedEntries(Collection<String> entryDNs, Set<String> attrsToGet) {
+        final Map<LdapName, ConnectorObject> result = new HashMap<LdapName, ConnectorObject>();
+        if (entryDNs.isEmpty()) {
+            return result;
+        }
+        String[] attrs = attrsToGet.toArray(new String[attrsToGet.size()]);
+        if (isEntryDNSearchable() && entryDNs.size() > 1) {
+            log.ok("Retrieving {0} modified entries with a single search", entryDNs.size());
+            StringBuilder filter = new StringBuilder("(|");
+            for (String entryDN : entryDNs) {
+                filter.append("(entryDN=");
+                escapeAttrValue(entryDN, filter);
+                filter.append(')');
+            }
+            filter.append(')');
+            String syncFilter = getModifiedEntrySearchFilter();
+            if (!isBlank(syncFilter)) {
+                syncFilter = syncFilter.trim();
+                filter.insert(0, "(&");
+                filter.append(syncFilter.charAt(0) == '(' ? syncFilter : "(" + syncFilter + ")");
+                filter.append(')');
+            }
+            // The changes were filtered by these contexts already.
+            String[] baseDNs = nullAsEmpty(conn.getConfiguration().getBaseContextsToSynchronize());
+            if (baseDNs.length == 0) {
+                baseDNs = conn.getConfiguration().getBaseContexts();
+            }
+            OperationOptionsBuilder builder = new OperationOptionsBuilder();
+            builder.setAttributesToGet(attrs);
+            LdapSearch search = new LdapSearch(conn, oclass, LdapFilter.forNativeFilter(filter.toString()), null, builder.build(), baseDNs);
+            search.execute(new ResultsHandler() {
+                public boolean handle(ConnectorObject object) {
+                    result.put(quietCreateLdapName(object.getName().getNameValue()), object);
+                    return true;
+                }
+            });
+        } else {
+            for (String entryDN : entryDNs) {
+                LdapFilter filter = LdapFilter.forEntryDN(entryDN).withNativeFilter(getModifiedEntrySearchFilter());
+                ConnectorObject object = LdapSearches.findObject(conn, oclass, filter, attrs);
+                if (object != null) {
+                    result.put(quietCreateLdapName(entryDN), object);
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean isEntryDNSearchable() {
+        ServerType serverType = conn.getServerType();
+        return serverType == ServerType.OPENDJ || serverType == ServerType.OPENDS || serverType == ServerType.UNBOUNDID;
+    }
+
     private SyncDelta createSyncDelta(LdapEntry changeLogEntry, int changeNumber, String[] attrsToGetOption) {
+        Change change = readChange(changeLogEntry, changeNumber);
+        if (change == null || change.delta != null) {
+            return change != null ? change.delta : null;
+        }
+        Set<String> attrsToGet = getModifiedEntryAttributesToGet(attrsToGetOption);
+        LdapFilter filter = LdapFilter.forEntryDN(change.newTargetDN).withNativeFilter(getModifiedEntrySearchFilter());
+        ConnectorObject object = LdapSearches.findObject(conn, oclass, filter, attrsToGet.toArray(new String[attrsToGet.size()]));
+        return createSyncDelta(change, object, attrsToGetOption);
+    }
+
+    /**
+     * Reads a change log entry.
+     *
+     * @return the change, or {@code null} if the entry is filtered out.
+     */
+    private Change readChange(LdapEntry changeLogEntry, int changeNumber) {
         log.ok("Attempting to create sync delta for log entry {0}", changeNumber);
 
         String targetDN = getStringAttrValue(changeLogEntry.getAttributes(), "targetDN");
@@ -244,7 +416,7 @@ public class SunDSChangeLogSyncStrategy implements LdapSyncStrategy {
             } else {
                 syncDeltaBuilder.setUid(new Uid(targetDN));
             }
-            return syncDeltaBuilder.build();
+            return new Change(changeNumber, syncDeltaBuilder.build());
         }
 
         String changes = getStringAttrValue(changeLogEntry.getAttributes(), "changes");
@@ -272,7 +444,14 @@ public class SunDSChangeLogSyncStrategy implements LdapSyncStrategy {
             String newSuperior = getStringAttrValue(changeLogEntry.getAttributes(), "newSuperior");
             newTargetDN = getNewTargetDN(targetName, newSuperior, newRdn);
         }
+        return new Change(changeNumber, changeType, targetDN, newTargetDN, attrChanges);
+    }
 
+    /**
+     * Returns the attributes to retrieve from the modified entries, always
+     * including objectClass.
+     */
+    private Set<String> getModifiedEntryAttributesToGet(String[] attrsToGetOption) {
         // Always specify the attributes to get. This will return attributes with
         // empty values when the attribute is not present, allowing the client to
         // detect that the attribute has been removed.
@@ -285,11 +464,30 @@ public class SunDSChangeLogSyncStrategy implements LdapSyncStrategy {
         } else {
             attrsToGet = newSet(LdapSearch.getAttributesReturnedByDefault(conn, oclass));
         }
-        // If objectClass is not in the list of attributes to get, prepare to remove it later.
-        boolean removeObjectClass = attrsToGet.add("objectClass");
-        LdapFilter filter = LdapFilter.forEntryDN(newTargetDN).withNativeFilter(getModifiedEntrySearchFilter());
+        attrsToGet.add("objectClass");
+        return attrsToGet;
+    }
+
+    private boolean isObjectClassRequested(String[] attrsToGetOption) {
+        if (attrsToGetOption != null) {
+            return newSet(attrsToGetOption).contains("objectClass");
+        }
+        return LdapSearch.getAttributesReturnedByDefault(conn, oclass).contains("objectClass");
+    }
+
+    /**
+     * Completes the delta of a change with the modified entry.
+     *
+     * @param object the modified entry, or {@code null} if it was not found.
+     */
+    private SyncDelta createSyncDelta(Change change, ConnectorObject object, String[] attrsToGetOption) {
+        SyncDeltaBuilder syncDeltaBuilder = new SyncDeltaBuilder();
+        syncDeltaBuilder.setToken(new SyncToken(change.changeNumber));
+        syncDeltaBuilder.setDeltaType(getSyncDeltaType(change.changeType));
+        String changeType = change.changeType;
+        String targetDN = change.targetDN;
+        Map<String, List<Object>> attrChanges = change.attrChanges;
 
-        ConnectorObject object = LdapSearches.findObject(conn, oclass, filter, attrsToGet.toArray(new String[attrsToGet.size()]));
         if (object == null) {
             log.ok("Skipping entry because the modified entry is missing, not of the right object class, or not matching the search filter");
             return null;
@@ -312,6 +510,8 @@ public class SunDSChangeLogSyncStrategy implements LdapSyncStrategy {
             }
         }
 
+        // If objectClass was not in the list of attributes to get, remove it.
+        boolean removeObjectClass = !isObjectClassRequested(attrsToGetOption);
         if (removeObjectClass || passwordAttr != null) {
             ConnectorObjectBuilder objectBuilder = new ConnectorObjectBuilder();
             objectBuilder.setObjectClass(object.getObjectClass());
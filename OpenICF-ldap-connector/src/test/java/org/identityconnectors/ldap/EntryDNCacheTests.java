@@ -0,0 +1,75 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.identityconnectors.ldap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import org.testng.annotations.Test;
+
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.Uid;
+
+public class EntryDNCacheTests {
+
+    private static final String BUGS_BUNNY_DN = "uid=bugs.bunny,ou=Users,o=Acme,dc=example,dc=com";
+
+    private static final String ELMER_FUDD_DN = "uid=elmer.fudd,ou=Users,o=Acme,dc=example,dc=com";
+
+    @Test
+    public void testGetByObjectClassAndUid() {
+        EntryDNCache cache = new EntryDNCache(10, 60000);
+        cache.put(ObjectClass.ACCOUNT, new Uid("1"), BUGS_BUNNY_DN);
+
+        assertEquals(BUGS_BUNNY_DN, cache.get(ObjectClass.ACCOUNT, new Uid("1")));
+        assertNull(cache.get(ObjectClass.GROUP, new Uid("1")));
+        assertNull(cache.get(ObjectClass.ACCOUNT, new Uid("2")));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedDropped() {
+        EntryDNCache cache = new EntryDNCache(2, 60000);
+        cache.put(ObjectClass.ACCOUNT, new Uid("1"), BUGS_BUNNY_DN);
+        cache.put(ObjectClass.ACCOUNT, new Uid("2"), ELMER_FUDD_DN);
+        cache.get(ObjectClass.ACCOUNT, new Uid("1"));
+        cache.put(ObjectClass.ACCOUNT, new Uid("3"), "uid=sylvester,ou=Users,o=Acme,dc=example,dc=com");
+
+        assertEquals(2, cache.size());
+        assertEquals(BUGS_BUNNY_DN, cache.get(ObjectClass.ACCOUNT, new Uid("1")));
+        assertNull(cache.get(ObjectClass.ACCOUNT, new Uid("2")));
+    }
+
+    @Test
+    public void testExpired() throws InterruptedException {
+        EntryDNCache cache = new EntryDNCache(10, 1);
+        cache.put(ObjectClass.ACCOUNT, new Uid("1"), BUGS_BUNNY_DN);
+        Thread.sleep(10);
+
+        assertNull(cache.get(ObjectClass.ACCOUNT, new Uid("1")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRemove() {
+        EntryDNCache cache = new EntryDNCache(10, 60000);
+        cache.put(ObjectClass.ACCOUNT, new Uid("1"), BUGS_BUNNY_DN);
+
+        assertTrue(cache.remove(ObjectClass.ACCOUNT, new Uid("1")));
+        assertFalse(cache.remove(ObjectClass.ACCOUNT, new Uid("1")));
+        assertNull(cache.get(ObjectClass.ACCOUNT, new Uid("1")));
+    }
+}
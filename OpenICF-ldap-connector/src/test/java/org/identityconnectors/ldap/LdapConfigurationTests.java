@@ -23,7 +23,10 @@
  */
 package org.identityconnectors.ldap;
 
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNotSame;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertTrue;
@@ -124,6 +127,41 @@ public class LdapConfigurationTests {
         config.validate();
     }
 
+    @Test(expectedExceptions = ConfigurationException.class)
+    public void testGroupMembershipBatchSizeGreatherThanZero() {
+        config.setGroupMembershipBatchSize(0);
+        config.validate();
+    }
+
+    @Test(expectedExceptions = ConfigurationException.class)
+    public void testEntryDNCacheSizeNotNegative() {
+        config.setEntryDNCacheSize(-1);
+        config.validate();
+    }
+
+    @Test(expectedExceptions = ConfigurationException.class)
+    public void testEntryDNCacheTimeToLiveGreatherThanZero() {
+        config.setEntryDNCacheTimeToLive(0);
+        config.validate();
+    }
+
+    @Test
+    public void testEntryDNCacheSharedUntilReleased() {
+        assertNull(config.getEntryDNCache());
+        config.setEntryDNCacheSize(10);
+        EntryDNCache cache = config.getEntryDNCache();
+        assertNotNull(cache);
+        assertSame(cache, config.getEntryDNCache());
+        config.release();
+        assertNotSame(cache, config.getEntryDNCache());
+    }
+
+    @Test(expectedExceptions = ConfigurationException.class)
+    public void testBaseContextSearchConcurrencyGreatherThanZero() {
+        config.setBaseContextSearchConcurrency(0);
+        config.validate();
+    }
+
     @Test(expectedExceptions = ConfigurationException.class)
     public void testBlockCountGreatherThanZero() {
         config.setBlockSize(0);
@@ -305,6 +343,9 @@ public class LdapConfigurationTests {
         assertEquals("uniqueMember", config.getGroupMemberAttribute());
         assertFalse(config.isMaintainLdapGroupMembership());
         assertFalse(config.isMaintainPosixGroupMembership());
+        assertEquals(100, config.getGroupMembershipBatchSize());
+        assertEquals(0, config.getEntryDNCacheSize());
+        assertEquals(300, config.getEntryDNCacheTimeToLive());
         assertFalse(config.isRespectResourcePasswordPolicyChangeAfterReset());
         assertNull(config.getPasswordHashAlgorithm());
         assertFalse(config.isUseBlocks());
@@ -319,6 +360,8 @@ public class LdapConfigurationTests {
         assertEquals(0, config.getModifiersNamesToFilterOut().length);
         assertNull(config.getAccountSynchronizationFilter());
         assertEquals(100, config.getChangeLogBlockSize());
+        assertFalse(config.isFetchChangedEntriesByBlock());
+        assertEquals(1, config.getBaseContextSearchConcurrency());
         assertEquals("changeNumber", config.getChangeNumberAttribute());
         assertFalse(config.isFilterWithOrInsteadOfAnd());
         assertTrue(config.isRemoveLogEntryObjectClassFromFilter());
@@ -19,6 +19,7 @@
  * enclosed by brackets [] replaced by your own identifying information: 
  * "Portions Copyrighted [year] [name of copyright owner]"
  * ====================
+ * Portions Copyrighted 2026 3A Systems, LLC
  */
 package org.identityconnectors.ldap.modify;
 
@@ -27,16 +28,20 @@ import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
 import org.testng.annotations.Test;
 import static java.util.Collections.singleton;
 import static org.identityconnectors.common.CollectionUtil.newSet;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.identityconnectors.common.IOUtil;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.api.ConnectorFacade;
+import org.identityconnectors.framework.common.exceptions.UnknownUidException;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
@@ -112,6 +117,70 @@ public class LdapUpdateTests extends LdapConnectorTestBase {
         assertEquals(NUMBER1, daffy.getAttributeByName("telephoneNumber").getValue().get(0));
     }
 
+    @Test
+    public void testUpdateWithStaleCachedEntryDN() {
+        LdapConfiguration config = newConfiguration();
+        config.setEntryDNCacheSize(100);
+        ConnectorFacade facade = newFacade(config);
+        ConnectorObject bugs = searchByAttribute(facade, ObjectClass.ACCOUNT, new Name(BUGS_BUNNY_DN));
+
+        // Rename through a facade which does not share the cache.
+        Name name = new Name("uid=daffy.duck,ou=Users,o=Acme,dc=example,dc=com");
+        Uid newUid = newFacade().update(ObjectClass.ACCOUNT, bugs.getUid(), singleton((Attribute) name), null);
+        assertEquals(bugs.getUid(), newUid);
+
+        Attribute number = AttributeBuilder.build("telephoneNumber", NUMBER1);
+        facade.update(ObjectClass.ACCOUNT, bugs.getUid(), singleton(number), null);
+
+        OperationOptionsBuilder builder = new OperationOptionsBuilder();
+        builder.setAttributesToGet("telephoneNumber");
+        ConnectorObject daffy = facade.getObject(ObjectClass.ACCOUNT, newUid, builder.build());
+        assertEquals(name, daffy.getName());
+        assertEquals(NUMBER1, daffy.getAttributeByName("telephoneNumber").getValue().get(0));
+    }
+
+    @Test
+    public void testUpdateWithCachedEntryDNOfRecreatedEntry() {
+        LdapConfiguration config = newConfiguration();
+        config.setEntryDNCacheSize(100);
+        ConnectorFacade facade = newFacade(config);
+        Set<Attribute> attributes = new HashSet<Attribute>();
+        Name name = new Name("uid=another.worker," + SMALL_COMPANY_DN);
+        attributes.add(name);
+        attributes.add(AttributeBuilder.build("uid", "another.worker"));
+        attributes.add(AttributeBuilder.build("cn", "Another Worker"));
+        attributes.add(AttributeBuilder.build("sn", "Worker"));
+        Uid uid = facade.create(ObjectClass.ACCOUNT, attributes, null);
+        assertEquals(uid, searchByAttribute(facade, ObjectClass.ACCOUNT, name).getUid());
+
+        // Delete and create again under the same DN through a facade which does not share the cache.
+        ConnectorFacade other = newFacade();
+        other.delete(ObjectClass.ACCOUNT, uid, null);
+        Uid newUid = other.create(ObjectClass.ACCOUNT, attributes, null);
+        assertFalse(uid.equals(newUid));
+
+        Attribute number = AttributeBuilder.build("telephoneNumber", NUMBER1);
+        try {
+            facade.update(ObjectClass.ACCOUNT, uid, singleton(number), null);
+            fail("The entry created again under the cached DN was updated");
+        } catch (UnknownUidException e) {
+            // expected
+        }
+        try {
+            facade.delete(ObjectClass.ACCOUNT, uid, null);
+            fail("The entry created again under the cached DN was deleted");
+        } catch (UnknownUidException e) {
+            // expected
+        }
+
+        OperationOptionsBuilder builder = new OperationOptionsBuilder();
+        builder.setAttributesToGet("telephoneNumber");
+        ConnectorObject worker = facade.getObject(ObjectClass.ACCOUNT, newUid, builder.build());
+        assertNotNull(worker);
+        Attribute workerNumber = worker.getAttributeByName("telephoneNumber");
+        assertTrue(workerNumber == null || workerNumber.getValue().isEmpty());
+    }
+
     @Test
     public void testRenameWhenUidNotDefault() {
         LdapConfiguration config = newConfiguration();
@@ -33,6 +33,7 @@ import org.testng.annotations.Test;
 import static java.util.Collections.singleton;
 import static org.identityconnectors.common.CollectionUtil.newSet;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -59,6 +60,7 @@ import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
 import org.identityconnectors.ldap.LdapConfiguration;
 import org.identityconnectors.ldap.LdapConnection;
 import org.identityconnectors.ldap.LdapConnectorTestBase;
+import org.identityconnectors.ldap.LdapConstants;
 import org.identityconnectors.test.common.TestHelpers;
 import org.identityconnectors.test.common.ToListResultsHandler;
 
@@ -403,6 +405,33 @@ public class LdapSearchTests extends LdapConnectorTestBase {
         });
     }
 
+    @Test
+    public void testGroupsResolvedInBatches() {
+        OperationOptionsBuilder builder = new OperationOptionsBuilder();
+        builder.setAttributesToGet(LdapConstants.LDAP_GROUPS_NAME, LdapConstants.POSIX_GROUPS_NAME);
+
+        LdapConfiguration config = newConfiguration();
+        config.setGroupMembershipBatchSize(1);
+        List<ConnectorObject> expected = TestHelpers.searchToList(newFacade(config), ObjectClass.ACCOUNT, null, builder.build());
+
+        config = newConfiguration();
+        config.setGroupMembershipBatchSize(3);
+        List<ConnectorObject> objects = TestHelpers.searchToList(newFacade(config), ObjectClass.ACCOUNT, null, builder.build());
+
+        assertEquals(expected.size(), objects.size());
+        boolean hasGroups = false;
+        for (ConnectorObject object : expected) {
+            ConnectorObject batched = getObjectByName(objects, object.getName().getNameValue());
+            assertNotNull(batched);
+            for (String attrName : new String[] { LdapConstants.LDAP_GROUPS_NAME, LdapConstants.POSIX_GROUPS_NAME }) {
+                List<Object> groups = object.getAttributeByName(attrName).getValue();
+                hasGroups |= !groups.isEmpty();
+                assertEquals(new HashSet<Object>(groups), new HashSet<Object>(batched.getAttributeByName(attrName).getValue()));
+            }
+        }
+        assertTrue(hasGroups);
+    }
+
     private static ConnectorObject getObjectByName(List<ConnectorObject> objects, String name) {
         for (ConnectorObject object : objects) {
             if (name.equals(object.getName().getNameValue())) {
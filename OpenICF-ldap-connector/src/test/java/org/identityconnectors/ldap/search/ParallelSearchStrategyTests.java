@@ -0,0 +1,159 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.identityconnectors.ldap.search;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.naming.NamingException;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.LdapContext;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ParallelSearchStrategyTests {
+
+    private static final List<String> BASE_DNS = Arrays.asList("o=a", "o=b", "o=c", "o=d");
+
+    private ExecutorService executor;
+    private AtomicInteger openContexts;
+
+    @BeforeMethod
+    public void before() {
+        executor = Executors.newCachedThreadPool();
+        openContexts = new AtomicInteger();
+    }
+
+    @AfterMethod
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAllBaseDNsSearched() throws Exception {
+        List<String> found = search(new FakeStrategy(5, null), 2, -1);
+        assertEquals(20, found.size());
+        for (String baseDN : BASE_DNS) {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(found.contains("cn=" + i + "," + baseDN));
+            }
+        }
+        assertEquals(0, openContexts.get());
+    }
+
+    @Test
+    public void testStopWhenHandlerReturnsFalse() throws Exception {
+        List<String> found = search(new FakeStrategy(5000, null), 3, 10);
+        assertEquals(10, found.size());
+        assertEquals(0, openContexts.get());
+    }
+
+    @Test
+    public void testFailurePropagated() throws Exception {
+        try {
+            search(new FakeStrategy(5, "o=c"), 2, -1);
+            fail("The failure of a base DN should be thrown");
+        } catch (NamingException e) {
+            assertEquals("o=c", e.getMessage());
+        }
+        assertEquals(0, openContexts.get());
+    }
+
+    @Test
+    public void testSingleWorkerDelegates() throws Exception {
+        FakeStrategy strategy = new FakeStrategy(2, null);
+        List<String> found = search(strategy, 1, -1);
+        assertEquals(8, found.size());
+        assertEquals(1, strategy.calls.get());
+    }
+
+    private List<String> search(LdapSearchStrategy strategy, int concurrency, final int limit) throws IOException, NamingException {
+        final List<String> found = new ArrayList<String>();
+        LdapContext ctx = newContext();
+        try {
+            new ParallelSearchStrategy(strategy, executor, concurrency).doSearch(ctx, BASE_DNS, "(objectClass=*)",
+                    new SearchControls(), new LdapSearchResultsHandler() {
+                        public boolean handle(String baseDN, SearchResult result) {
+                            assertTrue(result.getName().endsWith(baseDN));
+                            found.add(result.getName());
+                            return found.size() != limit;
+                        }
+                    });
+        } finally {
+            ctx.close();
+        }
+        return found;
+    }
+
+    private LdapContext newContext() {
+        openContexts.incrementAndGet();
+        return (LdapContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { LdapContext.class },
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("newInstance")) {
+                            return newContext();
+                        } else if (method.getName().equals("close")) {
+                            openContexts.decrementAndGet();
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    private static final class FakeStrategy extends LdapSearchStrategy {
+
+        private final int entries;
+        private final String failingBaseDN;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FakeStrategy(int entries, String failingBaseDN) {
+            this.entries = entries;
+            this.failingBaseDN = failingBaseDN;
+        }
+
+        @Override
+        public void doSearch(LdapContext initCtx, List<String> baseDNs, String query, SearchControls searchControls, LdapSearchResultsHandler handler) throws IOException, NamingException {
+            calls.incrementAndGet();
+            for (String baseDN : baseDNs) {
+                if (baseDN.equals(failingBaseDN)) {
+                    throw new NamingException(baseDN);
+                }
+                for (int i = 0; i < entries; i++) {
+                    String name = "cn=" + i + "," + baseDN;
+                    if (!handler.handle(baseDN, new SearchResult(name, null, new BasicAttributes()))) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
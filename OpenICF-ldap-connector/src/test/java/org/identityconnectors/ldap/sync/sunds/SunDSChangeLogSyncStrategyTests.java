@@ -236,6 +236,18 @@ public class SunDSChangeLogSyncStrategyTests extends SunDSTestBase {
         // Set a small block size so connector would have to do
         // a couple of searches to return all deltas.
         config.setChangeLogBlockSize(2);
+        assertAllBlocksReturned(config);
+    }
+
+    @Test
+    public void testAllBlocksReturnedFetchingChangedEntriesByBlock() throws NamingException {
+        LdapConfiguration config = newConfiguration();
+        config.setChangeLogBlockSize(4);
+        config.setFetchChangedEntriesByBlock(true);
+        assertAllBlocksReturned(config);
+    }
+
+    private void assertAllBlocksReturned(LdapConfiguration config) throws NamingException {
         LdapConnection conn = newConnection(config);
         String baseContext = conn.getConfiguration().getBaseContexts()[0];
 
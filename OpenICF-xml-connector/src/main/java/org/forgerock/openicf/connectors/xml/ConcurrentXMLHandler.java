@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
@@ -27,12 +28,20 @@ package org.forgerock.openicf.connectors.xml;
 
 import com.sun.xml.xsom.XSSchemaSet;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.identityconnectors.common.logging.Log;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
 import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
 import org.identityconnectors.framework.common.objects.Schema;
 import org.identityconnectors.framework.common.objects.Uid;
 
@@ -44,19 +53,26 @@ import org.identityconnectors.framework.common.objects.Uid;
  */
 public class ConcurrentXMLHandler implements XMLHandler {
 
+    private static final Log log = Log.getLog(ConcurrentXMLHandler.class);
+
     final private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private XMLHandler proxy;
+    private XMLHandlerImpl proxy;
+    private XMLConfiguration config;
     private volatile int invokers = 0;
+    private ScheduledExecutorService flushScheduler = null;
 
     public ConcurrentXMLHandler(XMLConfiguration config, Schema connSchema, XSSchemaSet xsdSchemas) {
+        this.config = config;
         proxy = new XMLHandlerImpl(config, connSchema, xsdSchemas);
     }
 
     public Uid create(ObjectClass objClass, Set<Attribute> attributes) {
         Uid uid = null;
+        checkNotSearching();
         lock.writeLock().lock();
         try {
             uid = proxy.create(objClass, attributes);
+            flushIfNeeded();
         }
         finally {
             lock.writeLock().unlock();
@@ -66,9 +82,11 @@ public class ConcurrentXMLHandler implements XMLHandler {
 
     public Uid update(ObjectClass objClass, Uid uid, Set<Attribute> replaceAttributes) {
         Uid newUid = null;
+        checkNotSearching();
         lock.writeLock().lock();
         try {
             newUid = proxy.update(objClass, uid, replaceAttributes);
+            flushIfNeeded();
         }
         finally {
             lock.writeLock().unlock();
@@ -77,9 +95,11 @@ public class ConcurrentXMLHandler implements XMLHandler {
     }
 
     public void delete(ObjectClass objClass, Uid uid) {
+        checkNotSearching();
         lock.writeLock().lock();
         try {
             proxy.delete(objClass, uid);
+            flushIfNeeded();
         }
         finally {
             lock.writeLock().unlock();
@@ -98,6 +118,77 @@ public class ConcurrentXMLHandler implements XMLHandler {
         return result;
     }
 
+    public void search(String query, ObjectClass objectClass, ResultsHandler handler) {
+        lock.readLock().lock();
+        try {
+            proxy.search(query, objectClass, handler);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void search(String query, Map<String, String> variables, ObjectClass objectClass, ResultsHandler handler) {
+        lock.readLock().lock();
+        try {
+            proxy.search(query, variables, objectClass, handler);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the XML file once the configured number of changes is reached,
+     * called with the write lock held.
+     */
+    private void flushIfNeeded() {
+        if (config.getFlushThreshold() > 0 && proxy.getPendingChanges() >= config.getFlushThreshold()) {
+            proxy.flush();
+        }
+    }
+
+    /**
+     * Writes the pending changes in the background, every flushInterval
+     * seconds. The scheduler runs as long as the handler, the connector
+     * instances come and go with every operation.
+     */
+    private void startFlushScheduler() {
+        final String name = "XMLConnector flush " + config.getXmlFilePath().getName();
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        flushScheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                lock.writeLock().lock();
+                try {
+                    if (proxy.getPendingChanges() > 0) {
+                        proxy.flush();
+                    }
+                } catch (RuntimeException e) {
+                    // the changes stay pending, the next run tries again
+                    log.warn(e, "Failed to write {0}", config.getXmlFilePath());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }, config.getFlushInterval(), config.getFlushInterval(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * The results of a search are handed over under the read lock, a write
+     * from the results handler would wait for it forever.
+     */
+    private void checkNotSearching() {
+        if (lock.getReadHoldCount() > 0) {
+            throw new ConnectorException("The XML file can not be modified from the results handler of a search");
+        }
+    }
+
     public Uid authenticate(String username, GuardedString password) {
         Uid result = null;
         lock.readLock().lock();
@@ -118,6 +209,9 @@ public class ConcurrentXMLHandler implements XMLHandler {
         try {
             if (0 == invokers) {
                 proxy.init();
+                if (config.getFlushInterval() > 0 && null == flushScheduler) {
+                    startFlushScheduler();
+                }
             }
             invokers++;
         }
@@ -135,7 +229,9 @@ public class ConcurrentXMLHandler implements XMLHandler {
         lock.writeLock().lock();
         try {
             invokers--;
-            if (0 == invokers) {
+            if (0 == invokers && null == flushScheduler) {
+                // without the scheduler the changes are written when the
+                // last invoker is gone, nothing is written after a search
                 proxy.dispose();
             }
         }
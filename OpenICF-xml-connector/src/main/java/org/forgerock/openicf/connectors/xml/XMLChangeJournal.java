@@ -0,0 +1,186 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.connectors.xml;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.identityconnectors.common.logging.Log;
+
+/**
+ * Append-only journal of the entries changed since the XML file was last written.
+ * <p/>
+ * The journal is a text file next to the XML file, named after it with a {@code .journal} suffix. Every change is
+ * one line with the operation, the object class, the identifier the entry had before the change and, unless the
+ * entry was deleted, the serialized entry element. The line is forced to the disk before the operation returns. The
+ * journal is replayed over the XML file when it is loaded and {@link #clear() cleared} once the XML file has been
+ * written again. A last line cut short by a crash is ignored.
+ */
+final class XMLChangeJournal {
+
+    /**
+     * Setup logging for the {@link XMLChangeJournal}.
+     */
+    private static final Log log = Log.getLog(XMLChangeJournal.class);
+
+    private static final String PUT = "P";
+
+    private static final String DELETE = "D";
+
+    private static final char SEPARATOR = '\t';
+
+    private final File file;
+
+    /**
+     * A change of one entry read from the journal.
+     */
+    static final class Record {
+
+        private final String objectClass;
+
+        private final String identifier;
+
+        private final String entry;
+
+        private Record(String objectClass, String identifier, String entry) {
+            this.objectClass = objectClass;
+            this.identifier = identifier;
+            this.entry = entry;
+        }
+
+        String getObjectClass() {
+            return objectClass;
+        }
+
+        /**
+         * Returns the identifier of the entry before the change.
+         */
+        String getIdentifier() {
+            return identifier;
+        }
+
+        /**
+         * Returns the serialized entry element, {@code null} if the entry was deleted.
+         */
+        String getEntry() {
+            return entry;
+        }
+    }
+
+    XMLChangeJournal(File xmlFile) {
+        this.file = getFile(xmlFile);
+    }
+
+    /**
+     * Returns the journal file of the given XML file.
+     */
+    static File getFile(File xmlFile) {
+        return new File(xmlFile.getAbsoluteFile().getParentFile(), xmlFile.getName() + ".journal");
+    }
+
+    /**
+     * Appends a created or updated entry.
+     *
+     * @param objectClass the object class of the entry
+     * @param identifier the identifier of the entry before the change
+     * @param entry the serialized entry element after the change
+     */
+    void put(String objectClass, String identifier, String entry) throws IOException {
+        append(PUT + SEPARATOR + encode(objectClass) + SEPARATOR + encode(identifier) + SEPARATOR + encode(entry));
+    }
+
+    /**
+     * Appends a deleted entry.
+     */
+    void delete(String objectClass, String identifier) throws IOException {
+        append(DELETE + SEPARATOR + encode(objectClass) + SEPARATOR + encode(identifier) + SEPARATOR);
+    }
+
+    private void append(String line) throws IOException {
+        FileOutputStream out = new FileOutputStream(file, true);
+        try {
+            out.write((line + '\n').getBytes(StandardCharsets.US_ASCII));
+            out.getChannel().force(false);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the changes in the order they were appended.
+     */
+    List<Record> read() throws IOException {
+        List<Record> records = new ArrayList<Record>();
+        if (!file.exists()) {
+            return records;
+        }
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.US_ASCII));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+                try {
+                    if (fields.length == 4 && PUT.equals(fields[0]) && !fields[3].isEmpty()) {
+                        records.add(new Record(decode(fields[1]), decode(fields[2]), decode(fields[3])));
+                        continue;
+                    } else if (fields.length == 4 && DELETE.equals(fields[0])) {
+                        records.add(new Record(decode(fields[1]), decode(fields[2]), null));
+                        continue;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // not valid Base64, handled below
+                }
+                log.warn("Ignoring incomplete change in {0}: {1}", file, line);
+            }
+        } finally {
+            reader.close();
+        }
+        return records;
+    }
+
+    /**
+     * Checks whether there are changes to replay.
+     */
+    boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Drops the changes once the XML file has been written.
+     */
+    void clear() throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Unable to delete journal " + file);
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String value) {
+        return new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+}
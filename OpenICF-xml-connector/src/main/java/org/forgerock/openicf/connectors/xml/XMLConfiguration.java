@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
@@ -46,6 +47,9 @@ public class XMLConfiguration extends AbstractConfiguration {
     private File xsdFilePath = null;
     private File xsdIcfFilePath = null;
     private boolean createFileIfNotExists = false;
+    private long flushInterval = 0;
+    private int flushThreshold = 0;
+    private boolean changeJournal = false;
 
     public XMLConfiguration() {
         try {
@@ -95,7 +99,40 @@ public class XMLConfiguration extends AbstractConfiguration {
         this.createFileIfNotExists = createFileIfNotExists;
     }
 
+    @ConfigurationProperty(displayMessageKey = "FLUSH_INTERVAL_DISPLAY", helpMessageKey = "FLUSH_INTERVAL_HELP")
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    @ConfigurationProperty(displayMessageKey = "FLUSH_THRESHOLD_DISPLAY", helpMessageKey = "FLUSH_THRESHOLD_HELP")
+    public int getFlushThreshold() {
+        return flushThreshold;
+    }
+
+    public void setFlushThreshold(int flushThreshold) {
+        this.flushThreshold = flushThreshold;
+    }
+
+    @ConfigurationProperty(displayMessageKey = "CHANGE_JOURNAL_DISPLAY", helpMessageKey = "CHANGE_JOURNAL_HELP")
+    public boolean isChangeJournal() {
+        return changeJournal;
+    }
+
+    public void setChangeJournal(boolean changeJournal) {
+        this.changeJournal = changeJournal;
+    }
+
     public void validate() {
+        if (flushInterval < 0) {
+            throw new IllegalArgumentException("The flushInterval property must not be negative");
+        }
+        if (flushThreshold < 0) {
+            throw new IllegalArgumentException("The flushThreshold property must not be negative");
+        }
         if (null == xsdFilePath) {
             throw new IllegalArgumentException("Missing xsdFilePath property");
         } else if (!xsdFilePath.canRead()) {
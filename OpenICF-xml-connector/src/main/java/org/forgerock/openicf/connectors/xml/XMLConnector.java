@@ -30,7 +30,6 @@ import org.forgerock.openicf.connectors.xml.query.abstracts.Query;
 import org.forgerock.openicf.connectors.xml.query.QueryBuilder;
 import org.forgerock.openicf.connectors.xml.xsdparser.SchemaParser;
 import java.io.IOException;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -205,14 +204,15 @@ public class XMLConnector implements Connector, AuthenticateOp, CreateOp, Delete
     public void executeQuery(ObjectClass objClass, Query query, ResultsHandler handler, OperationOptions options) {
         synchronized (getLock()) {
             QueryBuilder queryBuilder = new QueryBuilder(query, objClass);
-            Collection<ConnectorObject> hits = xmlInstanceHandler.search(
-                    queryBuilder.toString(), objClass);
-            int count = 0;
-            for (ConnectorObject hit : hits) {
-                count++;
-                handler.handle(hit);
-            }
-            log.info("Query returned {0} object(s)", count);
+            final ResultsHandler resultsHandler = handler;
+            final int[] count = { 0 };
+            xmlInstanceHandler.search(queryBuilder.getParameterizedQuery(), queryBuilder.getVariables(), objClass, new ResultsHandler() {
+                public boolean handle(ConnectorObject hit) {
+                    count[0]++;
+                    return resultsHandler.handle(hit);
+                }
+            });
+            log.info("Query returned {0} object(s)", count[0]);
         }
     }
 
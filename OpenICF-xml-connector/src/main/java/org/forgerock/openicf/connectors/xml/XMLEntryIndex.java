@@ -0,0 +1,136 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.connectors.xml;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Entry elements of the XML document by object class and by the text of their {@code __UID__} and {@code __NAME__}
+ * elements.
+ * <p/>
+ * The index answers the lookups of a single entry without evaluating an XQuery over the document. It has to be
+ * told about every entry which is added, removed or renamed. When several entries share a value the first one in
+ * document order wins, as with the XQuery it replaces.
+ */
+final class XMLEntryIndex {
+
+    private final String icfNamespace;
+
+    private final Map<String, Map<String, Element>> byUid = new HashMap<String, Map<String, Element>>();
+
+    private final Map<String, Map<String, Element>> byName = new HashMap<String, Map<String, Element>>();
+
+    XMLEntryIndex(String icfNamespace) {
+        this.icfNamespace = icfNamespace;
+    }
+
+    /**
+     * Indexes all the entries of the given object classes, at any depth below the root of the document.
+     *
+     * @param document the XML document
+     * @param riNamespace the namespace of the object class elements
+     * @param objectClasses the names of the object classes
+     */
+    void build(Document document, String riNamespace, Iterable<String> objectClasses) {
+        byUid.clear();
+        byName.clear();
+        for (String objectClass : objectClasses) {
+            NodeList entries = document.getElementsByTagNameNS(riNamespace, objectClass);
+            for (int i = 0; i < entries.getLength(); i++) {
+                add(objectClass, (Element) entries.item(i));
+            }
+        }
+    }
+
+    /**
+     * Indexes an entry which has been appended to the document.
+     */
+    void add(String objectClass, Element entry) {
+        put(byUid, objectClass, Uid.NAME, entry);
+        put(byName, objectClass, Name.NAME, entry);
+    }
+
+    /**
+     * Removes an entry from the index, before it is removed from the document or before its identifiers change.
+     */
+    void remove(String objectClass, Element entry) {
+        remove(byUid, objectClass, Uid.NAME, entry);
+        remove(byName, objectClass, Name.NAME, entry);
+    }
+
+    /**
+     * Returns the entry with the given {@code __UID__} or {@code __NAME__}, {@code null} if there is none.
+     *
+     * @param objectClass the object class of the entry
+     * @param identifierField {@link Uid#NAME} or {@link Name#NAME}
+     * @param value the text of the identifier element
+     */
+    Element get(String objectClass, String identifierField, String value) {
+        Map<String, Element> entries = (Uid.NAME.equals(identifierField) ? byUid : byName).get(objectClass);
+        return null == entries ? null : entries.get(value);
+    }
+
+    /**
+     * Returns the text of the first {@code __UID__} or {@code __NAME__} element of an entry, {@code null} if it has
+     * none.
+     */
+    String getIdentifier(Element entry, String identifierField) {
+        for (Node child = entry.getFirstChild(); null != child; child = child.getNextSibling()) {
+            if (isIdentifier(child, identifierField)) {
+                return child.getTextContent();
+            }
+        }
+        return null;
+    }
+
+    private void put(Map<String, Map<String, Element>> index, String objectClass, String field, Element entry) {
+        Map<String, Element> entries = index.get(objectClass);
+        if (null == entries) {
+            entries = new HashMap<String, Element>();
+            index.put(objectClass, entries);
+        }
+        for (Node child = entry.getFirstChild(); null != child; child = child.getNextSibling()) {
+            if (isIdentifier(child, field) && !entries.containsKey(child.getTextContent())) {
+                entries.put(child.getTextContent(), entry);
+            }
+        }
+    }
+
+    private void remove(Map<String, Map<String, Element>> index, String objectClass, String field, Element entry) {
+        Map<String, Element> entries = index.get(objectClass);
+        if (null == entries) {
+            return;
+        }
+        for (Node child = entry.getFirstChild(); null != child; child = child.getNextSibling()) {
+            if (isIdentifier(child, field) && entries.get(child.getTextContent()) == entry) {
+                entries.remove(child.getTextContent());
+            }
+        }
+    }
+
+    private boolean isIdentifier(Node child, String field) {
+        return child.getNodeType() == Node.ELEMENT_NODE && field.equals(child.getLocalName())
+                && icfNamespace.equals(child.getNamespaceURI());
+    }
+}
@@ -76,9 +76,8 @@ public class XMLFilterTranslator extends AbstractFilterTranslator<Query> {
         String attrName = getAttributeName(filter.getAttribute());
         String prefixedName = createNameWithNamespace(attrName);
         String value = AttributeUtil.getSingleValue(filter.getAttribute()).toString();
-        String[] args = createFunctionArgs(prefixedName, value);
 
-        return createFunctionQuery(args, "ends-with", not);
+        return createFunctionQuery(prefixedName, value, "ends-with", not);
     }
 
     @Override
@@ -126,9 +125,8 @@ public class XMLFilterTranslator extends AbstractFilterTranslator<Query> {
         String attrName = getAttributeName(filter.getAttribute());
         String prefixedName = createNameWithNamespace(attrName);
         String value = AttributeUtil.getSingleValue(filter.getAttribute()).toString();
-        String[] args = createFunctionArgs(prefixedName, value);
 
-        return createFunctionQuery(args, "starts-with", not);
+        return createFunctionQuery(prefixedName, value, "starts-with", not);
     }
 
     @Override
@@ -205,31 +203,21 @@ public class XMLFilterTranslator extends AbstractFilterTranslator<Query> {
 
     private Query createComparisonQuery(String name, String operator, String value) {
         Query query = new QueryImpl();
-        query.set(new ComparisonQuery("$x/" + name, operator, escape(value)));
+        query.set(new ComparisonQuery("$x/" + name, operator, value));
 
         return query;
     }
 
-    private Query createFunctionQuery(String[] args, String function, boolean not) {
+    private Query createFunctionQuery(String attrName, String value, String function, boolean not) {
         Query query = new QueryImpl();
-        query.set(new FunctionQuery(args, function, not));
+        query.set(new FunctionQuery(new String[] {"$x/" + attrName}, value, function, not));
 
         return query;
     }
 
-    private String[] createFunctionArgs(String attrName, String value) {
-        String[] args = {"$x/" + attrName, escape(value)};
-
-        return args;
-    }
-
     private String createNameWithNamespace(String attrName) {
         String prefix = NamespaceLookupUtil.INSTANCE.getAttributePrefix(attrName);
 
         return prefix + ":" + attrName;
     }
-    
-    private String escape(String value) {
-        return "'" + value.replaceAll("'","''") + "'";
-    }
 }
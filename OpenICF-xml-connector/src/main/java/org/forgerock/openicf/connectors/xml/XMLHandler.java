@@ -20,17 +20,20 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
 package org.forgerock.openicf.connectors.xml;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
 import org.identityconnectors.framework.common.objects.Uid;
 
 public interface XMLHandler {
@@ -43,6 +46,21 @@ public interface XMLHandler {
 
     Collection<ConnectorObject> search(String query, ObjectClass objectClass);
 
+    /**
+     * Hands the results of the query to the handler as they are read, until
+     * the handler returns {@code false}.
+     */
+    void search(String query, ObjectClass objectClass, ResultsHandler handler);
+
+    /**
+     * Hands the results of the query to the handler as they are read, the
+     * external variables of the query are bound to the values.
+     *
+     * @param variables the values of the external variables by name
+     * @see org.forgerock.openicf.connectors.xml.query.QueryBuilder#getParameterizedQuery()
+     */
+    void search(String query, Map<String, String> variables, ObjectClass objectClass, ResultsHandler handler);
+
     Uid authenticate(String username, GuardedString password);
 
     XMLHandler init();
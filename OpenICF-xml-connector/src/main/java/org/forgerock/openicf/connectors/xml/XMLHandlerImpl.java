@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
@@ -30,24 +31,29 @@ import org.forgerock.openicf.connectors.xml.util.ElementIdentifierFieldType;
 import org.forgerock.openicf.connectors.xml.util.GuardedStringAccessor;
 import org.forgerock.openicf.connectors.xml.util.NamespaceLookupUtil;
 import org.forgerock.openicf.connectors.xml.util.XmlHandlerUtil;
-import org.forgerock.openicf.connectors.xml.query.abstracts.Query;
-import org.forgerock.openicf.connectors.xml.query.QueryBuilder;
+import org.forgerock.openicf.connectors.xml.query.XQueryCache;
 import org.forgerock.openicf.connectors.xml.query.XQueryHandler;
 import com.sun.xml.xsom.XSSchema;
 import com.sun.xml.xsom.XSSchemaSet;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -68,6 +74,7 @@ import org.identityconnectors.common.logging.Log;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.common.exceptions.AlreadyExistsException;
 import org.identityconnectors.framework.common.exceptions.ConfigurationException;
+import org.identityconnectors.framework.common.exceptions.ConnectorIOException;
 import org.identityconnectors.framework.common.exceptions.UnknownUidException;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeInfo;
@@ -76,14 +83,14 @@ import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.Name;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.ObjectClassInfo;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
 import org.identityconnectors.framework.common.objects.Schema;
 import org.identityconnectors.common.Assertions;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
-import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.AttributeInfoUtil;
 import org.identityconnectors.framework.common.objects.Uid;
-import org.identityconnectors.framework.common.objects.filter.EqualsFilter;
 import org.w3c.dom.*;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 public class XMLHandlerImpl implements XMLHandler {
@@ -97,6 +104,10 @@ public class XMLHandlerImpl implements XMLHandler {
     private Schema connSchema;
     private XSSchema icfSchema;
     private XSSchema riSchema;
+    private final XMLEntryIndex index;
+    private final XQueryCache queryCache;
+    private final XMLChangeJournal journal;
+    private int pendingChanges = 0;
     private long lastModified = 0l;
     private volatile long version = 0l;
     public static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
@@ -112,12 +123,22 @@ public class XMLHandlerImpl implements XMLHandler {
         this.connSchema = connSchema;
         this.riSchema = xsdSchemas.getSchema(1);
         this.icfSchema = xsdSchemas.getSchema(2);
+        this.index = new XMLEntryIndex(icfSchema.getTargetNamespace());
+        this.journal = config.isChangeJournal() ? new XMLChangeJournal(config.getXmlFilePath()) : null;
+        this.queryCache = new XQueryCache();
 
         NamespaceLookupUtil.INSTANCE.initialize(icfSchema, riSchema);
     }
 
+    /**
+     * Reads the XML file the first time and again only when it was changed by
+     * someone else, the document, the index and the compiled queries are kept
+     * as long as the handler.
+     */
     public XMLHandler init() {
-        buildDocument();
+        if (null == document || (0 == pendingChanges && isExternallyModified())) {
+            buildDocument();
+        }
         return this;
     }
 
@@ -220,6 +241,8 @@ public class XMLHandlerImpl implements XMLHandler {
         }
 
         getDocument().getDocumentElement().appendChild(objElement);
+        index.add(objClass.getObjectClassValue(), objElement);
+        changed(objClass, uidValue, objElement);
 
         log.info("Exit {0}", method);
 
@@ -239,60 +262,68 @@ public class XMLHandlerImpl implements XMLHandler {
 
             Element entry = getEntry(objClass, uid, ElementIdentifierFieldType.AUTO);
 
-            for (Attribute attribute : replaceAttributes) {
+            // The replaced attributes may include __NAME__, the entry is
+            // indexed again even when a replacement is rejected half way.
+            index.remove(objClass.getObjectClassValue(), entry);
+            try {
+                for (Attribute attribute : replaceAttributes) {
 
-                if (!objAttributes.containsKey(attribute.getName())) {
-                    throw new IllegalArgumentException("Data field: " + attribute.getName() + " is not supported.");
-                }
+                    if (!objAttributes.containsKey(attribute.getName())) {
+                        throw new IllegalArgumentException("Data field: " + attribute.getName() + " is not supported.");
+                    }
 
-                AttributeInfo attributeInfo = objAttributes.get(attribute.getName());
-                String attributeName = attribute.getName();
+                    AttributeInfo attributeInfo = objAttributes.get(attribute.getName());
+                    String attributeName = attribute.getName();
 
-                if (!attributeInfo.isUpdateable()) {
-                    throw new IllegalArgumentException(attributeName + " is not updatable.");
-                }
-
-                if (attributeInfo.isRequired()) {
-                    List<String> values = AttributeTypeUtil.findAttributeValue(attribute, attributeInfo);
-                    if (values.isEmpty()) {
-                        throw new IllegalArgumentException("No values provided for required attribute: " + attributeName);
+                    if (!attributeInfo.isUpdateable()) {
+                        throw new IllegalArgumentException(attributeName + " is not updatable.");
                     }
-                    for (String value : values) {
-                        Assertions.blankCheck(value, attributeName);
-                        Assertions.nullCheck(value, attributeName);
+
+                    if (attributeInfo.isRequired()) {
+                        List<String> values = AttributeTypeUtil.findAttributeValue(attribute, attributeInfo);
+                        if (values.isEmpty()) {
+                            throw new IllegalArgumentException("No values provided for required attribute: " + attributeName);
+                        }
+                        for (String value : values) {
+                            Assertions.blankCheck(value, attributeName);
+                            Assertions.nullCheck(value, attributeName);
+                        }
                     }
-                }
 
-                // Check if the provided value is the same as the class defined in schema
-                Class expectedClass = attributeInfo.getType();
+                    // Check if the provided value is the same as the class defined in schema
+                    Class expectedClass = attributeInfo.getType();
 
-                if (attribute.getValue() != null) {
-                    if (!valuesAreExpectedClass(expectedClass, attribute.getValue())) {
-                        throw new IllegalArgumentException(attributeName + " contains values of illegal type");
+                    if (attribute.getValue() != null) {
+                        if (!valuesAreExpectedClass(expectedClass, attribute.getValue())) {
+                            throw new IllegalArgumentException(attributeName + " contains values of illegal type");
+                        }
                     }
-                }
 
-                // Remove existing nodes from entry
-                removeChildrenFromElement(entry, prefixAttributeName(attributeName));
+                    // Remove existing nodes from entry
+                    removeChildrenFromElement(entry, prefixAttributeName(attributeName));
 
-                // Add updated nodes to entry
-                List<String> values = AttributeTypeUtil.findAttributeValue(attribute, attributeInfo);
+                    // Add updated nodes to entry
+                    List<String> values = AttributeTypeUtil.findAttributeValue(attribute, attributeInfo);
 
-                if (!attributeInfo.isMultiValued() && values.size() > 1) {
-                    throw new IllegalArgumentException("Data field: " + attributeName + " is not multivalued  can not have more than one value");
-                }
+                    if (!attributeInfo.isMultiValued() && values.size() > 1) {
+                        throw new IllegalArgumentException("Data field: " + attributeName + " is not multivalued  can not have more than one value");
+                    }
 
-                // Append empty element if no values is provided
-                if (values.isEmpty()) {
-                    Element updatedElement = createDomElement(attributeName, "");
-                    entry.appendChild(updatedElement);
-                } else {
-                    for (String value : values) {
-                        Element updatedElement = createDomElement(attributeName, value);
+                    // Append empty element if no values is provided
+                    if (values.isEmpty()) {
+                        Element updatedElement = createDomElement(attributeName, "");
                         entry.appendChild(updatedElement);
+                    } else {
+                        for (String value : values) {
+                            Element updatedElement = createDomElement(attributeName, value);
+                            entry.appendChild(updatedElement);
+                        }
                     }
                 }
+            } finally {
+                index.add(objClass.getObjectClassValue(), entry);
             }
+            changed(objClass, uid.getUidValue(), entry);
         } else {
             throw new UnknownUidException("Could not update entry. No entry of type " + objClass.getObjectClassValue() + " with the id " + uid.getUidValue() + " found.");
         }
@@ -310,7 +341,9 @@ public class XMLHandlerImpl implements XMLHandler {
 
         if (entryExists(objClass, uid, ElementIdentifierFieldType.AUTO)) {
             Element elementToRemove = getEntry(objClass, uid, ElementIdentifierFieldType.AUTO);
+            index.remove(objClass.getObjectClassValue(), elementToRemove);
             getDocument().getDocumentElement().removeChild(elementToRemove);
+            changed(objClass, uid.getUidValue(), null);
             log.info("Deleting entry: " + elementToRemove.toString());
         } else {
             throw new UnknownUidException("Deleting entry failed. Could not find an entry of type " + objClass.getObjectClassValue() + " with the uid " + uid.getUidValue());
@@ -320,11 +353,24 @@ public class XMLHandlerImpl implements XMLHandler {
     }
 
     public Collection<ConnectorObject> search(String query, ObjectClass objClass) {
+        final List<ConnectorObject> results = new ArrayList<ConnectorObject>();
+        search(query, objClass, new ResultsHandler() {
+            public boolean handle(ConnectorObject connectorObject) {
+                results.add(connectorObject);
+                return true;
+            }
+        });
+        return results;
+    }
+
+    public void search(String query, ObjectClass objClass, ResultsHandler handler) {
+        search(query, Collections.<String, String>emptyMap(), objClass, handler);
+    }
+
+    public void search(String query, Map<String, String> variables, ObjectClass objClass, ResultsHandler handler) {
         final String method = "search";
         log.info("Entry {0}", method);
 
-        List<ConnectorObject> results = new ArrayList<ConnectorObject>();
-
         if (query != null && !query.isEmpty() && objClass != null) {
 
             ObjectClassInfo objInfo = connSchema.findObjectClassInfo(objClass.getObjectClassValue());
@@ -342,13 +388,15 @@ public class XMLHandlerImpl implements XMLHandler {
 
             XQueryHandler xqHandler = null;
             try {
-                xqHandler = new XQueryHandler(query, getDocument());
+                xqHandler = new XQueryHandler(query, variables, getDocument(), queryCache);
                 XQResultSequence queryResult = xqHandler.getResultSequence();
 
 
                 ConnectorObjectCreator conObjCreator =
                         new ConnectorObjectCreator(attributeClassMap, attributeInfoMap, objClass);
 
+                // Each object is handed over as soon as it is read, the
+                // results are not collected before.
                 while (queryResult.next()) {
 
                     Node resultNode = queryResult.getItem().getNode();
@@ -356,7 +404,9 @@ public class XMLHandlerImpl implements XMLHandler {
                     NodeList nodes = resultNode.getChildNodes();
 
                     ConnectorObject conObj = conObjCreator.createConnectorObject(nodes);
-                    results.add(conObj);
+                    if (!handler.handle(conObj)) {
+                        break;
+                    }
                 }
             } catch (XQException ex) {
                 log.error("Error while searching: {0}", ex);
@@ -368,8 +418,6 @@ public class XMLHandlerImpl implements XMLHandler {
             }
         }
         log.info("Exit {0}", method);
-
-        return results;
     }
 
     private boolean isExternallyModified() {
@@ -381,8 +429,30 @@ public class XMLHandlerImpl implements XMLHandler {
     }
 
     public void dispose() {
+        flush();
+    }
+
+    /**
+     * Returns the number of changes which have not been written to the XML
+     * file yet.
+     */
+    public int getPendingChanges() {
+        return pendingChanges;
+    }
+
+    /**
+     * Writes the whole document to a temporary file next to the XML file and
+     * renames it over the XML file, then clears the change journal. A crash
+     * while writing leaves the previous XML file and the journal in place.
+     * Nothing is written when there are no pending changes.
+     */
+    public void flush() {
         final String method = "serialize";
         log.info("Entry {0}", method);
+        if (0 == pendingChanges) {
+            log.info("Exit {0}, no pending changes", method);
+            return;
+        }
         if (version != lastModified && isExternallyModified()) {
             log.error("UPDATE COLLUSION: File has been modified after read into memory and the data in memory has not been synced before.");
         }
@@ -444,29 +514,139 @@ public class XMLHandlerImpl implements XMLHandler {
                  * Illegal character in safePath at index 9: /temp/XML Connector/test.xml
                  * String safePath = config.getXmlFilePath().getPath().replaceAll(" ", "%20");
                  */
-                FileOutputStream fos = new FileOutputStream(config.getXmlFilePath());
+                File xmlFile = config.getXmlFilePath();
+                File tmpFile = File.createTempFile("." + xmlFile.getName() + ".", ".tmp", xmlFile.getAbsoluteFile().getParentFile());
                 try {
-                    StreamResult result = new StreamResult(fos);
-                    transformer.transform(source, result);
-                } finally {
+                    FileOutputStream fos = new FileOutputStream(tmpFile);
+                    try {
+                        StreamResult result = new StreamResult(fos);
+                        transformer.transform(source, result);
+                        fos.getFD().sync();
+                    } finally {
+                        try {
+                            fos.close();
+                        } catch (IOException ioe) {
+                            log.warn("Failed to close XML output stream: {0}", ioe);
+                        }
+                    }
                     try {
-                        fos.close();
-                    } catch (IOException ioe) {
-                        log.warn("Failed to close XML output stream: {0}", ioe);
+                        Files.move(tmpFile.toPath(), xmlFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(tmpFile.toPath(), xmlFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    if (tmpFile.exists() && !tmpFile.delete()) {
+                        log.warn("Failed to delete temporary file {0}", tmpFile);
                     }
                 }
+                lastModified = xmlFile.lastModified();
+                version = lastModified;
             }
 
+            if (null != journal) {
+                journal.clear();
+            }
+            pendingChanges = 0;
             log.info("Saving changes to xml file");
         } catch (TransformerException ex) {
             log.error("Failed saving changes to xml file: {0}", ex);
             throw ConnectorException.wrap(ex);
-        } catch (FileNotFoundException ex) {
+        } catch (IOException ex) {
             log.error("Failed saving changes to xml file: {0}", ex);
+            throw new ConnectorIOException(ex);
+        }
+
+        log.info("Entry {0}", method);
+    }
+
+    /**
+     * Counts a change of an entry and appends it to the change journal.
+     *
+     * @param identifier the identifier of the entry before the change
+     * @param entry the entry after the change, {@code null} if it was deleted
+     */
+    private void changed(ObjectClass objClass, String identifier, Element entry) {
+        pendingChanges++;
+        if (null == journal) {
+            return;
+        }
+        try {
+            if (null == entry) {
+                journal.delete(objClass.getObjectClassValue(), identifier);
+            } else {
+                StringWriter writer = new StringWriter();
+                Transformer transformer = new net.sf.saxon.TransformerFactoryImpl().newTransformer();
+                transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+                transformer.transform(new DOMSource(entry), new StreamResult(writer));
+                journal.put(objClass.getObjectClassValue(), identifier, writer.toString());
+            }
+        } catch (TransformerException ex) {
+            log.error("Failed writing change to the journal: {0}", ex);
             throw ConnectorException.wrap(ex);
+        } catch (IOException ex) {
+            log.error("Failed writing change to the journal: {0}", ex);
+            throw new ConnectorIOException(ex);
         }
+    }
 
+    /**
+     * Applies the changes left in the journal by a previous run which ended
+     * before they were written to the XML file. Replaying a change which has
+     * already been written gives the same entry again.
+     */
+    private void replayJournal() {
+        final String method = "replayJournal";
         log.info("Entry {0}", method);
+
+        try {
+            DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+            builderFactory.setNamespaceAware(true);
+            DocumentBuilder builder = builderFactory.newDocumentBuilder();
+
+            for (XMLChangeJournal.Record record : journal.read()) {
+                ObjectClass objClass = new ObjectClass(record.getObjectClass());
+                String idField = getElementIdentifierField(objClass, ElementIdentifierFieldType.AUTO);
+                Element current = index.get(record.getObjectClass(), idField, record.getIdentifier());
+
+                if (null == record.getEntry()) {
+                    if (null != current) {
+                        index.remove(record.getObjectClass(), current);
+                        current.getParentNode().removeChild(current);
+                    }
+                } else {
+                    Element entry = (Element) document.importNode(
+                            builder.parse(new InputSource(new StringReader(record.getEntry()))).getDocumentElement(), true);
+                    // The declarations of the serialized entry are already on the root element
+                    NamedNodeMap attributes = entry.getAttributes();
+                    for (int i = attributes.getLength() - 1; i >= 0; i--) {
+                        if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attributes.item(i).getNamespaceURI())) {
+                            entry.removeAttributeNode((Attr) attributes.item(i));
+                        }
+                    }
+                    if (null == current) {
+                        // renamed, and the rename was already written
+                        current = index.get(record.getObjectClass(), idField, index.getIdentifier(entry, idField));
+                    }
+                    if (null != current) {
+                        index.remove(record.getObjectClass(), current);
+                        current.getParentNode().replaceChild(entry, current);
+                    } else {
+                        document.getDocumentElement().appendChild(entry);
+                    }
+                    index.add(record.getObjectClass(), entry);
+                }
+                pendingChanges++;
+            }
+            log.info("Replayed {0} change(s) from the journal", pendingChanges);
+        } catch (ParserConfigurationException ex) {
+            throw ConnectorException.wrap(ex);
+        } catch (SAXException ex) {
+            throw ConnectorException.wrap(ex);
+        } catch (IOException ex) {
+            throw new ConnectorIOException(ex);
+        }
+
+        log.info("Exit {0}", method);
     }
 
     public Uid authenticate(String username, GuardedString password) {
@@ -597,6 +777,16 @@ public class XMLHandlerImpl implements XMLHandler {
             loadDocument(xmlFile);
         }
 
+        List<String> objectClasses = new ArrayList<String>();
+        for (ObjectClassInfo objInfo : connSchema.getObjectClassInfo()) {
+            objectClasses.add(objInfo.getType());
+        }
+        index.build(document, riSchema.getTargetNamespace(), objectClasses);
+        pendingChanges = 0;
+        if (null != journal && journal.exists()) {
+            replayJournal();
+        }
+
         log.info("Exit {0}", method);
     }
 
@@ -621,35 +811,15 @@ public class XMLHandlerImpl implements XMLHandler {
         final String method = "getEntry";
         log.info("Entry {0}", method);
 
-        Element result = null;
-
-        // Build search query
-        XMLFilterTranslator translator = new XMLFilterTranslator(isSupportUid(objClass));
         String idField = getElementIdentifierField(objClass, identifierField);
-        AttributeBuilder builder = new AttributeBuilder();
-        builder.setName(idField);
-        builder.addValue(uid.getUidValue());
-        EqualsFilter equals = new EqualsFilter(builder.build());
-        Query query = translator.createEqualsExpression(equals, false);
-        QueryBuilder queryBuilder = new QueryBuilder(query, objClass);
-
-        // Execute query
-        XQueryHandler xqHandler = null;
-
-        try {
-            xqHandler = new XQueryHandler(queryBuilder.toString(), document);
-            XQResultSequence results = xqHandler.getResultSequence();
-
-            if (results.next()) {
-                result = (Element) results.getItem().getNode();
-                log.info("Entry found: ", result.toString());
-            }
-        } catch (XQException ex) {
-            throw ConnectorException.wrap(ex);
-        } finally {
-            if (null != xqHandler) {
-                xqHandler.close();
-            }
+        if (Uid.NAME.equals(idField) && !isSupportUid(objClass)) {
+            // Same as the XMLFilterTranslator, without __UID__ the entries
+            // are identified by __NAME__
+            idField = Name.NAME;
+        }
+        Element result = index.get(objClass.getObjectClassValue(), idField, uid.getUidValue());
+        if (null != result) {
+            log.info("Entry found: ", result.toString());
         }
 
         log.info("Exit {0}", method);
@@ -20,11 +20,14 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
 package org.forgerock.openicf.connectors.xml.query;
 
+import java.util.Map;
+
 import org.forgerock.openicf.connectors.xml.query.abstracts.QueryPart;
 
 
@@ -43,6 +46,11 @@ public class ComparisonQuery implements QueryPart {
 
     @Override
     public String getExpression() {
-        return String.format("%s %s %s", this.name, this.operator, this.value);
+        return String.format("%s %s %s", this.name, this.operator, QueryBuilder.quote(this.value));
+    }
+
+    @Override
+    public String getExpression(Map<String, String> variables) {
+        return String.format("%s %s %s", this.name, this.operator, QueryBuilder.bind(variables, this.value));
     }
 }
@@ -1,5 +1,7 @@
 package org.forgerock.openicf.connectors.xml.query;
 
+import java.util.Map;
+
 import org.forgerock.openicf.connectors.xml.query.abstracts.QueryPart;
 
 public class ContainsQuery implements QueryPart {
@@ -15,24 +17,34 @@ public class ContainsQuery implements QueryPart {
     }
 
     public String getExpression() {
+        return getExpression(QueryBuilder.quote(value));
+    }
+
+    public String getExpression(Map<String, String> variables) {
+        return getExpression(QueryBuilder.bind(variables, value));
+    }
+
+    private String getExpression(String valueExpression) {
         if (not) {
-            return createFalseExpression();
+            return createFalseExpression(valueExpression);
         } else {
-            return createTrueExpression();
+            return createTrueExpression(valueExpression);
         }
     }
 
     public String createFalseExpression() {
-        // format: prefixedName[contains(., 'value')]
+        return createFalseExpression(QueryBuilder.quote(value));
+    }
+
+    private String createFalseExpression(String valueExpression) {
+        // format: fn:not(prefixedName[contains(., 'value')])
         StringBuilder sb = new StringBuilder();
 
         sb.append("fn:not(");
         sb.append("$x/");
         sb.append(this.prefixedName);
         sb.append("[contains(.,");
-        sb.append("'");
-        sb.append(value);
-        sb.append("'");
+        sb.append(valueExpression);
         sb.append(")]");
         sb.append(")");
 
@@ -40,15 +52,17 @@ public class ContainsQuery implements QueryPart {
     }
 
     public String createTrueExpression() {
-        // format: fn:not(prefixedName[contains(., 'value')])
+        return createTrueExpression(QueryBuilder.quote(value));
+    }
+
+    private String createTrueExpression(String valueExpression) {
+        // format: prefixedName[contains(., 'value')]
         StringBuilder sb = new StringBuilder();
 
         sb.append("$x/");
         sb.append(this.prefixedName);
         sb.append("[contains(.,");
-        sb.append("'");
-        sb.append(value);
-        sb.append("'");
+        sb.append(valueExpression);
         sb.append(")]");
 
         return sb.toString();
@@ -20,17 +20,21 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
 
 package org.forgerock.openicf.connectors.xml.query;
 
+import java.util.Map;
+
 import org.forgerock.openicf.connectors.xml.query.abstracts.QueryPart;
 
 public class FunctionQuery implements QueryPart {
 
     private String [] args;
+    private String value;
     private String function;
     private boolean not;
    
@@ -41,47 +45,69 @@ public class FunctionQuery implements QueryPart {
         this.not = not;
     }
 
+    /**
+     * Creates a function-expression with the value as the last argument.
+     */
+    public FunctionQuery(String [] args, String value, String function, boolean not) {
+        this(args, function, not);
+        this.value = value;
+    }
+
     // creates function-expression.
     // all args have to be prefixed with $x/, '', etc
     @Override
     public String getExpression() {
+        return getExpression(null == value ? null : QueryBuilder.quote(value));
+    }
+
+    @Override
+    public String getExpression(Map<String, String> variables) {
+        return getExpression(null == value ? null : QueryBuilder.bind(variables, value));
+    }
+
+    private String getExpression(String valueExpression) {
         if (not) {
-            return createFalseExpression();
+            return createFalseExpression(valueExpression);
         }
         else {
-            return createTrueExpression();
+            return createTrueExpression(valueExpression);
         }
     }
 
-    private String createTrueExpression() {
+    private String createTrueExpression(String valueExpression) {
         StringBuilder sb = new StringBuilder();
         sb.append("fn:");
         sb.append(this.function);
         sb.append("(");
-        addArgs(sb);
+        addArgs(sb, valueExpression);
         sb.append(")");
 
         return sb.toString();
     }
 
-    private String createFalseExpression() {
+    private String createFalseExpression(String valueExpression) {
         StringBuilder sb = new StringBuilder();
         sb.append("fn:");
         sb.append("not(");
         sb.append(this.function);
         sb.append("(");
-        addArgs(sb);
+        addArgs(sb, valueExpression);
         sb.append("))");
 
         return sb.toString();
     }
 
-    private void addArgs(StringBuilder sb) {
+    private void addArgs(StringBuilder sb, String valueExpression) {
         // add args to function
         for (int i = 0; i < args.length; i++) {
             sb.append(args[i]);
             if (i < args.length-1)
                 sb.append(", ");
         }
+        if (null != valueExpression) {
+            if (args.length > 0)
+                sb.append(", ");
+            sb.append(valueExpression);
+        }
     }
 }
\ No newline at end of file
@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
@@ -29,22 +30,43 @@ import org.forgerock.openicf.connectors.xml.query.abstracts.QueryPart;
 import org.forgerock.openicf.connectors.xml.query.abstracts.Query;
 import org.forgerock.openicf.connectors.xml.XMLHandlerImpl;
 import org.forgerock.openicf.connectors.xml.util.NamespaceLookupUtil;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.forgerock.openicf.connectors.xml.XMLHandlerImpl;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 
+/**
+ * Builds the XQuery of a search.
+ * <p/>
+ * {@link #toString()} gives the query with the values of the filter as
+ * literals. {@link #getParameterizedQuery()} gives the query with the values
+ * declared as external variables, they are bound from {@link #getVariables()}
+ * when the query is evaluated. Searches which only differ in the values have
+ * the same parameterized query, so its compiled expression can be reused.
+ */
 public class QueryBuilder {
 
+    /**
+     * Prefix of the names of the external variables.
+     */
+    public static final String VARIABLE_PREFIX = "v";
+
     private Query query;
+    private String namespacePart;
     private String selectPart;
     private String wherePart;
+    private String parameterizedWherePart;
     private String returnPart;
+    private final Map<String, String> variables = new LinkedHashMap<String, String>();
 
     public QueryBuilder(Query query, ObjectClass objClass) {
         this.query = query;
         createSelectPart(objClass);
         wherePart = "where ";
+        parameterizedWherePart = "where ";
         createReturnPart();
 
         if (query != null) {
@@ -56,6 +78,8 @@ public class QueryBuilder {
         StringBuilder sb = new StringBuilder();
         appendIcfNamespace(sb);
         appendRINamespace(sb);
+        this.namespacePart = sb.toString();
+        sb = new StringBuilder();
         appendFLWORExpression(sb, objClass);
         this.selectPart = sb.toString();
     }
@@ -70,16 +94,62 @@ public class QueryBuilder {
         while (it.hasNext()) {
             QueryPart part = it.next();
             wherePart += part.getExpression();
+            parameterizedWherePart += part.getExpression(variables);
         }
     }
 
+    private boolean hasWherePart() {
+        return query != null && !query.getParts().isEmpty();
+    }
+
     @Override
     public String toString() {
-        if (query == null || query.getParts().isEmpty()) {
-            return String.format("%s %s", selectPart, returnPart);
+        if (!hasWherePart()) {
+            return String.format("%s%s %s", namespacePart, selectPart, returnPart);
         } else {
-            return String.format("%s %s %s", selectPart, wherePart, returnPart);
+            return String.format("%s%s %s %s", namespacePart, selectPart, wherePart, returnPart);
+        }
+    }
+
+    /**
+     * Returns the query with the values declared as external variables.
+     */
+    public String getParameterizedQuery() {
+        StringBuilder sb = new StringBuilder(namespacePart);
+        for (String name : variables.keySet()) {
+            sb.append("declare variable $").append(name).append(" as xs:string external; ");
         }
+        sb.append(selectPart);
+        if (hasWherePart()) {
+            sb.append(" ").append(parameterizedWherePart);
+        }
+        sb.append(" ").append(returnPart);
+        return sb.toString();
+    }
+
+    /**
+     * Returns the values of the external variables of the
+     * {@link #getParameterizedQuery() parameterized query} by name.
+     */
+    public Map<String, String> getVariables() {
+        return Collections.unmodifiableMap(variables);
+    }
+
+    /**
+     * Returns the value as an XQuery string literal.
+     */
+    public static String quote(String value) {
+        return "'" + value.replaceAll("'", "''") + "'";
+    }
+
+    /**
+     * Adds the value as the next external variable and returns the reference
+     * to the variable.
+     */
+    public static String bind(Map<String, String> variables, String value) {
+        String name = VARIABLE_PREFIX + variables.size();
+        variables.put(name, value);
+        return "$" + name;
     }
 
     private void appendIcfNamespace(StringBuilder sb) {
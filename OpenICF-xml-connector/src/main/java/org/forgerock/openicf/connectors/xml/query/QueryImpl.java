@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
@@ -31,6 +32,7 @@ import org.forgerock.openicf.connectors.xml.query.abstracts.Query;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
 
 
 public class QueryImpl implements Query {
@@ -95,5 +97,9 @@ public class QueryImpl implements Query {
         public String getExpression() {
             return this.value;
         }
+
+        public String getExpression(Map<String, String> variables) {
+            return this.value;
+        }
     }
 }
\ No newline at end of file
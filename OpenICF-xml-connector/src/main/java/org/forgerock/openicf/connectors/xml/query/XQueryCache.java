@@ -0,0 +1,143 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.connectors.xml.query;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.xquery.XQConnection;
+import javax.xml.xquery.XQException;
+import javax.xml.xquery.XQPreparedExpression;
+
+import net.sf.saxon.xqj.SaxonXQDataSource;
+import org.identityconnectors.common.logging.Log;
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
+
+/**
+ * Compiled XQuery expressions of one XML store, by query text.
+ * <p/>
+ * The searches of the connector declare the values of the filter as external variables, see
+ * {@link QueryBuilder#getParameterizedQuery()}, so one expression serves all the searches which only differ in the
+ * values. The cache lives as long as the handler of the XML file.
+ * <p/>
+ * All the expressions are prepared on a single Saxon connection. A prepared expression is not thread safe, it is
+ * {@link #acquire(String) acquired} for the time of one evaluation and {@link #release(String, XQPreparedExpression)
+ * released} afterwards, concurrent evaluations of the same query prepare their own copy. At most
+ * {@link #DEFAULT_SIZE} idle expressions are kept, the least recently used are closed first.
+ */
+public class XQueryCache {
+
+    /**
+     * Default number of idle expressions kept by the cache.
+     */
+    public static final int DEFAULT_SIZE = 64;
+
+    /**
+     * Setup logging for the {@link XQueryCache}.
+     */
+    private static final Log log = Log.getLog(XQueryCache.class);
+
+    private final int size;
+
+    private final LinkedHashMap<String, XQPreparedExpression> idle;
+
+    private XQConnection connection;
+
+    public XQueryCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    public XQueryCache(int size) {
+        this.size = size;
+        this.idle = new LinkedHashMap<String, XQPreparedExpression>(16, 0.75f, true);
+        try {
+            connection = new SaxonXQDataSource().getConnection();
+        } catch (XQException ex) {
+            throw ConnectorException.wrap(ex);
+        }
+    }
+
+    /**
+     * Takes the idle expression of the query out of the cache, or prepares a new one.
+     *
+     * @param query the XQuery text
+     * @return an expression which must be released after the evaluation
+     */
+    public synchronized XQPreparedExpression acquire(String query) {
+        if (null == connection) {
+            throw new ConnectorException("XQuery cache is closed");
+        }
+        XQPreparedExpression expression = idle.remove(query);
+        if (null == expression) {
+            try {
+                expression = connection.prepareExpression(query);
+                log.ok("Prepared query: {0}", query);
+            } catch (XQException ex) {
+                throw ConnectorException.wrap(ex);
+            }
+        }
+        return expression;
+    }
+
+    /**
+     * Returns an expression to the cache once its results have been read.
+     *
+     * @param query the XQuery text the expression was acquired for
+     * @param expression the expression
+     */
+    public synchronized void release(String query, XQPreparedExpression expression) {
+        if (null == connection) {
+            close(expression);
+            return;
+        }
+        XQPreparedExpression previous = idle.put(query, expression);
+        if (null != previous) {
+            close(previous);
+        }
+        if (idle.size() > size) {
+            Iterator<Map.Entry<String, XQPreparedExpression>> eldest = idle.entrySet().iterator();
+            close(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Closes the idle expressions and the connection, the expressions acquired before are closed when released.
+     */
+    public synchronized void close() {
+        for (XQPreparedExpression expression : idle.values()) {
+            close(expression);
+        }
+        idle.clear();
+        if (null != connection) {
+            try {
+                connection.close();
+            } catch (XQException ex) {
+                log.warn(ex, "Failed to close XQuery connection");
+            }
+            connection = null;
+        }
+    }
+
+    private void close(XQPreparedExpression expression) {
+        try {
+            expression.close();
+        } catch (XQException ex) {
+            log.warn(ex, "Failed to close XQuery expression");
+        }
+    }
+}
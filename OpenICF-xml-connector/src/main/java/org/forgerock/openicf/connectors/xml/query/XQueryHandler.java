@@ -20,17 +20,24 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
 
 package org.forgerock.openicf.connectors.xml.query;
 
+import java.util.Collections;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
 import javax.xml.xquery.XQConnection;
 import javax.xml.xquery.XQConstants;
 import javax.xml.xquery.XQDataSource;
+import javax.xml.xquery.XQDynamicContext;
 import javax.xml.xquery.XQException;
 import javax.xml.xquery.XQExpression;
+import javax.xml.xquery.XQPreparedExpression;
 import javax.xml.xquery.XQResultSequence;
 import net.sf.saxon.xqj.SaxonXQDataSource;
 import org.identityconnectors.common.logging.Log;
@@ -42,7 +49,11 @@ public class XQueryHandler {
     private XQDataSource datasource;
     private XQConnection connection;
     private XQExpression expression;
+    private XQueryCache cache;
+    private XQPreparedExpression preparedExpression;
+    private XQResultSequence sequence;
     private String query;
+    private Map<String, String> variables = Collections.emptyMap();
     private Document document;
 
     /**
@@ -57,6 +68,28 @@ public class XQueryHandler {
         initialize();
     }
 
+    /**
+     * Evaluates the query with an expression of the cache instead of compiling it.
+     */
+    public XQueryHandler(String query, Document document, XQueryCache cache) {
+        this(query, Collections.<String, String>emptyMap(), document, cache);
+    }
+
+    /**
+     * Evaluates the query with an expression of the cache, the external
+     * variables of the query are bound to the values.
+     *
+     * @param variables the values of the external variables by name
+     */
+    public XQueryHandler(String query, Map<String, String> variables, Document document, XQueryCache cache) {
+        this.query = query;
+        this.variables = variables;
+        this.document = document;
+        this.cache = cache;
+
+        preparedExpression = cache.acquire(query);
+    }
+
     private void initialize() {
         final String method = "initialize";
         log.info("Entry {0}", method);
@@ -79,9 +112,15 @@ public class XQueryHandler {
         final String method = "getResultSequence";
         log.info("Entry {0}", method);
 
-        XQResultSequence sequence = null;
         try {
-            sequence = expression.executeQuery(query);
+            if (null != preparedExpression) {
+                preparedExpression.bindNode(XQConstants.CONTEXT_ITEM, document, null);
+                bindVariables(preparedExpression);
+                sequence = preparedExpression.executeQuery();
+            } else {
+                bindVariables(expression);
+                sequence = expression.executeQuery(query);
+            }
         }
         catch (XQException ex) {
             log.warn(ex, method);
@@ -93,10 +132,34 @@ public class XQueryHandler {
         return sequence;
     }
 
+    private void bindVariables(XQDynamicContext context) throws XQException {
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            context.bindString(new QName(variable.getKey()), variable.getValue(), null);
+        }
+    }
+
     public void close() {
         final String method = "close";
         log.info("Entry {0}", method);
 
+        if (null != preparedExpression) {
+            try {
+                if (null != sequence) {
+                    sequence.close();
+                }
+                cache.release(query, preparedExpression);
+            }
+            catch (XQException ex) {
+                log.warn(ex, method);
+                throw ConnectorException.wrap(ex);
+            }
+            finally {
+                preparedExpression = null;
+            }
+            log.info("Exit {0}", method);
+            return;
+        }
+
         try {
             connection.close();
             expression.close();
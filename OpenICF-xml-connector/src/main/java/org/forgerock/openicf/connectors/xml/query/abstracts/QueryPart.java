@@ -20,14 +20,26 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
 
 package org.forgerock.openicf.connectors.xml.query.abstracts;
 
+import java.util.Map;
+
 public interface QueryPart {
 
     public String getExpression();
 
+    /**
+     * Returns the expression with its values replaced by external variables,
+     * so queries which only differ in the values have the same text.
+     *
+     * @param variables the values of the external variables by name, the
+     *            values of this part are added in order
+     */
+    public String getExpression(Map<String, String> variables);
+
 }
@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import org.identityconnectors.framework.common.exceptions.AlreadyExistsException;
 import org.identityconnectors.framework.common.exceptions.UnknownUidException;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
@@ -235,6 +236,33 @@ public class UpdateEntryTests {
         AssertJUnit.assertEquals(lastName, AttributeUtil.getStringValue(connObjAccount.getAttributeByName(ATTR_ACCOUNT_LAST_NAME)));
     }
 
+    @Test
+    public void renamedEntryShouldBeFoundByNewName() {
+        final String newName = "renamed";
+
+        // Setup account
+        Uid insertedUid = createTestAccount();
+
+        Set<Attribute> attrSet = new HashSet<Attribute>();
+        attrSet.add(AttributeBuilder.build(ATTR_NAME, newName));
+        handler.update(ObjectClass.ACCOUNT, insertedUid, attrSet);
+
+        // The old name is free again
+        Uid secondUid = createTestAccount();
+        AssertJUnit.assertNotNull(secondUid);
+
+        Set<Attribute> renamed = new HashSet<Attribute>();
+        renamed.add(AttributeBuilder.build(ATTR_NAME, newName));
+        renamed.add(AttributeBuilder.buildPassword(ATTR_ACCOUNT_VALUE_PASSWORD.toCharArray()));
+        renamed.add(AttributeBuilder.build(ATTR_ACCOUNT_LAST_NAME, ATTR_ACCOUNT_VALUE_LAST_NAME));
+        try {
+            handler.create(ObjectClass.ACCOUNT, renamed);
+            Assert.fail("Create with the new name should fail");
+        } catch (AlreadyExistsException e) {
+            // expected
+        }
+    }
+
     private Uid createTestAccount() {
         return handler.create(ObjectClass.ACCOUNT, getRequiredAccountAttributes());
     }
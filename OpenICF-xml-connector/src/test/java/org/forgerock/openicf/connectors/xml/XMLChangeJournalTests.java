@@ -0,0 +1,159 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance
+ * with the License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for
+ * the specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file
+ * and include the License file at legal/CDDLv1.0.txt. If applicable, add the following
+ * below the CDDL Header, with the fields enclosed by brackets [] replaced by your
+ * own identifying information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 3A Systems, LLC.
+ */
+package org.forgerock.openicf.connectors.xml;
+
+import org.testng.annotations.Test;
+import org.testng.annotations.BeforeMethod;
+import org.testng.AssertJUnit;
+import org.forgerock.openicf.connectors.xml.query.QueryBuilder;
+import org.forgerock.openicf.connectors.xml.xsdparser.SchemaParser;
+import static org.forgerock.openicf.connectors.xml.XmlConnectorTestUtil.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.Uid;
+
+public class XMLChangeJournalTests {
+
+    private XMLConfiguration config;
+    private SchemaParser parser;
+
+    @BeforeMethod
+    public void init() {
+        config = new XMLConfiguration();
+        config.setXmlFilePath(getRandomXMLFile());
+        config.setXsdFilePath(XSD_SCHEMA_FILEPATH);
+        config.setCreateFileIfNotExists(true);
+        config.setChangeJournal(true);
+        parser = new SchemaParser(XMLConnector.class, config.getXsdFilePath());
+    }
+
+    private XMLHandlerImpl newHandler() {
+        XMLHandlerImpl handler = new XMLHandlerImpl(config, parser.parseSchema(), parser.getXsdSchema());
+        handler.init();
+        return handler;
+    }
+
+    private int countAccounts(XMLHandler handler) {
+        return handler.search(new QueryBuilder(null, ObjectClass.ACCOUNT).toString(), ObjectClass.ACCOUNT).size();
+    }
+
+    @Test
+    public void changesShouldSurviveWithoutDispose() throws IOException {
+        XMLHandlerImpl handler = newHandler();
+        Uid first = handler.create(ObjectClass.ACCOUNT, getRequiredAccountAttributes());
+
+        Set<Attribute> second = new HashSet<Attribute>();
+        second.add(AttributeBuilder.build(ATTR_NAME, "second"));
+        second.add(AttributeBuilder.buildPassword(ATTR_ACCOUNT_VALUE_PASSWORD.toCharArray()));
+        second.add(AttributeBuilder.build(ATTR_ACCOUNT_LAST_NAME, ATTR_ACCOUNT_VALUE_LAST_NAME));
+        Uid secondUid = handler.create(ObjectClass.ACCOUNT, second);
+
+        Set<Attribute> update = new HashSet<Attribute>();
+        update.add(AttributeBuilder.build(ATTR_ACCOUNT_FIRST_NAME, "James"));
+        handler.update(ObjectClass.ACCOUNT, first, update);
+        handler.delete(ObjectClass.ACCOUNT, secondUid);
+
+        // the handler is dropped without dispose, as in a crash
+        AssertJUnit.assertFalse(config.getXmlFilePath().exists());
+        AssertJUnit.assertTrue(XMLChangeJournal.getFile(config.getXmlFilePath()).exists());
+
+        File journal = XMLChangeJournal.getFile(config.getXmlFilePath());
+        File copy = new File(journal.getPath() + ".copy");
+        Files.copy(journal.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        XMLHandlerImpl recovered = newHandler();
+        AssertJUnit.assertEquals(4, recovered.getPendingChanges());
+        AssertJUnit.assertEquals(1, countAccounts(recovered));
+
+        recovered.dispose();
+        AssertJUnit.assertTrue(config.getXmlFilePath().exists());
+        AssertJUnit.assertFalse(journal.exists());
+
+        // crash after the file was written but before the journal was cleared
+        Files.move(copy.toPath(), journal.toPath());
+        XMLHandlerImpl reloaded = newHandler();
+        AssertJUnit.assertEquals(1, countAccounts(reloaded));
+        reloaded.dispose();
+    }
+
+    @Test
+    public void thresholdShouldWriteFileBeforeDispose() {
+        config.setChangeJournal(false);
+        config.setFlushThreshold(2);
+        ConcurrentXMLHandler handler =
+                new ConcurrentXMLHandler(config, parser.parseSchema(), parser.getXsdSchema());
+        handler.init();
+
+        Uid uid = handler.create(ObjectClass.ACCOUNT, getRequiredAccountAttributes());
+        AssertJUnit.assertFalse(config.getXmlFilePath().exists());
+
+        Set<Attribute> update = new HashSet<Attribute>();
+        update.add(AttributeBuilder.build(ATTR_ACCOUNT_FIRST_NAME, "James"));
+        handler.update(ObjectClass.ACCOUNT, uid, update);
+        AssertJUnit.assertTrue(config.getXmlFilePath().exists());
+
+        handler.dispose();
+    }
+
+    @Test
+    public void searchShouldNotWriteFile() {
+        config.setChangeJournal(false);
+        ConcurrentXMLHandler handler =
+                new ConcurrentXMLHandler(config, parser.parseSchema(), parser.getXsdSchema());
+        handler.init();
+        handler.create(ObjectClass.ACCOUNT, getRequiredAccountAttributes());
+        handler.dispose();
+        File xmlFile = config.getXmlFilePath();
+        AssertJUnit.assertTrue(xmlFile.exists());
+
+        // a write would change the time
+        AssertJUnit.assertTrue(xmlFile.setLastModified(xmlFile.lastModified() - 10000L));
+        long lastModified = xmlFile.lastModified();
+        handler.init();
+        AssertJUnit.assertEquals(1, countAccounts(handler));
+        handler.dispose();
+        AssertJUnit.assertEquals(lastModified, xmlFile.lastModified());
+    }
+
+    @Test
+    public void schedulerShouldWriteFileAfterLastDispose() throws InterruptedException {
+        config.setChangeJournal(false);
+        config.setFlushInterval(1);
+        ConcurrentXMLHandler handler =
+                new ConcurrentXMLHandler(config, parser.parseSchema(), parser.getXsdSchema());
+        handler.init();
+        handler.create(ObjectClass.ACCOUNT, getRequiredAccountAttributes());
+        handler.dispose();
+
+        // the next instance finds the change still pending
+        handler.init();
+        AssertJUnit.assertEquals(1, countAccounts(handler));
+        handler.dispose();
+
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (!config.getXmlFilePath().exists() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100L);
+        }
+        AssertJUnit.assertTrue(config.getXmlFilePath().exists());
+    }
+}
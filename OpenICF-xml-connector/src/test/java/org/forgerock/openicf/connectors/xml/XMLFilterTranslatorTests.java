@@ -19,6 +19,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
@@ -42,6 +43,7 @@ import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
 import org.identityconnectors.framework.common.objects.filter.ContainsAllValuesFilter;
 import org.identityconnectors.framework.common.objects.filter.ContainsFilter;
 import org.identityconnectors.framework.common.objects.filter.EndsWithFilter;
@@ -343,9 +345,36 @@ public class XMLFilterTranslatorTests {
         AssertJUnit.assertEquals(1, results.size());
     }
 
-    private List<ConnectorObject> getResultsFromQuery(Query query) {
+    @Test
+    public void queriesWithOtherValuesShouldHaveTheSameParameterizedQuery() {
+        Query vader = filterTranslator.createStartsWithExpression(
+                new StartsWithFilter(AttributeBuilder.build(ATTR_ACCOUNT_FIRST_NAME, "D")), false);
+        Query quoted = filterTranslator.createStartsWithExpression(
+                new StartsWithFilter(AttributeBuilder.build(ATTR_ACCOUNT_FIRST_NAME, "D'")), false);
+        QueryBuilder vaderBuilder = new QueryBuilder(vader, ObjectClass.ACCOUNT);
+        QueryBuilder quotedBuilder = new QueryBuilder(quoted, ObjectClass.ACCOUNT);
+
+        AssertJUnit.assertEquals(vaderBuilder.getParameterizedQuery(), quotedBuilder.getParameterizedQuery());
+        AssertJUnit.assertFalse(vaderBuilder.getParameterizedQuery().contains("'D'"));
+        AssertJUnit.assertEquals("D", vaderBuilder.getVariables().get("v0"));
+        AssertJUnit.assertEquals("D'", quotedBuilder.getVariables().get("v0"));
+
+        AssertJUnit.assertEquals(1, getResultsFromQuery(vader).size());
+        AssertJUnit.assertEquals(0, getResultsFromQuery(quoted).size());
+        // the literal query gives the same results
+        AssertJUnit.assertEquals(0, xmlHandler.search(quotedBuilder.toString(), ObjectClass.ACCOUNT).size());
+    }
 
-        return new ArrayList<ConnectorObject>(
-                xmlHandler.search(new QueryBuilder(query, ObjectClass.ACCOUNT).toString(), ObjectClass.ACCOUNT));
+    private List<ConnectorObject> getResultsFromQuery(Query query) {
+        QueryBuilder queryBuilder = new QueryBuilder(query, ObjectClass.ACCOUNT);
+        final List<ConnectorObject> results = new ArrayList<ConnectorObject>();
+        xmlHandler.search(queryBuilder.getParameterizedQuery(), queryBuilder.getVariables(), ObjectClass.ACCOUNT,
+                new ResultsHandler() {
+                    public boolean handle(ConnectorObject connectorObject) {
+                        results.add(connectorObject);
+                        return true;
+                    }
+                });
+        return results;
     }
 }
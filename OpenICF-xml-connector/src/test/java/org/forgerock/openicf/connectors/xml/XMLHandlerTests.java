@@ -20,6 +20,7 @@
  * with the fields enclosed by brackets [] replaced by
  * your own identifying information:
  * "Portions Copyrighted 2010 [name of copyright owner]"
+ * Portions Copyrighted 2026 3A Systems, LLC
  *
  * $Id$
  */
@@ -32,8 +33,13 @@ import org.forgerock.openicf.connectors.xml.query.QueryBuilder;
 import org.forgerock.openicf.connectors.xml.query.abstracts.Query;
 import org.forgerock.openicf.connectors.xml.xsdparser.SchemaParser;
 import static org.forgerock.openicf.connectors.xml.XmlConnectorTestUtil.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 
 import java.util.Set;
@@ -42,6 +48,7 @@ import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
 import org.identityconnectors.framework.common.objects.filter.EqualsFilter;
 
 public class XMLHandlerTests {
@@ -93,6 +100,66 @@ public class XMLHandlerTests {
         AssertJUnit.assertEquals(0, hits.size());
     }
 
+    @Test
+    public void searchShouldStopWhenHandlerReturnsFalse() {
+        Set<Attribute> attributes = new HashSet<Attribute>();
+        attributes.add(AttributeBuilder.build(ATTR_NAME, "second"));
+        attributes.add(AttributeBuilder.buildPassword(ATTR_ACCOUNT_VALUE_PASSWORD.toCharArray()));
+        attributes.add(AttributeBuilder.build(ATTR_ACCOUNT_LAST_NAME, ATTR_ACCOUNT_VALUE_LAST_NAME));
+        handler.create(ObjectClass.ACCOUNT, attributes);
+
+        QueryBuilder queryBuilder = new QueryBuilder(null, ObjectClass.ACCOUNT);
+        AssertJUnit.assertTrue(handler.search(queryBuilder.toString(), ObjectClass.ACCOUNT).size() > 1);
+
+        final List<ConnectorObject> hits = new ArrayList<ConnectorObject>();
+        handler.search(queryBuilder.toString(), ObjectClass.ACCOUNT, new ResultsHandler() {
+            public boolean handle(ConnectorObject connectorObject) {
+                hits.add(connectorObject);
+                return false;
+            }
+        });
+        AssertJUnit.assertEquals(1, hits.size());
+    }
+
+    @Test
+    public void documentShouldBeReadAgainOnlyWhenFileIsChanged() throws IOException {
+        XMLConfiguration config = new XMLConfiguration();
+        config.setXmlFilePath(getRandomXMLFile());
+        config.setXsdFilePath(XSD_SCHEMA_FILEPATH);
+        config.setCreateFileIfNotExists(true);
+        SchemaParser parser = new SchemaParser(XMLConnector.class, config.getXsdFilePath());
+        XMLHandlerImpl impl = new XMLHandlerImpl(config, parser.parseSchema(), parser.getXsdSchema());
+        QueryBuilder queryBuilder = new QueryBuilder(null, ObjectClass.ACCOUNT);
+
+        impl.init();
+        impl.create(ObjectClass.ACCOUNT, getRequiredAccountAttributes());
+        impl.dispose();
+        File xmlFile = config.getXmlFilePath();
+        File copy = new File(xmlFile.getPath() + ".copy");
+        Files.copy(xmlFile.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        impl.init();
+        Set<Attribute> attributes = new HashSet<Attribute>();
+        attributes.add(AttributeBuilder.build(ATTR_NAME, "second"));
+        attributes.add(AttributeBuilder.buildPassword(ATTR_ACCOUNT_VALUE_PASSWORD.toCharArray()));
+        attributes.add(AttributeBuilder.build(ATTR_ACCOUNT_LAST_NAME, ATTR_ACCOUNT_VALUE_LAST_NAME));
+        impl.create(ObjectClass.ACCOUNT, attributes);
+        impl.dispose();
+
+        // the file is not read again while it has not been changed
+        long lastModified = xmlFile.lastModified();
+        Files.copy(copy.toPath(), xmlFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        AssertJUnit.assertTrue(xmlFile.setLastModified(lastModified));
+        impl.init();
+        AssertJUnit.assertEquals(2, impl.search(queryBuilder.toString(), ObjectClass.ACCOUNT).size());
+
+        AssertJUnit.assertTrue(xmlFile.setLastModified(lastModified - 10000L));
+        impl.init();
+        AssertJUnit.assertEquals(1, impl.search(queryBuilder.toString(), ObjectClass.ACCOUNT).size());
+        impl.dispose();
+        copy.delete();
+    }
+
     @Test
     public void fistNameShouldContainValueOfTypeString() {
         Attribute attribute = existingUsrConObj.getAttributeByName(ATTR_ACCOUNT_FIRST_NAME);